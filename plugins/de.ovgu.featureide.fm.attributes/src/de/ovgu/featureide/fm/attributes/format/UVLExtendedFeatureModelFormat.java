@@ -212,6 +212,8 @@ public class UVLExtendedFeatureModelFormat extends UVLFeatureModelFormat {
 
 	@Override
 	public boolean supportsContent(LazyReader reader) {
+		// The extended attribute name may appear after the part of the file that was read so far
+		while (reader.expand()) {}
 		return supportsContent((CharSequence) reader);
 	}
 
@@ -53,6 +53,9 @@ import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.EmptyCNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureTreeCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.SatSolverSessionCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverSession;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -157,9 +160,20 @@ public class AnalysesCollection {
 		private AnalysisResult<R> analysisResult;
 
 		private final Class<A> analysis;
+		private final boolean shareSolver;
 
 		public AnalysisWrapper(Class<A> analysis) {
+			this(analysis, false);
+		}
+
+		/**
+		 * @param analysis the class of the analysis
+		 * @param shareSolver whether the analysis should borrow the solver of the formula's {@link SatSolverSession}. The analysis must provide a constructor
+		 *        that accepts an {@link ISatSolver}.
+		 */
+		public AnalysisWrapper(Class<A> analysis, boolean shareSolver) {
 			this.analysis = analysis;
+			this.shareSolver = shareSolver;
 		}
 
 		public R getResult() {
@@ -182,14 +196,20 @@ public class AnalysesCollection {
 				this.monitor = monitor != null ? monitor : new NullMonitor<>();
 				R result = null;
 				if (curAnalysisResult == null) {
-					final AbstractAnalysis<R> analysisInstance = createNewAnalysis();
+					final SatSolverSession session = shareSolver ? formula.getElement(new SatSolverSessionCreator()) : null;
+					final ISatSolver sharedSolver = session != null ? session.borrow() : null;
 					try {
+						final AbstractAnalysis<R> analysisInstance = createNewAnalysis(sharedSolver);
 						result = LongRunningWrapper.runMethod(analysisInstance, this.monitor);
 						curAnalysisResult = result == null ? null : analysisInstance.getResult();
 					} catch (final MethodCancelException e) {
 
 					} catch (final Exception e) {
 						Logger.logError(e);
+					} finally {
+						if (sharedSolver != null) {
+							session.release(sharedSolver);
+						}
 					}
 					synchronized (this) {
 						if (curSyncObject == this.syncObject) {
@@ -204,10 +224,11 @@ public class AnalysesCollection {
 			}
 		}
 
-		private A createNewAnalysis() {
+		private A createNewAnalysis(ISatSolver sharedSolver) {
 			try {
 				final CNF cnf = getCNF();
-				final A newInstance = analysis.getConstructor(CNF.class).newInstance(cnf);
+				final A newInstance = sharedSolver != null ? analysis.getConstructor(ISatSolver.class).newInstance(sharedSolver)
+					: analysis.getConstructor(CNF.class).newInstance(cnf);
 				configureAnalysis(cnf, newInstance);
 				return newInstance;
 			} catch (
@@ -288,6 +309,28 @@ public class AnalysesCollection {
 
 	}
 
+	static final class CoreDeadAnalysisWrapper extends AnalysisWrapper<LiteralSet, CoreDeadAnalysis> {
+
+		private int threads = 1;
+
+		private CoreDeadAnalysisWrapper() {
+			super(CoreDeadAnalysis.class, true);
+		}
+
+		@Override
+		protected void configureAnalysis(CNF cnf, CoreDeadAnalysis analysis) {
+			analysis.setThreads(threads);
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = Math.max(1, threads);
+		}
+	}
+
 	static final class IndeterminesAnalzsisWrapper extends AnalysisWrapper<LiteralSet, IndeterminedAnalysis> {
 
 		private IndeterminesAnalzsisWrapper(Class<IndeterminedAnalysis> analysis) {
@@ -366,7 +409,7 @@ public class AnalysesCollection {
 		private List<IFeature> optionalFeatures;
 
 		private FalseOptionalAnalysisWrapper() {
-			super(IndependentRedundancyAnalysis.class);
+			super(IndependentRedundancyAnalysis.class, true);
 		}
 
 		@Override
@@ -389,9 +432,9 @@ public class AnalysesCollection {
 	}
 
 	private FeatureModelFormula formula;
-	final AnalysisWrapper<Boolean, HasSolutionAnalysis> validAnalysis = new AnalysisWrapper<>(HasSolutionAnalysis.class);
-	final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> atomicSetAnalysis = new AnalysisWrapper<>(AtomicSetAnalysis.class);
-	final AnalysisWrapper<LiteralSet, CoreDeadAnalysis> coreDeadAnalysis = new AnalysisWrapper<>(CoreDeadAnalysis.class);
+	final AnalysisWrapper<Boolean, HasSolutionAnalysis> validAnalysis = new AnalysisWrapper<>(HasSolutionAnalysis.class, true);
+	final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> atomicSetAnalysis = new AnalysisWrapper<>(AtomicSetAnalysis.class, true);
+	final CoreDeadAnalysisWrapper coreDeadAnalysis = new CoreDeadAnalysisWrapper();
 	final FalseOptionalAnalysisWrapper foAnalysis = new FalseOptionalAnalysisWrapper();
 	final AnalysisWrapper<LiteralSet, IndeterminedAnalysis> determinedAnalysis = new IndeterminesAnalzsisWrapper(IndeterminedAnalysis.class);
 	final ConstraintAnalysisWrapper<RemoveRedundancyAnalysis> constraintRedundancyAnalysis =
@@ -457,6 +500,7 @@ public class AnalysesCollection {
 		while (thisAnalysesIterator.hasNext()) {
 			thisAnalysesIterator.next().setEnabled(otherAnalysesIterator.next().isEnabled());
 		}
+		coreDeadAnalysis.setThreads(otherCollection.coreDeadAnalysis.getThreads());
 	}
 
 	/**
@@ -514,6 +558,17 @@ public class AnalysesCollection {
 		constraintAnomaliesAnalysis.setEnabled(calculateDeadConstraints);
 	}
 
+	public int getCoreDeadAnalysisThreads() {
+		return coreDeadAnalysis.getThreads();
+	}
+
+	/**
+	 * Defines the number of threads used for calculating core and dead features. The result does not depend on the number of threads.
+	 */
+	public void setCoreDeadAnalysisThreads(int threads) {
+		coreDeadAnalysis.setThreads(threads);
+	}
+
 	public boolean isRunCalculationAutomatically() {
 		return FeatureModelProperty.isRunCalculationAutomatically(formula.getFeatureModel());
 	}
@@ -37,9 +37,16 @@ public class CNF implements Serializable {
 
 	private static final long serialVersionUID = -5140589732063007073L;
 
-	protected final ClauseList clauses;
+	/**
+	 * The clauses of this CNF. Is {@code null} as long as the clauses are only stored in {@link #compactClauses}.<br> Both fields are volatile, since a CNF
+	 * may be shared between threads and is converted lazily by {@link #getClauses()}. During the conversion, {@link #clauses} is set before
+	 * {@link #compactClauses} is reset, such that readers always see at least one of them.
+	 */
+	protected volatile ClauseList clauses;
 	protected Variables variables;
 
+	private volatile CompactClauseList compactClauses;
+
 	public CNF() {
 		clauses = new ClauseList();
 	}
@@ -59,6 +66,14 @@ public class CNF implements Serializable {
 		this.clauses = new ClauseList(clauses);
 	}
 
+	/**
+	 * Constructs a CNF that keeps its clauses in the given compact list until {@link #getClauses()} is called for the first time.
+	 */
+	public CNF(Variables mapping, CompactClauseList clauses) {
+		variables = mapping;
+		compactClauses = clauses;
+	}
+
 	/**
 	 * Copy constructor. <br> Also copies clause list (no deep copy).
 	 */
@@ -71,15 +86,39 @@ public class CNF implements Serializable {
 	 */
 	public CNF(CNF oldSatInstance, boolean copyClauses) {
 		variables = oldSatInstance.variables.clone();
-		clauses = copyClauses ? new ClauseList(oldSatInstance.clauses) : new ClauseList();
+		if (!copyClauses) {
+			clauses = new ClauseList();
+		} else {
+			final List<LiteralSet> oldClauses = oldSatInstance.getClauseView();
+			if (oldClauses instanceof CompactClauseList) {
+				compactClauses = new CompactClauseList((CompactClauseList) oldClauses);
+			} else {
+				clauses = new ClauseList((ClauseList) oldClauses);
+			}
+		}
 	}
 
 	public void addClause(LiteralSet clause) {
-		clauses.add(clause);
+		final CompactClauseList compactClauses = this.compactClauses;
+		if ((compactClauses != null) && (clause.getClass() == LiteralSet.class)) {
+			compactClauses.add(clause);
+		} else {
+			getClauses().add(clause);
+		}
 	}
 
 	public void addClauses(Collection<LiteralSet> clauses) {
-		this.clauses.addAll(clauses);
+		for (final LiteralSet clause : clauses) {
+			addClause(clause);
+		}
+	}
+
+	/**
+	 * Replaces all clauses of this CNF with the given list.
+	 */
+	public synchronized void setClauses(CompactClauseList clauses) {
+		this.clauses = null;
+		compactClauses = clauses;
 	}
 
 	public void setVariables(Variables variables) {
@@ -112,6 +151,7 @@ public class CNF implements Serializable {
 	public CNF normalize() {
 		if (isSliced()) {
 			final SlicedVariables slicedVariables = (SlicedVariables) variables;
+			final List<LiteralSet> clauses = getClauseView();
 			final ClauseList newClauses = new ClauseList(clauses.size());
 			for (final LiteralSet literalSet : clauses) {
 				newClauses.add(variables.convertToInternal(literalSet));
@@ -128,10 +168,43 @@ public class CNF implements Serializable {
 		}
 	}
 
+	/**
+	 * Returns the modifiable clause list of this CNF. If the clauses are currently stored in a {@link CompactClauseList}, they are converted into a
+	 * {@link ClauseList} first.
+	 *
+	 * @return the clause list
+	 *
+	 * @see #getClauseView()
+	 */
 	public ClauseList getClauses() {
+		ClauseList clauses = this.clauses;
+		if (clauses == null) {
+			synchronized (this) {
+				clauses = this.clauses;
+				if (clauses == null) {
+					clauses = new ClauseList(compactClauses);
+					this.clauses = clauses;
+					compactClauses = null;
+				}
+			}
+		}
 		return clauses;
 	}
 
+	/**
+	 * Returns the clauses of this CNF without converting them. The returned list must not be modified.
+	 *
+	 * @return either a {@link CompactClauseList} or a {@link ClauseList}
+	 *
+	 * @see #getClauses()
+	 */
+	public List<LiteralSet> getClauseView() {
+		// Read compactClauses first, as it is only reset after clauses was set
+		final CompactClauseList compactClauses = this.compactClauses;
+		final ClauseList clauses = this.clauses;
+		return clauses != null ? clauses : compactClauses;
+	}
+
 	@Override
 	public CNF clone() {
 		return new CNF(this);
@@ -141,7 +214,7 @@ public class CNF implements Serializable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = (prime * result) + ((clauses == null) ? 0 : clauses.hashCode());
+		result = (prime * result) + getClauseView().hashCode();
 		result = (prime * result) + ((variables == null) ? 0 : variables.hashCode());
 		return result;
 	}
@@ -155,11 +228,7 @@ public class CNF implements Serializable {
 			return false;
 		}
 		final CNF other = (CNF) obj;
-		if (clauses == null) {
-			if (other.clauses != null) {
-				return false;
-			}
-		} else if (!clauses.equals(other.clauses)) {
+		if (!getClauseView().equals(other.getClauseView())) {
 			return false;
 		}
 		if (variables == null) {
@@ -174,11 +243,12 @@ public class CNF implements Serializable {
 
 	@Override
 	public String toString() {
-		return "CNF\n\tvariables=" + variables + "\n\tclauses=" + clauses;
+		return "CNF\n\tvariables=" + variables + "\n\tclauses=" + getClauseView();
 	}
 
 	public String getClauseString() {
 		final StringBuilder sb = new StringBuilder();
+		final List<LiteralSet> clauses = getClauseView();
 		for (final LiteralSet clause : clauses) {
 			sb.append("(");
 			final List<String> literals = variables.convertToString(clause, true, true, true);
@@ -210,7 +280,19 @@ public class CNF implements Serializable {
 
 	public CNF adapt(Variables newVariables) {
 		final boolean validFeatureSet = Arrays.asList(newVariables.getNames()).containsAll(Arrays.asList(variables.getNames()));
-		return validFeatureSet ? new CNF(newVariables, createAdaptedClauseList(newVariables)) : null;
+		if (!validFeatureSet) {
+			return null;
+		}
+		final List<LiteralSet> oldClauses = getClauseView();
+		if (oldClauses instanceof CompactClauseList) {
+			final CompactClauseList compactClauses = (CompactClauseList) oldClauses;
+			final CompactClauseList newClauses = new CompactClauseList(compactClauses.size(), compactClauses.getNumberOfLiterals());
+			for (final LiteralSet oldClause : compactClauses) {
+				newClauses.add(oldClause.adapt(variables, newVariables));
+			}
+			return new CNF(newVariables, newClauses);
+		}
+		return new CNF(newVariables, createAdaptedClauseList(newVariables));
 	}
 
 	public CNF randomize(Random random) {
@@ -225,6 +307,7 @@ public class CNF implements Serializable {
 	}
 
 	private ClauseList createAdaptedClauseList(IVariables newVariables) {
+		final List<LiteralSet> clauses = getClauseView();
 		final ClauseList newClauses = new ClauseList(clauses.size());
 		for (final LiteralSet oldClause : clauses) {
 			newClauses.add(oldClause.adapt(variables, newVariables));
@@ -0,0 +1,215 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Append-only list of clauses that stores all literals in a single array. <br> The clause at index {@code i} occupies the range
+ * {@code [getStart(i), getEnd(i))} of {@link #getLiteralArray()}. {@link LiteralSet} instances are only created on demand by {@link #get(int)}, so each call
+ * returns a new copy of the clause.
+ */
+public class CompactClauseList extends AbstractList<LiteralSet> implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 3405791587722315218L;
+
+	private static final Order[] ORDERS = Order.values();
+
+	private int[] literals;
+	private int[] offsets;
+	private byte[] orders;
+
+	private int size = 0;
+	private int pendingEnd = 0;
+
+	public CompactClauseList() {
+		this(16, 64);
+	}
+
+	public CompactClauseList(int clauseCapacity, int literalCapacity) {
+		literals = new int[Math.max(literalCapacity, 1)];
+		offsets = new int[Math.max(clauseCapacity, 1) + 1];
+		orders = new byte[Math.max(clauseCapacity, 1)];
+	}
+
+	public CompactClauseList(Collection<? extends LiteralSet> clauses) {
+		this(clauses.size(), clauses.size() * 2);
+		for (final LiteralSet clause : clauses) {
+			add(clause);
+		}
+	}
+
+	/**
+	 * Constructs a list that uses the given arrays directly (i.e., without copying them).
+	 *
+	 * @param literals the literals of all clauses
+	 * @param offsets the start index of each clause followed by the end index of the last clause
+	 * @param orders the ordinals of each clause's {@link Order}
+	 */
+	public CompactClauseList(int[] literals, int[] offsets, byte[] orders) {
+		if ((offsets.length == 0) || (orders.length < (offsets.length - 1)) || (offsets[offsets.length - 1] > literals.length)) {
+			throw new IllegalArgumentException();
+		}
+		size = offsets.length - 1;
+		this.literals = literals.length > 0 ? literals : new int[1];
+		this.offsets = offsets;
+		this.orders = orders.length > 0 ? orders : new byte[1];
+		pendingEnd = offsets[size];
+	}
+
+	/**
+	 * Copy constructor. Copies the underlying arrays.
+	 */
+	public CompactClauseList(CompactClauseList otherClauseList) {
+		size = otherClauseList.size;
+		literals = Arrays.copyOf(otherClauseList.literals, Math.max(otherClauseList.getNumberOfLiterals(), 1));
+		offsets = Arrays.copyOf(otherClauseList.offsets, size + 1);
+		orders = Arrays.copyOf(otherClauseList.orders, Math.max(size, 1));
+		pendingEnd = offsets[size];
+	}
+
+	@Override
+	public boolean add(LiteralSet clause) {
+		final Order order = clause.getOrder();
+		addClause(clause.getLiterals(), 0, clause.size(), order != null ? order : Order.UNORDERED);
+		return true;
+	}
+
+	/**
+	 * Appends a clause. The literals are copied as they are, i.e., they are not sorted according to the given order.
+	 *
+	 * @param clauseLiterals array containing the literals of the new clause
+	 * @param from first index of the clause in {@code clauseLiterals} (inclusive)
+	 * @param to last index of the clause in {@code clauseLiterals} (exclusive)
+	 * @param order the order of the literals within the clause
+	 */
+	public void addClause(int[] clauseLiterals, int from, int to, Order order) {
+		assert pendingEnd == offsets[size];
+		final int start = offsets[size];
+		final int end = start + (to - from);
+		ensureCapacity(size + 1, end);
+		System.arraycopy(clauseLiterals, from, literals, start, to - from);
+		orders[size] = (byte) order.ordinal();
+		offsets[++size] = end;
+		pendingEnd = end;
+		modCount++;
+	}
+
+	/**
+	 * Appends a single literal to the clause that is currently being built. The clause becomes part of the list with the next call of {@link #closeClause(Order)}.
+	 *
+	 * @param literal the literal
+	 */
+	public void addLiteral(int literal) {
+		ensureCapacity(size + 1, pendingEnd + 1);
+		literals[pendingEnd++] = literal;
+	}
+
+	/**
+	 * Finishes the clause containing all literals added via {@link #addLiteral(int)} since the last call of this method.
+	 *
+	 * @param order the order of the literals within the clause
+	 */
+	public void closeClause(Order order) {
+		ensureCapacity(size + 1, pendingEnd);
+		orders[size] = (byte) order.ordinal();
+		offsets[++size] = pendingEnd;
+		modCount++;
+	}
+
+	private void ensureCapacity(int clauseCount, int literalCount) {
+		if (literalCount > literals.length) {
+			literals = Arrays.copyOf(literals, Math.max(literalCount, literals.length + (literals.length >> 1)));
+		}
+		if (clauseCount >= offsets.length) {
+			final int newCapacity = Math.max(clauseCount + 1, offsets.length + (offsets.length >> 1));
+			offsets = Arrays.copyOf(offsets, newCapacity);
+			orders = Arrays.copyOf(orders, newCapacity - 1);
+		}
+	}
+
+	@Override
+	public LiteralSet get(int index) {
+		checkIndex(index);
+		return new LiteralSet(Arrays.copyOfRange(literals, offsets[index], offsets[index + 1]), ORDERS[orders[index]], false);
+	}
+
+	/**
+	 * Returns the backing array of this list. Must not be modified.
+	 *
+	 * @return the array containing the literals of all clauses
+	 */
+	public int[] getLiteralArray() {
+		return literals;
+	}
+
+	public int getStart(int index) {
+		checkIndex(index);
+		return offsets[index];
+	}
+
+	public int getEnd(int index) {
+		checkIndex(index);
+		return offsets[index + 1];
+	}
+
+	public int getClauseSize(int index) {
+		checkIndex(index);
+		return offsets[index + 1] - offsets[index];
+	}
+
+	public Order getOrder(int index) {
+		checkIndex(index);
+		return ORDERS[orders[index]];
+	}
+
+	public int getNumberOfLiterals() {
+		return offsets[size];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Reduces the capacity of the underlying arrays to the current size of this list.
+	 */
+	public void trimToSize() {
+		assert pendingEnd == offsets[size];
+		literals = Arrays.copyOf(literals, Math.max(offsets[size], 1));
+		offsets = Arrays.copyOf(offsets, size + 1);
+		orders = Arrays.copyOf(orders, Math.max(size, 1));
+	}
+
+	private void checkIndex(int index) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+}
@@ -43,4 +43,9 @@ public interface IInternalVariables {
 
 	int size();
 
+	/**
+	 * @return {@code true} if internal and original literals are always equal, {@code false} otherwise.
+	 */
+	boolean isIdentityMapping();
+
 }
@@ -104,6 +104,11 @@ public class SlicedVariables extends Variables {
 		return orgLiteral == 0 ? 0 : orgLiteral > 0 ? orgToInternal[Math.abs(orgLiteral)] : -orgToInternal[Math.abs(orgLiteral)];
 	}
 
+	@Override
+	public boolean isIdentityMapping() {
+		return false;
+	}
+
 	@Override
 	public LiteralSet convertToOriginal(LiteralSet internalClause) {
 		return new LiteralSet(convertToInternal(internalClause.getLiterals()));
@@ -232,6 +232,11 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 		return orgLiteral;
 	}
 
+	@Override
+	public boolean isIdentityMapping() {
+		return true;
+	}
+
 	@Override
 	public LiteralSet convertToOriginal(LiteralSet internalClause) {
 		return internalClause;
@@ -33,7 +33,10 @@ import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds core and dead features using a {@link ModalImplicationGraph model implication graph}.
+ * Finds core and dead features under certain assumptions using a {@link ModalImplicationGraph model implication graph}.<br> Literals that follow from the
+ * assumptions via strong edges or unit propagation over the complex clauses of the graph are determined without the solver. The solver is only used for
+ * variables that are connected to the assumptions via weak edges. The result contains the implied literals without the assumptions and fixed features
+ * or an empty set if the assumptions are contradictory.
  *
  * @author Sebastian Krieter
  */
@@ -54,120 +57,103 @@ public class ConditionallyCoreDeadAnalysisMIG extends AConditionallyCoreDeadAnal
 	@Override
 	public LiteralSet analyze(IMonitor<LiteralSet> monitor) throws Exception {
 		super.analyze(monitor);
-		monitor.setRemainingWork(solver.getSatInstance().getVariables().size() + 2);
-
-		final Traverser traverser = mig.traverse();
-		solver.asignmentEnsure(fixedVariables.length + 1);
-		final int[] knownValues = new int[solver.getSatInstance().getVariables().size()];
-
 		for (final int fixedVar : fixedVariables) {
-			final int var = Math.abs(fixedVar);
-			knownValues[var - 1] = fixedVar;
-			monitor.step();
+			solver.assignmentPush(fixedVar);
 		}
+		final int initialAssignmentLength = solver.getAssignmentSize();
+		final int[] startLiterals = solver.getAssignmentArray(0, initialAssignmentLength);
+		final int numberOfVariables = solver.getSatInstance().getVariables().size();
+		monitor.setRemainingWork(numberOfVariables + 3);
 
 		// get core / dead variables
+		final int[] knownValues = new int[numberOfVariables];
 		for (final Vertex vertex : mig.getAdjList()) {
 			if (vertex.isCore()) {
 				final int var = vertex.getVar();
-				knownValues[var - 1] = var;
-				monitor.step(new LiteralSet(var));
+				knownValues[Math.abs(var) - 1] = var;
 			}
 		}
 
+		final Traverser traverser = mig.traverse();
 		traverser.setModel(knownValues);
 		final CollectingVisitor visitor = new CollectingVisitor();
 		traverser.setVisitor(visitor);
-		for (int i = 0; i < newCount; i++) {
-			traverser.traverse(fixedVariables[i]);
-		}
+		traverser.traverseStrong(startLiterals);
 		final VecInt computedValues = visitor.getResult()[0];
-		VecInt valuesToCompute = visitor.getResult()[1];
+		monitor.step();
 
-		monitor.setRemainingWork(valuesToCompute.size() + computedValues.size() + 3);
-
-		for (int i = 0; i < computedValues.size(); i++) {
-			final int computedVar = computedValues.get(i);
-			final int var = Math.abs(computedVar);
-			knownValues[var - 1] = computedVar;
-			monitor.step(new LiteralSet(computedVar));
-		}
-
-		if (variableOrder != null) {
-			final VecInt sortedValuesToCalulate = new VecInt(valuesToCompute.size());
-			for (int i = variableOrder.length - 1; i >= 0; i--) {
-				final int var = variableOrder[i];
-				if (valuesToCompute.contains(var)) {
-					sortedValuesToCalulate.push(var);
-				}
-				if (valuesToCompute.contains(-var)) {
-					sortedValuesToCalulate.push(-var);
-				}
-			}
-			valuesToCompute = sortedValuesToCalulate;
+		if (isContradictory(startLiterals, computedValues, knownValues)) {
+			return new LiteralSet();
 		}
 
-		for (final int var : knownValues) {
-			if (var != 0) {
-				solver.assignmentPush(var);
+		final boolean[] assumed = new boolean[numberOfVariables];
+		for (final int literal : startLiterals) {
+			assumed[Math.abs(literal) - 1] = true;
+		}
+		for (int i = 0; i < numberOfVariables; i++) {
+			final int literal = knownValues[i];
+			if ((literal != 0) && !assumed[i]) {
+				solver.assignmentPush(literal);
+				monitor.step();
 			}
 		}
 		monitor.checkCancel();
 
+		final VecInt valuesToCompute = collectWeaklyConnectedVariables(computedValues, knownValues);
 		if (!valuesToCompute.isEmpty()) {
 			solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
-			final int[] unkownValues = solver.findSolution();
+			final int[] model1 = solver.findSolution();
 			monitor.step();
 
-			if (unkownValues != null) {
-				solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
-				final int[] model2 = solver.findSolution();
-				monitor.step();
-
-				updateModel(unkownValues, model2);
-				solver.setSelectionStrategy(unkownValues, true);
+			if (model1 == null) {
+				return new LiteralSet();
+			}
+			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+			final int[] model2 = solver.findSolution();
+			monitor.step();
 
-				for (int k = 0; k < knownValues.length; k++) {
-					final int var = knownValues[k];
-					if ((var != 0) && (unkownValues[k] != 0)) {
-						unkownValues[k] = 0;
-					}
-				}
-				monitor.step();
+			updateModel(model1, model2);
+			solver.setSelectionStrategy(model1, true);
 
-				sat(unkownValues, valuesToCompute, monitor, traverser);
+			final int[] unkownValues = new int[numberOfVariables];
+			for (int i = 0; i < valuesToCompute.size(); i++) {
+				final int index = valuesToCompute.get(i) - 1;
+				unkownValues[index] = model1[index];
 			}
+			sat(unkownValues, sortVariables(valuesToCompute, unkownValues), monitor, traverser);
 		}
-		return new LiteralSet(solver.getAssignmentArray(0, solver.getAssignmentSize()));
+		return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
 	}
 
 	private void sat(int[] unkownValues, VecInt valuesToCalulate, IMonitor<LiteralSet> monitor, Traverser traverser) {
-		final CollectingVisitor visitor = new CollectingVisitor();
-		traverser.setVisitor(visitor);
-
-		while (!valuesToCalulate.isEmpty()) {
-			final int varX = valuesToCalulate.last();
-			valuesToCalulate.pop();
-			final int i = Math.abs(varX) - 1;
-			if (unkownValues[i] == varX) {
+		for (int k = 0; k < valuesToCalulate.size(); k++) {
+			final int i = valuesToCalulate.get(k) - 1;
+			final int varX = unkownValues[i];
+			if (varX != 0) {
 				solver.assignmentPush(-varX);
 				switch (solver.hasSolution()) {
 				case FALSE:
 					solver.assignmentReplaceLast(varX);
 					unkownValues[i] = 0;
-					monitor.step(new LiteralSet(varX));
+					monitor.step();
+
+					// All literals that follow strongly from an implied literal are implied as well
+					final CollectingVisitor visitor = new CollectingVisitor();
+					traverser.setVisitor(visitor);
 					traverser.traverseStrong(varX);
 					final VecInt newFoundValues = visitor.getResult()[0];
 					for (int j = 0; j < newFoundValues.size(); j++) {
 						final int var = newFoundValues.get(j);
-						solver.assignmentPush(var);
-						unkownValues[Math.abs(var) - 1] = 0;
-						monitor.step(new LiteralSet(var));
+						if (var != varX) {
+							solver.assignmentPush(var);
+							unkownValues[Math.abs(var) - 1] = 0;
+							monitor.step();
+						}
 					}
 					break;
 				case TIMEOUT:
 					solver.assignmentPop();
-					unkownValues[Math.abs(varX) - 1] = 0;
+					unkownValues[i] = 0;
 					monitor.step();
 					break;
 				case TRUE:
@@ -180,4 +166,109 @@ public class ConditionallyCoreDeadAnalysisMIG extends AConditionallyCoreDeadAnal
 		}
 	}
 
+	/**
+	 * Checks whether the literals that were assigned by the traversal contradict each other. This is the case if a start literal could not be assigned, a
+	 * strong edge leads to an opposite value, or a complex clause is unsatisfied.
+	 */
+	private boolean isContradictory(int[] startLiterals, VecInt computedValues, int[] knownValues) {
+		for (final int literal : startLiterals) {
+			if (knownValues[Math.abs(literal) - 1] != literal) {
+				return true;
+			}
+		}
+		for (int i = 0; i < computedValues.size(); i++) {
+			final Vertex vertex = mig.getVertex(computedValues.get(i));
+			for (final int strongLiteral : vertex.getStrongEdges()) {
+				if (knownValues[Math.abs(strongLiteral) - 1] != strongLiteral) {
+					return true;
+				}
+			}
+			clauseLoop: for (final int clauseIndex : vertex.getComplexClauses()) {
+				for (final int literal : mig.getComplexClauses().get(clauseIndex).getLiterals()) {
+					if (knownValues[Math.abs(literal) - 1] != -literal) {
+						continue clauseLoop;
+					}
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Collects all unassigned variables that are connected to the assigned literals via clauses that are not satisfied yet (i.e., via weak edges). All
+	 * other unassigned variables are independent from the assignment and thus cannot be implied by it.
+	 *
+	 * @return the collected variables
+	 */
+	private VecInt collectWeaklyConnectedVariables(VecInt computedValues, int[] knownValues) {
+		final VecInt variables = new VecInt();
+		final boolean[] variableMarks = new boolean[knownValues.length];
+		final boolean[] clauseMarks = new boolean[mig.getComplexClauses().size()];
+		for (int i = 0; i < computedValues.size(); i++) {
+			addClauses(mig.getVertex(computedValues.get(i)).getComplexClauses(), knownValues, clauseMarks, variableMarks, variables);
+		}
+		for (int i = 0; i < variables.size(); i++) {
+			final int var = variables.get(i);
+			final Vertex positiveVertex = mig.getVertex(var);
+			final Vertex negativeVertex = mig.getVertex(-var);
+			addVariables(positiveVertex.getStrongEdges(), knownValues, variableMarks, variables);
+			addVariables(negativeVertex.getStrongEdges(), knownValues, variableMarks, variables);
+			addClauses(positiveVertex.getComplexClauses(), knownValues, clauseMarks, variableMarks, variables);
+			addClauses(negativeVertex.getComplexClauses(), knownValues, clauseMarks, variableMarks, variables);
+		}
+		return variables;
+	}
+
+	private void addClauses(int[] clauseIndices, int[] knownValues, boolean[] clauseMarks, boolean[] variableMarks, VecInt variables) {
+		clauseLoop: for (final int clauseIndex : clauseIndices) {
+			if (!clauseMarks[clauseIndex]) {
+				final int[] literals = mig.getComplexClauses().get(clauseIndex).getLiterals();
+				for (final int literal : literals) {
+					if (knownValues[Math.abs(literal) - 1] == literal) {
+						continue clauseLoop;
+					}
+				}
+				clauseMarks[clauseIndex] = true;
+				addVariables(literals, knownValues, variableMarks, variables);
+			}
+		}
+	}
+
+	private void addVariables(int[] literals, int[] knownValues, boolean[] variableMarks, VecInt variables) {
+		for (final int literal : literals) {
+			final int index = Math.abs(literal) - 1;
+			if ((knownValues[index] == 0) && !variableMarks[index]) {
+				variableMarks[index] = true;
+				variables.push(index + 1);
+			}
+		}
+	}
+
+	/**
+	 * Sorts the given variables according to the {@link #setVariableOrder(int[]) variable order}. Variables that are not contained in the order are
+	 * appended.
+	 */
+	private VecInt sortVariables(VecInt variables, int[] unkownValues) {
+		if (variableOrder == null) {
+			return variables;
+		}
+		final boolean[] sorted = new boolean[unkownValues.length];
+		final VecInt sortedVariables = new VecInt(variables.size());
+		for (final int var : variableOrder) {
+			final int index = Math.abs(var) - 1;
+			if ((unkownValues[index] != 0) && !sorted[index]) {
+				sorted[index] = true;
+				sortedVariables.push(index + 1);
+			}
+		}
+		for (int i = 0; i < variables.size(); i++) {
+			final int var = variables.get(i);
+			if (!sorted[var - 1]) {
+				sortedVariables.push(var);
+			}
+		}
+		return sortedVariables;
+	}
+
 }
@@ -20,7 +20,12 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.sat4j.core.VecInt;
 import org.sat4j.specs.IteratorInt;
@@ -33,6 +38,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrate
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.util.ParallelTasks;
 
 /**
  * Finds core and dead features.
@@ -59,9 +65,11 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 		this.variables = variables;
 	}
 
+	private int threads = 1;
+
 	@Override
 	public LiteralSet analyze(IMonitor<LiteralSet> monitor) throws Exception {
-		return analyze1(monitor);
+		return threads > 1 ? analyzeParallel(monitor) : analyze1(monitor);
 	}
 
 	@Override
@@ -188,6 +196,101 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 
 	public LiteralSet analyze1(IMonitor<LiteralSet> monitor) throws Exception {
 		final int initialAssignmentLength = solver.getAssignmentSize();
+		final Candidates candidates = findCandidates(initialAssignmentLength);
+
+		if (candidates != null) {
+			final int[] model1 = candidates.model;
+			for (int i = 0; i < model1.length; i++) {
+				final int varX = model1[i];
+				if (varX != 0) {
+					solver.assignmentPush(-varX);
+					switch (solver.hasSolution()) {
+					case FALSE:
+						solver.assignmentReplaceLast(varX);
+						monitor.invoke(new LiteralSet(varX));
+						break;
+					case TIMEOUT:
+						solver.assignmentPop();
+						reportTimeout();
+						break;
+					case TRUE:
+						solver.assignmentPop();
+						LiteralSet.resetConflicts(model1, solver.getSolution());
+						solver.shuffleOrder(getRandom());
+						break;
+					}
+				}
+			}
+		}
+
+		return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
+	}
+
+	/**
+	 * Same as {@link #analyze1(IMonitor)}, but distributes the satisfiability tests over {@link #getThreads() multiple threads}. Each thread uses its own
+	 * clone of the solver. Found core and dead literals as well as the variables that were refuted by a solution are shared between all threads.
+	 */
+	public LiteralSet analyzeParallel(IMonitor<LiteralSet> monitor) throws Exception {
+		final int initialAssignmentLength = solver.getAssignmentSize();
+		final Candidates candidates = findCandidates(initialAssignmentLength);
+
+		if (candidates == null) {
+			return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
+		}
+
+		final SharedState state = new SharedState(candidates);
+		final List<Runnable> tasks = new ArrayList<>(threads);
+		for (int i = 0; i < threads; i++) {
+			final ISatSolver workerSolver = solver.clone();
+			workerSolver.setTimeout(getTimeout());
+			final Random workerRandom = new Random(getRandom().nextLong());
+			tasks.add(() -> runWorker(workerSolver, workerRandom, state, monitor));
+		}
+		try {
+			ParallelTasks.run(threads, tasks);
+		} finally {
+			state.cancel();
+		}
+
+		// Sorted in the same way as the result of analyze1, independent of the order in which the threads found the literals
+		return new LiteralSet(state.getFoundLiterals(), Order.NATURAL);
+	}
+
+	private void runWorker(ISatSolver workerSolver, Random workerRandom, SharedState state, IMonitor<LiteralSet> monitor) {
+		final int[] localModel = state.getModelCopy();
+		workerSolver.setSelectionStrategy(localModel, state.isFixedMin());
+		int knownLiterals = 0;
+		for (int i = state.nextIndex(); i >= 0; i = state.nextIndex()) {
+			final int varX = state.getCandidate(i);
+			if (varX != 0) {
+				knownLiterals = state.pushFoundLiterals(workerSolver, knownLiterals);
+				workerSolver.assignmentPush(-varX);
+				switch (workerSolver.hasSolution()) {
+				case FALSE:
+					workerSolver.assignmentReplaceLast(varX);
+					if (state.addFoundLiteral(i, varX)) {
+						synchronized (monitor) {
+							monitor.invoke(new LiteralSet(varX));
+						}
+					}
+					break;
+				case TIMEOUT:
+					workerSolver.assignmentPop();
+					reportTimeout();
+					break;
+				case TRUE:
+					workerSolver.assignmentPop();
+					final int[] solution = workerSolver.getSolution();
+					LiteralSet.resetConflicts(localModel, solution);
+					state.resetConflicts(solution);
+					workerSolver.shuffleOrder(workerRandom);
+					break;
+				}
+			}
+		}
+	}
+
+	private Candidates findCandidates(int initialAssignmentLength) {
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 		int[] model1 = solver.findSolution();
 
@@ -211,33 +314,132 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 			}
 
 			LiteralSet.resetConflicts(model1, model2);
-			solver.setSelectionStrategy(model1,
-					model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative()));
+			final int negatives = new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative();
+			final boolean fixedMin = model1.length > negatives;
+			solver.setSelectionStrategy(model1, fixedMin);
+			return new Candidates(model1, fixedMin);
+		}
+		return null;
+	}
 
-			for (int i = 0; i < model1.length; i++) {
-				final int varX = model1[i];
-				if (varX != 0) {
-					solver.assignmentPush(-varX);
-					switch (solver.hasSolution()) {
-					case FALSE:
-						solver.assignmentReplaceLast(varX);
-						monitor.invoke(new LiteralSet(varX));
-						break;
-					case TIMEOUT:
-						solver.assignmentPop();
-						reportTimeout();
-						break;
-					case TRUE:
-						solver.assignmentPop();
-						LiteralSet.resetConflicts(model1, solver.getSolution());
-						solver.shuffleOrder(getRandom());
-						break;
-					}
+	/**
+	 * Candidate variables for core and dead features together with the selection strategy that was chosen for them.
+	 */
+	private static final class Candidates {
+
+		private final int[] model;
+		private final boolean fixedMin;
+
+		Candidates(int[] model, boolean fixedMin) {
+			this.model = model;
+			this.fixedMin = fixedMin;
+		}
+
+	}
+
+	/**
+	 * Candidate variables, found literals, and refuted variables shared by the threads of {@link CoreDeadAnalysis#analyzeParallel(IMonitor)}.
+	 */
+	private static final class SharedState {
+
+		private final AtomicIntegerArray model;
+		private final boolean fixedMin;
+		private final AtomicIntegerArray foundLiterals;
+		private final AtomicInteger foundCount = new AtomicInteger();
+		private final AtomicInteger index = new AtomicInteger();
+
+		private volatile boolean canceled = false;
+
+		SharedState(Candidates candidates) {
+			model = new AtomicIntegerArray(candidates.model);
+			fixedMin = candidates.fixedMin;
+			foundLiterals = new AtomicIntegerArray(candidates.model.length);
+		}
+
+		boolean isFixedMin() {
+			return fixedMin;
+		}
+
+		int nextIndex() {
+			if (canceled) {
+				return -1;
+			}
+			final int i = index.getAndIncrement();
+			return i < model.length() ? i : -1;
+		}
+
+		int getCandidate(int i) {
+			return model.get(i);
+		}
+
+		int[] getModelCopy() {
+			final int[] copy = new int[model.length()];
+			for (int i = 0; i < copy.length; i++) {
+				copy[i] = model.get(i);
+			}
+			return copy;
+		}
+
+		void resetConflicts(int[] solution) {
+			for (int i = 0; i < solution.length; i++) {
+				final int x = model.get(i);
+				if ((x != 0) && (x != solution[i])) {
+					model.compareAndSet(i, x, 0);
 				}
 			}
 		}
 
-		return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
+		boolean addFoundLiteral(int i, int literal) {
+			if (model.compareAndSet(i, literal, 0)) {
+				foundLiterals.set(foundCount.getAndIncrement(), literal);
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Adds all literals found by other threads to the assignment of the given solver.
+		 *
+		 * @return the number of found literals known to the solver
+		 */
+		int pushFoundLiterals(ISatSolver workerSolver, int knownLiterals) {
+			final int count = foundCount.get();
+			for (; knownLiterals < count; knownLiterals++) {
+				final int literal = foundLiterals.get(knownLiterals);
+				if (literal == 0) {
+					// Literal is reserved, but not yet written
+					break;
+				}
+				workerSolver.assignmentPush(literal);
+			}
+			return knownLiterals;
+		}
+
+		int[] getFoundLiterals() {
+			final int[] literals = new int[foundCount.get()];
+			for (int i = 0; i < literals.length; i++) {
+				literals[i] = foundLiterals.get(i);
+			}
+			return literals;
+		}
+
+		void cancel() {
+			canceled = true;
+		}
+
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used by this analysis. If the number is greater than one, {@link #analyzeParallel(IMonitor)} is used.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
 	}
 
 }
@@ -0,0 +1,80 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import java.math.BigInteger;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.EmptySatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModelCounter;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Counts the number of possible solutions of a given {@link CNF} using a {@link ModelCounter}. Considers the {@link #setAssumptions(LiteralSet) assumptions}
+ * of the analysis.
+ *
+ * @see CountSolutionsAnalysis
+ */
+public class ModelCountingAnalysis extends AbstractAnalysis<BigInteger> {
+
+	private ModelCounter modelCounter;
+
+	public ModelCountingAnalysis(ISatSolver solver) {
+		super(solver);
+	}
+
+	public ModelCountingAnalysis(CNF satInstance) {
+		super(satInstance);
+	}
+
+	@Override
+	protected ISatSolver initSolver(CNF satInstance) {
+		return new EmptySatSolver(satInstance);
+	}
+
+	@Override
+	public BigInteger analyze(IMonitor<BigInteger> monitor) throws Exception {
+		if (modelCounter == null) {
+			modelCounter = new ModelCounter(solver.getSatInstance());
+		}
+		modelCounter.setTimeout(getTimeout());
+		modelCounter.setMonitor(monitor);
+		try {
+			return modelCounter.count(new LiteralSet(solver.getAssignmentArray()));
+		} catch (final RuntimeTimeoutException e) {
+			reportTimeout();
+			return null;
+		}
+	}
+
+	/**
+	 * Sets the model counter used by this analysis. Allows to reuse the component cache of a counter for several analyses on the same formula.
+	 *
+	 * @param modelCounter the model counter
+	 */
+	public void setModelCounter(ModelCounter modelCounter) {
+		this.modelCounter = modelCounter;
+	}
+
+}
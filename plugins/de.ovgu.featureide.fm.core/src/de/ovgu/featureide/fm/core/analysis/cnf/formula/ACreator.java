@@ -20,9 +20,12 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
 /**
  * Abstract creator to derive an element from a {@link FeatureModelFormula feature model}.
  *
@@ -36,12 +39,26 @@ public abstract class ACreator<T> {
 
 	private Lock lock;
 	private T formulaElement;
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
 
 	T get() {
 		lock.lock();
 		try {
 			if (formulaElement == null) {
-				formulaElement = create();
+				final FormulaCache cache = formula.getCache();
+				final ICacheFormat<T> cacheFormat = (cache != null) ? getCacheFormat() : null;
+				if (cacheFormat != null) {
+					final String hash = formula.getContentHash();
+					formulaElement = cache.load(hash, getCacheKey(), cacheFormat);
+					if (formulaElement == null) {
+						formulaElement = create();
+						if (formulaElement != null) {
+							cache.store(hash, getCacheKey(), cacheFormat, formulaElement);
+						}
+					}
+				} else {
+					formulaElement = create();
+				}
 			}
 			return formulaElement;
 		} finally {
@@ -49,6 +66,33 @@ public abstract class ACreator<T> {
 		}
 	}
 
+	/**
+	 * @return the element if it was already created and is currently not being created, {@code null} otherwise.
+	 */
+	T getIfCreated() {
+		if (lock.tryLock()) {
+			try {
+				return formulaElement;
+			} finally {
+				lock.unlock();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the element if it was already created. Otherwise, starts a background job to create it, unless such a job was already started.
+	 *
+	 * @return the element if it was already created and is currently not being created, {@code null} otherwise.
+	 */
+	T getOrSchedule() {
+		final T element = getIfCreated();
+		if ((element == null) && scheduled.compareAndSet(false, true)) {
+			LongRunningWrapper.getRunner(monitor -> get(), "Derive " + getClass().getSimpleName()).schedule();
+		}
+		return element;
+	}
+
 	void init(FeatureModelFormula formula) {
 		this.formula = formula;
 		this.lock = new ReentrantLock();
@@ -56,6 +100,22 @@ public abstract class ACreator<T> {
 
 	protected abstract T create();
 
+	/**
+	 * Returns the format that is used to store the created element in a {@link FormulaCache}, if the formula has one.
+	 *
+	 * @return the format or {@code null} if the element should not be cached persistently (default).
+	 */
+	protected ICacheFormat<T> getCacheFormat() {
+		return null;
+	}
+
+	/**
+	 * @return a key that identifies the created element within a {@link FormulaCache}.
+	 */
+	protected String getCacheKey() {
+		return getClass().getName();
+	}
+
 	@Override
 	public int hashCode() {
 		return getClass().getName().hashCode();
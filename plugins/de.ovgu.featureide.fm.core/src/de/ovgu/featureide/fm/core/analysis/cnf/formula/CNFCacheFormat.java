@@ -0,0 +1,116 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Binary format for the {@link FeatureModelCNF} of a feature model as created by {@link CNFCreator}.<br> The variables are not stored, but derived from the
+ * feature model when reading. The clauses are read into a {@link CompactClauseList}.
+ */
+public class CNFCacheFormat implements ICacheFormat<CNF> {
+
+	private final IFeatureModel featureModel;
+
+	public CNFCacheFormat(IFeatureModel featureModel) {
+		this.featureModel = featureModel;
+	}
+
+	@Override
+	public int getVersion() {
+		return 1;
+	}
+
+	@Override
+	public void write(CNF cnf, DataOutput out) throws IOException {
+		final List<LiteralSet> clauses = cnf.getClauseView();
+		int numberOfLiterals = 0;
+		for (final LiteralSet clause : clauses) {
+			numberOfLiterals += clause.size();
+		}
+		out.writeInt(cnf.getVariables().size());
+		out.writeInt(clauses.size());
+		out.writeInt(numberOfLiterals);
+		int offset = 0;
+		out.writeInt(offset);
+		for (final LiteralSet clause : clauses) {
+			offset += clause.size();
+			out.writeInt(offset);
+		}
+		for (final LiteralSet clause : clauses) {
+			for (final int literal : clause.getLiterals()) {
+				out.writeInt(literal);
+			}
+		}
+		for (final LiteralSet clause : clauses) {
+			final Order order = clause.getOrder();
+			out.writeByte((order != null ? order : Order.UNORDERED).ordinal());
+		}
+	}
+
+	@Override
+	public CNF read(ByteBuffer buffer) throws IOException {
+		final FeatureModelCNF cnf = new FeatureModelCNF(featureModel, false);
+		final int numberOfVariables = buffer.getInt();
+		if (numberOfVariables != cnf.getVariables().size()) {
+			return null;
+		}
+		final int numberOfClauses = buffer.getInt();
+		final int numberOfLiterals = buffer.getInt();
+
+		final IntBuffer intBuffer = buffer.asIntBuffer();
+		final int[] offsets = new int[numberOfClauses + 1];
+		intBuffer.get(offsets);
+		final int[] literals = new int[numberOfLiterals];
+		intBuffer.get(literals);
+		buffer.position(buffer.position() + ((offsets.length + literals.length) << 2));
+		final byte[] orders = new byte[numberOfClauses];
+		buffer.get(orders);
+
+		if ((offsets[0] != 0) || (offsets[numberOfClauses] != numberOfLiterals)) {
+			throw new IOException("Invalid clause offsets");
+		}
+		for (int i = 0; i < numberOfClauses; i++) {
+			if ((offsets[i] > offsets[i + 1]) || (orders[i] < 0) || (orders[i] >= Order.values().length)) {
+				throw new IOException("Invalid clause " + i);
+			}
+		}
+		for (final int literal : literals) {
+			if ((literal == 0) || (Math.abs(literal) > numberOfVariables)) {
+				throw new IOException("Invalid literal " + literal);
+			}
+		}
+		cnf.setClauses(new CompactClauseList(literals, offsets, orders));
+		return cnf;
+	}
+
+}
@@ -38,4 +38,9 @@ public class CNFCreator extends ACreator<CNF> {
 		return cnf;
 	}
 
+	@Override
+	protected ICacheFormat<CNF> getCacheFormat() {
+		return new CNFCacheFormat(formula.getFeatureModel());
+	}
+
 }
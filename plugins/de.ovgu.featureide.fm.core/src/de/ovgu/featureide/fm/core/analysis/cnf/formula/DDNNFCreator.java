@@ -0,0 +1,84 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFBuilder;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFCacheFormat;
+
+/**
+ * Creates a {@link DDNNF} for the {@link CNFCreator CNF} of a feature model.<br> If the compilation does not finish within the {@link #setTimeout(long)
+ * timeout}, the created element is {@code null} and no further attempts are made for the same feature model version.
+ * Interactive callers should request the element via {@link FeatureModelFormula#getElementIfAvailable(ACreator)}, which compiles it in the background.
+ */
+public class DDNNFCreator extends ACreator<DDNNF> {
+
+	private long timeout = 10_000;
+	private boolean compilationFailed = false;
+
+	@Override
+	protected DDNNF create() {
+		if (compilationFailed) {
+			return null;
+		}
+		final CNF satInstance = formula.getElement(getCNFCreator());
+		if (satInstance == null) {
+			return null;
+		}
+		final DDNNFBuilder builder = new DDNNFBuilder(satInstance);
+		builder.setTimeout(timeout);
+		try {
+			return builder.build(null);
+		} catch (final RuntimeTimeoutException e) {
+			compilationFailed = true;
+			return null;
+		}
+	}
+
+	@Override
+	protected ICacheFormat<DDNNF> getCacheFormat() {
+		final CNF satInstance = formula.getElement(getCNFCreator());
+		return (satInstance != null) ? new DDNNFCacheFormat(satInstance.getInternalVariables()) : null;
+	}
+
+	/**
+	 * @return the creator for the CNF that is compiled
+	 */
+	protected ACreator<CNF> getCNFCreator() {
+		return new CNFCreator();
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the timeout for the compilation.
+	 *
+	 * @param timeout the timeout in milliseconds; if not positive, there is no timeout.
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+}
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import java.lang.ref.SoftReference;
 import java.util.HashMap;
 
 import org.prop4j.Node;
@@ -46,23 +47,50 @@ public class FeatureModelFormula {
 	 *
 	 * @return a {@link Node} instance.
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> T getElement(ACreator<T> formulaElement) {
-		ACreator<?> mappedFormulaElement;
+		return getMappedElement(formulaElement).get();
+	}
+
+	/**
+	 * Get an arbitrary element that can be derived from the associated feature model, but only if it is already available.<br> Otherwise, the element is
+	 * computed in a background job (at most once) and {@code null} is returned, such that the caller can use another method instead of waiting for it.
+	 *
+	 * @return the element or {@code null} if it is not available yet.
+	 */
+	public <T> T getElementIfAvailable(ACreator<T> formulaElement) {
+		return getMappedElement(formulaElement).getOrSchedule();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> ACreator<T> getMappedElement(ACreator<T> formulaElement) {
 		synchronized (map) {
-			mappedFormulaElement = map.get(formulaElement);
+			final ACreator<?> mappedFormulaElement = map.get(formulaElement);
 			if (mappedFormulaElement == null) {
 				map.put(formulaElement, formulaElement);
 				formulaElement.init(this);
-				mappedFormulaElement = formulaElement;
+				return formulaElement;
 			}
+			return (ACreator<T>) mappedFormulaElement;
 		}
+	}
 
-		return (T) mappedFormulaElement.get();
+	/**
+	 * Returns the creator that is used by this formula to derive elements that are equal to the given one, without creating or registering it.
+	 *
+	 * @return the creator or {@code null} if no such element was requested yet.
+	 */
+	ACreator<?> getCreator(ACreator<?> formulaElement) {
+		synchronized (map) {
+			return map.get(formulaElement);
+		}
 	}
 
 	private final IFeatureModel featureModel;
 
+	private SoftReference<FeatureModelFormula> previousFormula = null;
+	private FormulaCache cache = null;
+	private String contentHash = null;
+
 	public FeatureModelFormula(IFeatureModel featureModel) {
 		this.featureModel = featureModel;
 	}
@@ -71,6 +99,53 @@ public class FeatureModelFormula {
 		return featureModel;
 	}
 
+	/**
+	 * @return the previous formula or {@code null} if there is none or it was already garbage collected.
+	 */
+	public FeatureModelFormula getPreviousFormula() {
+		final SoftReference<FeatureModelFormula> reference = previousFormula;
+		return (reference != null) ? reference.get() : null;
+	}
+
+	/**
+	 * Sets the formula of the feature model before its last modification. Creators may use elements already derived from the previous formula to update them
+	 * instead of creating them from scratch.<br> The previous formula is only softly referenced, such that its elements can be garbage collected if memory
+	 * is needed. Creators should {@link #setPreviousFormula(FeatureModelFormula) reset} it once they do not need it anymore.
+	 *
+	 * @param previousFormula the previous formula or {@code null}
+	 */
+	public void setPreviousFormula(FeatureModelFormula previousFormula) {
+		if (previousFormula != null) {
+			previousFormula.previousFormula = null;
+			this.previousFormula = new SoftReference<>(previousFormula);
+		} else {
+			this.previousFormula = null;
+		}
+	}
+
+	public FormulaCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Sets a persistent cache for all elements whose creator {@link ACreator#getCacheFormat() supports it}.
+	 *
+	 * @param cache the cache or {@code null} to disable persistent caching
+	 */
+	public void setCache(FormulaCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * @return the {@link FormulaCache#computeHash(IFeatureModel) hash} of the associated feature model.
+	 */
+	public synchronized String getContentHash() {
+		if (contentHash == null) {
+			contentHash = FormulaCache.computeHash(featureModel);
+		}
+		return contentHash;
+	}
+
 	public IVariables getVariables() {
 		return getElement(new EmptyCNFCreator()).getVariables();
 	}
@@ -110,6 +185,9 @@ public class FeatureModelFormula {
 		synchronized (map) {
 			map.clear();
 		}
+		synchronized (this) {
+			contentHash = null;
+		}
 	}
 
 }
@@ -0,0 +1,317 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+
+/**
+ * Persistent cache for elements derived from a feature model (e.g., its {@link CNFCreator CNF}).<br> Each entry is stored in its own file, whose name
+ * consists of a {@link #computeHash(IFeatureModel) hash of the feature model's content} and the key of the {@link ACreator creator}. Thus, entries of an
+ * older model version are never read again after the model was edited. Entries are read completely into memory, so no file stays open or locked. If the
+ * size of all entries exceeds the given budget, the least recently used entries are removed.<br> The cache is disabled by default, such that command line
+ * tools and tests do not write cache folders. Applications enable it via {@link #setDefaultBudget(long)}.
+ *
+ * @see ACreator#getCacheFormat()
+ * @see FeatureModelFormula#setCache(FormulaCache)
+ */
+public class FormulaCache {
+
+	private static final int MAGIC_NUMBER = 0x46494443;
+	private static final int VERSION = 1;
+
+	private static final String FILE_SUFFIX = ".bin";
+	private static final String FOLDER_NAME = "cache";
+
+	/**
+	 * A reasonable budget for applications that {@link #setDefaultBudget(long) enable} the cache.
+	 */
+	public static final long DEFAULT_BUDGET = 64L << 20;
+
+	private static final Map<Path, FormulaCache> instances = new HashMap<>();
+	private static long defaultBudget = 0;
+
+	/**
+	 * Returns the cache for the given feature model file. The cache is located in the folder {@code .featureide/<file name>/cache} next to the model file.
+	 *
+	 * @param modelFile the path of a feature model file
+	 * @return the cache for the file or {@code null} if caching is {@link #setDefaultBudget(long) disabled} or the path cannot be resolved.
+	 */
+	public static FormulaCache getInstance(Path modelFile) {
+		if ((defaultBudget <= 0) || (modelFile == null)) {
+			return null;
+		}
+		final Path absolutePath = modelFile.toAbsolutePath();
+		final Path fileName = absolutePath.getFileName();
+		final Path parent = absolutePath.getParent();
+		if ((fileName == null) || (parent == null)) {
+			return null;
+		}
+		final Path directory = parent.resolve(".featureide").resolve(fileName.toString()).resolve(FOLDER_NAME);
+		synchronized (instances) {
+			FormulaCache cache = instances.get(directory);
+			if (cache == null) {
+				cache = new FormulaCache(directory, defaultBudget);
+				instances.put(directory, cache);
+			}
+			return cache;
+		}
+	}
+
+	public static long getDefaultBudget() {
+		return defaultBudget;
+	}
+
+	/**
+	 * Sets the budget for all caches that are subsequently returned by {@link #getInstance(Path)}.
+	 *
+	 * @param budget the maximum size in bytes of all entries in one cache folder; if not positive, no cache is used (default).
+	 */
+	public static void setDefaultBudget(long budget) {
+		synchronized (instances) {
+			defaultBudget = budget;
+			instances.clear();
+		}
+	}
+
+	/**
+	 * Computes a hash value of all information in the given feature model that is relevant for its formula (i.e., features, their order, the tree
+	 * structure, and all constraints).
+	 *
+	 * @param featureModel the feature model
+	 * @return a hex string of the SHA-256 hash
+	 */
+	public static String computeHash(IFeatureModel featureModel) {
+		final StringBuilder sb = new StringBuilder();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final IFeatureStructure structure = feature.getStructure();
+			sb.append(feature.getName().length()).append(':').append(feature.getName());
+			sb.append(structure.isAbstract() ? 'a' : 'c');
+			sb.append(structure.isHidden() ? 'h' : 'v');
+			sb.append(structure.isMandatory() ? 'm' : 'o');
+			sb.append(structure.isAnd() ? 'A' : structure.isOr() ? 'O' : structure.isAlternative() ? 'X' : '-');
+			sb.append(structure.isMultiple() ? 'M' : '-');
+			sb.append('[');
+			for (final IFeatureStructure child : structure.getChildren()) {
+				final String childName = child.getFeature().getName();
+				sb.append(childName.length()).append(':').append(childName);
+			}
+			sb.append(']');
+		}
+		final IFeatureStructure root = featureModel.getStructure().getRoot();
+		sb.append('|').append(root != null ? root.getFeature().getName() : "").append('|');
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			sb.append(constraint.getNode()).append('\n');
+		}
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+			final StringBuilder hexString = new StringBuilder(hash.length << 1);
+			for (final byte b : hash) {
+				hexString.append(Character.forDigit((b >> 4) & 0xf, 16));
+				hexString.append(Character.forDigit(b & 0xf, 16));
+			}
+			return hexString.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private final Path directory;
+	private final long budget;
+
+	/**
+	 * @param directory the folder containing the cache entries
+	 * @param budget the maximum size of all entries in bytes
+	 */
+	public FormulaCache(Path directory, long budget) {
+		this.directory = directory;
+		this.budget = budget;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Reads an element from the cache.
+	 *
+	 * @param hash the hash of the feature model
+	 * @param key the key of the element
+	 * @param format the format of the element
+	 * @return the stored element or {@code null} if there is no valid entry.
+	 */
+	public <T> T load(String hash, String key, ICacheFormat<T> format) {
+		final Path file = getFile(hash, key);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		T element = null;
+		try {
+			final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+			if ((buffer.remaining() >= 12) && (buffer.getInt() == MAGIC_NUMBER) && (buffer.getInt() == VERSION) && (buffer.getInt() == format.getVersion())) {
+				element = format.read(buffer);
+			}
+		} catch (final NoSuchFileException e) {
+			return null;
+		} catch (IOException | RuntimeException e) {
+			element = null;
+		}
+		try {
+			if (element != null) {
+				Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			} else {
+				Files.deleteIfExists(file);
+			}
+		} catch (final IOException e) {}
+		return element;
+	}
+
+	/**
+	 * Writes an element to the cache and removes the least recently used entries, if the budget is exceeded.
+	 *
+	 * @param hash the hash of the feature model
+	 * @param key the key of the element
+	 * @param format the format of the element
+	 * @param element the element
+	 * @return {@code true} if the element was stored successfully, {@code false} otherwise.
+	 */
+	public <T> boolean store(String hash, String key, ICacheFormat<T> format, T element) {
+		Path tempFile = null;
+		try {
+			Files.createDirectories(directory);
+			tempFile = Files.createTempFile(directory, hash.substring(0, Math.min(8, hash.length())), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(VERSION);
+				out.writeInt(format.getVersion());
+				format.write(element, out);
+			}
+			if (Files.size(tempFile) > budget) {
+				Files.delete(tempFile);
+				return false;
+			}
+			final Path file = getFile(hash, key);
+			try {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			evict();
+			return true;
+		} catch (final IOException e) {
+			Logger.logWarning("Could not write formula cache entry " + key + ": " + e.getMessage());
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (final IOException e1) {}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Removes the least recently used entries until the total size of all entries does not exceed the budget.
+	 *
+	 * @throws IOException if the cache folder cannot be read
+	 */
+	public synchronized void evict() throws IOException {
+		final List<Path> files = new ArrayList<>();
+		final Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+		long totalSize = 0;
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+			for (final Path file : stream) {
+				try {
+					final BasicFileAttributes fileAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+					files.add(file);
+					attributes.put(file, fileAttributes);
+					totalSize += fileAttributes.size();
+				} catch (final IOException e) {}
+			}
+		}
+		if (totalSize <= budget) {
+			return;
+		}
+		Collections.sort(files, new Comparator<Path>() {
+			@Override
+			public int compare(Path o1, Path o2) {
+				return attributes.get(o1).lastModifiedTime().compareTo(attributes.get(o2).lastModifiedTime());
+			}
+		});
+		for (final Path file : files) {
+			if (totalSize <= budget) {
+				break;
+			}
+			try {
+				Files.deleteIfExists(file);
+				totalSize -= attributes.get(file).size();
+			} catch (final IOException e) {}
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 *
+	 * @throws IOException if the cache folder cannot be read
+	 */
+	public synchronized void clear() throws IOException {
+		if (Files.isDirectory(directory)) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+				for (final Path file : stream) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	private Path getFile(String hash, String key) {
+		return directory.resolve(hash + "-" + key.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_SUFFIX);
+	}
+
+}
@@ -0,0 +1,53 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary format for an element that is stored in a {@link FormulaCache}.
+ *
+ * @param <T> The type of the element.
+ */
+public interface ICacheFormat<T> {
+
+	/**
+	 * Must be increased whenever the binary representation changes. Cache entries written with another version are ignored.
+	 *
+	 * @return the version of this format
+	 */
+	int getVersion();
+
+	void write(T element, DataOutput out) throws IOException;
+
+	/**
+	 * Reads an element from the given buffer. The buffer is positioned directly behind the entry's header and uses big-endian byte order (as written by
+	 * {@link DataOutput}).
+	 *
+	 * @param buffer a (usually memory-mapped) read-only buffer
+	 * @return the element or {@code null} if the stored element does not fit the current feature model
+	 * @throws IOException if the stored data is malformed
+	 */
+	T read(ByteBuffer buffer) throws IOException;
+
+}
@@ -20,22 +20,55 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.mig.IncrementalMIGBuilder;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBinaryFormat;
 import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
 import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 
 /**
- * Creates a {@link ModalImplicationGraph}.
+ * Creates a {@link ModalImplicationGraph}. If the graph was already created for the {@link FeatureModelFormula#getPreviousFormula() previous formula}, it is
+ * updated using an {@link IncrementalMIGBuilder}.
  *
  * @author Sebastian Krieter
  */
 public class ModalImplicationGraphCreator extends ACreator<ModalImplicationGraph> {
 
 	private boolean complete = false;
+	private int threads = 1;
 
 	@Override
 	protected ModalImplicationGraph create() {
-		return LongRunningWrapper.runMethod(new MIGBuilder(formula.getElement(new CNFCreator()), complete));
+		final CNF cnf = formula.getElement(new CNFCreator());
+		final FeatureModelFormula previousFormula = formula.getPreviousFormula();
+		if (previousFormula != null) {
+			// The previous formula is only needed for this update, so it can be released even if the graph is built from scratch
+			formula.setPreviousFormula(null);
+			final ACreator<?> previousCreator = previousFormula.getCreator(this);
+			if ((previousCreator instanceof ModalImplicationGraphCreator) && (((ModalImplicationGraphCreator) previousCreator).complete == complete)) {
+				final ModalImplicationGraph previousMig = ((ModalImplicationGraphCreator) previousCreator).getIfCreated();
+				if (previousMig != null) {
+					final IncrementalMIGBuilder builder =
+						new IncrementalMIGBuilder(previousMig, previousFormula.getElement(new CNFCreator()), cnf, complete);
+					builder.setThreads(threads);
+					return LongRunningWrapper.runMethod(builder);
+				}
+			}
+		}
+		final MIGBuilder builder = new MIGBuilder(cnf, complete);
+		builder.setThreads(threads);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+	@Override
+	protected ICacheFormat<ModalImplicationGraph> getCacheFormat() {
+		return new MIGBinaryFormat();
+	}
+
+	@Override
+	protected String getCacheKey() {
+		return super.getCacheKey() + (complete ? "-complete" : "");
 	}
 
 	public boolean isComplete() {
@@ -46,4 +79,17 @@ public class ModalImplicationGraphCreator extends ACreator<ModalImplicationGraph
 		this.complete = complete;
 	}
 
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used to build the graph. By default, the graph is built by a single thread.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 }
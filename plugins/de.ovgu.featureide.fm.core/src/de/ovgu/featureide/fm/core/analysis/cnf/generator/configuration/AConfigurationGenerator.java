@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -43,6 +45,11 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 	private final List<LiteralSet> resultList = new ArrayList<>();
 	private final LinkedBlockingQueue<LiteralSet> resultQueue;
 
+	private IConfigurationSink sink;
+
+	private long timeLimit = 0;
+	private long deadline = 0;
+
 	public AConfigurationGenerator(CNF cnf) {
 		this(cnf, Integer.MAX_VALUE);
 	}
@@ -67,6 +74,7 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 	public List<LiteralSet> analyze(IMonitor<List<LiteralSet>> monitor) throws Exception {
 		resultList.clear();
 		resultQueue.clear();
+		deadline = (timeLimit > 0) ? System.currentTimeMillis() + timeLimit : 0;
 
 		generate(monitor);
 
@@ -76,17 +84,56 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 	protected abstract void generate(IMonitor<List<LiteralSet>> monitor) throws Exception;
 
 	protected void addResult(LiteralSet result) {
-		resultList.add(result);
-		try {
-			resultQueue.put(result);
-		} catch (final InterruptedException e) {
-			Logger.logError(e);
+		if (sink != null) {
+			try {
+				sink.add(result);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		} else {
+			resultList.add(result);
+			try {
+				resultQueue.put(result);
+			} catch (final InterruptedException e) {
+				Logger.logError(e);
+			}
 		}
 	}
 
+	/**
+	 * @return whether the {@link #setTimeLimit(long) time limit} of the current generation is reached
+	 */
+	protected boolean isTimeLimitReached() {
+		return (deadline > 0) && (System.currentTimeMillis() >= deadline);
+	}
+
+	public long getTimeLimit() {
+		return timeLimit;
+	}
+
+	/**
+	 * Sets a time limit for generating configurations. Generators that support an anytime mode stop when the limit is reached and return the best valid
+	 * sample that they found so far. Other generators ignore the time limit.
+	 *
+	 * @param timeLimit the time limit in milliseconds; if not positive, there is no time limit.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
 	@Override
 	public LinkedBlockingQueue<LiteralSet> getResultQueue() {
 		return resultQueue;
 	}
 
+	@Override
+	public void setSink(IConfigurationSink sink) {
+		this.sink = sink;
+	}
+
+	@Override
+	public IConfigurationSink getSink() {
+		return sink;
+	}
+
 }
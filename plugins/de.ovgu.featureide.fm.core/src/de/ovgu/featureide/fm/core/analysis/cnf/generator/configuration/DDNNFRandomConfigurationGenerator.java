@@ -0,0 +1,155 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFBuilder;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFSampler;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.util.ParallelTasks;
+
+/**
+ * Generates uniformly distributed random configurations for a given propositional formula. The formula is compiled into a {@link DDNNF} once (unless a
+ * compiled d-DNNF is given) and each configuration is drawn by a {@link DDNNFSampler}.<br> <br> Configurations can be drawn by multiple threads. Each
+ * thread uses its own random number generator that is seeded by the {@link #getRandom() random number generator} of this generator, and the drawn
+ * configurations are merged in the same order. Thus, for a fixed seed and number of threads, the resulting sample is always the same.<br> If duplicates
+ * are not allowed, duplicate configurations are discarded, which results in a uniform sample without replacement.
+ */
+public class DDNNFRandomConfigurationGenerator extends ARandomConfigurationGenerator {
+
+	/**
+	 * Maximum number of configurations that are drawn by each thread at once.
+	 */
+	private static final int CHUNK_SIZE_PER_THREAD = 1024;
+
+	private DDNNF ddnnf;
+	private int threads = 1;
+
+	public DDNNFRandomConfigurationGenerator(CNF cnf, int maxNumber) {
+		this(cnf, null, maxNumber);
+	}
+
+	/**
+	 * @param cnf the formula
+	 * @param ddnnf the compiled formula (e.g., from a cache) or {@code null}, if the formula should be compiled by the generator
+	 * @param maxNumber the number of configurations
+	 */
+	public DDNNFRandomConfigurationGenerator(CNF cnf, DDNNF ddnnf, int maxNumber) {
+		super(cnf, maxNumber);
+		this.ddnnf = ddnnf;
+	}
+
+	@Override
+	protected void generate(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		if (ddnnf == null) {
+			ddnnf = new DDNNFBuilder(solver.getSatInstance()).build(monitor);
+		}
+		final DDNNFSampler sampler = new DDNNFSampler(ddnnf, getAssumptions());
+		final BigInteger numberOfSolutions = sampler.getNumberOfSolutions();
+		if (numberOfSolutions.signum() == 0) {
+			return;
+		}
+		final int sampleSize = (!allowDuplicates && (numberOfSolutions.compareTo(BigInteger.valueOf(maxSampleSize)) < 0)) //
+			? numberOfSolutions.intValue()
+			: maxSampleSize;
+		monitor.setRemainingWork(sampleSize);
+
+		final Random[] randoms = new Random[Math.max(1, threads)];
+		for (int i = 0; i < randoms.length; i++) {
+			randoms[i] = new Random(getRandom().nextLong());
+		}
+		final HashSet<LiteralSet> sample = allowDuplicates ? null : new HashSet<>();
+		final ExecutorService executor = (randoms.length > 1) ? Executors.newFixedThreadPool(randoms.length) : null;
+		try {
+			int count = 0;
+			while (count < sampleSize) {
+				monitor.checkCancel();
+				final int chunkSize = Math.min(CHUNK_SIZE_PER_THREAD, ((sampleSize - count) + (randoms.length - 1)) / randoms.length);
+				for (final List<LiteralSet> chunk : draw(sampler, randoms, chunkSize, executor)) {
+					for (final LiteralSet configuration : chunk) {
+						if ((sample == null) || sample.add(configuration)) {
+							addResult(configuration);
+							monitor.step();
+							if (++count == sampleSize) {
+								return;
+							}
+						}
+					}
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	private static List<List<LiteralSet>> draw(DDNNFSampler sampler, Random[] randoms, int chunkSize, ExecutorService executor) {
+		final List<List<LiteralSet>> chunks = new ArrayList<>(randoms.length);
+		if (executor == null) {
+			chunks.add(draw(sampler, randoms[0], chunkSize));
+		} else {
+			final List<Callable<List<LiteralSet>>> tasks = new ArrayList<>(randoms.length);
+			for (final Random random : randoms) {
+				tasks.add(() -> draw(sampler, random, chunkSize));
+			}
+			chunks.addAll(ParallelTasks.call(executor, tasks));
+		}
+		return chunks;
+	}
+
+	private static List<LiteralSet> draw(DDNNFSampler sampler, Random random, int chunkSize) {
+		final List<LiteralSet> chunk = new ArrayList<>(chunkSize);
+		for (int i = 0; i < chunkSize; i++) {
+			chunk.add(sampler.sample(random));
+		}
+		return chunk;
+	}
+
+	public DDNNF getDDNNF() {
+		return ddnnf;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used for drawing configurations. For a fixed random seed and number of threads, the resulting sample is always the same.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+}
@@ -35,4 +35,14 @@ public interface IConfigurationGenerator extends IAnalysis<List<LiteralSet>> {
 
 	LinkedBlockingQueue<LiteralSet> getResultQueue();
 
+	/**
+	 * Sets a sink that receives every configuration as soon as it is generated. While a sink is set, configurations are neither collected in the result list
+	 * nor added to the {@link #getResultQueue() result queue}, so the memory consumption does not depend on the number of generated configurations.
+	 *
+	 * @param sink the sink or {@code null} to collect all configurations in memory
+	 */
+	void setSink(IConfigurationSink sink);
+
+	IConfigurationSink getSink();
+
 }
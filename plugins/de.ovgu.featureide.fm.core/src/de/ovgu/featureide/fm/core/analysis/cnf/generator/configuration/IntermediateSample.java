@@ -0,0 +1,53 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * A copy of the best sample found so far together with its t-wise coverage. Generators that support an anytime mode pass it to the
+ * {@link IMonitor#invoke(Object) intermediate function} of their monitor.
+ *
+ * @see AConfigurationGenerator#setTimeLimit(long)
+ */
+public class IntermediateSample extends ArrayList<LiteralSet> {
+
+	private static final long serialVersionUID = 3306813390453315346L;
+
+	private final double coverage;
+
+	public IntermediateSample(Collection<? extends LiteralSet> sample, double coverage) {
+		super(sample);
+		this.coverage = coverage;
+	}
+
+	/**
+	 * @return the coverage of this sample between 0 and 1
+	 */
+	public double getCoverage() {
+		return coverage;
+	}
+
+}
@@ -37,7 +37,10 @@ import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionExcept
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Generates configurations for a given propositional formula such that two-wise feature coverage is achieved.
+ * Generates configurations for a given propositional formula such that two-wise feature coverage is achieved.<br> <br> The generator supports an anytime
+ * mode, which is active if a {@link #setTimeLimit(long) time limit} or an intermediate function is set. After each new configuration, the sample so far is
+ * passed to the {@link IMonitor#invoke(Object) intermediate function} of the monitor as an {@link IntermediateSample} together with its coverage, unless a
+ * {@link #setSink(IConfigurationSink) sink} is set. When the time limit is reached, the generator completes the current configuration and stops.
  *
  * @author Sebastian Krieter
  */
@@ -562,7 +565,10 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 		return model;
 	}
 
-	protected boolean handleNewConfig(int[] curModel, final boolean[] featuresUsedOrg) {
+	/**
+	 * @param sample the sample so far, which is published after adding the new configuration; {@code null} if no sample is published
+	 */
+	protected boolean handleNewConfig(int[] curModel, final boolean[] featuresUsedOrg, List<LiteralSet> sample, IMonitor<List<LiteralSet>> monitor) {
 		if (curModel == null) {
 			return true;
 		}
@@ -605,6 +611,11 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 		count++;
 		time = System.nanoTime();
 
+		if (sample != null) {
+			sample.add(solution);
+			monitor.invoke(new IntermediateSample(sample, (combinationCount > 0) ? (double) partCount / combinationCount : 1.0));
+		}
+
 		try {
 			solver.addInternalClause(solution.negate());
 		} catch (final RuntimeContradictionException e) {
@@ -839,6 +850,8 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 
 		final int numberOfFixedFeatures = solver.getAssignmentSize();
 		final boolean[] featuresUsedOrg = new boolean[featureCount];
+		// The sample is only kept in anytime mode and never in addition to a sink
+		final List<LiteralSet> sample = ((getSink() == null) && ((getTimeLimit() > 0) || monitor.hasIntermediateFunction())) ? new ArrayList<>() : null;
 		for (int i = 0; i < numberOfFixedFeatures; i++) {
 			featuresUsedOrg[Math.abs(solver.getInternalMapping().convertToInternal(solver.assignmentGet(i))) - 1] = true;
 		}
@@ -863,12 +876,12 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
 
 		// allyes
-		handleNewConfig(allYesSolution, featuresUsedOrg);
+		handleNewConfig(allYesSolution, featuresUsedOrg, sample, monitor);
 		if (maxNumber == 1) {
 			return;
 		}
 		// allno
-		handleNewConfig(allNoSolution, featuresUsedOrg);
+		handleNewConfig(allNoSolution, featuresUsedOrg, sample, monitor);
 
 		final int[] varStatus = new int[2];
 
@@ -884,6 +897,9 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 			Arrays.sort(featureIndexArray);
 
 			for (int x = 1, end = featureIndexArray.length; x < end; x++) {
+				if (isTimeLimitReached()) {
+					break;
+				}
 				final FeatureIndex featureIndexA = featureIndexArray[x];
 				final int a = featureIndexA.getIndex();
 				if (featuresUsed[a]) {
@@ -927,7 +943,8 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 				}
 			}
 
-			if (handleNewConfig(solver.findSolution(), featuresUsedOrg)) {
+			// The configuration is completed by the solver, even if the time limit was reached in the meantime
+			if (handleNewConfig(solver.findSolution(), featuresUsedOrg, sample, monitor) || isTimeLimitReached()) {
 				break;
 			} else {
 				solver.shuffleOrder(getRandom());
@@ -0,0 +1,133 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.Arrays;
+
+/**
+ * Set of combinations of presence conditions. Each combination is represented by a single long value that contains the {@link PresenceCondition#getId()
+ * ids} of its presence conditions in ascending order. The values are stored in an open-addressing hash table backed by a primitive array. Thus, the set
+ * does not hold any references to the presence conditions or to the combined conditions.
+ */
+class CombinationKeySet {
+
+	private static final long EMPTY = 0L;
+
+	private final int bitsPerId;
+	private final int[] ids;
+
+	private long[] table = new long[1 << 10];
+	private int size = 0;
+
+	/**
+	 * Checks whether the ids of all combinations of a certain size can be packed into a long value.
+	 *
+	 * @param t the number of presence conditions per combination
+	 * @param numberOfPresenceConditions the number of distinct presence conditions
+	 * @return {@code true} if {@link CombinationKeySet} can be used for the given parameters, {@code false} otherwise
+	 */
+	public static boolean isApplicable(int t, int numberOfPresenceConditions) {
+		if (t <= 0) {
+			return false;
+		}
+		final int bitsPerId = Long.SIZE / t;
+		return (bitsPerId >= 32) || (numberOfPresenceConditions < ((1L << bitsPerId) - 1));
+	}
+
+	public CombinationKeySet(int t) {
+		bitsPerId = Long.SIZE / t;
+		ids = new int[t];
+	}
+
+	/**
+	 * Computes the key of a combination. The order of the presence conditions within the combination does not matter.
+	 *
+	 * @param combination the presence conditions
+	 * @return the key of the combination (never {@code 0})
+	 */
+	public long getKey(PresenceCondition[] combination) {
+		for (int i = 0; i < combination.length; i++) {
+			ids[i] = combination[i].getId() + 1;
+		}
+		Arrays.sort(ids, 0, combination.length);
+		long key = 0;
+		for (int i = 0; i < combination.length; i++) {
+			key = (key << bitsPerId) | ids[i];
+		}
+		return key;
+	}
+
+	public boolean contains(long key) {
+		final int mask = table.length - 1;
+		for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+			final long entry = table[i];
+			if (entry == key) {
+				return true;
+			} else if (entry == EMPTY) {
+				return false;
+			}
+		}
+	}
+
+	public boolean add(long key) {
+		if (insert(table, key)) {
+			if ((++size << 1) > table.length) {
+				final long[] newTable = new long[table.length << 1];
+				for (final long entry : table) {
+					if (entry != EMPTY) {
+						insert(newTable, entry);
+					}
+				}
+				table = newTable;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean insert(long[] table, long key) {
+		final int mask = table.length - 1;
+		for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+			final long entry = table[i];
+			if (entry == key) {
+				return false;
+			} else if (entry == EMPTY) {
+				table[i] = key;
+				return true;
+			}
+		}
+	}
+
+	private static int hash(long key) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		Arrays.fill(table, EMPTY);
+		size = 0;
+	}
+
+}
@@ -43,6 +43,11 @@ class CoverAll implements ICoverStrategy {
 
 	@Override
 	public CombinationStatus cover(ClauseList nextCondition) {
+		return cover(nextCondition, null);
+	}
+
+	@Override
+	public CombinationStatus cover(ClauseList nextCondition, int[][] solutions) {
 		if (util.isCovered(nextCondition)) {
 			return CombinationStatus.COVERED;
 		}
@@ -53,7 +58,10 @@ class CoverAll implements ICoverStrategy {
 			return CombinationStatus.COVERED;
 		}
 
-		if (util.removeInvalidClauses(nextCondition, candidatesList)) {
+		final boolean invalid = (solutions == null) //
+			? util.removeInvalidClauses(nextCondition, candidatesList) //
+			: util.removeInvalidClauses(nextCondition, candidatesList, solutions);
+		if (invalid) {
 			return CombinationStatus.INVALID;
 		}
 
@@ -35,4 +35,16 @@ interface ICoverStrategy {
 
 	CombinationStatus cover(final ClauseList nextCondition);
 
+	/**
+	 * Covers the given expression using solutions that were computed in advance by {@link TWiseConfigurationUtil#computeSolutions}. Strategies that do
+	 * not check the validity of literal sets ignore these solutions.
+	 *
+	 * @param nextCondition the expression
+	 * @param solutions the solution for each literal set of the expression ({@code null} for invalid literal sets)
+	 * @return the resulting status of the expression
+	 */
+	default CombinationStatus cover(final ClauseList nextCondition, final int[][] solutions) {
+		return cover(nextCondition);
+	}
+
 }
@@ -0,0 +1,83 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.job.util.ParallelTasks;
+
+/**
+ * Checks chunks of expressions in parallel before they are covered sequentially. For each expression, it determines whether it is already covered by the
+ * current sample and, if not, computes a solution for each of its literal sets.<br> Every thread uses its own clone of the solver and always processes the
+ * same positions within a chunk. Thus, the results do not depend on the scheduling of the threads.
+ */
+class ParallelCombinationChecker {
+
+	private final TWiseConfigurationUtil util;
+	private final ISatSolver[] solvers;
+	private final ExecutorService executor;
+
+	public ParallelCombinationChecker(TWiseConfigurationUtil util, int threads) {
+		this.util = util;
+		solvers = new ISatSolver[threads];
+		for (int i = 0; i < threads; i++) {
+			solvers[i] = util.getSolver().clone();
+		}
+		executor = Executors.newFixedThreadPool(threads);
+	}
+
+	/**
+	 * Checks the given expressions. Must not be called while the sample is modified.
+	 *
+	 * @param expressions the expressions to check
+	 * @return for each expression either {@code null}, if it is already covered (or empty), or the result of
+	 *         {@link TWiseConfigurationUtil#computeSolutions(ClauseList, ISatSolver)}
+	 */
+	public int[][][] check(List<ClauseList> expressions) {
+		final int size = expressions.size();
+		final int[][][] solutions = new int[size][][];
+		final List<Runnable> tasks = new ArrayList<>(solvers.length);
+		for (int i = 0; i < solvers.length; i++) {
+			final int first = i;
+			final ISatSolver solver = solvers[i];
+			tasks.add(() -> {
+				for (int j = first; j < size; j += solvers.length) {
+					final ClauseList expression = expressions.get(j);
+					if (!expression.isEmpty() && !util.isCovered(expression)) {
+						solutions[j] = util.computeSolutions(expression, solver);
+					}
+				}
+			});
+		}
+		ParallelTasks.run(executor, tasks);
+		return solutions;
+	}
+
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+}
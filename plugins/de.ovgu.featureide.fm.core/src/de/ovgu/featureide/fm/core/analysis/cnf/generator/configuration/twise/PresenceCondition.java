@@ -38,6 +38,8 @@ public class PresenceCondition extends ClauseList {
 
 	private transient final TreeSet<Integer> groups = new TreeSet<>();
 
+	private transient int id = -1;
+
 	public PresenceCondition() {
 		super();
 	}
@@ -62,6 +64,20 @@ public class PresenceCondition extends ClauseList {
 		return groups;
 	}
 
+	/**
+	 * Returns the index of this presence condition within the {@link PresenceConditionManager} that created it. Equal presence conditions are mapped to
+	 * the same object and, thus, share the same id.
+	 *
+	 * @return the id of this presence condition or {@code -1}, if it was not created by a manager
+	 */
+	public int getId() {
+		return id;
+	}
+
+	void setId(int id) {
+		this.id = id;
+	}
+
 	@Override
 	public String toString() {
 		return "Expression [" + super.toString() + "]";
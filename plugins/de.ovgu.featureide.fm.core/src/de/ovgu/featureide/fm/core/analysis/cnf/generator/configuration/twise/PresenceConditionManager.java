@@ -42,6 +42,7 @@ class PresenceConditionManager {
 
 	private final List<List<PresenceCondition>> dictonary = new ArrayList<>();
 	private final List<List<PresenceCondition>> groupedPresenceConditions = new ArrayList<>();
+	private final List<PresenceCondition> presenceConditions = new ArrayList<>();
 
 	public PresenceConditionManager(TWiseConfigurationUtil util, List<List<ClauseList>> expressions) {
 		final LiteralSet coreDeadFeature = util.getDeadCoreFeatures();
@@ -72,10 +73,14 @@ class PresenceConditionManager {
 					}
 				}
 				if (!newClauses.isEmpty()) {
-					final PresenceCondition pc = new PresenceCondition(new ClauseList(newClauses));
+					// Sort before the lookup, such that equal presence conditions are mapped to the same object
+					Collections.sort(newClauses, Comparator.comparingInt(LiteralSet::size));
+					final PresenceCondition pc = new PresenceCondition(newClauses);
 					PresenceCondition mappedPc = presenceConditionSet.get(pc);
 					if (mappedPc == null) {
 						mappedPc = pc;
+						mappedPc.setId(presenceConditions.size());
+						presenceConditions.add(mappedPc);
 						presenceConditionSet.put(mappedPc, mappedPc);
 
 						for (final LiteralSet literalSet : mappedPc) {
@@ -86,13 +91,6 @@ class PresenceConditionManager {
 						}
 					}
 					mappedPc.addGroup(groupIndex);
-					Collections.sort(mappedPc, new Comparator<LiteralSet>() {
-
-						@Override
-						public int compare(LiteralSet o1, LiteralSet o2) {
-							return o1.size() - o2.size();
-						}
-					});
 					newNodeList.add(mappedPc);
 				}
 			}
@@ -148,4 +146,14 @@ class PresenceConditionManager {
 		return groupedPresenceConditions;
 	}
 
+	/**
+	 * Returns all distinct presence conditions ordered by their {@link PresenceCondition#getId() id}. In contrast to the
+	 * {@link #getGroupedPresenceConditions() grouped presence conditions}, the order of this list is not changed by shuffling or sorting.
+	 *
+	 * @return an unmodifiable list of presence conditions
+	 */
+	public List<PresenceCondition> getPresenceConditions() {
+		return Collections.unmodifiableList(presenceConditions);
+	}
+
 }
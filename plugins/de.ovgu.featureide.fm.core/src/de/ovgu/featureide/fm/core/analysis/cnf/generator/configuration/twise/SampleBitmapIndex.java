@@ -0,0 +1,142 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Column-oriented index of a list of configurations. For each literal, it stores a bitmap that contains all configurations in which the literal is
+ * selected. Thus, the configurations that contain a literal set can be determined by combining the bitmaps of its literals.
+ */
+class SampleBitmapIndex {
+
+	private final int numberOfVariables;
+	private final int numberOfConfigurations;
+	private final int numberOfWords;
+	private final long[][] literalBitmaps;
+
+	private long[][] presenceConditionBitmaps = new long[0][];
+
+	public SampleBitmapIndex(List<? extends LiteralSet> configurations, int numberOfVariables) {
+		this.numberOfVariables = numberOfVariables;
+		numberOfConfigurations = configurations.size();
+		numberOfWords = (numberOfConfigurations + 63) >>> 6;
+		literalBitmaps = new long[(2 * numberOfVariables) + 1][numberOfWords];
+
+		int configurationIndex = 0;
+		for (final LiteralSet configuration : configurations) {
+			final int wordIndex = configurationIndex >>> 6;
+			final long bit = 1L << (configurationIndex & 63);
+			for (final int literal : configuration.getLiterals()) {
+				if (literal != 0) {
+					literalBitmaps[getIndex(literal)][wordIndex] |= bit;
+				}
+			}
+			configurationIndex++;
+		}
+	}
+
+	private int getIndex(int literal) {
+		return literal < 0 ? numberOfVariables - literal : literal;
+	}
+
+	/**
+	 * Returns a bitmap of all configurations that satisfy the given presence condition (i.e., that contain all literals of at least one of its literal
+	 * sets). The bitmap is computed only once for each presence condition with an {@link PresenceCondition#getId() id} and must not be modified.
+	 *
+	 * @param presenceCondition the presence condition
+	 * @return the bitmap of the presence condition
+	 */
+	public long[] getBitmap(PresenceCondition presenceCondition) {
+		final int id = presenceCondition.getId();
+		if (id >= presenceConditionBitmaps.length) {
+			presenceConditionBitmaps = Arrays.copyOf(presenceConditionBitmaps, Math.max(id + 1, presenceConditionBitmaps.length << 1));
+		}
+		long[] bitmap = (id < 0) ? null : presenceConditionBitmaps[id];
+		if (bitmap == null) {
+			bitmap = new long[numberOfWords];
+			final long[] literalSetBitmap = new long[numberOfWords];
+			for (final LiteralSet literalSet : presenceCondition) {
+				final int[] literals = literalSet.getLiterals();
+				if (literals.length == 0) {
+					fill(literalSetBitmap);
+				} else {
+					System.arraycopy(literalBitmaps[getIndex(literals[0])], 0, literalSetBitmap, 0, numberOfWords);
+					for (int i = 1; i < literals.length; i++) {
+						and(literalSetBitmap, literalBitmaps[getIndex(literals[i])], literalSetBitmap);
+					}
+				}
+				for (int i = 0; i < numberOfWords; i++) {
+					bitmap[i] |= literalSetBitmap[i];
+				}
+			}
+			if (id >= 0) {
+				presenceConditionBitmaps[id] = bitmap;
+			}
+		}
+		return bitmap;
+	}
+
+	private void fill(long[] bitmap) {
+		for (int i = 0; i < numberOfWords; i++) {
+			bitmap[i] = -1L;
+		}
+		final int rest = numberOfConfigurations & 63;
+		if (rest != 0) {
+			bitmap[numberOfWords - 1] = (1L << rest) - 1;
+		}
+	}
+
+	public int getNumberOfWords() {
+		return numberOfWords;
+	}
+
+	public int getNumberOfConfigurations() {
+		return numberOfConfigurations;
+	}
+
+	/**
+	 * Computes the intersection of two bitmaps.
+	 *
+	 * @return the number of configurations in the intersection
+	 */
+	public static int and(long[] bitmap1, long[] bitmap2, long[] result) {
+		int count = 0;
+		for (int i = 0; i < result.length; i++) {
+			final long word = bitmap1[i] & bitmap2[i];
+			result[i] = word;
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	public static int count(long[] bitmap) {
+		int count = 0;
+		for (final long word : bitmap) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+}
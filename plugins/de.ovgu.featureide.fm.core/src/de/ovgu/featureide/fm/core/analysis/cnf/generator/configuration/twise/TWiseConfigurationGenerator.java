@@ -23,14 +23,18 @@ package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.ITWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IntermediateSample;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.ICoverStrategy.CombinationStatus;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.ICombinationSupplier;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.MergeIterator3;
@@ -40,7 +44,10 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.MonitorThread;
 
 /**
- * Generates configurations for a given propositional formula such that t-wise feature coverage is achieved.
+ * Generates configurations for a given propositional formula such that t-wise feature coverage is achieved.<br> <br> The generator supports an anytime
+ * mode. After each iteration, the best sample found so far is passed to the {@link IMonitor#invoke(Object) intermediate function} of the monitor as an
+ * {@link IntermediateSample} together with its coverage. If a {@link #setTimeLimit(long) time limit} is set, the generator stops when it is reached and
+ * returns the best sample found so far.
  *
  * @author Sebastian Krieter
  */
@@ -123,8 +130,14 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		return TWiseCombiner.convertExpressions(expressions);
 	}
 
+	/**
+	 * Number of combinations per thread that are checked at once, if {@link #getThreads() multiple threads} are used.
+	 */
+	private static final int CHUNK_SIZE_PER_THREAD = 64;
+
 	// TODO Variation Point: Iterations of removing low-contributing Configurations
 	private int iterations = 5;
+	private int threads = 1;
 
 	protected TWiseConfigurationUtil util;
 	protected TWiseCombiner combiner;
@@ -133,11 +146,22 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 	protected final List<List<ClauseList>> nodes;
 	protected PresenceConditionManager presenceConditionManager;
 
+	/**
+	 * Keys of all combinations that were found to be invalid. As the presence conditions keep their ids across iterations, these combinations are skipped
+	 * in subsequent iterations without combining their presence conditions again. Is {@code null} if the ids cannot be packed into a key.
+	 */
+	private CombinationKeySet invalidCombinations;
+
 	protected long numberOfCombinations, count, coveredCount, invalidCount;
 	protected int phaseCount;
 
 	private List<TWiseConfiguration> curResult = null;
 	private ArrayList<TWiseConfiguration> bestResult = null;
+	private List<LiteralSet> bestSolutions = null;
+	private volatile double bestCoverage = 0;
+
+	private SolutionList initialSample = null;
+	private final List<TWiseConfiguration> initialConfigurations = new ArrayList<>();
 
 	protected MonitorThread samplingMonitor;
 
@@ -178,23 +202,143 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		presenceConditionManager = new PresenceConditionManager(util, nodes);
 		// TODO Variation Point: Building Combinations
 		combiner = new TWiseCombiner(cnf.getVariables().size());
+		invalidCombinations = CombinationKeySet.isApplicable(t, presenceConditionManager.getPresenceConditions().size()) //
+			? new CombinationKeySet(t) //
+			: null;
 
 		solver.useSolutionList(0);
+		addInitialSample();
 		solver.setSelectionStrategy(SelectionStrategy.ORG);
 	}
 
+	/**
+	 * Adds the configurations of the {@link #getInitialSample() initial sample} to the current sample. Each configuration is adapted to the variables of
+	 * the current formula. Configurations that are not valid anymore are repaired by computing a solution that keeps as many of its literals as possible.
+	 * Configurations that cannot be repaired or are equal to a previous configuration are dropped.
+	 */
+	private void addInitialSample() {
+		initialConfigurations.clear();
+		if (initialSample == null) {
+			return;
+		}
+		final IVariables variables = util.getCnf().getVariables();
+		final IVariables oldVariables = initialSample.getVariables() != null ? initialSample.getVariables() : variables;
+		final HashSet<LiteralSet> configurationSet = new HashSet<>();
+		for (final LiteralSet oldConfiguration : initialSample.getSolutions()) {
+			final LiteralSet configuration = repair(adapt(oldConfiguration, oldVariables, variables));
+			if ((configuration != null) && configurationSet.add(configuration)) {
+				final TWiseConfiguration newConfiguration = util.newConfiguration(configuration);
+				if (newConfiguration == null) {
+					break;
+				}
+				initialConfigurations.add(newConfiguration);
+			}
+		}
+	}
+
+	private static int[] adapt(LiteralSet configuration, IVariables oldVariables, IVariables newVariables) {
+		final int[] literals = new int[newVariables.size()];
+		for (final int oldLiteral : configuration.getLiterals()) {
+			if (oldLiteral != 0) {
+				final int newVariable = newVariables.getVariable(oldVariables.getName(oldLiteral));
+				if (newVariable != 0) {
+					literals[newVariable - 1] = oldLiteral > 0 ? newVariable : -newVariable;
+				}
+			}
+		}
+		return literals;
+	}
+
+	private LiteralSet repair(int[] literals) {
+		if (!util.hasSolver()) {
+			for (int i = 0; i < literals.length; i++) {
+				if (literals[i] == 0) {
+					literals[i] = -(i + 1);
+				}
+			}
+			return new LiteralSet(literals, LiteralSet.Order.INDEX, false);
+		}
+		// The solver prefers the opposite phase of the given model, thus, it is negated.
+		// Valid configurations are found without any conflict and remain unchanged, unknown variables are deselected.
+		final int[] preferredModel = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			preferredModel[i] = -literals[i];
+		}
+		solver.setSelectionStrategy(preferredModel, true);
+		final int[] solution = solver.findSolution();
+		if (solution == null) {
+			return null;
+		}
+		util.addSolverSolution(solution);
+		return new LiteralSet(Arrays.copyOf(solution, solution.length), LiteralSet.Order.INDEX, false);
+	}
+
 	@Override
 	protected void generate(IMonitor<List<LiteralSet>> monitor) throws Exception {
 		init();
 
 		phaseCount = 0;
+		bestResult = null;
+		bestSolutions = null;
+		bestCoverage = 0;
 
 		for (int i = 0; i < iterations; i++) {
 			trimConfigurations();
-			buildCombinations();
+			final boolean complete = buildCombinations();
+			updateBestResult(complete);
+			monitor.invoke(new IntermediateSample(bestSolutions, bestCoverage));
+			if (!complete || isTimeLimitReached()) {
+				break;
+			}
+		}
+
+		final HashSet<LiteralSet> initialSolutions = new HashSet<>();
+		for (final TWiseConfiguration configuration : initialConfigurations) {
+			final LiteralSet solution = configuration.getCompleteSolution();
+			initialSolutions.add(solution);
+			addResult(solution);
 		}
+		bestSolutions.stream() //
+				.filter(solution -> !initialSolutions.contains(solution)) //
+				.forEach(this::addResult);
+	}
 
-		bestResult.forEach(configuration -> addResult(configuration.getCompleteSolution()));
+	/**
+	 * Keeps the current sample, if it is smaller than the best sample so far. A sample of an interrupted iteration is only kept, if there is no other
+	 * sample yet.
+	 *
+	 * @param complete whether all combinations were processed in the current iteration
+	 */
+	private void updateBestResult(boolean complete) {
+		curResult = util.getResultList();
+		if ((bestResult == null) || (complete && (bestResult.size() > curResult.size()))) {
+			bestResult = new ArrayList<>(curResult.size());
+			curResult.stream().map(TWiseConfiguration::clone).forEach(bestResult::add);
+			bestSolutions = getSolutions(bestResult);
+			bestCoverage = (complete && ((coveredCount + invalidCount) == numberOfCombinations)) ? 1.0 : computeCoverage(bestSolutions);
+		}
+	}
+
+	/**
+	 * Computes the coverage of a sample for which not all combinations were processed. In order to not exceed the time limit, the validity of the
+	 * remaining combinations is not checked. Instead, all combinations that were not found to be invalid are considered as valid.
+	 */
+	private double computeCoverage(List<LiteralSet> sample) {
+		final TWiseConfigurationStatistic statistic = new TWiseConfigurationStatistic();
+		statistic.setT(t);
+		statistic.setOnlyCoverage(true);
+		statistic.setCountValid(false);
+		statistic.calculate(util, sample, presenceConditionManager.getGroupedPresenceConditions());
+		final long validCount = numberOfCombinations - invalidCount;
+		return (validCount > 0) ? Math.min(1.0, (double) statistic.getNumberOfCoveredConditions() / validCount) : 1.0;
+	}
+
+	private static List<LiteralSet> getSolutions(List<TWiseConfiguration> configurations) {
+		final List<LiteralSet> solutions = new ArrayList<>(configurations.size());
+		for (final TWiseConfiguration configuration : configurations) {
+			solutions.add(configuration.getCompleteSolution());
+		}
+		return solutions;
 	}
 
 	private void trimConfigurations() {
@@ -221,39 +365,51 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 
 	private int removeSolutions(double[] values, final double reference, int index, List<TWiseConfiguration> solutionList) {
 		for (final Iterator<TWiseConfiguration> iterator = solutionList.iterator(); iterator.hasNext();) {
-			iterator.next();
-			if (values[index++] < reference) {
+			final TWiseConfiguration configuration = iterator.next();
+			if ((values[index++] < reference) && !isInitialConfiguration(configuration)) {
 				iterator.remove();
 			}
 		}
 		return index;
 	}
 
-	private void buildCombinations() {
+	private boolean isInitialConfiguration(TWiseConfiguration configuration) {
+		for (final TWiseConfiguration initialConfiguration : initialConfigurations) {
+			if (initialConfiguration == configuration) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return {@code false}, if the {@link #setTimeLimit(long) time limit} was reached before all combinations were processed, {@code true} otherwise.
+	 */
+	private boolean buildCombinations() {
 		// TODO Variation Point: Cover Strategies
 		final List<? extends ICoverStrategy> phaseList = Arrays.asList(//
 				new CoverAll(util) //
 		);
 
 		// TODO Variation Point: Combination order
-		final ICombinationSupplier<ClauseList> it;
+		final ICombinationSupplier<PresenceCondition[]> it;
 		presenceConditionManager.shuffleSort(getRandom());
 		final List<List<PresenceCondition>> groupedPresenceConditions = presenceConditionManager.getGroupedPresenceConditions();
 		if (groupedPresenceConditions.size() == 1) {
-			it = new SingleIterator(t, util.getCnf().getVariables().size(), groupedPresenceConditions.get(0));
+			it = new SingleIterator(t, groupedPresenceConditions.get(0));
 		} else {
-			it = new MergeIterator3(t, util.getCnf().getVariables().size(), groupedPresenceConditions);
+			it = new MergeIterator3(t, groupedPresenceConditions);
 		}
 		numberOfCombinations = it.size();
+		coveredCount = 0;
+		invalidCount = 0;
+		boolean complete = true;
 		if (numberOfCombinations == 0) {
 			final LiteralSet[] solverSolutions = util.getSolverSolutions();
 			if ((solverSolutions.length > 0) && (solverSolutions[0] != null)) {
 				util.newConfiguration(solverSolutions[0]);
 			}
 		} else {
-			coveredCount = 0;
-			invalidCount = 0;
-
 			samplingMonitor = new MonitorThread(new SamplingMonitor(), 60_000);
 			try {
 				samplingMonitor.start();
@@ -261,37 +417,34 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 				count = coveredCount;
 				phaseCount++;
 				ICoverStrategy phase = phaseList.get(0);
-				while (true) {
-					final ClauseList combinedCondition = it.get();
-					if (combinedCondition == null) {
-						break;
-					}
-					if (combinedCondition.isEmpty()) {
-						invalidCount++;
-					} else {
-						final CombinationStatus covered = phase.cover(combinedCondition);
-						switch (covered) {
-						case NOT_COVERED:
-							combinationListUncovered.add(combinedCondition);
+				if ((threads > 1) && util.hasSolver()) {
+					complete = coverParallel(it, phase, combinationListUncovered);
+				} else {
+					// The combined condition is reused, unless it is stored in the list of uncovered combinations
+					ClauseList combinedCondition = new ClauseList();
+					while (true) {
+						if (isInterrupted()) {
+							complete = false;
 							break;
-						case COVERED:
-							coveredCount++;
-							combinedCondition.clear();
-							break;
-						case INVALID:
-							invalidCount++;
-							combinedCondition.clear();
-							break;
-						default:
-							combinedCondition.clear();
+						}
+						final PresenceCondition[] combination = it.get();
+						if (combination == null) {
 							break;
 						}
+						final long key = getKey(combination);
+						if (isKnownInvalid(key)) {
+							continue;
+						}
+						combinedCondition.clear();
+						combiner.combineConditions(combination, combinedCondition);
+						if (cover(phase, combinedCondition, key, null, combinationListUncovered)) {
+							combinedCondition = new ClauseList();
+						}
 					}
-					count++;
 				}
 
 				int coveredIndex = -1;
-				for (int j = 1; j < phaseList.size(); j++) {
+				for (int j = 1; complete && (j < phaseList.size()); j++) {
 					phaseCount++;
 					phase = phaseList.get(j);
 					count = coveredCount + invalidCount;
@@ -319,12 +472,108 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 				samplingMonitor.finish();
 			}
 		}
+		return complete;
+	}
 
-		curResult = util.getResultList();
-		if ((bestResult == null) || (bestResult.size() > curResult.size())) {
-			bestResult = new ArrayList<>(curResult.size());
-			curResult.stream().map(TWiseConfiguration::clone).forEach(bestResult::add);
+	private boolean coverParallel(ICombinationSupplier<PresenceCondition[]> it, ICoverStrategy phase, List<ClauseList> combinationListUncovered) {
+		final ParallelCombinationChecker checker = new ParallelCombinationChecker(util, threads);
+		try {
+			final int chunkSize = threads * CHUNK_SIZE_PER_THREAD;
+			final List<ClauseList> chunk = new ArrayList<>(chunkSize);
+			final long[] chunkKeys = new long[chunkSize];
+			for (PresenceCondition[] combination = it.get(); combination != null;) {
+				if (isInterrupted()) {
+					return false;
+				}
+				chunk.clear();
+				while ((chunk.size() < chunkSize) && (combination != null)) {
+					final long key = getKey(combination);
+					if (!isKnownInvalid(key)) {
+						final ClauseList combinedCondition = new ClauseList();
+						combiner.combineConditions(combination, combinedCondition);
+						chunkKeys[chunk.size()] = key;
+						chunk.add(combinedCondition);
+					}
+					combination = it.get();
+				}
+				final int[][][] solutions = checker.check(chunk);
+				for (int i = 0; i < solutions.length; i++) {
+					final ClauseList nextCondition = chunk.get(i);
+					if ((solutions[i] == null) && !nextCondition.isEmpty()) {
+						coveredCount++;
+						count++;
+						nextCondition.clear();
+					} else {
+						cover(phase, nextCondition, chunkKeys[i], solutions[i], combinationListUncovered);
+					}
+				}
+			}
+		} finally {
+			checker.shutdown();
 		}
+		return true;
+	}
+
+	private long getKey(PresenceCondition[] combination) {
+		return (invalidCombinations != null) ? invalidCombinations.getKey(combination) : 0;
+	}
+
+	/**
+	 * Counts a combination as invalid, if it was already found to be invalid in a previous iteration.
+	 *
+	 * @param key the key of the combination
+	 * @return {@code true} if the combination is known to be invalid, {@code false} otherwise
+	 */
+	private boolean isKnownInvalid(long key) {
+		if ((invalidCombinations != null) && invalidCombinations.contains(key)) {
+			invalidCount++;
+			count++;
+			return true;
+		}
+		return false;
+	}
+
+	private void addInvalid(long key) {
+		invalidCount++;
+		if (invalidCombinations != null) {
+			invalidCombinations.add(key);
+		}
+	}
+
+	/**
+	 * @return whether the {@link #setTimeLimit(long) time limit} is reached and the current sample contains at least one configuration
+	 */
+	private boolean isInterrupted() {
+		return isTimeLimitReached() && !(util.getCompleteSolutionList().isEmpty() && util.getIncompleteSolutionList().isEmpty());
+	}
+
+	/**
+	 * @return {@code true} if the combined condition was added to the list of uncovered combinations, {@code false} otherwise
+	 */
+	private boolean cover(ICoverStrategy phase, ClauseList combinedCondition, long key, int[][] solutions, List<ClauseList> combinationListUncovered) {
+		count++;
+		if (combinedCondition.isEmpty()) {
+			addInvalid(key);
+		} else {
+			final CombinationStatus covered = (solutions == null) ? phase.cover(combinedCondition) : phase.cover(combinedCondition, solutions);
+			switch (covered) {
+			case NOT_COVERED:
+				combinationListUncovered.add(combinedCondition);
+				return true;
+			case COVERED:
+				coveredCount++;
+				combinedCondition.clear();
+				break;
+			case INVALID:
+				addInvalid(key);
+				combinedCondition.clear();
+				break;
+			default:
+				combinedCondition.clear();
+				break;
+			}
+		}
+		return false;
 	}
 
 	public TWiseConfigurationUtil getUtil() {
@@ -339,4 +588,46 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		this.iterations = iterations;
 	}
 
+	/**
+	 * Returns the t-wise coverage of the best sample found so far, which is also the sample that was last passed to the intermediate function of the
+	 * monitor. If the time limit or the maximum sample size was reached, the value is a lower bound, as the validity of uncovered combinations is not
+	 * checked.
+	 *
+	 * @return the coverage between 0 and 1
+	 */
+	public double getCoverage() {
+		return bestCoverage;
+	}
+
+	public SolutionList getInitialSample() {
+		return initialSample;
+	}
+
+	/**
+	 * Sets a previously generated sample that is updated instead of generating a new sample from scratch (e.g., after the feature model was changed). All
+	 * configurations of the initial sample are kept in the same order at the beginning of the resulting sample. Invalid configurations are repaired, such
+	 * that they differ as little as possible from the original configurations. Afterwards, only configurations for interactions that are not already
+	 * covered are added.<br> The variables of the initial sample are mapped to the variables of the current formula by their names. If the initial sample
+	 * has no variables, the variables of the current formula are used.
+	 *
+	 * @param initialSample the previous sample or {@code null}
+	 */
+	public void setInitialSample(SolutionList initialSample) {
+		this.initialSample = initialSample;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used for checking the validity of combinations. For a fixed random seed and number of threads, the resulting sample is
+	 * always the same.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 }
@@ -0,0 +1,362 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.BinomialCalculator;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Orders a sample by greedy t-wise interaction coverage, such that each configuration covers as many interactions as possible that are not covered by
+ * any previous configuration.<br> The covered interactions are stored in a bitset that is indexed by the combinatorial number system (or in a
+ * {@link CombinationKeySet}, if the bitset would be too large). For each literal, a bitmap of all configurations that contain it is used to find the
+ * configurations that contain a newly covered interaction, whose gain is then decreased. Thus, every pair of a configuration and one of its interactions
+ * is processed at most once. The configurations are kept in a priority queue with the gain they had when they were added. Entries with a stale gain
+ * are added again with their current gain when they reach the head of the queue.<br> <br> By default, only interactions of size t are considered. If
+ * {@link #setCoverAllSizes(boolean) all sizes} are considered, the gain of a configuration is the sum of its new interactions of each size from 1 to t.
+ */
+public class TWiseConfigurationSorter implements LongRunningMethod<List<LiteralSet>> {
+
+	/**
+	 * Maximum number of interactions for which a bitset is used to store the covered interactions.
+	 */
+	private static final long BITSET_LIMIT = 1L << 28;
+
+	private static final class Candidate {
+
+		private final int index;
+		private final long gain;
+
+		private Candidate(int index, long gain) {
+			this.index = index;
+			this.gain = gain;
+		}
+
+	}
+
+	private final List<? extends LiteralSet> sample;
+	private final int t;
+
+	private LiteralSet literals = null;
+	private boolean skipRedundant = false;
+	private boolean coverAllSizes = false;
+
+	private int[] order;
+
+	private int[][] configurationIndices;
+	private long[][] literalBitmaps;
+	private long[][] ranks;
+	private long[] gains;
+	private long[][] coveredBitsets;
+	private CombinationKeySet[] coveredKeys;
+
+	/**
+	 * @param sample the sample to order
+	 * @param t the size of the interactions
+	 */
+	public TWiseConfigurationSorter(List<? extends LiteralSet> sample, int t) {
+		this.sample = sample;
+		this.t = t;
+	}
+
+	@Override
+	public List<LiteralSet> execute(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		final int n = sample.size();
+		monitor.setRemainingWork(n + 1);
+
+		init();
+		monitor.step();
+
+		final PriorityQueue<Candidate> queue = new PriorityQueue<>(Math.max(1, n), (c1, c2) -> {
+			final int diff = Long.compare(c2.gain, c1.gain);
+			return diff != 0 ? diff : c1.index - c2.index;
+		});
+		for (int i = 0; i < n; i++) {
+			queue.add(new Candidate(i, gains[i]));
+		}
+
+		final boolean[] selected = new boolean[n];
+		final int[] newOrder = new int[n];
+		int orderIndex = 0;
+		while (!queue.isEmpty()) {
+			monitor.checkCancel();
+			final Candidate next = queue.poll();
+			final long gain = gains[next.index];
+			if (gain != next.gain) {
+				queue.add(new Candidate(next.index, gain));
+			} else if (gain == 0) {
+				// No remaining configuration covers a new interaction
+				break;
+			} else {
+				selected[next.index] = true;
+				newOrder[orderIndex++] = next.index;
+				cover(configurationIndices[next.index]);
+				monitor.step();
+			}
+		}
+		if (!skipRedundant) {
+			for (int i = 0; i < n; i++) {
+				if (!selected[i]) {
+					newOrder[orderIndex++] = i;
+				}
+			}
+		}
+
+		order = Arrays.copyOf(newOrder, orderIndex);
+		final List<LiteralSet> sortedSample = new ArrayList<>(orderIndex);
+		for (final int index : order) {
+			sortedSample.add(sample.get(index));
+		}
+
+		configurationIndices = null;
+		literalBitmaps = null;
+		gains = null;
+		coveredBitsets = null;
+		coveredKeys = null;
+		return sortedSample;
+	}
+
+	/**
+	 * Maps each considered literal to an index, converts every configuration into an ascending array of literal indices, and creates the data structures
+	 * for the covered interactions.
+	 */
+	private void init() {
+		int maxVariable = 0;
+		for (final LiteralSet configuration : sample) {
+			for (final int literal : configuration.getLiterals()) {
+				maxVariable = Math.max(maxVariable, Math.abs(literal));
+			}
+		}
+		final int[] literalIndex = new int[(2 * maxVariable) + 1];
+		if (literals == null) {
+			Arrays.fill(literalIndex, 1);
+			literalIndex[maxVariable] = 0;
+		} else {
+			for (final int literal : literals.getLiterals()) {
+				if ((literal != 0) && (Math.abs(literal) <= maxVariable)) {
+					literalIndex[literal + maxVariable] = 1;
+				}
+			}
+		}
+		int numberOfLiterals = 0;
+		for (int i = 0; i < literalIndex.length; i++) {
+			if (literalIndex[i] != 0) {
+				literalIndex[i] = ++numberOfLiterals;
+			}
+		}
+
+		final int n = sample.size();
+		final int numberOfWords = (n + 63) >>> 6;
+		literalBitmaps = new long[numberOfLiterals][numberOfWords];
+		configurationIndices = new int[n][];
+		final int[] buffer = new int[literalIndex.length];
+		for (int i = 0; i < n; i++) {
+			int size = 0;
+			for (final int literal : sample.get(i).getLiterals()) {
+				final int index = (literal != 0) ? literalIndex[literal + maxVariable] - 1 : -1;
+				if (index >= 0) {
+					buffer[size++] = index;
+					literalBitmaps[index][i >>> 6] |= 1L << i;
+				}
+			}
+			final int[] indices = Arrays.copyOf(buffer, size);
+			Arrays.sort(indices);
+			configurationIndices[i] = indices;
+		}
+
+		final BinomialCalculator binomialCalculator = new BinomialCalculator(t, Math.max(numberOfLiterals, t));
+		ranks = new long[t][numberOfLiterals];
+		for (int j = 0; j < t; j++) {
+			for (int k = 0; k < numberOfLiterals; k++) {
+				ranks[j][k] = binomialCalculator.binomial(k, j + 1);
+			}
+		}
+		gains = new long[n];
+		coveredBitsets = new long[t + 1][];
+		coveredKeys = new CombinationKeySet[t + 1];
+		for (int k = getMinimumSize(); k <= t; k++) {
+			for (int i = 0; i < n; i++) {
+				gains[i] += binomialCalculator.binomial(configurationIndices[i].length, k);
+			}
+			final long numberOfInteractions = binomialCalculator.binomial(numberOfLiterals, k);
+			if (numberOfInteractions <= BITSET_LIMIT) {
+				coveredBitsets[k] = new long[(int) ((numberOfInteractions + 63) >>> 6)];
+			} else {
+				coveredKeys[k] = new CombinationKeySet(k);
+			}
+		}
+	}
+
+	private int getMinimumSize() {
+		return coverAllSizes ? 1 : t;
+	}
+
+	/**
+	 * Marks all interactions of a configuration as covered.
+	 *
+	 * @param indices the ascending literal indices of the configuration
+	 */
+	private void cover(int[] indices) {
+		for (int k = getMinimumSize(); k <= t; k++) {
+			cover(indices, k);
+		}
+	}
+
+	/**
+	 * Marks all interactions of size k of a configuration as covered. For each interaction that was not covered before, the gain of every configuration
+	 * that contains it is decreased.
+	 *
+	 * @param indices the ascending literal indices of the configuration
+	 * @param k the size of the interactions
+	 */
+	private void cover(int[] indices, int k) {
+		final int m = indices.length;
+		if (m < k) {
+			return;
+		}
+		final int[] c = new int[k];
+		final long[] prefixRanks = new long[k + 1];
+		// prefixBitmaps[j] contains all configurations that contain the literals c[0..j]
+		final long[][] prefixBitmaps = new long[Math.max(0, k - 1)][];
+		for (int j = 1; j < (k - 1); j++) {
+			prefixBitmaps[j] = new long[literalBitmaps[0].length];
+		}
+		for (int j = 0; j < k; j++) {
+			c[j] = j;
+			prefixRanks[j + 1] = prefixRanks[j] + ranks[j][indices[j]];
+		}
+		updatePrefixBitmaps(indices, c, prefixBitmaps, 0);
+		while (true) {
+			if (markCovered(prefixRanks[k], k)) {
+				final long[] lastBitmap = literalBitmaps[indices[c[k - 1]]];
+				final long[] prefixBitmap = (k > 1) ? prefixBitmaps[k - 2] : null;
+				for (int i = 0; i < lastBitmap.length; i++) {
+					long word = (k > 1) ? prefixBitmap[i] & lastBitmap[i] : lastBitmap[i];
+					for (; word != 0; word &= word - 1) {
+						gains[(i << 6) + Long.numberOfTrailingZeros(word)]--;
+					}
+				}
+			}
+
+			int j = k - 1;
+			while ((j >= 0) && (c[j] == ((m - k) + j))) {
+				j--;
+			}
+			if (j < 0) {
+				break;
+			}
+			c[j]++;
+			prefixRanks[j + 1] = prefixRanks[j] + ranks[j][indices[c[j]]];
+			final int changed = j;
+			for (j++; j < k; j++) {
+				c[j] = c[j - 1] + 1;
+				prefixRanks[j + 1] = prefixRanks[j] + ranks[j][indices[c[j]]];
+			}
+			updatePrefixBitmaps(indices, c, prefixBitmaps, changed);
+		}
+	}
+
+	private void updatePrefixBitmaps(int[] indices, int[] c, long[][] prefixBitmaps, int from) {
+		for (int j = from; j < (c.length - 1); j++) {
+			if (j == 0) {
+				prefixBitmaps[0] = literalBitmaps[indices[c[0]]];
+			} else {
+				final long[] previous = prefixBitmaps[j - 1];
+				final long[] bitmap = literalBitmaps[indices[c[j]]];
+				final long[] prefix = prefixBitmaps[j];
+				for (int i = 0; i < prefix.length; i++) {
+					prefix[i] = previous[i] & bitmap[i];
+				}
+			}
+		}
+	}
+
+	private boolean markCovered(long rank, int k) {
+		final long[] coveredBitset = coveredBitsets[k];
+		if (coveredBitset != null) {
+			final int word = (int) (rank >>> 6);
+			final long bit = 1L << rank;
+			if ((coveredBitset[word] & bit) == 0) {
+				coveredBitset[word] |= bit;
+				return true;
+			}
+			return false;
+		} else {
+			return coveredKeys[k].add(rank + 1);
+		}
+	}
+
+	/**
+	 * Returns the order that was computed by the last execution.
+	 *
+	 * @return the indices of the configurations in the original sample in sorted order
+	 */
+	public int[] getOrder() {
+		return order;
+	}
+
+	public LiteralSet getLiterals() {
+		return literals;
+	}
+
+	/**
+	 * Sets the literals that are considered for interactions. By default, all literals are considered.
+	 *
+	 * @param literals the literals or {@code null} for all literals
+	 */
+	public void setLiterals(LiteralSet literals) {
+		this.literals = literals;
+	}
+
+	public boolean isSkipRedundant() {
+		return skipRedundant;
+	}
+
+	/**
+	 * Sets whether configurations that do not cover any new interaction should be removed from the result. Otherwise, they are appended in their
+	 * original order.
+	 *
+	 * @param skipRedundant {@code true} to remove redundant configurations
+	 */
+	public void setSkipRedundant(boolean skipRedundant) {
+		this.skipRedundant = skipRedundant;
+	}
+
+	public boolean isCoverAllSizes() {
+		return coverAllSizes;
+	}
+
+	/**
+	 * Sets whether interactions of all sizes from 1 to t are considered. Otherwise, only interactions of size t are considered.
+	 *
+	 * @param coverAllSizes {@code true} to consider interactions of all sizes up to t
+	 */
+	public void setCoverAllSizes(boolean coverAllSizes) {
+		this.coverAllSizes = coverAllSizes;
+	}
+
+}
@@ -22,18 +22,29 @@ package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
-import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.util.Pair;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.job.util.ParallelTasks;
 
 /**
- * Calculates statistics regarding t-wise feature coverage of a set of solutions.
+ * Calculates statistics regarding t-wise feature coverage of a set of solutions.<br> Coverage is computed on a {@link SampleBitmapIndex bitmap index} of
+ * the solutions, such that the solutions covering a combination are determined by intersecting the bitmaps of its presence conditions. The combinations
+ * are split into a fixed number of slices, which are processed by multiple threads and merged in a fixed order. Thus, the results do not depend on the
+ * number of threads.
  *
  * @author Sebastian Krieter
  */
 public class TWiseConfigurationStatistic {
 
+	/**
+	 * Maximum number of slices into which the combinations are split, independent of the number of threads.
+	 */
+	private static final int NUMBER_OF_SLICES = 64;
+
 	private long numberOfValidConditions;
 	private long numberOfInvalidConditions;
 	private long numberOfCoveredConditions;
@@ -53,6 +64,7 @@ public class TWiseConfigurationStatistic {
 	private boolean fastCalc = false;
 	private boolean onlyCoverage = false;
 	private int t;
+	private int threads = Runtime.getRuntime().availableProcessors();
 
 	public boolean isCountValid() {
 		return countValid;
@@ -86,6 +98,19 @@ public class TWiseConfigurationStatistic {
 		this.onlyCoverage = onlyCoverage;
 	}
 
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads that process the combinations. The results are the same for any number of threads.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 	public void calculate(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
 		numberOfValidConditions = 0;
 		numberOfInvalidConditions = 0;
@@ -95,330 +120,220 @@ public class TWiseConfigurationStatistic {
 		configValues = null;
 		configValues2 = null;
 
-		if (onlyCoverage) {
-			completeCalc2(util, configurations, groupedPresenceConditions);
-		} else {
-			if (fastCalc) {
-				fastCalc(util, configurations, groupedPresenceConditions);
-			} else {
-				completeCalc(util, configurations, groupedPresenceConditions);
-			}
-		}
-	}
-
-	private void completeCalc(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
-		configValues = new double[configurations.size()];
-		configValues2 = new double[configurations.size()];
-
-		final TWiseCombiner combiner = new TWiseCombiner(util.getCnf().getVariables().size());
-		final ClauseList combinedCondition = new ClauseList();
-		final PresenceCondition[] clauseListArray = new PresenceCondition[t];
-
-		final ArrayList<List<Pair<Integer, LiteralSet>>> lists = new ArrayList<>(t);
-		{
-			for (int i = 0; i <= t; i++) {
-				lists.add(new ArrayList<Pair<Integer, LiteralSet>>());
-			}
-			final List<Pair<Integer, LiteralSet>> list = lists.get(0);
-			int confIndex = 0;
-			for (final LiteralSet configuration : configurations) {
-				list.add(new Pair<>(confIndex++, configuration));
-			}
-		}
-		final List<Pair<Integer, LiteralSet>> curConfigurationList = lists.get(t);
-
+		final SampleBitmapIndex index = new SampleBitmapIndex(configurations, util.getCnf().getVariables().size());
+		final List<PresenceCondition[]> groups = new ArrayList<>(groupedPresenceConditions.size());
+		final List<long[][]> groupBitmaps = new ArrayList<>(groupedPresenceConditions.size());
+		final List<int[]> tasks = new ArrayList<>();
 		for (final List<PresenceCondition> expressions : groupedPresenceConditions) {
 			final int n = expressions.size();
 			if (n == 0) {
 				continue;
 			}
-			final int t2 = (n < t) ? n : t;
-			final int[] c = new int[t2 + 1];
-			c[0] = -1;
-			for (int i = 1; i <= t2; i++) {
-				c[i] = n - (t2 - i);
+			final long[][] bitmaps = new long[n][];
+			for (int i = 0; i < n; i++) {
+				bitmaps[i] = index.getBitmap(expressions.get(i));
 			}
-			boolean first = true;
-
-			combinationLoop: while (true) {
-				int i = t2;
-				for (; i > 0; i--) {
-					final int ci = ++c[i];
-					if (ci < ((n - t2) + i)) {
-						break;
-					}
-				}
-
-				if (i == 0) {
-					if (first) {
-						first = false;
-					} else {
-						break combinationLoop;
-					}
-				}
+			final int groupIndex = groups.size();
+			groups.add(expressions.toArray(new PresenceCondition[n]));
+			groupBitmaps.add(bitmaps);
+			// Each task processes all combinations of a group that start with a certain presence condition
+			for (int first = 0; first <= (n - Math.min(n, t)); first++) {
+				tasks.add(new int[] { groupIndex, first });
+			}
+		}
 
-				for (int j = i + 1; j <= t2; j++) {
-					c[j] = c[j - 1] + 1;
-				}
+		// Each slice sums up its own values, so the order of floating point additions does not depend on the number of threads
+		final int numberOfSlices = Math.max(1, Math.min(NUMBER_OF_SLICES, tasks.size()));
+		final Worker[] workers = new Worker[numberOfSlices];
+		final Queue<ISatSolver> solvers = new ConcurrentLinkedQueue<>();
+		for (int i = 0; i < numberOfSlices; i++) {
+			workers[i] = new Worker(util, index, solvers);
+		}
+		final int numberOfThreads = Math.max(1, Math.min(threads, numberOfSlices));
+		if (numberOfThreads == 1) {
+			for (int i = 0; i < numberOfSlices; i++) {
+				workers[i].run(groups, groupBitmaps, tasks, i, numberOfSlices);
+			}
+		} else {
+			final List<Runnable> slices = new ArrayList<>(numberOfSlices);
+			for (int i = 0; i < numberOfSlices; i++) {
+				final Worker worker = workers[i];
+				final int first = i;
+				slices.add(() -> worker.run(groups, groupBitmaps, tasks, first, numberOfSlices));
+			}
+			ParallelTasks.run(numberOfThreads, slices);
+		}
 
-				for (int j = i; j <= t2; j++) {
-					if (j > 0) {
-						final List<Pair<Integer, LiteralSet>> prevList = lists.get(j - 1);
-						final List<Pair<Integer, LiteralSet>> curList = lists.get(j);
-						curList.clear();
-						final PresenceCondition presenceCondition = expressions.get(c[j]);
-						entryLoop: for (final Pair<Integer, LiteralSet> entry : prevList) {
-							for (final LiteralSet literals : presenceCondition) {
-								if (entry.getValue().containsAll(literals)) {
-									curList.add(entry);
-									continue entryLoop;
-								}
-							}
-						}
-					}
-				}
+		configValues = new double[configurations.size()];
+		configValues2 = new double[configurations.size()];
+		for (final Worker worker : workers) {
+			numberOfValidConditions += worker.numberOfValidConditions;
+			numberOfInvalidConditions += worker.numberOfInvalidConditions;
+			numberOfCoveredConditions += worker.numberOfCoveredConditions;
+			numberOfUncoveredConditions += worker.numberOfUncoveredConditions;
+			for (int i = 0; i < configValues.length; i++) {
+				configValues[i] += worker.configValues[i];
+				configValues2[i] += worker.configValues2[i];
+			}
+		}
 
-				final int count = curConfigurationList.size();
-				if (count > 0) {
-					numberOfCoveredConditions++;
-					if (countValid) {
-						numberOfValidConditions++;
-					}
-					final double value = 1.0 / count;
-					final long value2 = count == 1 ? 1 : 0;
-					for (final Pair<Integer, LiteralSet> entry : curConfigurationList) {
-						final int k = entry.getKey();
-						configValues[k] += value;
-						configValues2[k] += value2;
-					}
-				} else {
-					if (countValid) {
-						for (int j = 1; j < c.length; j++) {
-							clauseListArray[j - 1] = expressions.get(c[j]);
-						}
-						combinedCondition.clear();
-						combiner.combineConditions(clauseListArray, combinedCondition);
-						if (util.isCombinationValid(combinedCondition)) {
-							numberOfValidConditions++;
-							numberOfUncoveredConditions++;
-						} else {
-							numberOfInvalidConditions++;
-						}
-					} else {
-						numberOfUncoveredConditions++;
+		if (fastCalc && !onlyCoverage) {
+			int confIndex = 0;
+			for (final LiteralSet configuration : configurations) {
+				int count = 0;
+				for (final int literal : configuration.getLiterals()) {
+					if (literal == 0) {
+						count++;
 					}
 				}
+				final double d = (double) count / configuration.size();
+				final double factor = (2 - (d * d));
+				configValues2[confIndex++] *= factor;
 			}
 		}
 	}
 
-	private void completeCalc2(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
-		configValues = new double[configurations.size()];
-		configValues2 = new double[configurations.size()];
-
-		final TWiseCombiner combiner = new TWiseCombiner(util.getCnf().getVariables().size());
-		final ClauseList combinedCondition = new ClauseList();
-		final PresenceCondition[] clauseListArray = new PresenceCondition[t];
+	/**
+	 * Processes one slice of all combinations. Solvers are only created if the validity of an uncovered combination needs to be checked and are shared
+	 * between slices via a pool, such that there is at most one solver per thread.
+	 */
+	private final class Worker {
+
+		private final TWiseConfigurationUtil util;
+		private final SampleBitmapIndex index;
+		private final Queue<ISatSolver> solvers;
+		private final TWiseCombiner combiner;
+		private final ClauseList combinedCondition = new ClauseList();
+		private final double[] configValues;
+		private final double[] configValues2;
+
+		private ISatSolver solver;
+		private PresenceCondition[] clauseListArray;
+
+		private long numberOfValidConditions;
+		private long numberOfInvalidConditions;
+		private long numberOfCoveredConditions;
+		private long numberOfUncoveredConditions;
+
+		private Worker(TWiseConfigurationUtil util, SampleBitmapIndex index, Queue<ISatSolver> solvers) {
+			this.util = util;
+			this.index = index;
+			this.solvers = solvers;
+			combiner = new TWiseCombiner(util.getCnf().getVariables().size());
+			configValues = new double[index.getNumberOfConfigurations()];
+			configValues2 = new double[index.getNumberOfConfigurations()];
+		}
 
-		final ArrayList<List<Pair<Integer, LiteralSet>>> lists = new ArrayList<>(t);
-		{
-			for (int i = 0; i <= t; i++) {
-				lists.add(new ArrayList<Pair<Integer, LiteralSet>>());
-			}
-			final List<Pair<Integer, LiteralSet>> list = lists.get(0);
-			int confIndex = 0;
-			for (final LiteralSet configuration : configurations) {
-				list.add(new Pair<>(confIndex++, configuration));
+		private void run(List<PresenceCondition[]> groups, List<long[][]> groupBitmaps, List<int[]> tasks, int firstTask, int taskStep) {
+			solver = solvers.poll();
+			try {
+				for (int i = firstTask; i < tasks.size(); i += taskStep) {
+					final int[] task = tasks.get(i);
+					process(groups.get(task[0]), groupBitmaps.get(task[0]), task[1]);
+				}
+			} finally {
+				if (solver != null) {
+					solvers.add(solver);
+					solver = null;
+				}
 			}
 		}
-		final List<Pair<Integer, LiteralSet>> curConfigurationList = lists.get(t);
 
-		for (final List<PresenceCondition> expressions : groupedPresenceConditions) {
-			final int n = expressions.size();
-			if (n == 0) {
-				continue;
+		private void process(PresenceCondition[] expressions, long[][] bitmaps, int first) {
+			final int n = expressions.length;
+			final int t2 = Math.min(n, t);
+			final int[] c = new int[t2];
+			final long[][] prefixes = new long[t2][];
+			prefixes[0] = bitmaps[first];
+			for (int j = 1; j < t2; j++) {
+				prefixes[j] = new long[index.getNumberOfWords()];
 			}
-			final int t2 = (n < t) ? n : t;
-			final int[] c = new int[t2 + 1];
-			c[0] = -1;
-			for (int i = 1; i <= t2; i++) {
-				c[i] = n - (t2 - i);
+
+			c[0] = first;
+			int count = (t2 == 1) ? SampleBitmapIndex.count(prefixes[0]) : 0;
+			for (int j = 1; j < t2; j++) {
+				c[j] = c[j - 1] + 1;
+				count = SampleBitmapIndex.and(prefixes[j - 1], bitmaps[c[j]], prefixes[j]);
 			}
-			boolean first = true;
-
-			combinationLoop: while (true) {
-				int i = t2;
-				for (; i > 0; i--) {
-					final int ci = ++c[i];
-					if (ci < ((n - t2) + i)) {
-						break;
-					}
-				}
 
-				if (i == 0) {
-					if (first) {
-						first = false;
-					} else {
-						break combinationLoop;
-					}
-				}
+			while (true) {
+				processCombination(expressions, c, prefixes[t2 - 1], count);
 
-				for (int j = i + 1; j <= t2; j++) {
-					c[j] = c[j - 1] + 1;
+				int j = t2 - 1;
+				while ((j > 0) && (c[j] == ((n - t2) + j))) {
+					j--;
 				}
-
-				for (int j = i; j <= t2; j++) {
-					if (j > 0) {
-						final List<Pair<Integer, LiteralSet>> prevList = lists.get(j - 1);
-						final List<Pair<Integer, LiteralSet>> curList = lists.get(j);
-						curList.clear();
-						final PresenceCondition presenceCondition = expressions.get(c[j]);
-						entryLoop: for (final Pair<Integer, LiteralSet> entry : prevList) {
-							for (final LiteralSet literals : presenceCondition) {
-								if (entry.getValue().containsAll(literals)) {
-									curList.add(entry);
-									continue entryLoop;
-								}
-							}
-						}
-					}
+				if (j == 0) {
+					break;
 				}
+				c[j]++;
+				count = SampleBitmapIndex.and(prefixes[j - 1], bitmaps[c[j]], prefixes[j]);
+				for (j++; j < t2; j++) {
+					c[j] = c[j - 1] + 1;
+					count = SampleBitmapIndex.and(prefixes[j - 1], bitmaps[c[j]], prefixes[j]);
+				}
+			}
+		}
 
-				final int count = curConfigurationList.size();
-				if (count > 0) {
-					numberOfCoveredConditions++;
+		private void processCombination(PresenceCondition[] expressions, int[] c, long[] bitmap, int count) {
+			if (count > 0) {
+				numberOfCoveredConditions++;
+				if (onlyCoverage) {
 					if (countValid) {
 						numberOfValidConditions++;
 					}
+				} else if (fastCalc) {
+					if (count == 1) {
+						configValues2[getFirstConfiguration(bitmap)]++;
+					}
 				} else {
 					if (countValid) {
-						for (int j = 1; j < c.length; j++) {
-							clauseListArray[j - 1] = expressions.get(c[j]);
-						}
-						combinedCondition.clear();
-						combiner.combineConditions(clauseListArray, combinedCondition);
-						if (util.isCombinationValid(combinedCondition)) {
-							numberOfValidConditions++;
-							numberOfUncoveredConditions++;
-						} else {
-							numberOfInvalidConditions++;
+						numberOfValidConditions++;
+					}
+					final double value = 1.0 / count;
+					final long value2 = count == 1 ? 1 : 0;
+					for (int i = 0; i < bitmap.length; i++) {
+						for (long word = bitmap[i]; word != 0; word &= word - 1) {
+							final int k = (i << 6) + Long.numberOfTrailingZeros(word);
+							configValues[k] += value;
+							configValues2[k] += value2;
 						}
-					} else {
-						numberOfUncoveredConditions++;
 					}
 				}
-			}
-		}
-	}
-
-	private void fastCalc(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
-		configValues2 = new double[configurations.size()];
-
-		final ArrayList<List<Pair<Integer, LiteralSet>>> lists = new ArrayList<>(t);
-		{
-			for (int i = 0; i < t; i++) {
-				lists.add(new ArrayList<Pair<Integer, LiteralSet>>(configurations.size()));
-			}
-			final List<Pair<Integer, LiteralSet>> list = lists.get(0);
-			int confIndex = 0;
-			for (final LiteralSet configuration : configurations) {
-				list.add(new Pair<>(confIndex++, configuration));
-			}
-		}
-
-		for (List<PresenceCondition> expressions : groupedPresenceConditions) {
-			if (expressions.size() < t) {
-				if (expressions.size() == 0) {
-					continue;
-				}
-				final ArrayList<PresenceCondition> paddedExpressions = new ArrayList<>(t);
-				paddedExpressions.addAll(expressions);
-				for (int i = expressions.size(); i < t; i++) {
-					paddedExpressions.add(expressions.get(0));
-				}
-				expressions = paddedExpressions;
-			}
-			final int n = expressions.size();
-			final int[] c = new int[t + 1];
-			c[0] = -1;
-			for (int i = 1; i <= t; i++) {
-				c[i] = n - (t - i);
-			}
-			boolean first = true;
-
-			combinationLoop: while (true) {
-				int i = t;
-				for (; i > 0; i--) {
-					final int ci = ++c[i];
-					if (ci < ((n - t) + i)) {
-						break;
+			} else {
+				if (countValid && (onlyCoverage || !fastCalc)) {
+					if ((clauseListArray == null) || (clauseListArray.length != c.length)) {
+						clauseListArray = new PresenceCondition[c.length];
 					}
-				}
-
-				if (i == 0) {
-					if (first) {
-						first = false;
-					} else {
-						break combinationLoop;
+					for (int j = 0; j < c.length; j++) {
+						clauseListArray[j] = expressions[c[j]];
 					}
-				}
-
-				for (int j = i + 1; j <= t; j++) {
-					c[j] = c[j - 1] + 1;
-				}
-
-				for (int j = i; j < t; j++) {
-					if (j > 0) {
-						final List<Pair<Integer, LiteralSet>> prevList = lists.get(j - 1);
-						final List<Pair<Integer, LiteralSet>> curList = lists.get(j);
-						curList.clear();
-						final PresenceCondition presenceCondition = expressions.get(c[j]);
-						entryLoop: for (final Pair<Integer, LiteralSet> entry : prevList) {
-							for (final LiteralSet literals : presenceCondition) {
-								if (entry.getValue().containsAll(literals)) {
-									curList.add(entry);
-									continue entryLoop;
-								}
-							}
-						}
+					combinedCondition.clear();
+					combiner.combineConditions(clauseListArray, combinedCondition);
+					if (util.hasSolver() && (solver == null)) {
+						solver = util.getSolver().clone();
 					}
-				}
-
-				Pair<Integer, LiteralSet> curEntry = null;
-				final PresenceCondition presenceCondition = expressions.get(c[t]);
-				entryLoop: for (final Pair<Integer, LiteralSet> entry : lists.get(t - 1)) {
-					for (final LiteralSet literals : presenceCondition) {
-						if (entry.getValue().containsAll(literals)) {
-							if (curEntry == null) {
-								numberOfCoveredConditions++;
-								curEntry = entry;
-								continue entryLoop;
-							} else {
-								continue combinationLoop;
-							}
-						}
+					if (util.isCombinationValid(combinedCondition, solver)) {
+						numberOfValidConditions++;
+						numberOfUncoveredConditions++;
+					} else {
+						numberOfInvalidConditions++;
 					}
-				}
-
-				if (curEntry != null) {
-					configValues2[curEntry.getKey()]++;
 				} else {
 					numberOfUncoveredConditions++;
 				}
 			}
 		}
-		int confIndex = 0;
-		for (final LiteralSet configuration : configurations) {
-			int count = 0;
-			for (final int literal : configuration.getLiterals()) {
-				if (literal == 0) {
-					count++;
+
+		private int getFirstConfiguration(long[] bitmap) {
+			for (int i = 0; i < bitmap.length; i++) {
+				if (bitmap[i] != 0) {
+					return (i << 6) + Long.numberOfTrailingZeros(bitmap[i]);
 				}
 			}
-			final double d = (double) count / configuration.size();
-			final double factor = (2 - (d * d));
-			configValues2[confIndex++] *= factor;
+			return -1;
 		}
+
 	}
 
 	public long getNumberOfValidConditions() {
@@ -29,6 +29,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.sat4j.core.VecInt;
 
@@ -59,10 +60,22 @@ public class TWiseConfigurationUtil {
 
 	public static final int GLOBAL_SOLUTION_LIMIT = 100_000;
 
+	/**
+	 * Returned by {@link #computeSolution(LiteralSet, ISatSolver)}, if a solution is already contained in the random sample.
+	 */
+	protected static final int[] SAMPLE_SOLUTION = new int[0];
+
+	/**
+	 * Maximum number of expressions for which {@link #isCombinationValid(ClauseList, ISatSolver)} stores the result. If the limit is reached, all stored
+	 * results are dropped.
+	 */
+	public static final int VALIDITY_CACHE_LIMIT = 1_000_000;
+
 	final static Comparator<Pair<LiteralSet, TWiseConfiguration>> candidateLengthComparator = new CandidateLengthComparator();
 
 	protected final LiteralSet[] solverSolutions = new LiteralSet[GLOBAL_SOLUTION_LIMIT];
 	protected final HashSet<LiteralSet> solutionSet = new HashSet<>();
+	protected final ConcurrentHashMap<ClauseList, Boolean> validityCache = new ConcurrentHashMap<>();
 	protected Random random = new Random(42);
 
 	protected List<LiteralSet> randomSample;
@@ -104,15 +117,19 @@ public class TWiseConfigurationUtil {
 		mig = LongRunningWrapper.runMethod(new MIGBuilder(localSolver.getSatInstance(), false));
 		strongHull = new LiteralSet[mig.getAdjList().size()];
 
+		final Traverser traverser = new Traverser(mig);
+		final int[] model = new int[mig.getAdjList().size()];
+		traverser.setModel(model);
 		for (final Vertex vertex : mig.getAdjList()) {
 			final int literalSet = vertex.getVar();
-			final Traverser traverser = new Traverser(mig);
-			traverser.setModel(new int[mig.getAdjList().size()]);
 			final Visitor<VecInt[]> visitor = new CollectingStrongVisitor();
 			traverser.setVisitor(visitor);
 			traverser.traverse(literalSet);
 			final VecInt strong = visitor.getResult()[0];
 			strongHull[vertex.getId()] = new LiteralSet(Arrays.copyOf(strong.toArray(), strong.size()));
+			for (int i = 0; i < strong.size(); i++) {
+				model[Math.abs(strong.get(i)) - 1] = 0;
+			}
 		}
 		if (ITWiseConfigurationGenerator.VERBOSE) {
 			System.out.println("Done!");
@@ -205,6 +222,44 @@ public class TWiseConfigurationUtil {
 		return !clauses.isEmpty();
 	}
 
+	/**
+	 * Same as {@link #isCombinationValid(ClauseList)}, but uses the given solver and does not add new solutions to the solver solution list. Thus, it can
+	 * be called concurrently, as long as each thread uses its own solver. The results are memoized (the memo is cleared after {@link #VALIDITY_CACHE_LIMIT} expressions).
+	 *
+	 * @param clauses the expression
+	 * @param solver the solver to use (e.g., a clone of {@link #getSolver()})
+	 * @return whether the expression can be satisfied
+	 */
+	public boolean isCombinationValid(ClauseList clauses, ISatSolver solver) {
+		if (!hasSolver()) {
+			return !clauses.isEmpty();
+		}
+		final Boolean cachedValidity = validityCache.get(clauses);
+		if (cachedValidity != null) {
+			return cachedValidity;
+		}
+		final boolean valid = computeValidity(clauses, solver);
+		if (validityCache.size() >= VALIDITY_CACHE_LIMIT) {
+			validityCache.clear();
+		}
+		validityCache.put(new ClauseList(clauses), valid);
+		return valid;
+	}
+
+	private boolean computeValidity(ClauseList clauses, ISatSolver solver) {
+		for (final LiteralSet literalSet : clauses) {
+			if (isCombinationInvalidMIG(literalSet)) {
+				return false;
+			}
+		}
+		for (final LiteralSet literalSet : clauses) {
+			if (computeSolution(literalSet, solver) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public boolean isCombinationInvalidMIG(LiteralSet literals) {
 		if (hasSolver()) {
 			for (final int literal : literals.getLiterals()) {
@@ -218,32 +273,68 @@ public class TWiseConfigurationUtil {
 
 	public boolean isCombinationValidSAT(LiteralSet literals) {
 		if (hasSolver()) {
-			for (final LiteralSet s : randomSample) {
-				if (!s.hasConflicts(literals)) {
-					return true;
-				}
+			final int[] solution = computeSolution(literals, getSolver());
+			if (solution == null) {
+				return false;
+			} else if (solution != SAMPLE_SOLUTION) {
+				addSolverSolution(solution);
 			}
+		}
+		return true;
+	}
 
-			final ISatSolver solver = getSolver();
-			final int orgAssingmentLength = solver.getAssignmentSize();
-			solver.assignmentPushAll(literals.getLiterals());
-			try {
-				final SatResult hasSolution = solver.hasSolution();
-				switch (hasSolution) {
-				case TRUE:
-					addSolverSolution(solver.getSolution());
-					break;
-				case FALSE:
-				case TIMEOUT:
-					return false;
-				default:
-					break;
-				}
-			} finally {
-				solver.assignmentClear(orgAssingmentLength);
+	/**
+	 * Searches for a solution that contains the given literals. Does not modify this object and can thus be called concurrently, as long as each thread
+	 * uses its own solver.
+	 *
+	 * @param literals the literals
+	 * @param solver the solver to use (e.g., a clone of {@link #getSolver()})
+	 * @return {@code null}, if there is no such solution, {@link #SAMPLE_SOLUTION}, if the random sample already contains such a solution, and a new
+	 *         solution otherwise.
+	 */
+	protected int[] computeSolution(LiteralSet literals, ISatSolver solver) {
+		for (final LiteralSet s : randomSample) {
+			if (!s.hasConflicts(literals)) {
+				return SAMPLE_SOLUTION;
 			}
 		}
-		return true;
+
+		final int orgAssingmentLength = solver.getAssignmentSize();
+		solver.assignmentPushAll(literals.getLiterals());
+		try {
+			final SatResult hasSolution = solver.hasSolution();
+			switch (hasSolution) {
+			case TRUE:
+				return solver.getSolution();
+			case FALSE:
+			case TIMEOUT:
+			default:
+				return null;
+			}
+		} finally {
+			solver.assignmentClear(orgAssingmentLength);
+		}
+	}
+
+	/**
+	 * Calls {@link #computeSolution(LiteralSet, ISatSolver)} for each literal set of the given expression, which is not already invalidated by the
+	 * {@link #getMig() implication graph}.
+	 *
+	 * @param clauses the expression
+	 * @param solver the solver to use
+	 * @return the solution for each literal set of the expression ({@code null} for invalid literal sets)
+	 *
+	 * @see #removeInvalidClauses(ClauseList, List, int[][])
+	 */
+	protected int[][] computeSolutions(ClauseList clauses, ISatSolver solver) {
+		final int[][] solutions = new int[clauses.size()][];
+		for (int i = 0; i < solutions.length; i++) {
+			final LiteralSet literals = clauses.get(i);
+			if (!isCombinationInvalidMIG(literals)) {
+				solutions[i] = computeSolution(literals, solver);
+			}
+		}
+		return solutions;
 	}
 
 	public boolean removeInvalidClauses(ClauseList nextCondition, List<Pair<LiteralSet, TWiseConfiguration>> candidatesList) {
@@ -251,17 +342,39 @@ public class TWiseConfigurationUtil {
 		for (final LiteralSet literals : nextCondition) {
 			if (!isCombinationValid(literals)) {
 				validCount--;
-				for (final Iterator<Pair<LiteralSet, TWiseConfiguration>> iterator = candidatesList.iterator(); iterator.hasNext();) {
-					final Pair<LiteralSet, TWiseConfiguration> pair = iterator.next();
-					if (pair.getKey().equals(literals)) {
-						iterator.remove();
-					}
-				}
+				removeCandidates(literals, candidatesList);
+			}
+		}
+		return validCount == 0;
+	}
+
+	/**
+	 * Same as {@link #removeInvalidClauses(ClauseList, List)}, but uses solutions that were computed in advance by
+	 * {@link #computeSolutions(ClauseList, ISatSolver)}.
+	 */
+	public boolean removeInvalidClauses(ClauseList nextCondition, List<Pair<LiteralSet, TWiseConfiguration>> candidatesList, int[][] solutions) {
+		int validCount = nextCondition.size();
+		for (int i = 0; i < solutions.length; i++) {
+			final int[] solution = solutions[i];
+			if (solution == null) {
+				validCount--;
+				removeCandidates(nextCondition.get(i), candidatesList);
+			} else if (solution != SAMPLE_SOLUTION) {
+				addSolverSolution(solution);
 			}
 		}
 		return validCount == 0;
 	}
 
+	private void removeCandidates(final LiteralSet literals, List<Pair<LiteralSet, TWiseConfiguration>> candidatesList) {
+		for (final Iterator<Pair<LiteralSet, TWiseConfiguration>> iterator = candidatesList.iterator(); iterator.hasNext();) {
+			final Pair<LiteralSet, TWiseConfiguration> pair = iterator.next();
+			if (pair.getKey().equals(literals)) {
+				iterator.remove();
+			}
+		}
+	}
+
 	public boolean isSelectionPossible(final LiteralSet literals, final TWiseConfiguration configuration, boolean useSolver) {
 		if (hasSolver()) {
 			if (useSolver) {
@@ -374,7 +487,13 @@ public class TWiseConfigurationUtil {
 		return false;
 	}
 
-	public void newConfiguration(final LiteralSet literals) {
+	/**
+	 * Creates a new configuration that contains the given literals, if the maximum sample size is not reached yet.
+	 *
+	 * @param literals the literals of the new configuration
+	 * @return the new configuration or {@code null}, if the maximum sample size is reached.
+	 */
+	public TWiseConfiguration newConfiguration(final LiteralSet literals) {
 		if ((completeSolutionList.size() + incompleteSolutionList.size()) < maxSampleSize) {
 			final TWiseConfiguration configuration = new TWiseConfiguration(this);
 			selectLiterals(configuration, Deduce.DP, literals);
@@ -386,7 +505,9 @@ public class TWiseConfigurationUtil {
 				incompleteSolutionList.add(configuration);
 				Collections.sort(incompleteSolutionList, (a, b) -> a.countLiterals() - b.countLiterals());
 			}
+			return configuration;
 		}
+		return null;
 	}
 
 	public List<TWiseConfiguration> getIncompleteSolutionList() {
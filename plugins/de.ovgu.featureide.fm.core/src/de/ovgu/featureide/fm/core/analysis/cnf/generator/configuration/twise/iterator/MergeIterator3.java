@@ -23,35 +23,33 @@ package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.it
 import java.util.ArrayList;
 import java.util.List;
 
-import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.PresenceCondition;
-import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseCombiner;
 
 /**
- * Combines multiple {@link ICombinationSupplier supplies} of {@link ClauseList} and returns results from each supplier by turns.
+ * Combines multiple {@link ICombinationSupplier supplies} of presence condition combinations and returns results from each supplier by turns. The
+ * returned array is reused for every combination and must not be stored by the caller.
  *
  * @author Sebastian Krieter
  */
-public class MergeIterator3 implements ICombinationSupplier<ClauseList> {
+public class MergeIterator3 implements ICombinationSupplier<PresenceCondition[]> {
 
 	private final List<List<PresenceCondition>> expressionSets;
 	private final ICombinationSupplier<int[]>[] suppliers;
 	private final long numberOfCombinations;
 
-	private final List<ClauseList> buffer = new ArrayList<>();
-	private final TWiseCombiner combiner;
+	private final List<int[]> buffer = new ArrayList<>();
+	private final List<List<PresenceCondition>> bufferSets = new ArrayList<>();
 	private final PresenceCondition[] nextCombination;
 
 	private int bufferIndex = 0;
 	private final int maxIteratorIndex;
 
 	@SuppressWarnings("unchecked")
-	public MergeIterator3(int t, int n, List<List<PresenceCondition>> expressionSets) {
+	public MergeIterator3(int t, List<List<PresenceCondition>> expressionSets) {
 		this.expressionSets = expressionSets;
 
 		maxIteratorIndex = expressionSets.size() - 1;
 		suppliers = new ICombinationSupplier[expressionSets.size()];
-		combiner = new TWiseCombiner(n);
 		nextCombination = new PresenceCondition[t];
 
 		long sumNumberOfCombinations = 0;
@@ -64,20 +62,15 @@ public class MergeIterator3 implements ICombinationSupplier<ClauseList> {
 	}
 
 	@Override
-	public ClauseList get() {
+	public PresenceCondition[] get() {
 		if (buffer.isEmpty()) {
 			for (int i = 0; i <= maxIteratorIndex; i++) {
 				final ICombinationSupplier<int[]> supplier = suppliers[i];
 				if (supplier != null) {
 					final int[] js = supplier.get();
 					if (js != null) {
-						final List<PresenceCondition> expressionSet = expressionSets.get(i);
-						for (int j = 0; j < js.length; j++) {
-							nextCombination[j] = expressionSet.get(js[j]);
-						}
-						final ClauseList combinedCondition = new ClauseList();
-						combiner.combineConditions(nextCombination, combinedCondition);
-						buffer.add(combinedCondition);
+						buffer.add(js);
+						bufferSets.add(expressionSets.get(i));
 					} else {
 						suppliers[i] = null;
 					}
@@ -87,12 +80,17 @@ public class MergeIterator3 implements ICombinationSupplier<ClauseList> {
 				return null;
 			}
 		}
-		final ClauseList remove = buffer.get(bufferIndex++);
+		final int[] js = buffer.get(bufferIndex);
+		final List<PresenceCondition> expressionSet = bufferSets.get(bufferIndex++);
+		for (int j = 0; j < js.length; j++) {
+			nextCombination[j] = expressionSet.get(js[j]);
+		}
 		if (bufferIndex == buffer.size()) {
 			buffer.clear();
+			bufferSets.clear();
 			bufferIndex = 0;
 		}
-		return remove;
+		return nextCombination;
 	}
 
 	@Override
@@ -22,28 +22,25 @@ package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.it
 
 import java.util.List;
 
-import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.PresenceCondition;
-import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseCombiner;
 
 /**
- * Uses a {@link RandomPartitionSupplier} to construct a combined presence condition for every combination.
+ * Uses a {@link RandomPartitionSupplier} to supply every combination of presence conditions. The returned array is reused for every combination and
+ * must not be stored by the caller.
  *
  * @author Sebastian Krieter
  */
-public class SingleIterator implements ICombinationSupplier<ClauseList> {
+public class SingleIterator implements ICombinationSupplier<PresenceCondition[]> {
 
 	private final List<PresenceCondition> expressionSet;
 	private final ICombinationSupplier<int[]> supplier;
 	private final long numberOfCombinations;
 
-	private final TWiseCombiner combiner;
 	private final PresenceCondition[] nextCombination;
 
-	public SingleIterator(int t, int n, List<PresenceCondition> expressionSet) {
+	public SingleIterator(int t, List<PresenceCondition> expressionSet) {
 		this.expressionSet = expressionSet;
 
-		combiner = new TWiseCombiner(n);
 		nextCombination = new PresenceCondition[t];
 
 		supplier = new RandomPartitionSupplier(t, expressionSet.size());
@@ -51,15 +48,13 @@ public class SingleIterator implements ICombinationSupplier<ClauseList> {
 	}
 
 	@Override
-	public ClauseList get() {
+	public PresenceCondition[] get() {
 		final int[] js = supplier.get();
 		if (js != null) {
 			for (int j = 0; j < js.length; j++) {
 				nextCombination[j] = expressionSet.get(js[j]);
 			}
-			final ClauseList combinedCondition = new ClauseList();
-			combiner.combineConditions(nextCombination, combinedCondition);
-			return combinedCondition;
+			return nextCombination;
 		} else {
 			return null;
 		}
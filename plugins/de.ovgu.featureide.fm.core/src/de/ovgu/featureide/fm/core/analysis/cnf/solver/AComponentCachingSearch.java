@@ -0,0 +1,646 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Exhaustive search over all assignments of a {@link CNF} that uses unit propagation, decomposition of the formula into independent components, and a
+ * cache for the results of already processed components.<br> <br> Variables are selected according to a static elimination order of the formula's
+ * primal graph, such that the formula falls apart into small components early. Subclasses define the result of a component by combining the results of
+ * its two branches (see {@link #decide(List, int[], int)}).
+ *
+ * @param <T> the type of the result of a component
+ *
+ * @see ModelCounter
+ */
+public abstract class AComponentCachingSearch<T> {
+
+	/**
+	 * A (possibly reduced) clause together with the index of its original clause.
+	 */
+	protected static final class Clause {
+
+		private final int id;
+		private final int[] literals;
+
+		Clause(int id, int[] literals) {
+			this.id = id;
+			this.literals = literals;
+		}
+
+	}
+
+	/**
+	 * Key of a component in the component cache. A component is uniquely identified by the original clauses it contains and its unassigned variables.
+	 */
+	private static final class Component {
+
+		private final int[] ids;
+		private final int hashCode;
+
+		Component(int[] ids) {
+			this.ids = ids;
+			hashCode = Arrays.hashCode(ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (this == obj) || ((obj instanceof Component) && Arrays.equals(ids, ((Component) obj).ids));
+		}
+
+	}
+
+	/**
+	 * Maximum number of neighbors of a variable that is considered when computing the elimination order.
+	 */
+	private static final int MAX_ELIMINATION_DEGREE = 256;
+
+	protected final IInternalVariables internalMapping;
+	protected final int numberOfVariables;
+	/** The cleaned clauses of the formula (without tautologies). */
+	protected final List<Clause> clauses;
+	/** Whether the formula contains an empty clause. */
+	protected final boolean contradiction;
+	/** The literals of all unit clauses of the formula. */
+	protected final int[] units;
+	private final int[] ranks;
+
+	private final HashMap<Component, T> cache = new HashMap<>();
+	private int maxCacheSize = 1 << 20;
+
+	private final byte[] assignment;
+	private final VecInt trail;
+
+	private final int[] marks;
+	private final int[] occurrences;
+	private final int[] occurrenceStart;
+	private final int[] occurrenceEnd;
+	private int[] occurrenceList = new int[0];
+	private final int[] parents;
+	private final int[] groups;
+	private int epoch = 0;
+
+	private long timeout = 0;
+	private long deadline = 0;
+	private IMonitor<?> monitor = null;
+
+	public AComponentCachingSearch(CNF satInstance) {
+		internalMapping = satInstance.getInternalVariables();
+		numberOfVariables = internalMapping.size();
+
+		clauses = new ArrayList<>(satInstance.getClauses().size());
+		boolean emptyClause = false;
+		for (final LiteralSet clause : satInstance.getClauses()) {
+			final int[] literals = cleanClause(internalMapping.convertToInternal(clause.getLiterals()));
+			if (literals != null) {
+				if (literals.length == 0) {
+					emptyClause = true;
+				}
+				clauses.add(new Clause(clauses.size(), literals));
+			}
+		}
+		contradiction = emptyClause;
+
+		final VecInt unitLiterals = new VecInt();
+		for (final Clause clause : clauses) {
+			if (clause.literals.length == 1) {
+				unitLiterals.push(clause.literals[0]);
+			}
+		}
+		units = Arrays.copyOf(unitLiterals.toArray(), unitLiterals.size());
+
+		assignment = new byte[numberOfVariables + 1];
+		trail = new VecInt(numberOfVariables + 1);
+		marks = new int[numberOfVariables + 1];
+		occurrences = new int[numberOfVariables + 1];
+		occurrenceStart = new int[numberOfVariables + 1];
+		occurrenceEnd = new int[numberOfVariables + 1];
+		parents = new int[numberOfVariables + 1];
+		groups = new int[numberOfVariables + 1];
+
+		ranks = computeEliminationRanks();
+	}
+
+	/**
+	 * Sorts the literals of a clause and removes duplicates.
+	 *
+	 * @return the cleaned literals or {@code null} if the clause is a tautology.
+	 */
+	private static int[] cleanClause(int[] literals) {
+		final int[] sortedLiterals = Arrays.copyOf(literals, literals.length);
+		Arrays.sort(sortedLiterals);
+		int size = 0;
+		for (int i = 0; i < sortedLiterals.length; i++) {
+			final int literal = sortedLiterals[i];
+			if ((size == 0) || (sortedLiterals[size - 1] != literal)) {
+				if (Arrays.binarySearch(sortedLiterals, -literal) >= 0) {
+					return null;
+				}
+				sortedLiterals[size++] = literal;
+			}
+		}
+		return size == sortedLiterals.length ? sortedLiterals : Arrays.copyOf(sortedLiterals, size);
+	}
+
+	/**
+	 * Computes a greedy minimum degree elimination order of the primal graph of the formula. Variables that are eliminated late separate the graph into
+	 * independent parts and are thus selected first during the search.
+	 *
+	 * @return the position of each variable within the elimination order
+	 */
+	private int[] computeEliminationRanks() {
+		final List<VecInt> neighbors = new ArrayList<>(numberOfVariables + 1);
+		for (int i = 0; i <= numberOfVariables; i++) {
+			neighbors.add(new VecInt());
+		}
+		for (final Clause clause : clauses) {
+			for (final int literal1 : clause.literals) {
+				for (final int literal2 : clause.literals) {
+					if (literal1 != literal2) {
+						neighbors.get(Math.abs(literal1)).push(Math.abs(literal2));
+					}
+				}
+			}
+		}
+
+		final int[] ranks = new int[numberOfVariables + 1];
+		final boolean[] eliminated = new boolean[numberOfVariables + 1];
+		final PriorityQueue<long[]> queue = new PriorityQueue<>(numberOfVariables + 1, (a, b) -> Long.compare(a[0], b[0]));
+		for (int variable = 1; variable <= numberOfVariables; variable++) {
+			removeDuplicates(neighbors.get(variable), eliminated, variable);
+			queue.add(new long[] { ((long) neighbors.get(variable).size() << 32) | variable });
+		}
+
+		int rank = 0;
+		while (!queue.isEmpty()) {
+			final long entry = queue.poll()[0];
+			final int variable = (int) entry;
+			final VecInt variableNeighbors = neighbors.get(variable);
+			if (eliminated[variable] || ((entry >>> 32) != variableNeighbors.size())) {
+				continue;
+			}
+			eliminated[variable] = true;
+			ranks[variable] = rank++;
+			if (variableNeighbors.size() > MAX_ELIMINATION_DEGREE) {
+				// Avoid excessive fill-in; remaining variables are ordered by their degree
+				for (int i = 0; i < variableNeighbors.size(); i++) {
+					final VecInt otherNeighbors = neighbors.get(variableNeighbors.get(i));
+					removeDuplicates(otherNeighbors, eliminated, 0);
+				}
+			} else {
+				for (int i = 0; i < variableNeighbors.size(); i++) {
+					final int neighbor = variableNeighbors.get(i);
+					final VecInt otherNeighbors = neighbors.get(neighbor);
+					for (int j = 0; j < variableNeighbors.size(); j++) {
+						otherNeighbors.push(variableNeighbors.get(j));
+					}
+					removeDuplicates(otherNeighbors, eliminated, neighbor);
+					queue.add(new long[] { ((long) otherNeighbors.size() << 32) | neighbor });
+				}
+			}
+			variableNeighbors.clear();
+		}
+		return ranks;
+	}
+
+	/**
+	 * Removes duplicates, eliminated variables, and the given variable from a list of neighbors.
+	 */
+	private void removeDuplicates(VecInt neighborList, boolean[] eliminated, int variable) {
+		final int currentEpoch = ++epoch;
+		int size = 0;
+		for (int i = 0; i < neighborList.size(); i++) {
+			final int neighbor = neighborList.get(i);
+			if ((neighbor != variable) && !eliminated[neighbor] && (marks[neighbor] != currentEpoch)) {
+				marks[neighbor] = currentEpoch;
+				neighborList.set(size++, neighbor);
+			}
+		}
+		neighborList.shrinkTo(size);
+	}
+
+	/**
+	 * Starts a new run of the search. Must be called before the first component is processed.
+	 */
+	protected void startSearch() {
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+	}
+
+	/**
+	 * Removes all assignments. Must be called after a run of the search, even if it was aborted.
+	 */
+	protected void finishSearch() {
+		trail.clear();
+		Arrays.fill(assignment, (byte) 0);
+	}
+
+	/**
+	 * Returns the result of a component. The result is taken from the cache, if possible. Otherwise, it is computed by
+	 * {@link #decide(List, int[], int)}.
+	 *
+	 * @param component the clauses of the component
+	 * @return the result of the component
+	 *
+	 * @throws RuntimeTimeoutException if the {@link #setTimeout(long) timeout} was reached.
+	 */
+	protected T processComponent(List<Clause> component) throws RuntimeTimeoutException {
+		if ((deadline > 0) && (System.currentTimeMillis() > deadline)) {
+			throw new RuntimeTimeoutException();
+		}
+		if (monitor != null) {
+			monitor.checkCancel();
+		}
+
+		final int[] variables = getVariables(component);
+		final int[] ids = new int[component.size() + 1 + variables.length];
+		for (int i = 0; i < component.size(); i++) {
+			ids[i] = component.get(i).id;
+		}
+		ids[component.size()] = -1;
+		System.arraycopy(variables, 0, ids, component.size() + 1, variables.length);
+		final Component key = new Component(ids);
+		final T cachedResult = cache.get(key);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+
+		final T result = decide(component, variables, selectVariable(variables));
+
+		if (cache.size() >= maxCacheSize) {
+			cache.clear();
+		}
+		cache.put(key, result);
+		return result;
+	}
+
+	/**
+	 * Computes the result of a component that is not cached by processing both branches of the given variable.
+	 *
+	 * @param component the clauses of the component
+	 * @param variables the sorted variables of the component
+	 * @param variable the variable to branch on
+	 * @return the result of the component
+	 */
+	protected abstract T decide(List<Clause> component, int[] variables, int variable);
+
+	/**
+	 * Assigns the given literals and applies unit propagation. All assigned variables are pushed to the trail.
+	 *
+	 * @return the reduced clauses (without satisfied clauses and assigned literals) or {@code null} if a conflict occurred.
+	 */
+	protected List<Clause> propagate(List<Clause> clauses, int... literals) {
+		final int trailStart = trail.size();
+		for (final int literal : literals) {
+			if (!assign(literal)) {
+				return null;
+			}
+		}
+		if (trail.size() == trailStart) {
+			return clauses;
+		}
+		buildOccurrenceLists(clauses);
+		for (int i = trailStart; i < trail.size(); i++) {
+			final int variable = trail.get(i);
+			if (marks[variable] == epoch) {
+				for (int j = occurrenceStart[variable]; j < occurrenceEnd[variable]; j++) {
+					int unassignedLiterals = 0;
+					int lastUnassignedLiteral = 0;
+					boolean satisfied = false;
+					for (final int literal : clauses.get(occurrenceList[j]).literals) {
+						final int value = value(literal);
+						if (value > 0) {
+							satisfied = true;
+							break;
+						} else if (value == 0) {
+							unassignedLiterals++;
+							lastUnassignedLiteral = literal;
+						}
+					}
+					if (!satisfied) {
+						if (unassignedLiterals == 0) {
+							return null;
+						} else if (unassignedLiterals == 1) {
+							assign(lastUnassignedLiteral);
+						}
+					}
+				}
+			}
+		}
+		return reduce(clauses);
+	}
+
+	/**
+	 * Stores for each variable the indices of all clauses that contain it. Afterwards, the {@link #marks} of all contained variables are equal to the
+	 * current {@link #epoch}.
+	 */
+	private void buildOccurrenceLists(List<Clause> clauses) {
+		int currentEpoch = ++epoch;
+		int size = 0;
+		for (final Clause clause : clauses) {
+			for (final int literal : clause.literals) {
+				final int variable = Math.abs(literal);
+				if (marks[variable] != currentEpoch) {
+					marks[variable] = currentEpoch;
+					occurrences[variable] = 0;
+				}
+				occurrences[variable]++;
+			}
+			size += clause.literals.length;
+		}
+		if (occurrenceList.length < size) {
+			occurrenceList = new int[Math.max(size, occurrenceList.length << 1)];
+		}
+		currentEpoch = ++epoch;
+		int index = 0;
+		for (int i = 0; i < clauses.size(); i++) {
+			for (final int literal : clauses.get(i).literals) {
+				final int variable = Math.abs(literal);
+				if (marks[variable] != currentEpoch) {
+					marks[variable] = currentEpoch;
+					occurrenceStart[variable] = index;
+					occurrenceEnd[variable] = index;
+					index += occurrences[variable];
+				}
+				occurrenceList[occurrenceEnd[variable]++] = i;
+			}
+		}
+	}
+
+	/**
+	 * Removes all satisfied clauses and all false literals. Keeps the order of the clauses.
+	 */
+	private List<Clause> reduce(List<Clause> clauses) {
+		final List<Clause> reducedClauses = new ArrayList<>(clauses.size());
+		clauseLoop: for (final Clause clause : clauses) {
+			int unassignedLiterals = 0;
+			for (final int literal : clause.literals) {
+				final int value = value(literal);
+				if (value > 0) {
+					continue clauseLoop;
+				} else if (value == 0) {
+					unassignedLiterals++;
+				}
+			}
+			if (unassignedLiterals == clause.literals.length) {
+				reducedClauses.add(clause);
+			} else {
+				final int[] reducedLiterals = new int[unassignedLiterals];
+				int index = 0;
+				for (final int literal : clause.literals) {
+					if (value(literal) == 0) {
+						reducedLiterals[index++] = literal;
+					}
+				}
+				reducedClauses.add(new Clause(clause.id, reducedLiterals));
+			}
+		}
+		return reducedClauses;
+	}
+
+	private int value(int literal) {
+		final int value = assignment[Math.abs(literal)];
+		return literal > 0 ? value : -value;
+	}
+
+	private boolean assign(int literal) {
+		final int value = value(literal);
+		if (value == 0) {
+			assignment[Math.abs(literal)] = (byte) (literal > 0 ? 1 : -1);
+			trail.push(Math.abs(literal));
+			return true;
+		}
+		return value > 0;
+	}
+
+	/**
+	 * @return the number of currently assigned variables
+	 */
+	protected int getTrailSize() {
+		return trail.size();
+	}
+
+	/**
+	 * @return the literals that were assigned after the trail had the given size
+	 */
+	protected int[] getAssignedLiterals(int trailStart) {
+		final int[] assignedLiterals = new int[trail.size() - trailStart];
+		for (int i = 0; i < assignedLiterals.length; i++) {
+			final int assignedVariable = trail.get(trailStart + i);
+			assignedLiterals[i] = assignment[assignedVariable] > 0 ? assignedVariable : -assignedVariable;
+		}
+		return assignedLiterals;
+	}
+
+	/**
+	 * Removes all assignments that were made after the trail had the given size.
+	 */
+	protected void undo(int trailStart) {
+		while (trail.size() > trailStart) {
+			assignment[trail.last()] = 0;
+			trail.pop();
+		}
+	}
+
+	/**
+	 * @return the number of variables contained in the given clauses
+	 */
+	protected int countVariables(List<Clause> clauses) {
+		final int currentEpoch = ++epoch;
+		int count = 0;
+		for (final Clause clause : clauses) {
+			for (final int literal : clause.literals) {
+				final int variable = Math.abs(literal);
+				if (marks[variable] != currentEpoch) {
+					marks[variable] = currentEpoch;
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns all given variables that are neither contained in the given clauses nor in the given literals.
+	 *
+	 * @param variables the variables of a component
+	 * @param clauses the reduced clauses of the component
+	 * @param literals the literals that were assigned in the component
+	 * @return the free variables in the order of the given variables
+	 */
+	protected int[] getFreeVariables(int[] variables, List<Clause> clauses, int[] literals) {
+		final int currentEpoch = ++epoch;
+		for (final Clause clause : clauses) {
+			for (final int literal : clause.literals) {
+				marks[Math.abs(literal)] = currentEpoch;
+			}
+		}
+		for (final int literal : literals) {
+			marks[Math.abs(literal)] = currentEpoch;
+		}
+		final VecInt freeVariables = new VecInt();
+		for (final int variable : variables) {
+			if (marks[variable] != currentEpoch) {
+				freeVariables.push(variable);
+			}
+		}
+		return Arrays.copyOf(freeVariables.toArray(), freeVariables.size());
+	}
+
+	/**
+	 * @return the sorted variables contained in the given clauses
+	 */
+	private int[] getVariables(List<Clause> clauses) {
+		final VecInt variables = new VecInt();
+		final int currentEpoch = ++epoch;
+		for (final Clause clause : clauses) {
+			for (final int literal : clause.literals) {
+				final int variable = Math.abs(literal);
+				if (marks[variable] != currentEpoch) {
+					marks[variable] = currentEpoch;
+					variables.push(variable);
+				}
+			}
+		}
+		final int[] variableArray = Arrays.copyOf(variables.toArray(), variables.size());
+		Arrays.sort(variableArray);
+		return variableArray;
+	}
+
+	/**
+	 * Selects the variable that is eliminated last.
+	 */
+	private int selectVariable(int[] variables) {
+		int maxVariable = 0;
+		int maxRank = -1;
+		for (final int variable : variables) {
+			if (ranks[variable] > maxRank) {
+				maxRank = ranks[variable];
+				maxVariable = variable;
+			}
+		}
+		return maxVariable;
+	}
+
+	/**
+	 * Splits the given clauses into independent components, i.e., sets of clauses that do not share any variables. Keeps the order of the clauses.
+	 */
+	protected List<List<Clause>> split(List<Clause> clauses) {
+		final int currentEpoch = ++epoch;
+		for (final Clause clause : clauses) {
+			for (final int literal : clause.literals) {
+				final int variable = Math.abs(literal);
+				if (marks[variable] != currentEpoch) {
+					marks[variable] = currentEpoch;
+					parents[variable] = variable;
+					groups[variable] = -1;
+				}
+			}
+			final int root = find(Math.abs(clause.literals[0]));
+			for (int i = 1; i < clause.literals.length; i++) {
+				final int otherRoot = find(Math.abs(clause.literals[i]));
+				if (otherRoot != root) {
+					parents[otherRoot] = root;
+				}
+			}
+		}
+
+		final List<List<Clause>> components = new ArrayList<>();
+		for (final Clause clause : clauses) {
+			final int root = find(Math.abs(clause.literals[0]));
+			int group = groups[root];
+			if (group < 0) {
+				group = components.size();
+				groups[root] = group;
+				components.add(new ArrayList<Clause>());
+			}
+			components.get(group).add(clause);
+		}
+		return components;
+	}
+
+	private int find(int variable) {
+		int root = variable;
+		while (parents[root] != root) {
+			root = parents[root];
+		}
+		while (parents[variable] != root) {
+			final int next = parents[variable];
+			parents[variable] = root;
+			variable = next;
+		}
+		return root;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets a timeout for each run of the search.
+	 *
+	 * @param timeout the timeout in milliseconds; if not positive, there is no timeout.
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Sets a monitor that is checked for cancellation during the search.
+	 *
+	 * @param monitor the monitor (may be {@code null})
+	 */
+	public void setMonitor(IMonitor<?> monitor) {
+		this.monitor = monitor;
+	}
+
+	public int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of cached components. If the cache is full, it is cleared completely.
+	 */
+	public void setMaxCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	public void clearCache() {
+		cache.clear();
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Random;
 
 import org.sat4j.core.VecInt;
+import org.sat4j.minisat.core.IOrder;
 import org.sat4j.minisat.orders.NegativeLiteralSelectionStrategy;
 import org.sat4j.minisat.orders.PositiveLiteralSelectionStrategy;
 import org.sat4j.minisat.orders.RSATPhaseSelectionStrategy;
@@ -51,6 +52,7 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 	protected SelectionStrategy strategy = SelectionStrategy.ORG;
 
 	protected boolean globalTimeout = false;
+	protected boolean keepActivity = false;
 
 	public AdvancedSatSolver(CNF satInstance) {
 		super(satInstance);
@@ -255,6 +257,7 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		if (contradiction) {
 			return;
 		}
+		final double[] previousActivity = getPreviousActivity();
 		if (this.strategy != strategy) {
 			this.strategy = strategy;
 			switch (strategy) {
@@ -277,7 +280,7 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 				throw new AssertionError(strategy);
 			}
 		}
-		solver.getOrder().init();
+		initOrder(previousActivity);
 	}
 
 	@Override
@@ -285,9 +288,10 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		if (contradiction) {
 			return;
 		}
+		final double[] previousActivity = getPreviousActivity();
 		strategy = SelectionStrategy.FIXED;
 		solver.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model, min), order));
-		solver.getOrder().init();
+		initOrder(previousActivity);
 	}
 
 	@Override
@@ -295,9 +299,34 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		if (contradiction) {
 			return;
 		}
+		final double[] previousActivity = getPreviousActivity();
 		strategy = SelectionStrategy.UNIFORM_RANDOM;
 		solver.setOrder(new VarOrderHeap3(sample));
-		solver.getOrder().init();
+		initOrder(previousActivity);
+	}
+
+	private double[] getPreviousActivity() {
+		if (keepActivity) {
+			final double[] activity = solver.getOrder().getVariableHeuristics();
+			return activity == null ? null : Arrays.copyOf(activity, activity.length);
+		}
+		return null;
+	}
+
+	private void initOrder(double[] previousActivity) {
+		IOrder currentOrder = solver.getOrder();
+		if (currentOrder instanceof VarOrderHeap2) {
+			((VarOrderHeap2) currentOrder).setInitialActivity(previousActivity);
+		} else if (currentOrder instanceof VarOrderHeap3) {
+			((VarOrderHeap3) currentOrder).setInitialActivity(previousActivity);
+		} else if (previousActivity != null) {
+			// The default order of Sat4J always starts with zero activities
+			final VarOrderHeap2 orgOrder = new VarOrderHeap2(new RSATPhaseSelectionStrategy(), order);
+			orgOrder.setInitialActivity(previousActivity);
+			solver.setOrder(orgOrder);
+			currentOrder = orgOrder;
+		}
+		currentOrder.init();
 	}
 
 	@Override
@@ -321,4 +350,18 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		this.globalTimeout = globalTimeout;
 	}
 
+	public boolean isKeepActivity() {
+		return keepActivity;
+	}
+
+	/**
+	 * Defines whether the variable activities computed by previous calls are kept when the selection strategy is changed. This is useful, if the solver is
+	 * reused by several analyses (see {@link SatSolverSession}).
+	 *
+	 * @param keepActivity {@code true} if activities should be kept, {@code false} if all variables should start with zero activity.
+	 */
+	public void setKeepActivity(boolean keepActivity) {
+		this.keepActivity = keepActivity;
+	}
+
 }
@@ -0,0 +1,98 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Exact model counter (#SAT) for a {@link CNF}.<br> Counts the solutions of each component of an {@link AComponentCachingSearch}. In contrast to
+ * enumerating all solutions, the effort does not depend on the number of solutions.<br> <br> The component cache is kept between calls of
+ * {@link #count(LiteralSet)}, such that counting solutions for several partial assignments of the same formula gets faster over time.
+ */
+public class ModelCounter extends AComponentCachingSearch<BigInteger> {
+
+	public ModelCounter(CNF satInstance) {
+		super(satInstance);
+	}
+
+	/**
+	 * Counts all solutions of the formula.
+	 *
+	 * @return the number of solutions
+	 */
+	public BigInteger count() {
+		return count(new LiteralSet());
+	}
+
+	/**
+	 * Counts all solutions of the formula that contain the given literals.
+	 *
+	 * @param assumptions literals (using the variable IDs of the CNF) that must be contained in each solution
+	 * @return the number of solutions
+	 *
+	 * @throws RuntimeTimeoutException if the {@link #setTimeout(long) timeout} was reached.
+	 */
+	public BigInteger count(LiteralSet assumptions) throws RuntimeTimeoutException {
+		if (contradiction) {
+			return BigInteger.ZERO;
+		}
+		startSearch();
+		try {
+			final int[] internalAssumptions = internalMapping.convertToInternal(assumptions.getLiterals());
+			final int[] literals = Arrays.copyOf(internalAssumptions, internalAssumptions.length + units.length);
+			System.arraycopy(units, 0, literals, internalAssumptions.length, units.length);
+			return countBranch(clauses, numberOfVariables, literals);
+		} finally {
+			finishSearch();
+		}
+	}
+
+	@Override
+	protected BigInteger decide(List<Clause> component, int[] variables, int variable) {
+		return countBranch(component, variables.length, variable).add(countBranch(component, variables.length, -variable));
+	}
+
+	private BigInteger countBranch(List<Clause> component, int numberOfComponentVariables, int... literals) {
+		final int trailStart = getTrailSize();
+		final List<Clause> reducedClauses = propagate(component, literals);
+		final int assignedVariables = getTrailSize() - trailStart;
+		undo(trailStart);
+		if (reducedClauses == null) {
+			return BigInteger.ZERO;
+		}
+		BigInteger count = BigInteger.ONE.shiftLeft(numberOfComponentVariables - assignedVariables - countVariables(reducedClauses));
+		if (!reducedClauses.isEmpty()) {
+			for (final List<Clause> subComponent : split(reducedClauses)) {
+				count = count.multiply(processComponent(subComponent));
+				if (count.signum() == 0) {
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+}
@@ -20,9 +20,9 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.solver;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.sat4j.core.VecInt;
 import org.sat4j.minisat.core.Solver;
 import org.sat4j.specs.IConstr;
 
@@ -46,23 +46,18 @@ public class ModifiableSatSolver extends AdvancedSatSolver {
 
 	@Override
 	protected List<IConstr> addClauses(Solver<?> solver, Iterable<? extends LiteralSet> clauses, boolean internal) throws RuntimeContradictionException {
-		final ArrayList<IConstr> newConstrs = new ArrayList<>();
-
+		final int oldSize = constrList.size();
 		try {
-			for (final LiteralSet clause : clauses) {
-				newConstrs.add(addClause(solver, internal ? clause.getLiterals() : internalMapping.convertToInternal(clause.getLiterals())));
-			}
+			return super.addClauses(solver, clauses, internal);
 		} catch (final RuntimeContradictionException e) {
-			removeLastClauses(newConstrs.size());
+			removeLastClauses(constrList.size() - oldSize);
 			throw e;
 		}
-
-		return newConstrs;
 	}
 
 	@Override
-	protected IConstr addClause(Solver<?> solver, int[] mainClause) throws RuntimeContradictionException {
-		final IConstr constr = super.addClause(solver, mainClause);
+	protected IConstr addClauseInternal(Solver<?> solver, VecInt clause) throws RuntimeContradictionException {
+		final IConstr constr = super.addClauseInternal(solver, clause);
 		constrList.add(constr);
 		return constr;
 	}
@@ -0,0 +1,110 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+
+/**
+ * Holds a single {@link ModifiableSatSolver} for a {@link CNF} that can be borrowed by several analyses one after another. The clauses of the formula are
+ * loaded only once and variable activities are kept between the analyses.<br> <br> Each analysis works on its own assumptions (see
+ * {@link ISatSolver#assignmentPush(int)}). When the solver is {@link #release(ISatSolver) released}, all assumptions and all clauses that were added by the
+ * analysis are removed again. Learned clauses are kept as long as the analyses only use assumptions. Removing an added clause also removes all learned
+ * clauses, because they may have been derived from it (see {@link ModifiableSatSolver#removeLastClauses(int)}).<br> <br> If the solver is currently
+ * borrowed, {@link #borrow()} returns {@code null} and the caller has to create its own solver.
+ */
+public class SatSolverSession {
+
+	private final CNF satInstance;
+	private final AtomicBoolean borrowed = new AtomicBoolean(false);
+
+	private ModifiableSatSolver solver;
+	private int numberOfClauses;
+	private long initialTimeout;
+	private volatile boolean contradiction = false;
+
+	public SatSolverSession(CNF satInstance) {
+		this.satInstance = satInstance;
+	}
+
+	/**
+	 * Returns the shared solver, if it is not borrowed by another analysis.
+	 *
+	 * @return the shared solver or {@code null}, if the solver is currently in use or the formula is contradictory.
+	 */
+	public ISatSolver borrow() {
+		if (contradiction || !borrowed.compareAndSet(false, true)) {
+			return null;
+		}
+		try {
+			if (solver == null) {
+				final ModifiableSatSolver newSolver = new ModifiableSatSolver(satInstance);
+				if (newSolver.contradiction) {
+					contradiction = true;
+					borrowed.set(false);
+					return null;
+				}
+				newSolver.setKeepActivity(true);
+				initialTimeout = newSolver.solver.getTimeoutMs();
+				solver = newSolver;
+			}
+			numberOfClauses = solver.constrList.size();
+			return solver;
+		} catch (final RuntimeContradictionException e) {
+			contradiction = true;
+			borrowed.set(false);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a solver obtained by {@link #borrow()} to this session. Removes all assumptions and added clauses and restores the initial selection strategy,
+	 * variable order, and timeout.
+	 *
+	 * @param borrowedSolver the borrowed solver
+	 */
+	public void release(ISatSolver borrowedSolver) {
+		if ((borrowedSolver == null) || (borrowedSolver != solver)) {
+			throw new IllegalArgumentException("Solver was not borrowed from this session");
+		}
+		try {
+			solver.assignmentClear(0);
+			final int addedClauses = solver.constrList.size() - numberOfClauses;
+			if (addedClauses > 0) {
+				solver.removeLastClauses(addedClauses);
+			}
+			solver.useSolutionList(0);
+			solver.setGlobalTimeout(false);
+			solver.setOrderFix();
+			solver.setSelectionStrategy(SelectionStrategy.ORG);
+			solver.solver.setTimeoutMs(initialTimeout);
+		} finally {
+			borrowed.set(false);
+		}
+	}
+
+	public CNF getSatInstance() {
+		return satInstance;
+	}
+
+}
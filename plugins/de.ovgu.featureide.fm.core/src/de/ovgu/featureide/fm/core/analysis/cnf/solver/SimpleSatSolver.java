@@ -21,7 +21,6 @@
 package de.ovgu.featureide.fm.core.analysis.cnf.solver;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.sat4j.core.VecInt;
@@ -32,6 +31,7 @@ import org.sat4j.specs.IConstr;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactClauseList;
 import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
@@ -51,6 +51,12 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 
 	protected final boolean contradiction;
 
+	/**
+	 * Whether the internal variable mapping is the identity, i.e., literals do not have to be converted.
+	 */
+	private final boolean identityMapping;
+	private final VecInt literalBuffer = new VecInt();
+
 	public SimpleSatSolver(CNF satInstance) {
 		this(satInstance, satInstance.getInternalVariables());
 	}
@@ -62,6 +68,7 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 	protected SimpleSatSolver(CNF satInstance, IInternalVariables variables) throws RuntimeContradictionException {
 		this.satInstance = satInstance;
 		internalMapping = variables;
+		identityMapping = variables.isIdentityMapping();
 
 		Solver<?> newSolver = null;
 		boolean contradictionException = false;
@@ -76,34 +83,59 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 
 	@Override
 	public IConstr addClause(LiteralSet mainClause) throws RuntimeContradictionException {
-		return addClause(solver, internalMapping.convertToInternal(mainClause.getLiterals()));
+		final int[] literals = mainClause.getLiterals();
+		return addClause(solver, literals, 0, literals.length, false);
 	}
 
 	@Override
 	public IConstr addInternalClause(LiteralSet mainClause) throws RuntimeContradictionException {
-		return addClause(solver, mainClause.getLiterals());
+		final int[] literals = mainClause.getLiterals();
+		return addClause(solver, literals, 0, literals.length, true);
 	}
 
 	protected IConstr addClause(Solver<?> solver, int[] literals) throws RuntimeContradictionException {
-		if ((literals.length == 1) && (literals[0] == 0)) {
+		return addClause(solver, literals, 0, literals.length, true);
+	}
+
+	/**
+	 * Adds the literals within the given range as a new clause. The literals are copied into a buffer that is reused for every clause.
+	 *
+	 * @param solver the solver
+	 * @param literals array containing the literals of the clause
+	 * @param from first index of the clause in {@code literals} (inclusive)
+	 * @param to last index of the clause in {@code literals} (exclusive)
+	 * @param internal whether the literals already use the internal variable mapping
+	 * @return the new constraint
+	 * @throws RuntimeContradictionException if the clause is empty or contradicts the clauses already contained in the solver
+	 */
+	protected IConstr addClause(Solver<?> solver, int[] literals, int from, int to, boolean internal) throws RuntimeContradictionException {
+		if (((to - from) == 1) && (literals[from] == 0)) {
 			throw new RuntimeContradictionException();
 		}
+		final VecInt clause = literalBuffer;
+		clause.clear();
+		clause.ensure(to - from);
+		if (internal || identityMapping) {
+			for (int i = from; i < to; i++) {
+				clause.unsafePush(literals[i]);
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				clause.unsafePush(internalMapping.convertToInternal(literals[i]));
+			}
+		}
+		assert checkClauseValidity(clause);
+		return addClauseInternal(solver, clause);
+	}
+
+	protected IConstr addClauseInternal(Solver<?> solver, VecInt clause) throws RuntimeContradictionException {
 		try {
-			assert checkClauseValidity(literals);
-			return solver.addClause(new VecInt(Arrays.copyOfRange(literals, 0, literals.length)));
+			return solver.addClause(clause);
 		} catch (final ContradictionException e) {
 			throw new RuntimeContradictionException(e);
 		}
 	}
 
-	// protected IConstr addClauseInternal(Solver<?> solver, VecInt vec) throws RuntimeContradictionException {
-	// try {
-	// return solver.addClause(vec);
-	// } catch (ContradictionException e) {
-	// throw new RuntimeContradictionException(e);
-	// }
-	// }
-
 	@Override
 	public List<IConstr> addClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
 		return addClauses(solver, clauses, false);
@@ -116,12 +148,43 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 
 	protected List<IConstr> addClauses(Solver<?> solver, Iterable<? extends LiteralSet> clauses, boolean internal) throws RuntimeContradictionException {
 		final ArrayList<IConstr> constrList = new ArrayList<>();
-		for (final LiteralSet clause : clauses) {
-			constrList.add(addClause(solver, internal ? clause.getLiterals() : internalMapping.convertToInternal(clause.getLiterals())));
+		if (clauses instanceof CompactClauseList) {
+			final CompactClauseList compactClauses = (CompactClauseList) clauses;
+			final int[] literals = compactClauses.getLiteralArray();
+			for (int i = 0; i < compactClauses.size(); i++) {
+				constrList.add(addClause(solver, literals, compactClauses.getStart(i), compactClauses.getEnd(i), internal));
+			}
+		} else {
+			for (final LiteralSet clause : clauses) {
+				final int[] literals = clause.getLiterals();
+				constrList.add(addClause(solver, literals, 0, literals.length, internal));
+			}
 		}
 		return constrList;
 	}
 
+	/**
+	 * Adds all given clauses without collecting the resulting constraints. Used for the initial clauses of a solver, which are never removed.
+	 *
+	 * @param solver the solver
+	 * @param clauses the clauses
+	 * @throws RuntimeContradictionException if the clauses contain a contradiction
+	 */
+	protected void loadClauses(Solver<?> solver, List<LiteralSet> clauses) throws RuntimeContradictionException {
+		if (clauses instanceof CompactClauseList) {
+			final CompactClauseList compactClauses = (CompactClauseList) clauses;
+			final int[] literals = compactClauses.getLiteralArray();
+			for (int i = 0; i < compactClauses.size(); i++) {
+				addClause(solver, literals, compactClauses.getStart(i), compactClauses.getEnd(i), false);
+			}
+		} else {
+			for (final LiteralSet clause : clauses) {
+				final int[] literals = clause.getLiterals();
+				addClause(solver, literals, 0, literals.length, false);
+			}
+		}
+	}
+
 	@Override
 	public SimpleSatSolver clone() {
 		if (this.getClass() == SimpleSatSolver.class) {
@@ -210,9 +273,9 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 		}
 	}
 
-	private boolean checkClauseValidity(final int[] literals) {
-		for (int i = 0; i < literals.length; i++) {
-			final int l = literals[i];
+	private boolean checkClauseValidity(final VecInt literals) {
+		for (int i = 0; i < literals.size(); i++) {
+			final int l = literals.get(i);
 			if ((l == 0) || (Math.abs(l) > satInstance.getVariables().maxVariableID())) {
 				return false;
 			}
@@ -248,10 +311,10 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 	 */
 	protected void initSolver(Solver<?> solver) throws RuntimeContradictionException {
 		final int size = satInstance.getVariables().size();
-		final List<LiteralSet> clauses = satInstance.getClauses();
+		final List<LiteralSet> clauses = satInstance.getClauseView();
 		if (!clauses.isEmpty()) {
 			solver.setExpectedNumberOfClauses(clauses.size() + 1);
-			addClauses(solver, clauses, false);
+			loadClauses(solver, clauses);
 		}
 		if (size > 0) {
 			final VecInt pseudoClause = new VecInt(size + 1);
@@ -34,6 +34,7 @@ public class VarOrderHeap2 extends VarOrderHeap {
 
 	private static final long serialVersionUID = 1L;
 	private int[] order;
+	private double[] initialActivity;
 
 	public VarOrderHeap2(IPhaseSelectionStrategy strategy, int[] order) {
 		super(strategy);
@@ -53,7 +54,7 @@ public class VarOrderHeap2 extends VarOrderHeap {
 		nlength--;
 		for (int i = 0; i < nlength; i++) {
 			final int x = order[i];
-			activity[x] = 0.0;
+			activity[x] = ((initialActivity != null) && (x < initialActivity.length)) ? initialActivity[x] : 0.0;
 			if (lits.belongsToPool(x)) {
 				heap.insert(x);
 			}
@@ -68,4 +69,18 @@ public class VarOrderHeap2 extends VarOrderHeap {
 		this.order = order;
 	}
 
+	public double[] getInitialActivity() {
+		return initialActivity;
+	}
+
+	/**
+	 * Sets the activity values that are used for the variables on the next call of {@link #init()}. If {@code null}, all variables start with an activity of
+	 * zero.
+	 *
+	 * @param initialActivity the activity values indexed by variable
+	 */
+	public void setInitialActivity(double[] initialActivity) {
+		this.initialActivity = initialActivity;
+	}
+
 }
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.analysis.cnf.solver;
 
 import java.util.List;
 
+import org.sat4j.minisat.core.Heap;
 import org.sat4j.minisat.orders.VarOrderHeap;
 import org.sat4j.specs.ISolver;
 
@@ -37,12 +38,31 @@ public class VarOrderHeap3 extends VarOrderHeap {
 	private static final long serialVersionUID = 1L;
 
 	private final UniformRandomSelectionStrategy selectionStrategy;
+	private double[] initialActivity;
 
 	public VarOrderHeap3(List<LiteralSet> sample) {
 		super(new UniformRandomSelectionStrategy(sample));
 		selectionStrategy = (UniformRandomSelectionStrategy) phaseStrategy;
 	}
 
+	@Override
+	public void init() {
+		final int nlength = lits.nVars() + 1;
+		if ((activity == null) || (activity.length < nlength)) {
+			activity = new double[nlength];
+		}
+		phaseStrategy.init(nlength);
+		activity[0] = -1;
+		heap = new Heap(activity);
+		heap.setBounds(nlength);
+		for (int x = 1; x < nlength; x++) {
+			activity[x] = ((initialActivity != null) && (x < initialActivity.length)) ? initialActivity[x] : 0.0;
+			if (lits.belongsToPool(x)) {
+				heap.insert(x);
+			}
+		}
+	}
+
 	@Override
 	public void undo(int x) {
 		super.undo(x);
@@ -54,4 +74,18 @@ public class VarOrderHeap3 extends VarOrderHeap {
 		super.assignLiteral(p);
 	}
 
+	public double[] getInitialActivity() {
+		return initialActivity;
+	}
+
+	/**
+	 * Sets the activity values that are used for the variables on the next call of {@link #init()}. If {@code null}, all variables start with an activity of
+	 * zero.
+	 *
+	 * @param initialActivity the activity values indexed by variable
+	 */
+	public void setInitialActivity(double[] initialActivity) {
+		this.initialActivity = initialActivity;
+	}
+
 }
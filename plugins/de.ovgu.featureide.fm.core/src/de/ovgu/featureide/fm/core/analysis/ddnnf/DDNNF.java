@@ -0,0 +1,264 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compiled representation of a {@link CNF} as decision-DNNF.<br> Each node is either a decomposable conjunction of literals, unconstrained variables, and
+ * child nodes or a deterministic disjunction of exactly two nodes that differ in the value of one variable. Every conjunction covers all variables of its
+ * component, such that all queries run in linear time regarding the number of nodes.<br> <br> Nodes are stored in topological order (children before
+ * their parents). All variables are stored as internal variable IDs of the compiled CNF, whereas the queries use the IDs of the CNF's variables.
+ *
+ * @see DDNNFBuilder
+ */
+public class DDNNF {
+
+	static final byte FALSE = 0;
+	static final byte AND = 1;
+	static final byte OR = 2;
+
+	public static DDNNF build(CNF satInstance) {
+		return LongRunningWrapper.runMethod(new DDNNFBuilder(satInstance));
+	}
+
+	final IInternalVariables internalMapping;
+	final int numberOfVariables;
+
+	final byte[] types;
+	final int[][] literals;
+	final int[][] freeVariables;
+	final int[][] children;
+	final int root;
+
+	DDNNF(IInternalVariables internalMapping, byte[] types, int[][] literals, int[][] freeVariables, int[][] children, int root) {
+		this.internalMapping = internalMapping;
+		numberOfVariables = internalMapping.size();
+		this.types = types;
+		this.literals = literals;
+		this.freeVariables = freeVariables;
+		this.children = children;
+		this.root = root;
+	}
+
+	/**
+	 * @return the number of nodes in this d-DNNF
+	 */
+	public int getNumberOfNodes() {
+		return types.length;
+	}
+
+	public boolean isSatisfiable() {
+		return isSatisfiable(new LiteralSet());
+	}
+
+	/**
+	 * Checks whether there is a solution that contains all given literals.
+	 *
+	 * @param assumptions literals (using the variable IDs of the CNF)
+	 * @return {@code true} if there is at least one solution, {@code false} otherwise.
+	 */
+	public boolean isSatisfiable(LiteralSet assumptions) {
+		final byte[] assignment = getAssignment(assumptions);
+		return (assignment != null) && computeSatisfiable(assignment)[root];
+	}
+
+	/**
+	 * Counts all solutions.
+	 *
+	 * @return the number of solutions
+	 */
+	public BigInteger count() {
+		return count(new LiteralSet());
+	}
+
+	/**
+	 * Counts all solutions that contain all given literals.
+	 *
+	 * @param assumptions literals (using the variable IDs of the CNF)
+	 * @return the number of solutions
+	 */
+	public BigInteger count(LiteralSet assumptions) {
+		final byte[] assignment = getAssignment(assumptions);
+		return (assignment == null) ? BigInteger.ZERO : computeCounts(assignment)[root];
+	}
+
+	/**
+	 * @return the number of solutions of each node regarding the given assignment
+	 */
+	BigInteger[] computeCounts(byte[] assignment) {
+		final BigInteger[] counts = new BigInteger[types.length];
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+			case FALSE:
+				counts[i] = BigInteger.ZERO;
+				break;
+			case AND:
+				if (!isConsistent(literals[i], assignment)) {
+					counts[i] = BigInteger.ZERO;
+				} else {
+					int unassignedVariables = 0;
+					for (final int variable : freeVariables[i]) {
+						if (assignment[variable] == 0) {
+							unassignedVariables++;
+						}
+					}
+					BigInteger count = BigInteger.ONE.shiftLeft(unassignedVariables);
+					for (final int child : children[i]) {
+						count = count.multiply(counts[child]);
+					}
+					counts[i] = count;
+				}
+				break;
+			case OR:
+				counts[i] = counts[children[i][0]].add(counts[children[i][1]]);
+				break;
+			default:
+				throw new AssertionError(types[i]);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Computes all literals that are contained in every solution that contains the given literals (i.e., core and dead features regarding the
+	 * assumptions).
+	 *
+	 * @param assumptions literals (using the variable IDs of the CNF)
+	 * @return the implied literals without the variables of the assumptions or an empty set if there is no solution.
+	 */
+	public LiteralSet getImpliedLiterals(LiteralSet assumptions) {
+		final byte[] assignment = getAssignment(assumptions);
+		if (assignment == null) {
+			return new LiteralSet();
+		}
+		final boolean[] satisfiable = computeSatisfiable(assignment);
+		if (!satisfiable[root]) {
+			return new LiteralSet();
+		}
+
+		final boolean[] used = new boolean[types.length];
+		final boolean[] positive = new boolean[numberOfVariables + 1];
+		final boolean[] negative = new boolean[numberOfVariables + 1];
+		used[root] = true;
+		for (int i = types.length - 1; i >= 0; i--) {
+			if (used[i]) {
+				switch (types[i]) {
+				case AND:
+					for (final int literal : literals[i]) {
+						if (literal > 0) {
+							positive[literal] = true;
+						} else {
+							negative[-literal] = true;
+						}
+					}
+					for (final int variable : freeVariables[i]) {
+						positive[variable] = true;
+						negative[variable] = true;
+					}
+					for (final int child : children[i]) {
+						used[child] = true;
+					}
+					break;
+				case OR:
+					for (final int child : children[i]) {
+						if (satisfiable[child]) {
+							used[child] = true;
+						}
+					}
+					break;
+				case FALSE:
+				default:
+					throw new AssertionError(types[i]);
+				}
+			}
+		}
+
+		final int[] impliedLiterals = new int[numberOfVariables];
+		int index = 0;
+		for (int variable = 1; variable <= numberOfVariables; variable++) {
+			if ((assignment[variable] == 0) && (positive[variable] != negative[variable])) {
+				impliedLiterals[index++] = internalMapping.convertToOriginal(positive[variable] ? variable : -variable);
+			}
+		}
+		return new LiteralSet(Arrays.copyOf(impliedLiterals, index), Order.UNORDERED, false);
+	}
+
+	private boolean[] computeSatisfiable(byte[] assignment) {
+		final boolean[] satisfiable = new boolean[types.length];
+		nodeLoop: for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+			case FALSE:
+				break;
+			case AND:
+				if (isConsistent(literals[i], assignment)) {
+					for (final int child : children[i]) {
+						if (!satisfiable[child]) {
+							continue nodeLoop;
+						}
+					}
+					satisfiable[i] = true;
+				}
+				break;
+			case OR:
+				satisfiable[i] = satisfiable[children[i][0]] || satisfiable[children[i][1]];
+				break;
+			default:
+				throw new AssertionError(types[i]);
+			}
+		}
+		return satisfiable;
+	}
+
+	private static boolean isConsistent(int[] literals, byte[] assignment) {
+		for (final int literal : literals) {
+			final int value = assignment[Math.abs(literal)];
+			if ((value != 0) && ((value > 0) != (literal > 0))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the assignment of all internal variables or {@code null} if the assumptions contain complementary literals.
+	 */
+	byte[] getAssignment(LiteralSet assumptions) {
+		final byte[] assignment = new byte[numberOfVariables + 1];
+		for (final int literal : internalMapping.convertToInternal(assumptions.getLiterals())) {
+			final int variable = Math.abs(literal);
+			final byte value = (byte) (literal > 0 ? 1 : -1);
+			if (assignment[variable] == -value) {
+				return null;
+			}
+			assignment[variable] = value;
+		}
+		return assignment;
+	}
+
+}
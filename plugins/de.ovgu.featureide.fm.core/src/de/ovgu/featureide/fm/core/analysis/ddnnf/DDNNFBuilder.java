@@ -0,0 +1,150 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AComponentCachingSearch;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Compiles a {@link CNF} into a {@link DDNNF}.<br> The trace of an {@link AComponentCachingSearch} is the resulting d-DNNF. Each component is compiled
+ * into one node, such that cached components are shared between their parents.
+ */
+public class DDNNFBuilder extends AComponentCachingSearch<Integer> implements LongRunningMethod<DDNNF> {
+
+	private static final int[] EMPTY = new int[0];
+
+	private final VecInt types = new VecInt();
+	private final List<int[]> nodeLiterals = new ArrayList<>();
+	private final List<int[]> nodeFreeVariables = new ArrayList<>();
+	private final List<int[]> nodeChildren = new ArrayList<>();
+
+	public DDNNFBuilder(CNF satInstance) {
+		super(satInstance);
+	}
+
+	@Override
+	public DDNNF execute(IMonitor<DDNNF> monitor) throws Exception {
+		return build(monitor);
+	}
+
+	/**
+	 * Compiles the formula.
+	 *
+	 * @param monitor a monitor that is checked for cancellation (may be {@code null})
+	 * @return the compiled d-DNNF
+	 *
+	 * @throws RuntimeTimeoutException if the {@link #setTimeout(long) timeout} was reached.
+	 */
+	public DDNNF build(IMonitor<?> monitor) throws RuntimeTimeoutException {
+		setMonitor(monitor);
+		types.clear();
+		nodeLiterals.clear();
+		nodeFreeVariables.clear();
+		nodeChildren.clear();
+		clearCache();
+		startSearch();
+		try {
+			final int falseNode = addNode(DDNNF.FALSE, EMPTY, EMPTY, EMPTY);
+			final int root = contradiction ? falseNode : compileBranch(clauses, getAllVariables(), units);
+			final int size = types.size();
+			final byte[] typeArray = new byte[size];
+			for (int i = 0; i < size; i++) {
+				typeArray[i] = (byte) types.get(i);
+			}
+			return new DDNNF(internalMapping, typeArray, nodeLiterals.toArray(new int[size][]), nodeFreeVariables.toArray(new int[size][]),
+					nodeChildren.toArray(new int[size][]), root);
+		} finally {
+			finishSearch();
+			clearCache();
+		}
+	}
+
+	private int[] getAllVariables() {
+		final int[] variables = new int[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			variables[i] = i + 1;
+		}
+		return variables;
+	}
+
+	private int addNode(byte type, int[] literals, int[] freeVariables, int[] children) {
+		types.push(type);
+		nodeLiterals.add(literals);
+		nodeFreeVariables.add(freeVariables);
+		nodeChildren.add(children);
+		return types.size() - 1;
+	}
+
+	@Override
+	protected Integer decide(List<Clause> component, int[] variables, int variable) {
+		final int positiveNode = compileBranch(component, variables, variable);
+		final int negativeNode = compileBranch(component, variables, -variable);
+		if (types.get(positiveNode) == DDNNF.FALSE) {
+			return negativeNode;
+		} else if (types.get(negativeNode) == DDNNF.FALSE) {
+			return positiveNode;
+		} else {
+			return addNode(DDNNF.OR, EMPTY, EMPTY, new int[] { positiveNode, negativeNode });
+		}
+	}
+
+	/**
+	 * Assigns the given literals and compiles the remaining formula.
+	 *
+	 * @param component the clauses of the current component
+	 * @param variables all variables of the current component
+	 * @param literals the literals to assign
+	 * @return the compiled node
+	 */
+	private int compileBranch(List<Clause> component, int[] variables, int... literals) {
+		final int trailStart = getTrailSize();
+		final List<Clause> reducedClauses = propagate(component, literals);
+		if (reducedClauses == null) {
+			undo(trailStart);
+			return 0;
+		}
+		final int[] assignedLiterals = getAssignedLiterals(trailStart);
+		undo(trailStart);
+
+		final int[] freeVariables = getFreeVariables(variables, reducedClauses, assignedLiterals);
+		final List<List<Clause>> components = reducedClauses.isEmpty() ? new ArrayList<List<Clause>>(0) : split(reducedClauses);
+		final int[] children = new int[components.size()];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = processComponent(components.get(i));
+			if (types.get(children[i]) == DDNNF.FALSE) {
+				return children[i];
+			}
+		}
+		if ((assignedLiterals.length == 0) && (freeVariables.length == 0) && (children.length == 1)) {
+			return children[0];
+		}
+		return addNode(DDNNF.AND, assignedLiterals, freeVariables.length == 0 ? EMPTY : freeVariables, children.length == 0 ? EMPTY : children);
+	}
+
+}
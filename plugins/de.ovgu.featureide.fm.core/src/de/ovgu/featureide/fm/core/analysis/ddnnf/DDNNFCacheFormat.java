@@ -0,0 +1,117 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ICacheFormat;
+
+/**
+ * Binary format for a {@link DDNNF} that is stored in a {@link de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaCache FormulaCache}. The variable
+ * mapping is not stored, but must be provided by the CNF the d-DNNF was compiled from.
+ */
+public class DDNNFCacheFormat implements ICacheFormat<DDNNF> {
+
+	private final IInternalVariables internalMapping;
+
+	/**
+	 * @param internalMapping the internal variables of the compiled CNF
+	 */
+	public DDNNFCacheFormat(IInternalVariables internalMapping) {
+		this.internalMapping = internalMapping;
+	}
+
+	@Override
+	public int getVersion() {
+		return 1;
+	}
+
+	@Override
+	public void write(DDNNF ddnnf, DataOutput out) throws IOException {
+		out.writeInt(internalMapping.size());
+		out.writeInt(ddnnf.types.length);
+		out.writeInt(ddnnf.root);
+		for (int i = 0; i < ddnnf.types.length; i++) {
+			out.writeInt(ddnnf.types[i]);
+			writeArray(ddnnf.literals[i], out);
+			writeArray(ddnnf.freeVariables[i], out);
+			writeArray(ddnnf.children[i], out);
+		}
+	}
+
+	private void writeArray(int[] array, DataOutput out) throws IOException {
+		out.writeInt(array.length);
+		for (final int value : array) {
+			out.writeInt(value);
+		}
+	}
+
+	@Override
+	public DDNNF read(ByteBuffer buffer) throws IOException {
+		final IntBuffer intBuffer = buffer.asIntBuffer();
+		if (intBuffer.get() != internalMapping.size()) {
+			return null;
+		}
+		final int numberOfNodes = intBuffer.get();
+		final int root = intBuffer.get();
+		if ((numberOfNodes <= 0) || (root < 0) || (root >= numberOfNodes)) {
+			throw new IOException("Invalid root node " + root);
+		}
+		final byte[] types = new byte[numberOfNodes];
+		final int[][] literals = new int[numberOfNodes][];
+		final int[][] freeVariables = new int[numberOfNodes][];
+		final int[][] children = new int[numberOfNodes][];
+		for (int i = 0; i < numberOfNodes; i++) {
+			final int type = intBuffer.get();
+			if ((type != DDNNF.FALSE) && (type != DDNNF.AND) && (type != DDNNF.OR)) {
+				throw new IOException("Invalid node type " + type);
+			}
+			types[i] = (byte) type;
+			literals[i] = readArray(intBuffer);
+			freeVariables[i] = readArray(intBuffer);
+			children[i] = readArray(intBuffer);
+			for (final int child : children[i]) {
+				if ((child < 0) || (child >= i)) {
+					throw new IOException("Invalid child node " + child);
+				}
+			}
+			if ((type == DDNNF.OR) && (children[i].length != 2)) {
+				throw new IOException("Invalid disjunction " + i);
+			}
+		}
+		return new DDNNF(internalMapping, types, literals, freeVariables, children, root);
+	}
+
+	private int[] readArray(IntBuffer intBuffer) throws IOException {
+		final int length = intBuffer.get();
+		if (length < 0) {
+			throw new IOException("Invalid array length " + length);
+		}
+		final int[] array = new int[length];
+		intBuffer.get(array);
+		return array;
+	}
+
+}
@@ -0,0 +1,155 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Draws uniformly distributed solutions from a {@link DDNNF}.<br> The number of solutions of each node is computed once when the sampler is created.
+ * Afterwards, each solution is drawn by a single top-down pass over the d-DNNF that chooses the child of a disjunction with a probability proportional to
+ * its number of solutions. Thus, drawing a solution takes linear time regarding the number of nodes.<br> <br> A sampler is not modified by
+ * {@link #sample(Random)} and can be used by multiple threads at once, as long as each thread uses its own {@link Random} instance.
+ */
+public class DDNNFSampler {
+
+	private final DDNNF ddnnf;
+	private final byte[] assignment;
+	private final BigInteger[] counts;
+
+	public DDNNFSampler(DDNNF ddnnf) {
+		this(ddnnf, new LiteralSet());
+	}
+
+	/**
+	 * Creates a sampler that only draws solutions which contain all given literals.
+	 *
+	 * @param ddnnf the d-DNNF
+	 * @param assumptions literals (using the variable IDs of the CNF)
+	 */
+	public DDNNFSampler(DDNNF ddnnf, LiteralSet assumptions) {
+		this.ddnnf = ddnnf;
+		assignment = ddnnf.getAssignment(assumptions);
+		counts = (assignment == null) ? null : ddnnf.computeCounts(assignment);
+	}
+
+	/**
+	 * @return the number of solutions from which this sampler draws
+	 */
+	public BigInteger getNumberOfSolutions() {
+		return (counts == null) ? BigInteger.ZERO : counts[ddnnf.root];
+	}
+
+	/**
+	 * Draws a solution uniformly at random.
+	 *
+	 * @param random the random number generator to use
+	 * @return a solution in {@link Order#INDEX index order} of the original variables or {@code null}, if there is no solution.
+	 */
+	public LiteralSet sample(Random random) {
+		if (getNumberOfSolutions().signum() == 0) {
+			return null;
+		}
+		final int[] solution = new int[ddnnf.numberOfVariables];
+		final int[] stack = new int[ddnnf.types.length];
+		int stackSize = 0;
+		stack[stackSize++] = ddnnf.root;
+		while (stackSize > 0) {
+			final int node = stack[--stackSize];
+			switch (ddnnf.types[node]) {
+			case DDNNF.AND:
+				for (final int literal : ddnnf.literals[node]) {
+					solution[Math.abs(literal) - 1] = literal;
+				}
+				for (final int variable : ddnnf.freeVariables[node]) {
+					final int value = assignment[variable];
+					if (value != 0) {
+						solution[variable - 1] = value * variable;
+					} else {
+						solution[variable - 1] = random.nextBoolean() ? variable : -variable;
+					}
+				}
+				for (final int child : ddnnf.children[node]) {
+					stack[stackSize++] = child;
+				}
+				break;
+			case DDNNF.OR:
+				final int[] children = ddnnf.children[node];
+				final BigInteger firstCount = counts[children[0]];
+				stack[stackSize++] = nextBigInteger(random, counts[node]).compareTo(firstCount) < 0 ? children[0] : children[1];
+				break;
+			case DDNNF.FALSE:
+			default:
+				throw new AssertionError(ddnnf.types[node]);
+			}
+		}
+		if (ddnnf.internalMapping.isIdentityMapping()) {
+			return new LiteralSet(solution, Order.INDEX, false);
+		} else {
+			// Place each literal at the index of its original variable (variables that were sliced away are 0)
+			final int[] originalSolution = new int[getNumberOfOriginalVariables(solution)];
+			for (final int literal : ddnnf.internalMapping.convertToOriginal(solution)) {
+				originalSolution[Math.abs(literal) - 1] = literal;
+			}
+			return new LiteralSet(originalSolution, Order.INDEX, false);
+		}
+	}
+
+	private int getNumberOfOriginalVariables(int[] solution) {
+		if (ddnnf.internalMapping instanceof IVariables) {
+			return ((IVariables) ddnnf.internalMapping).maxVariableID();
+		}
+		int maxVariable = 0;
+		for (final int literal : solution) {
+			maxVariable = Math.max(maxVariable, Math.abs(ddnnf.internalMapping.convertToOriginal(literal)));
+		}
+		return maxVariable;
+	}
+
+	/**
+	 * @return a uniformly distributed number between 0 (inclusive) and the given bound (exclusive)
+	 */
+	private static BigInteger nextBigInteger(Random random, BigInteger bound) {
+		final int bitLength = bound.bitLength();
+		if (bitLength < Long.SIZE) {
+			return BigInteger.valueOf(nextLong(random, bound.longValue()));
+		}
+		BigInteger value;
+		do {
+			value = new BigInteger(bitLength, random);
+		} while (value.compareTo(bound) >= 0);
+		return value;
+	}
+
+	private static long nextLong(Random random, long bound) {
+		long bits, value;
+		do {
+			bits = random.nextLong() >>> 1;
+			value = bits % bound;
+		} while (((bits - value) + (bound - 1)) < 0);
+		return value;
+	}
+
+}
@@ -0,0 +1,481 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Updates an existing {@link ModalImplicationGraph} after its CNF was modified.<br> <br> After removing all core and dead variables, a CNF decomposes into
+ * connected components of variables that share a clause. Implications only exist between variables of the same component. Thus, only components that contain
+ * a variable of an added or removed clause or a variable whose core/dead status changed have to be rebuilt. The graph for all other components is copied from
+ * the old graph. If all components are affected, the graph is completely rebuilt using a {@link MIGBuilder}.
+ */
+public class IncrementalMIGBuilder implements LongRunningMethod<ModalImplicationGraph> {
+
+	private final ModalImplicationGraph oldMig;
+	private final CNF oldSatInstance;
+	private final CNF satInstance;
+	private final boolean detectStrong;
+
+	private int threads = 1;
+
+	private int[] oldToNew;
+	private int[] newToOld;
+	private byte[] oldCore;
+	private byte[] core;
+
+	protected Random random = new Random(112358);
+
+	/**
+	 * @param oldMig the graph that was built for {@code oldSatInstance}
+	 * @param oldSatInstance the CNF before the modification
+	 * @param satInstance the modified CNF. Variables are identified by their names.
+	 * @param detectStrong whether {@code oldMig} was built with strong edge detection. Also used for the new graph.
+	 */
+	public IncrementalMIGBuilder(ModalImplicationGraph oldMig, CNF oldSatInstance, CNF satInstance, boolean detectStrong) {
+		this.oldMig = oldMig;
+		this.oldSatInstance = oldSatInstance;
+		this.satInstance = satInstance;
+		this.detectStrong = detectStrong;
+	}
+
+	@Override
+	public ModalImplicationGraph execute(IMonitor<ModalImplicationGraph> monitor) throws Exception {
+		monitor.setRemainingWork(4);
+		final int numberOfOldVariables = oldSatInstance.getVariables().size();
+		final int numberOfVariables = satInstance.getVariables().size();
+		if ((oldMig.adjList.size() != (numberOfOldVariables << 1)) || satInstance.getClauseView().isEmpty()) {
+			return rebuild(monitor.subTask(4));
+		}
+		mapVariables();
+
+		final Set<LiteralSet> oldClauses = new HashSet<>();
+		final Set<LiteralSet> newClauses = new HashSet<>();
+		final boolean[] dirty = new boolean[numberOfVariables + 1];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			dirty[var] = newToOld[var] == 0;
+		}
+		for (final LiteralSet clause : oldSatInstance.getClauseView()) {
+			final LiteralSet mappedClause = adaptToNew(clause);
+			if (mappedClause != null) {
+				oldClauses.add(mappedClause);
+			} else {
+				// Contains a removed variable, whose component is handled below
+				for (final int literal : clause.getLiterals()) {
+					final int var = oldToNew[Math.abs(literal)];
+					if (var != 0) {
+						dirty[var] = true;
+					}
+				}
+			}
+		}
+		for (final LiteralSet clause : satInstance.getClauseView()) {
+			final LiteralSet sortedClause = new LiteralSet(clause, Order.NATURAL);
+			newClauses.add(sortedClause);
+			if (!oldClauses.contains(sortedClause)) {
+				markVariables(sortedClause, dirty);
+			}
+		}
+		for (final LiteralSet clause : oldClauses) {
+			if (!newClauses.contains(clause)) {
+				markVariables(clause, dirty);
+			}
+		}
+		monitor.step();
+
+		final ISatSolver solver = new AdvancedSatSolver(satInstance);
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		if (!computeCore(solver)) {
+			return null;
+		}
+		monitor.step();
+
+		// Determine the components that must be rebuilt
+		oldCore = new byte[numberOfOldVariables + 1];
+		for (int var = 1; var <= numberOfOldVariables; var++) {
+			final Vertex vertex = oldMig.getVertex(var);
+			oldCore[var] = (byte) (vertex.isCore() ? 1 : vertex.isDead() ? -1 : 0);
+		}
+		for (int var = 1; var <= numberOfVariables; var++) {
+			final int oldVar = newToOld[var];
+			if ((oldVar != 0) && (oldCore[oldVar] != core[var])) {
+				dirty[var] = true;
+			}
+		}
+		final int[] oldComponents = computeComponents(oldSatInstance.getClauseView(), oldCore);
+		final boolean[] dirtyOldComponents = new boolean[numberOfOldVariables + 1];
+		for (int oldVar = 1; oldVar <= numberOfOldVariables; oldVar++) {
+			if ((oldCore[oldVar] == 0) && ((oldToNew[oldVar] == 0) || dirty[oldToNew[oldVar]])) {
+				dirtyOldComponents[oldComponents[oldVar]] = true;
+			}
+		}
+		for (int oldVar = 1; oldVar <= numberOfOldVariables; oldVar++) {
+			if ((oldCore[oldVar] == 0) && dirtyOldComponents[oldComponents[oldVar]] && (oldToNew[oldVar] != 0)) {
+				dirty[oldToNew[oldVar]] = true;
+			}
+		}
+		final int[] components = computeComponents(satInstance.getClauseView(), core);
+		final boolean[] dirtyComponents = new boolean[numberOfVariables + 1];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			if ((core[var] == 0) && dirty[var]) {
+				dirtyComponents[components[var]] = true;
+			}
+		}
+		final int[] regionToNew = new int[numberOfVariables + 1];
+		final int[] newToRegion = new int[numberOfVariables + 1];
+		int regionSize = 0;
+		int freeVariables = 0;
+		for (int var = 1; var <= numberOfVariables; var++) {
+			if (core[var] == 0) {
+				freeVariables++;
+				if (dirtyComponents[components[var]]) {
+					regionToNew[++regionSize] = var;
+					newToRegion[var] = regionSize;
+				}
+			}
+		}
+		if (regionSize == freeVariables) {
+			return rebuild(monitor.subTask(2));
+		}
+		monitor.step();
+
+		final ModalImplicationGraph regionMig = (regionSize > 0) ? buildRegion(regionToNew, newToRegion, regionSize, monitor.subTask(1)) : null;
+		return merge(regionMig, regionToNew, newToRegion);
+	}
+
+	private ModalImplicationGraph rebuild(IMonitor<ModalImplicationGraph> monitor) {
+		final MIGBuilder builder = new MIGBuilder(satInstance, detectStrong);
+		builder.setThreads(threads);
+		return LongRunningWrapper.runMethod(builder, monitor);
+	}
+
+	private void mapVariables() {
+		final String[] oldNames = oldSatInstance.getVariables().getNames();
+		final String[] newNames = satInstance.getVariables().getNames();
+		oldToNew = new int[oldNames.length];
+		newToOld = new int[newNames.length];
+		for (int oldVar = 1; oldVar < oldNames.length; oldVar++) {
+			final int var = satInstance.getVariables().getVariable(oldNames[oldVar]);
+			oldToNew[oldVar] = var;
+			newToOld[var] = oldVar;
+		}
+		newToOld[0] = 0;
+	}
+
+	/**
+	 * @return the given clause using the variables of the new CNF or {@code null} if it contains a variable that was removed.
+	 */
+	private LiteralSet adaptToNew(LiteralSet clause) {
+		final int[] literals = clause.getLiterals();
+		final int[] newLiterals = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			final int literal = literals[i];
+			final int var = oldToNew[Math.abs(literal)];
+			if (var == 0) {
+				return null;
+			}
+			newLiterals[i] = literal > 0 ? var : -var;
+		}
+		return new LiteralSet(newLiterals);
+	}
+
+	private static void markVariables(LiteralSet clause, boolean[] dirty) {
+		for (final int literal : clause.getLiterals()) {
+			dirty[Math.abs(literal)] = true;
+		}
+	}
+
+	/**
+	 * Computes all core and dead variables of the new CNF.
+	 *
+	 * @return {@code false} if the new CNF is not satisfiable, {@code true} otherwise.
+	 */
+	private boolean computeCore(ISatSolver solver) {
+		final int[] firstSolution = solver.findSolution();
+		if (firstSolution == null) {
+			return false;
+		}
+		core = new byte[firstSolution.length + 1];
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		LiteralSet.resetConflicts(firstSolution, solver.findSolution());
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+
+		for (int i = 0; i < firstSolution.length; i++) {
+			final int varX = firstSolution[i];
+			if (varX != 0) {
+				solver.assignmentPush(-varX);
+				switch (solver.hasSolution()) {
+				case FALSE:
+					solver.assignmentReplaceLast(varX);
+					core[i + 1] = (byte) Math.signum(varX);
+					break;
+				case TIMEOUT:
+					solver.assignmentPop();
+					break;
+				case TRUE:
+					solver.assignmentPop();
+					LiteralSet.resetConflicts(firstSolution, solver.getSolution());
+					solver.shuffleOrder(random);
+					break;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the connected components of all variables that are neither core nor dead. Satisfied clauses and unsatisfied literals are ignored.
+	 *
+	 * @return for each variable a representative variable of its component
+	 */
+	private static int[] computeComponents(List<LiteralSet> clauses, byte[] core) {
+		final int[] components = new int[core.length];
+		for (int var = 1; var < components.length; var++) {
+			components[var] = var;
+		}
+		outer: for (final LiteralSet clause : clauses) {
+			int firstVar = 0;
+			for (final int literal : clause.getLiterals()) {
+				final int var = Math.abs(literal);
+				if (core[var] != 0) {
+					if ((core[var] > 0) == (literal > 0)) {
+						continue outer;
+					}
+				}
+			}
+			for (final int literal : clause.getLiterals()) {
+				final int var = Math.abs(literal);
+				if (core[var] == 0) {
+					if (firstVar == 0) {
+						firstVar = find(components, var);
+					} else {
+						final int root = find(components, var);
+						if (root != firstVar) {
+							components[root] = firstVar;
+						}
+					}
+				}
+			}
+		}
+		for (int var = 1; var < components.length; var++) {
+			components[var] = find(components, var);
+		}
+		return components;
+	}
+
+	private static int find(int[] components, int var) {
+		while (components[var] != var) {
+			components[var] = components[components[var]];
+			var = components[var];
+		}
+		return var;
+	}
+
+	/**
+	 * Builds a graph for all clauses of the new CNF that only contain variables of the region. All core and dead variables are removed from these clauses
+	 * beforehand.
+	 */
+	private ModalImplicationGraph buildRegion(int[] regionToNew, int[] newToRegion, int regionSize, IMonitor<ModalImplicationGraph> monitor) {
+		final List<String> names = new ArrayList<>(regionSize);
+		for (int i = 1; i <= regionSize; i++) {
+			names.add(satInstance.getVariables().getName(regionToNew[i]));
+		}
+		final CNF regionSatInstance = new CNF(new Variables(names));
+		outer: for (final LiteralSet clause : satInstance.getClauseView()) {
+			final int[] literals = clause.getLiterals();
+			final int[] regionLiterals = new int[literals.length];
+			int regionLiteralCount = 0;
+			for (final int literal : literals) {
+				final int var = Math.abs(literal);
+				if (core[var] == 0) {
+					final int regionVar = newToRegion[var];
+					if (regionVar == 0) {
+						continue outer;
+					}
+					regionLiterals[regionLiteralCount++] = literal > 0 ? regionVar : -regionVar;
+				} else if ((core[var] > 0) == (literal > 0)) {
+					continue outer;
+				}
+			}
+			if (regionLiteralCount > 0) {
+				regionSatInstance.addClause(new LiteralSet(Arrays.copyOf(regionLiterals, regionLiteralCount)));
+			}
+		}
+		if (regionSatInstance.getClauseView().isEmpty()) {
+			return null;
+		}
+		final MIGBuilder builder = new MIGBuilder(regionSatInstance, detectStrong);
+		builder.setThreads(threads);
+		return LongRunningWrapper.runMethod(builder, monitor);
+	}
+
+	/**
+	 * Combines the graph of the rebuilt region with the unaffected parts of the old graph.
+	 */
+	private ModalImplicationGraph merge(ModalImplicationGraph regionMig, int[] regionToNew, int[] newToRegion) {
+		final int numberOfVariables = satInstance.getVariables().size();
+		final ModalImplicationGraph mig = new ModalImplicationGraph(numberOfVariables << 1);
+
+		// Keep all complex clauses of unaffected components
+		final int[] oldClauseIndex = new int[oldMig.complexClauses.size()];
+		for (int i = 0; i < oldClauseIndex.length; i++) {
+			final LiteralSet clause = oldMig.complexClauses.get(i);
+			final int var = oldToNew[Math.abs(clause.getLiterals()[0])];
+			if ((var != 0) && (core[var] == 0) && (newToRegion[var] == 0)) {
+				oldClauseIndex[i] = mig.complexClauses.size();
+				mig.complexClauses.add(adaptToNew(clause));
+			} else {
+				oldClauseIndex[i] = -1;
+			}
+		}
+		final int regionClauseOffset = mig.complexClauses.size();
+		if (regionMig != null) {
+			for (final LiteralSet clause : regionMig.complexClauses) {
+				mig.complexClauses.add(adaptFromRegion(clause.getLiterals(), regionToNew));
+			}
+		}
+
+		for (int var = 1; var <= numberOfVariables; var++) {
+			final Vertex negVertex = new Vertex(-var);
+			final Vertex posVertex = new Vertex(var);
+
+			negVertex.setCore(core[var] < 0);
+			negVertex.setDead(core[var] > 0);
+			posVertex.setCore(core[var] > 0);
+			posVertex.setDead(core[var] < 0);
+
+			if (core[var] != 0) {
+				negVertex.setStrongEdges(new int[0]);
+				posVertex.setStrongEdges(new int[0]);
+				negVertex.setComplexClauses(new int[0]);
+				posVertex.setComplexClauses(new int[0]);
+			} else if (newToRegion[var] != 0) {
+				final int regionVar = newToRegion[var];
+				setRegionEdges(negVertex, regionMig, -regionVar, regionToNew, regionClauseOffset);
+				setRegionEdges(posVertex, regionMig, regionVar, regionToNew, regionClauseOffset);
+			} else {
+				final int oldVar = newToOld[var];
+				setOldEdges(negVertex, oldMig.getVertex(-oldVar), oldClauseIndex);
+				setOldEdges(posVertex, oldMig.getVertex(oldVar), oldClauseIndex);
+			}
+
+			negVertex.setId(mig.adjList.size());
+			mig.adjList.add(negVertex);
+			posVertex.setId(mig.adjList.size());
+			mig.adjList.add(posVertex);
+		}
+		return mig;
+	}
+
+	private void setOldEdges(Vertex vertex, Vertex oldVertex, int[] oldClauseIndex) {
+		final int[] oldStrongEdges = oldVertex.getStrongEdges();
+		final int[] strongEdges = new int[oldStrongEdges.length];
+		boolean sorted = true;
+		for (int i = 0; i < strongEdges.length; i++) {
+			final int literal = oldStrongEdges[i];
+			final int var = oldToNew[Math.abs(literal)];
+			strongEdges[i] = literal > 0 ? var : -var;
+			sorted &= (i == 0) || (Math.abs(strongEdges[i - 1]) < var);
+		}
+		if (!sorted) {
+			sortByVariable(strongEdges);
+		}
+		vertex.setStrongEdges(strongEdges);
+
+		final int[] oldComplexClauses = oldVertex.getComplexClauses();
+		final int[] complexClauses = new int[oldComplexClauses.length];
+		for (int i = 0; i < complexClauses.length; i++) {
+			complexClauses[i] = oldClauseIndex[oldComplexClauses[i]];
+		}
+		vertex.setComplexClauses(complexClauses);
+	}
+
+	private static void setRegionEdges(Vertex vertex, ModalImplicationGraph regionMig, int regionLiteral, int[] regionToNew, int regionClauseOffset) {
+		if (regionMig == null) {
+			vertex.setStrongEdges(new int[0]);
+			vertex.setComplexClauses(new int[0]);
+		} else {
+			final Vertex regionVertex = regionMig.getVertex(regionLiteral);
+			vertex.setStrongEdges(adaptFromRegion(regionVertex.getStrongEdges(), regionToNew).getLiterals());
+
+			final int[] regionComplexClauses = regionVertex.getComplexClauses();
+			final int[] complexClauses = new int[regionComplexClauses.length];
+			for (int i = 0; i < complexClauses.length; i++) {
+				complexClauses[i] = regionComplexClauses[i] + regionClauseOffset;
+			}
+			vertex.setComplexClauses(complexClauses);
+		}
+	}
+
+	private static LiteralSet adaptFromRegion(int[] regionLiterals, int[] regionToNew) {
+		final int[] literals = new int[regionLiterals.length];
+		for (int i = 0; i < literals.length; i++) {
+			final int regionLiteral = regionLiterals[i];
+			final int var = regionToNew[Math.abs(regionLiteral)];
+			literals[i] = regionLiteral > 0 ? var : -var;
+		}
+		return new LiteralSet(literals, Order.NATURAL, false);
+	}
+
+	private static void sortByVariable(int[] literals) {
+		for (int i = 0; i < literals.length; i++) {
+			final int literal = literals[i];
+			literals[i] = (Math.abs(literal) << 1) | (literal < 0 ? 1 : 0);
+		}
+		Arrays.sort(literals);
+		for (int i = 0; i < literals.length; i++) {
+			final int code = literals[i];
+			literals[i] = (code & 1) != 0 ? -(code >>> 1) : (code >>> 1);
+		}
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used to rebuild the affected components.
+	 *
+	 * @param threads the number of threads
+	 *
+	 * @see MIGBuilder#setThreads(int)
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+}
@@ -0,0 +1,210 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ICacheFormat;
+
+/**
+ * Compact binary format for a {@link ModalImplicationGraph}.<br> All numbers are stored as variable-length integers (7 bits per byte). Edges, clause indices,
+ * and literals are stored as zigzag-encoded differences to their predecessor in the same array, such that sorted arrays mostly need a single byte per entry.
+ * The variable and ID of a vertex are only stored if they differ from the default values given by the vertex' position in the adjacency list.<br> The format
+ * is used by {@link de.ovgu.featureide.fm.core.io.MIGAdjListFormat MIGAdjListFormat} and by the
+ * {@link de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaCache FormulaCache}.
+ */
+public class MIGBinaryFormat implements ICacheFormat<ModalImplicationGraph> {
+
+	private static final int CORE = 1;
+	private static final int DEAD = 2;
+	private static final int CUSTOM_VAR = 4;
+	private static final int CUSTOM_ID = 8;
+
+	@Override
+	public int getVersion() {
+		return 2;
+	}
+
+	@Override
+	public void write(ModalImplicationGraph mig, DataOutput out) throws IOException {
+		final Encoder encoder = new Encoder(out);
+		encoder.writeInt(mig.adjList.size());
+		int index = 0;
+		for (final Vertex vertex : mig.adjList) {
+			final boolean customVar = vertex.getVar() != getDefaultVar(index);
+			final boolean customId = vertex.getId() != index;
+			encoder.writeByte((vertex.isCore() ? CORE : 0) | (vertex.isDead() ? DEAD : 0) | (customVar ? CUSTOM_VAR : 0) | (customId ? CUSTOM_ID : 0));
+			if (customVar) {
+				encoder.writeSignedInt(vertex.getVar());
+			}
+			if (customId) {
+				encoder.writeSignedInt(vertex.getId());
+			}
+			encoder.writeArray(vertex.getStrongEdges());
+			encoder.writeArray(vertex.getComplexClauses());
+			index++;
+		}
+		encoder.writeInt(mig.complexClauses.size());
+		for (final LiteralSet clause : mig.complexClauses) {
+			final Order order = clause.getOrder();
+			encoder.writeByte((order != null ? order : Order.UNORDERED).ordinal());
+			encoder.writeArray(clause.getLiterals());
+		}
+		encoder.flush();
+	}
+
+	@Override
+	public ModalImplicationGraph read(ByteBuffer buffer) throws IOException {
+		try {
+			final int numberOfVertices = readInt(buffer);
+			if ((numberOfVertices < 0) || ((numberOfVertices & 1) != 0)) {
+				throw new IOException("Invalid number of vertices " + numberOfVertices);
+			}
+			final ModalImplicationGraph mig = new ModalImplicationGraph(numberOfVertices);
+			for (int i = 0; i < numberOfVertices; i++) {
+				final int flags = buffer.get();
+				final Vertex vertex = new Vertex(((flags & CUSTOM_VAR) != 0) ? readSignedInt(buffer) : getDefaultVar(i));
+				vertex.setId(((flags & CUSTOM_ID) != 0) ? readSignedInt(buffer) : i);
+				vertex.setCore((flags & CORE) != 0);
+				vertex.setDead((flags & DEAD) != 0);
+				vertex.setStrongEdges(readArray(buffer));
+				vertex.setComplexClauses(readArray(buffer));
+				mig.adjList.add(vertex);
+			}
+			final Order[] orders = Order.values();
+			final int numberOfClauses = readInt(buffer);
+			for (int i = 0; i < numberOfClauses; i++) {
+				final int order = buffer.get();
+				if ((order < 0) || (order >= orders.length)) {
+					throw new IOException("Invalid clause order " + order);
+				}
+				final int[] literals = readArray(buffer);
+				if (literals == null) {
+					throw new IOException("Missing literals for clause " + i);
+				}
+				mig.complexClauses.add(new LiteralSet(literals, orders[order], false));
+			}
+			return mig;
+		} catch (final BufferUnderflowException e) {
+			throw new IOException("Unexpected end of data", e);
+		}
+	}
+
+	private static int getDefaultVar(int index) {
+		final int var = (index >> 1) + 1;
+		return ((index & 1) == 0) ? -var : var;
+	}
+
+	private static int[] readArray(ByteBuffer buffer) throws IOException {
+		final int length = readInt(buffer) - 1;
+		if (length < 0) {
+			return null;
+		}
+		if (length > buffer.remaining()) {
+			throw new IOException("Invalid array length " + length);
+		}
+		final int[] array = new int[length];
+		int previous = 0;
+		for (int i = 0; i < length; i++) {
+			previous += readSignedInt(buffer);
+			array[i] = previous;
+		}
+		return array;
+	}
+
+	private static int readSignedInt(ByteBuffer buffer) throws IOException {
+		final int value = readInt(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int readInt(ByteBuffer buffer) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = buffer.get();
+			value |= (b & 0x7f) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	/**
+	 * Encodes variable-length integers into a buffer and writes the buffer as a whole, as single byte writes are slow for most streams.
+	 */
+	private static final class Encoder {
+
+		private final DataOutput out;
+		private final byte[] buffer = new byte[1 << 13];
+		private int position = 0;
+
+		private Encoder(DataOutput out) {
+			this.out = out;
+		}
+
+		private void writeArray(int[] array) throws IOException {
+			if (array == null) {
+				writeInt(0);
+			} else {
+				writeInt(array.length + 1);
+				int previous = 0;
+				for (final int value : array) {
+					writeSignedInt(value - previous);
+					previous = value;
+				}
+			}
+		}
+
+		private void writeSignedInt(int value) throws IOException {
+			writeInt((value << 1) ^ (value >> 31));
+		}
+
+		private void writeInt(int value) throws IOException {
+			if (position > (buffer.length - 5)) {
+				flush();
+			}
+			while ((value & ~0x7f) != 0) {
+				buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			buffer[position++] = (byte) value;
+		}
+
+		private void writeByte(int value) throws IOException {
+			if (position == buffer.length) {
+				flush();
+			}
+			buffer[position++] = (byte) value;
+		}
+
+		private void flush() throws IOException {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+
+	}
+
+}
@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sat4j.specs.ContradictionException;
 
@@ -41,6 +42,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrate
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.util.ParallelTasks;
 
 /**
  * Adjacency matrix implementation for a feature graph.
@@ -57,6 +59,24 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		private final ArrayList<Integer> relevantClausesIndex = new ArrayList<>();
 	}
 
+	/**
+	 * Processes a consecutive range of indices within one thread. Subsequent calls for the same worker always use higher indices.
+	 */
+	private static interface ChunkWorker {
+
+		void process(int from, int to);
+	}
+
+	private static interface ChunkWorkerFactory {
+
+		/**
+		 * Is called from the builder's thread and may thus access its (not thread-safe) solver.
+		 */
+		ChunkWorker createWorker();
+	}
+
+	private static final int CHUNKS_PER_THREAD = 8;
+
 	/**
 	 * For sorting clauses by length. Starting with the longest.
 	 */
@@ -80,6 +100,14 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 
 	private ISatSolver solver;
 
+	/**
+	 * Literals implied by each literal (indexed like the adjacency list of a {@link ModalImplicationGraph}). Only used if {@link #getThreads() multiple threads}
+	 * are used, otherwise {@code null}.
+	 */
+	private int[][] implications;
+
+	private int threads = 1;
+
 	protected Random random = new Random(112358);
 
 	public MIGBuilder(CNF satInstance, boolean detectStrong) {
@@ -187,6 +215,9 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 	}
 
 	public void dfsDetectStrongEdges() {
+		if (threads > 1) {
+			computeImplications();
+		}
 		dfsStack.clear();
 		Arrays.fill(dfsMark, (byte) 0);
 		for (int i = 0; i < adjMatrix.getNumVariables(); i++) {
@@ -196,6 +227,7 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 			testVariable();
 			// System.out.println(adjMatrix.getNumVariables() - i);
 		}
+		implications = null;
 	}
 
 	public void dfsStrong() {
@@ -248,18 +280,54 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 
 	public void cleanClauseList() {
 		Collections.sort(newClauseList, lengthComparator);
-		final AdvancedSatSolver newSolver = new AdvancedSatSolver(new CNF(satInstance, false));
+		if (threads > 1) {
+			cleanClauseListParallel();
+		} else {
+			final AdvancedSatSolver newSolver = new AdvancedSatSolver(new CNF(satInstance, false));
 
-		for (final LiteralSet clause : newClauseList) {
-			if ((clause.getLiterals().length < 3) || !isRedundant(newSolver, clause)) {
-				newSolver.addClause(clause);
-				adjMatrix.clauseList.add(clause);
+			for (final LiteralSet clause : newClauseList) {
+				if ((clause.getLiterals().length < 3) || !isRedundant(newSolver, clause)) {
+					newSolver.addClause(clause);
+					adjMatrix.clauseList.add(clause);
+				}
 			}
 		}
 
 		newClauseList.clear();
 	}
 
+	/**
+	 * Same result as the sequential version of {@link #cleanClauseList()}. Instead of the previously kept clauses, each clause is tested against all preceding
+	 * clauses. Both sets are equivalent, since every removed clause is implied by the clauses kept before it. Thus, all tests are independent of each other.
+	 */
+	private void cleanClauseListParallel() {
+		final boolean[] redundant = new boolean[newClauseList.size()];
+		runParallel(newClauseList.size(), () -> {
+			final AdvancedSatSolver newSolver = new AdvancedSatSolver(new CNF(satInstance, false));
+			return new ChunkWorker() {
+
+				private int addedClauses = 0;
+
+				@Override
+				public void process(int from, int to) {
+					for (; addedClauses < from; addedClauses++) {
+						newSolver.addClause(newClauseList.get(addedClauses));
+					}
+					for (; addedClauses < to; addedClauses++) {
+						final LiteralSet clause = newClauseList.get(addedClauses);
+						redundant[addedClauses] = (clause.getLiterals().length >= 3) && isRedundant(newSolver, clause);
+						newSolver.addClause(clause);
+					}
+				}
+			};
+		});
+		for (int i = 0; i < redundant.length; i++) {
+			if (!redundant[i]) {
+				adjMatrix.clauseList.add(newClauseList.get(i));
+			}
+		}
+	}
+
 	private final boolean isRedundant(ISatSolver solver, LiteralSet curClause) {
 		return solver.hasSolution(curClause.negate()) == SatResult.FALSE;
 	}
@@ -488,6 +556,11 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 			LiteralSet.resetConflicts(firstSolution, solver.findSolution());
 			solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 
+			if (threads > 1) {
+				getCoreFeaturesParallel(firstSolution);
+				return true;
+			}
+
 			// find core/dead features
 			for (int i = 0; i < firstSolution.length; i++) {
 				final int varX = firstSolution[i];
@@ -515,6 +588,45 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		return false;
 	}
 
+	private void getCoreFeaturesParallel(final int[] firstSolution) {
+		final int[] coreLiterals = new int[firstSolution.length];
+		runParallel(firstSolution.length, () -> {
+			final ISatSolver workerSolver = solver.clone();
+			final Random workerRandom = new Random(random.nextLong());
+			final int[] model = Arrays.copyOf(firstSolution, firstSolution.length);
+			return (from, to) -> {
+				for (int i = from; i < to; i++) {
+					final int varX = model[i];
+					if (varX != 0) {
+						workerSolver.assignmentPush(-varX);
+						switch (workerSolver.hasSolution()) {
+						case FALSE:
+							workerSolver.assignmentReplaceLast(varX);
+							coreLiterals[i] = varX;
+							break;
+						case TIMEOUT:
+							workerSolver.assignmentPop();
+							break;
+						case TRUE:
+							workerSolver.assignmentPop();
+							LiteralSet.resetConflicts(model, workerSolver.getSolution());
+							workerSolver.shuffleOrder(workerRandom);
+							break;
+						}
+					}
+				}
+			};
+		});
+		for (int i = 0; i < coreLiterals.length; i++) {
+			final int varX = coreLiterals[i];
+			if (varX != 0) {
+				addClause(varX);
+				solver.assignmentPush(varX);
+				adjMatrix.core[i] = (byte) Math.signum(varX);
+			}
+		}
+	}
+
 	private void mark() {
 		for (int i = 0; i < dfsMark.length; i++) {
 			dfsMark[i] &= 2;
@@ -527,6 +639,29 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		final boolean positive = mx1 > 0;
 		final byte compareB = (byte) (positive ? 1 : 2);
 
+		if (implications != null) {
+			if ((adjMatrix.core[i] == 0) && ((dfsMark[i] & compareB) == 0)) {
+				dfsMark[i] |= compareB;
+
+				final int rowIndex = i * adjMatrix.getNumVariables();
+				for (final int my1 : implications[(i << 1) + (positive ? 1 : 0)]) {
+					final int j = Math.abs(my1) - 1;
+					final byte b = adjMatrix.edges[rowIndex + j];
+					if ((adjMatrix.core[j] == 0) && ((positive && ((b & EDGE_WEAK_POSITIVE) != 0)) || (!positive && ((b & EDGE_WEAK_NEGATIVE) != 0)))) {
+						for (final int mx0 : dfsStack) {
+							if (addStrongRelation(-mx0, my1)) {
+								addClause(-mx0, my1);
+							}
+						}
+						dfsStack.push(my1);
+						testVariable();
+					}
+				}
+			}
+			dfsStack.pop();
+			return;
+		}
+
 		if ((adjMatrix.core[i] == 0) && ((dfsMark[i] & compareB) == 0)) {
 			dfsMark[i] |= compareB;
 
@@ -590,6 +725,120 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		dfsStack.pop();
 	}
 
+	/**
+	 * Computes all implications that may be tested by {@link #testVariable()} in parallel. Each test only depends on a pair of literals, so
+	 * {@link #testVariable()} can afterwards traverse the variables in the same order as without precomputed implications and yields the same edges.
+	 */
+	private void computeImplications() {
+		implications = new int[numberOfVariables << 1][];
+		runParallel(numberOfVariables, () -> {
+			final ISatSolver workerSolver = solver.clone();
+			final Random workerRandom = new Random(random.nextLong());
+			return (from, to) -> {
+				for (int i = from; i < to; i++) {
+					if (adjMatrix.core[i] == 0) {
+						implications[i << 1] = computeImplications(workerSolver, workerRandom, -(i + 1));
+						implications[(i << 1) + 1] = computeImplications(workerSolver, workerRandom, i + 1);
+					}
+				}
+			};
+		});
+	}
+
+	/**
+	 * Tests the same literals as {@link #testVariable()} without modifying the adjacency matrix.
+	 *
+	 * @return all literals of variables with a higher index that are implied by {@code mx1} in ascending order of their variables.
+	 */
+	private int[] computeImplications(ISatSolver workerSolver, Random workerRandom, final int mx1) {
+		final int i = Math.abs(mx1) - 1;
+		final boolean positive = mx1 > 0;
+
+		int[] xModel1 = null;
+		for (final int[] solution : workerSolver.getSolutionList()) {
+			if (mx1 == solution[i]) {
+				xModel1 = solution;
+				break;
+			}
+		}
+		workerSolver.assignmentPush(mx1);
+		if (xModel1 == null) {
+			xModel1 = workerSolver.findSolution();
+		}
+
+		int[] impliedLiterals = new int[4];
+		int impliedCount = 0;
+		int c = 0;
+
+		final int rowIndex = i * adjMatrix.getNumVariables();
+
+		inner1: for (int j = i + 1; j < xModel1.length; j++) {
+			final byte b = adjMatrix.edges[rowIndex + j];
+			if ((adjMatrix.core[j] == 0) && ((positive && ((b & EDGE_WEAK_POSITIVE) != 0)) || (!positive && ((b & EDGE_WEAK_NEGATIVE) != 0)))) {
+
+				final int my1 = xModel1[j];
+				for (final int[] solution : workerSolver.getSolutionList()) {
+					final int mxI = solution[i];
+					final int myI = solution[j];
+					if ((mx1 == mxI) && (my1 != myI)) {
+						continue inner1;
+					}
+				}
+
+				workerSolver.assignmentPush(-my1);
+				workerSolver.setSelectionStrategy(((c++ % 2) != 0) ? SelectionStrategy.POSITIVE : SelectionStrategy.NEGATIVE);
+
+				switch (workerSolver.hasSolution()) {
+				case FALSE:
+					if (impliedCount == impliedLiterals.length) {
+						impliedLiterals = Arrays.copyOf(impliedLiterals, impliedCount << 1);
+					}
+					impliedLiterals[impliedCount++] = my1;
+					break;
+				case TIMEOUT:
+					break;
+				case TRUE:
+					workerSolver.shuffleOrder(workerRandom);
+					break;
+				}
+				workerSolver.assignmentPop();
+			}
+		}
+		workerSolver.assignmentPop();
+		return Arrays.copyOf(impliedLiterals, impliedCount);
+	}
+
+	/**
+	 * Splits the indices from {@code 0} to {@code size} into chunks and processes them using {@link #getThreads()} threads. Each thread uses its own worker.
+	 */
+	private void runParallel(int size, ChunkWorkerFactory workerFactory) {
+		final int chunkSize = Math.max(1, size / (threads * CHUNKS_PER_THREAD));
+		final AtomicInteger nextIndex = new AtomicInteger();
+		final List<Runnable> tasks = new ArrayList<>(threads);
+		for (int i = 0; i < threads; i++) {
+			final ChunkWorker worker = workerFactory.createWorker();
+			tasks.add(() -> {
+				for (int from = nextIndex.getAndAdd(chunkSize); from < size; from = nextIndex.getAndAdd(chunkSize)) {
+					worker.process(from, Math.min(from + chunkSize, size));
+				}
+			});
+		}
+		ParallelTasks.run(threads, tasks);
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used for the satisfiability tests. The resulting graph does not depend on the number of threads.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 	private ArrayList<TempVertex> createTempVertices(final List<LiteralSet> clauseList) {
 		final ArrayList<TempVertex> tempAdjList = new ArrayList<>(numberOfVariables);
 		for (int i = 0; i < numberOfVariables; i++) {
@@ -112,24 +112,25 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		case 0:
 			throw new RuntimeContradictionException();
 		case 1: {
-			final int literal = literals[0];
-			final Vertex vertex = getVertex(literal);
-			vertex.setCore(literal > 0);
-			vertex.setDead(literal < 0);
+			final Vertex vertex = getVertex(literals[0]);
+			vertex.setCore(false);
+			vertex.setDead(false);
 			break;
 		}
 		case 2: {
 			final Vertex vertex0 = getVertex(-literals[0]);
 			final Vertex vertex1 = getVertex(-literals[1]);
-			addStrongEdge(vertex0, -vertex1.getVar());
-			addStrongEdge(vertex1, -vertex0.getVar());
+			removeStrongEdge(vertex0, -vertex1.getVar());
+			removeStrongEdge(vertex1, -vertex0.getVar());
 			break;
 		}
 		default: {
-			final int newClauseIndex = complexClauses.size();
-			complexClauses.add(clause);
-			for (final int literal : literals) {
-				addWeakEdge(getVertex(-literal), newClauseIndex);
+			final int clauseIndex = complexClauses.indexOf(clause);
+			if (clauseIndex >= 0) {
+				complexClauses.remove(clauseIndex);
+				for (final Vertex vertex : adjList) {
+					removeWeakEdge(vertex, clauseIndex);
+				}
 			}
 			break;
 		}
@@ -143,6 +144,34 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		vertex.setComplexClauses(newComplexClauses);
 	}
 
+	/**
+	 * Removes the given clause index from the vertex and decrements all higher indices.
+	 */
+	private void removeWeakEdge(final Vertex vertex, final int index) {
+		final int[] oldComplexClauses = vertex.getComplexClauses();
+		final int[] newComplexClauses = new int[oldComplexClauses.length];
+		int count = 0;
+		for (final int oldIndex : oldComplexClauses) {
+			if (oldIndex != index) {
+				newComplexClauses[count++] = oldIndex > index ? oldIndex - 1 : oldIndex;
+			}
+		}
+		vertex.setComplexClauses(count == newComplexClauses.length ? newComplexClauses : Arrays.copyOf(newComplexClauses, count));
+	}
+
+	private void removeStrongEdge(final Vertex vertex, final int edge) {
+		final int[] oldStrongEdges = vertex.getStrongEdges();
+		for (int i = 0; i < oldStrongEdges.length; i++) {
+			if (oldStrongEdges[i] == edge) {
+				final int[] newStrongEdges = new int[oldStrongEdges.length - 1];
+				System.arraycopy(oldStrongEdges, 0, newStrongEdges, 0, i);
+				System.arraycopy(oldStrongEdges, i + 1, newStrongEdges, i, newStrongEdges.length - i);
+				vertex.setStrongEdges(newStrongEdges);
+				return;
+			}
+		}
+	}
+
 	private void addStrongEdge(final Vertex vertex, final int edge) {
 		final int[] oldStrongEdges = vertex.getStrongEdges();
 		final int[] newStrongEdges = Arrays.copyOf(oldStrongEdges, oldStrongEdges.length + 1);
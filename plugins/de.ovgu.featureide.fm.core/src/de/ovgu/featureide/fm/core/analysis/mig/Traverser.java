@@ -21,26 +21,51 @@
 package de.ovgu.featureide.fm.core.analysis.mig;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map.Entry;
 
-import org.sat4j.core.VecInt;
-import org.sat4j.specs.IteratorInt;
-
-import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.mig.Visitor.VisitResult;
 
+/**
+ * Traverses the strong and weak edges of a {@link ModalImplicationGraph}. All complex clauses that are reached during a traversal are kept in a queue until
+ * they are satisfied or become unit. The state of the traverser is reused for all traversals, so a traversal only visits the part of the graph that it reaches.
+ *
+ * @author Sebastian Krieter
+ */
 public class Traverser extends ATraverser {
 
 	private static class CancelException extends Exception {
 		private static final long serialVersionUID = 4872529212110156314L;
 	}
 
+	/**
+	 * An element of the following arrays is marked for the current traversal if it is equal to {@link #epoch}.
+	 */
+	private final int[] vertexMarks;
+	private final int[] openClauseMarks;
+	private final int[] closedClauseMarks;
+	private final int[] queuedClauseMarks;
+	private int epoch = 0;
+
+	/**
+	 * Ring buffer of open clauses that must be checked for unit propagation.
+	 */
+	private final int[] unitQueue;
+	private int unitQueueHead, unitQueueSize;
+
+	/**
+	 * Open clauses in the order they were reached. The literals of these clauses are visited during the weak traversal.
+	 */
+	private final int[] weakQueue;
+	private int weakQueueHead, weakQueueTail;
+
 	public Traverser(ModalImplicationGraph mig) {
 		super(mig);
+		vertexMarks = new int[mig.getAdjList().size()];
+		final int numberOfClauses = mig.getComplexClauses().size();
+		openClauseMarks = new int[numberOfClauses];
+		closedClauseMarks = new int[numberOfClauses];
+		queuedClauseMarks = new int[numberOfClauses];
+		unitQueue = new int[numberOfClauses];
+		weakQueue = new int[numberOfClauses];
 	}
 
 	@Override
@@ -51,128 +76,125 @@ public class Traverser extends ATraverser {
 	}
 
 	private void traverseAll(int... curLiterals) throws CancelException {
-		final HashMap<Integer, VecInt> openClauseMap = new HashMap<>();
-		Arrays.fill(dfsMark, false);
+		startTraversal();
+		traverseStrongInternal(curLiterals);
 
-		traverseStrong(openClauseMap, curLiterals);
-		mainLoop: while (true) {
-			for (final Iterator<Entry<Integer, VecInt>> openClauseIterator = openClauseMap.entrySet().iterator(); openClauseIterator.hasNext();) {
-				final VecInt openClause = openClauseIterator.next().getValue();
-				if (openClause != null) {
-					for (final IteratorInt literalIterator = openClause.iterator(); literalIterator.hasNext();) {
-						final int literal = literalIterator.next();
-						if (currentConfiguration[getIndex(literal)] == 0) {
-							final Vertex vertex = mig.getVertex(literal);
-							if (!dfsMark[vertex.getId()]) {
-								dfsMark[vertex.getId()] = true;
-								boolean changed = false;
-								final VisitResult visitWeakResult = visitor.visitWeak(literal);
-								switch (visitWeakResult) {
-								case Cancel:
-									return;
-								case Continue:
-									changed |= addComplexClauses(openClauseMap, vertex) > 0;
-									break;
-								case Select:
-									changed |= attemptStrongSelect(literal, openClauseMap);
-									break;
-								case Skip:
-									break;
-								default:
-									throw new AssertionError(visitWeakResult);
-								}
-								changed |= processComplexClauses(openClauseMap);
-								if (changed) {
-									continue mainLoop;
-								}
-							}
+		while (weakQueueHead < weakQueueTail) {
+			final int clauseIndex = weakQueue[weakQueueHead++];
+			final int[] literals = mig.getComplexClauses().get(clauseIndex).getLiterals();
+			for (int i = 0; (i < literals.length) && (closedClauseMarks[clauseIndex] != epoch); i++) {
+				final int literal = literals[i];
+				if (currentConfiguration[getIndex(literal)] == 0) {
+					final Vertex vertex = mig.getVertex(literal);
+					if (vertexMarks[vertex.getId()] != epoch) {
+						vertexMarks[vertex.getId()] = epoch;
+						final VisitResult visitWeakResult = visitor.visitWeak(literal);
+						switch (visitWeakResult) {
+						case Cancel:
+							return;
+						case Continue:
+							openComplexClauses(vertex);
+							break;
+						case Select:
+							attemptStrongSelect(literal);
+							break;
+						case Skip:
+							break;
+						default:
+							throw new AssertionError(visitWeakResult);
 						}
+						processComplexClauses();
 					}
 				}
 			}
-			break;
 		}
 	}
 
 	@Override
 	public void traverseStrong(int... curLiterals) {
 		try {
-			traverseStrong(new HashMap<Integer, VecInt>(), curLiterals);
+			startTraversal();
+			traverseStrongInternal(curLiterals);
 		} catch (final CancelException e) {}
 	}
 
-	private void traverseStrong(final HashMap<Integer, VecInt> complexClauseMap, int... curLiterals) throws CancelException {
-		boolean changed = false;
+	private void traverseStrongInternal(int... curLiterals) throws CancelException {
 		for (final int curLiteral : curLiterals) {
-			changed |= attemptStrongSelect(curLiteral, complexClauseMap);
+			attemptStrongSelect(curLiteral);
 		}
-		if (changed) {
-			processComplexClauses(complexClauseMap);
+		processComplexClauses();
+	}
+
+	private void startTraversal() {
+		if (++epoch == Integer.MAX_VALUE) {
+			Arrays.fill(vertexMarks, 0);
+			Arrays.fill(openClauseMarks, 0);
+			Arrays.fill(closedClauseMarks, 0);
+			Arrays.fill(queuedClauseMarks, 0);
+			epoch = 1;
 		}
+		unitQueueHead = 0;
+		unitQueueSize = 0;
+		weakQueueHead = 0;
+		weakQueueTail = 0;
 	}
 
-	private boolean processComplexClauses(final HashMap<Integer, VecInt> complexClauseMap) throws CancelException {
-		boolean changedInLoop, changed = false;
-		do {
-			changedInLoop = false;
-			final List<VecInt> unitClauses = new LinkedList<>();
-			for (final Entry<Integer, VecInt> entry : complexClauseMap.entrySet()) {
-				final VecInt v = entry.getValue();
-				if (v != null) {
-					for (int j = v.size() - 1; j >= 0; j--) {
-						final int literal = v.get(j);
-						final int value = currentConfiguration[getIndex(literal)];
-						if (value != 0) {
-							if (value == literal) {
-								entry.setValue(null);
-							} else {
-								v.delete(j);
-							}
-							changed = true;
-						}
-					}
+	/**
+	 * Selects all literals of open clauses that became unit until no more clauses become unit.
+	 */
+	private void processComplexClauses() throws CancelException {
+		while (unitQueueSize > 0) {
+			final int clauseIndex = unitQueue[unitQueueHead];
+			unitQueueHead = (unitQueueHead + 1) % unitQueue.length;
+			unitQueueSize--;
+			queuedClauseMarks[clauseIndex] = 0;
 
-					if (v.size() == 1) {
-						entry.setValue(null);
-						unitClauses.add(v);
+			if (closedClauseMarks[clauseIndex] != epoch) {
+				int unitLiteral = 0;
+				int unassignedLiterals = 0;
+				for (final int literal : mig.getComplexClauses().get(clauseIndex).getLiterals()) {
+					final int value = currentConfiguration[getIndex(literal)];
+					if (value == 0) {
+						unitLiteral = literal;
+						unassignedLiterals++;
+					} else if (value == literal) {
+						unassignedLiterals = -1;
+						break;
 					}
 				}
+				if (unassignedLiterals < 0) {
+					closedClauseMarks[clauseIndex] = epoch;
+				} else if (unassignedLiterals == 1) {
+					closedClauseMarks[clauseIndex] = epoch;
+					attemptStrongSelect(unitLiteral);
+				}
 			}
-
-			for (final VecInt v : unitClauses) {
-				changedInLoop |= attemptStrongSelect(v.get(0), complexClauseMap);
-			}
-			changed |= changedInLoop;
-		} while (changedInLoop);
-		return changed;
+		}
 	}
 
-	private boolean attemptStrongSelect(final int curLiteral, final HashMap<Integer, VecInt> complexClauseMap) throws CancelException {
+	private void attemptStrongSelect(final int curLiteral) throws CancelException {
 		final int modelIndex = getIndex(curLiteral);
-		final int currentVariableSelection = currentConfiguration[modelIndex];
-		if (currentVariableSelection == 0) {
-			currentConfiguration[modelIndex] = curLiteral;
-			VisitResult visitStrongResult = visitor.visitStrong(curLiteral);
+		if (currentConfiguration[modelIndex] == 0) {
+			final Vertex curVertex = mig.getVertex(curLiteral);
+			VisitResult visitStrongResult = assign(curVertex);
 			switch (visitStrongResult) {
 			case Cancel:
 				throw new CancelException();
 			case Skip:
-				return true;
+				return;
 			case Select:
 			case Continue:
 				break;
 			default:
 				throw new AssertionError(visitStrongResult);
 			}
-
-			final Vertex curVertex = mig.getVertex(curLiteral);
-			addComplexClauses(complexClauseMap, curVertex);
+			openComplexClauses(curVertex);
 
 			for (final int strongVertex : curVertex.getStrongEdges()) {
 				final int strongVertexIndex = getIndex(strongVertex);
 				if (currentConfiguration[strongVertexIndex] == 0) {
-					currentConfiguration[strongVertexIndex] = strongVertex;
-					visitStrongResult = visitor.visitStrong(strongVertex);
+					final Vertex vertex = mig.getVertex(strongVertex);
+					visitStrongResult = assign(vertex);
 					switch (visitStrongResult) {
 					case Cancel:
 						throw new CancelException();
@@ -180,135 +202,58 @@ public class Traverser extends ATraverser {
 						break;
 					case Select:
 					case Continue:
-						addComplexClauses(complexClauseMap, mig.getVertex(strongVertex));
+						openComplexClauses(vertex);
 						break;
 					default:
 						throw new AssertionError(visitStrongResult);
 					}
 				}
 			}
-			return true;
-		} else if (currentVariableSelection != curLiteral) {
-			// TODO
-
 		}
-		return false;
 	}
 
-	private int getIndex(final int literal) {
-		return Math.abs(literal) - 1;
+	/**
+	 * Sets the literal of the given vertex and updates all open clauses that contain the literal or its complement.
+	 */
+	private VisitResult assign(final Vertex vertex) {
+		final int literal = vertex.getVar();
+		currentConfiguration[getIndex(literal)] = literal;
+
+		// Clauses containing the literal are satisfied
+		for (final int clauseIndex : mig.getVertex(-literal).getComplexClauses()) {
+			if (openClauseMarks[clauseIndex] == epoch) {
+				closedClauseMarks[clauseIndex] = epoch;
+			}
+		}
+		// Clauses containing the complement may become unit
+		for (final int clauseIndex : vertex.getComplexClauses()) {
+			if (openClauseMarks[clauseIndex] == epoch) {
+				enqueueUnitCheck(clauseIndex);
+			}
+		}
+		return visitor.visitStrong(literal);
 	}
 
-	private int addComplexClauses(final HashMap<Integer, VecInt> complexClauseMap, final Vertex vertex) {
-		int added = 0;
-		final int[] complexClauses = vertex.getComplexClauses();
-		for (int i = 0; i < complexClauses.length; i++) {
-			final Integer index = complexClauses[i];
-			if (!complexClauseMap.containsKey(index)) {
-				final LiteralSet clause = mig.getComplexClauses().get(index);
-				complexClauseMap.put(index, new VecInt(Arrays.copyOf(clause.getLiterals(), clause.size())));
-				added++;
+	private void openComplexClauses(final Vertex vertex) {
+		for (final int clauseIndex : vertex.getComplexClauses()) {
+			if (openClauseMarks[clauseIndex] != epoch) {
+				openClauseMarks[clauseIndex] = epoch;
+				weakQueue[weakQueueTail++] = clauseIndex;
+				enqueueUnitCheck(clauseIndex);
 			}
 		}
-		return added;
 	}
 
-//	@Override
-//	public void traverseAll(int... curLiterals) {
-//		final HashMap<Integer, VecInt> openClauseMap = new HashMap<>();
-//		Arrays.fill(dfsMark, false);
-//
-//		traverseStrong(openClauseMap, curLiterals);
-//		mainLoop: while (true) {
-//			for (final Iterator<Entry<Integer, VecInt>> openClauseIterator = openClauseMap.entrySet().iterator(); openClauseIterator.hasNext();) {
-//				final VecInt openClause = openClauseIterator.next().getValue();
-//				if (openClause != null) {
-//					for (final IteratorInt literalIterator = openClause.iterator(); literalIterator.hasNext();) {
-//						final int literal = literalIterator.next();
-//						if (currentConfiguration[getIndex(literal)] == 0) {
-//							final Vertex vertex = mig.getVertex(literal);
-//							if (!dfsMark[vertex.getId()]) {
-//								dfsMark[vertex.getId()] = true;
-//								boolean changed = false;
-//								if (visitor.visitWeak(literal)) {
-//									changed |= attemptStrongSelect(literal, openClauseMap);
-//								} else {
-//									changed |= addComplexClauses(openClauseMap, vertex) > 0;
-//								}
-//								changed |= processComplexClauses(openClauseMap);
-//								if (changed) {
-//									continue mainLoop;
-//								}
-//							}
-//						}
-//					}
-//				}
-//			}
-//			break;
-//		}
-//	}
-//
-//	private boolean processComplexClauses(final HashMap<Integer, VecInt> complexClauseMap) {
-//		boolean changedInLoop, changed = false;
-//		do {
-//			changedInLoop = false;
-//			final List<VecInt> unitClauses = new LinkedList<>();
-//			for (final Entry<Integer, VecInt> entry : complexClauseMap.entrySet()) {
-//				final VecInt v = entry.getValue();
-//				if (v != null) {
-//					for (int j = v.size() - 1; j >= 0; j--) {
-//						final int literal = v.get(j);
-//						final int value = currentConfiguration[getIndex(literal)];
-//						if (value != 0) {
-//							if (value == literal) {
-//								entry.setValue(null);
-//							} else {
-//								v.delete(j);
-//							}
-//							changed = true;
-//						}
-//					}
-//
-//					if (v.size() == 1) {
-//						entry.setValue(null);
-//						unitClauses.add(v);
-//					}
-//				}
-//			}
-//
-//			for (final VecInt v : unitClauses) {
-//				changedInLoop |= attemptStrongSelect2(v.get(0), complexClauseMap);
-//			}
-//			changed |= changedInLoop;
-//		} while (changedInLoop);
-//		return changed;
-//	}
-//
-//	private boolean attemptStrongSelect(final int curLiteral, final HashMap<Integer, VecInt> complexClauseMap) {
-//		final int modelIndex = getIndex(curLiteral);
-//		if (currentConfiguration[modelIndex] == 0) {
-//			currentConfiguration[modelIndex] = curLiteral;
-//			visitor.visitStrong(curLiteral);
-//			final Vertex curVertex = mig.getVertex(curLiteral);
-//			if (complexClauseMap != null) {
-//				addComplexClauses(complexClauseMap, curVertex);
-//			}
-//			for (final int strongVertex : curVertex.getStrongEdges()) {
-//				final int strongVertexIndex = getIndex(strongVertex);
-//				if (currentConfiguration[strongVertexIndex] == 0) {
-//					currentConfiguration[strongVertexIndex] = strongVertex;
-//					visitor.visitStrong(strongVertex);
-//					if (complexClauseMap != null) {
-//						addComplexClauses(complexClauseMap, mig.getVertex(strongVertex));
-//					}
-//				}
-//			}
-//			if (complexClauseMap != null) {
-//				return false;
-//			}
-//			return true;
-//		}
-//		return false;
-//	}
+	private void enqueueUnitCheck(final int clauseIndex) {
+		if ((queuedClauseMarks[clauseIndex] != epoch) && (closedClauseMarks[clauseIndex] != epoch)) {
+			queuedClauseMarks[clauseIndex] = epoch;
+			unitQueue[(unitQueueHead + unitQueueSize) % unitQueue.length] = clauseIndex;
+			unitQueueSize++;
+		}
+	}
+
+	private int getIndex(final int literal) {
+		return Math.abs(literal) - 1;
+	}
 
 }
@@ -49,6 +49,8 @@ public class FeatureModelProperty extends MapPropertyContainer implements IFeatu
 	public static String PROPERTY_CALCULATIONS_CALCULATE_FEATURES = "calculatefeatures";
 	/** Property decides whether calculations for constraints are performed. */
 	public static String PROPERTY_CALCULATIONS_CALCULATE_CONSTRAINTS = "calculateconstraints";
+	/** Property decides whether configurations are propagated using the modal implication graph of the feature model. */
+	public static String PROPERTY_CALCULATIONS_PROPAGATE_WITH_MIG = "propagatewithmig";
 
 	@Override
 	public int hashCode() {
@@ -218,4 +220,17 @@ public class FeatureModelProperty extends MapPropertyContainer implements IFeatu
 		return isCalculatingConstraints;
 	}
 
+	/**
+	 * Defines whether configurations should be propagated using the modal implication graph of the feature model instead of a solver only.
+	 *
+	 * @param fm The relative feature model.
+	 * @return true, when the modal implication graph should be used for propagation, false otherwise.
+	 */
+	public static boolean isPropagateWithMIG(IFeatureModel fm) {
+		final Boolean isPropagatingWithMIG = FeatureModelProperty.getBooleanProperty(fm.getProperty(), FeatureModelProperty.TYPE_CALCULATIONS,
+				FeatureModelProperty.PROPERTY_CALCULATIONS_PROPAGATE_WITH_MIG);
+		// default value == false
+		return Boolean.TRUE.equals(isPropagatingWithMIG);
+	}
+
 }
@@ -93,6 +93,27 @@ public class FormatManager<T> extends ExtensionManager<IPersistentFormat<T>> {
 		return null;
 	}
 
+	/**
+	 * Returns the first format that fits the extension of the given file name and supports the content of the given reader.
+	 *
+	 * @param reader the reader providing the content
+	 * @param fileName the name of the file
+	 * @return the format or {@code null} if no format fits
+	 *
+	 * @see #getFormatByContent(CharSequence, String)
+	 */
+	public IPersistentFormat<T> getFormatByContent(LazyReader reader, String fileName) {
+		if (fileName != null) {
+			final String extension = SimpleFileHandler.getFileExtension(fileName);
+			for (final IPersistentFormat<T> format : getExtensions()) {
+				if (extension.equals(format.getSuffix()) && format.supportsContent(reader)) {
+					return format;
+				}
+			}
+		}
+		return null;
+	}
+
 	public IPersistentFormat<T> getFormatByContent(Path path) {
 		if ((path != null) && Files.isRegularFile(path) && Files.exists(path)) {
 			final String extension = SimpleFileHandler.getFileExtension(path);
@@ -20,29 +20,39 @@
  */
 package de.ovgu.featureide.fm.core.cli;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.DDNNFRandomConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.PairWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.SPLCAToolConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationSorter;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.csv.ConfigurationListFormat;
 import de.ovgu.featureide.fm.core.io.expression.ExpressionGroupFormat;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.io.sample.AConfigurationListWriter;
+import de.ovgu.featureide.fm.core.io.sample.BinaryConfigurationListWriter;
+import de.ovgu.featureide.fm.core.io.sample.CSVConfigurationListWriter;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.ConsoleMonitor;
 
@@ -57,9 +67,17 @@ public class ConfigurationGenerator extends ACLIFunction {
 	private Path outputFile;
 	private Path fmFile;
 	private Path expressionFile;
+	private Path initialSampleFile;
 	private int t;
 	private int m;
 	private int limit;
+	private int threads;
+	private Long seed;
+	private long timeLimit;
+	private String format;
+	private int flushInterval;
+	private boolean resume;
+	private boolean sort;
 
 	@Override
 	public String getId() {
@@ -97,7 +115,87 @@ public class ConfigurationGenerator extends ACLIFunction {
 			expressionGroups = null;
 		}
 
-		IConfigurationGenerator generator = null;
+		final SolutionList initialSample;
+		if (initialSampleFile != null) {
+			if (!algorithm.equalsIgnoreCase("yasa")) {
+				throw new IllegalArgumentException("An initial sample is only supported for the algorithm yasa!");
+			}
+			initialSample = new SolutionList();
+			final ProblemList lastProblems = FileHandler.load(initialSampleFile, initialSample, new ConfigurationListFormat());
+			if (lastProblems.containsError()) {
+				throw new IllegalArgumentException(lastProblems.getErrors().get(0).error);
+			}
+		} else {
+			initialSample = null;
+		}
+
+		if (sort) {
+			if (t <= 0) {
+				throw new IllegalArgumentException("No t specified for sorting!");
+			}
+			if (resume) {
+				throw new IllegalArgumentException("Sorting is not supported when resuming!");
+			}
+		}
+
+		final AConfigurationListWriter writer;
+		switch (format.toLowerCase()) {
+		case "csv": {
+			writer = new CSVConfigurationListWriter(outputFile, cnf.getVariables());
+			break;
+		}
+		case "binary": {
+			writer = new BinaryConfigurationListWriter(outputFile, cnf.getVariables());
+			break;
+		}
+		default:
+			throw new IllegalArgumentException("Unknown output format " + format);
+		}
+		writer.setFlushInterval(flushInterval);
+
+		try {
+			final CNF generatorCNF;
+			if (resume) {
+				if (!algorithm.equalsIgnoreCase("all") && !algorithm.equalsIgnoreCase("random")) {
+					throw new IllegalArgumentException("Resuming is only supported for the algorithms all and random!");
+				}
+				// Continue with the remaining configurations by excluding all configurations that are already contained in the output file
+				final CNF resumedCNF = new CNF(cnf);
+				writer.resume(configuration -> resumedCNF.addClause(configuration.negate()));
+				generatorCNF = resumedCNF;
+				if (limit != Integer.MAX_VALUE) {
+					limit = (int) Math.max(0, limit - writer.getCount());
+				}
+			} else {
+				writer.open();
+				generatorCNF = cnf;
+			}
+
+			final IConfigurationGenerator generator = createGenerator(generatorCNF, expressionGroups, initialSample);
+			if (sort) {
+				// The whole sample is needed for sorting, so it cannot be streamed to the output file
+				final List<LiteralSet> sample = LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
+				final List<LiteralSet> sortedSample = LongRunningWrapper.runMethod(new TWiseConfigurationSorter(sample, t), new ConsoleMonitor<>());
+				for (final LiteralSet configuration : sortedSample) {
+					writer.add(configuration);
+				}
+			} else {
+				generator.setSink(writer);
+				LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			try {
+				writer.close();
+			} catch (final IOException e) {
+				Logger.logError(e);
+			}
+		}
+	}
+
+	private IConfigurationGenerator createGenerator(final CNF cnf, final List<List<ClauseList>> expressionGroups, final SolutionList initialSample) {
+		AConfigurationGenerator generator = null;
 		switch (algorithm.toLowerCase()) {
 		case "icpl": {
 			generator = new SPLCAToolConfigurationGenerator(cnf, "ICPL", t, limit);
@@ -118,12 +216,19 @@ public class ConfigurationGenerator extends ACLIFunction {
 				generator = new TWiseConfigurationGenerator(cnf, expressionGroups, t, limit);
 			}
 			((TWiseConfigurationGenerator) generator).setIterations(m);
+			((TWiseConfigurationGenerator) generator).setThreads(threads);
+			((TWiseConfigurationGenerator) generator).setInitialSample(initialSample);
 			break;
 		}
 		case "random": {
 			generator = new RandomConfigurationGenerator(cnf, limit);
 			break;
 		}
+		case "uniform": {
+			generator = new DDNNFRandomConfigurationGenerator(cnf, limit);
+			((DDNNFRandomConfigurationGenerator) generator).setThreads(threads);
+			break;
+		}
 		case "all": {
 			generator = new AllConfigurationGenerator(cnf, limit);
 			break;
@@ -131,8 +236,11 @@ public class ConfigurationGenerator extends ACLIFunction {
 		default:
 			throw new IllegalArgumentException("No algorithm specified!");
 		}
-		final List<LiteralSet> result = LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
-		FileHandler.save(outputFile, new SolutionList(cnf.getVariables(), result), new ConfigurationListFormat());
+		if (seed != null) {
+			generator.setRandom(new Random(seed));
+		}
+		generator.setTimeLimit(timeLimit);
+		return generator;
 	}
 
 	private void resetArguments() {
@@ -140,9 +248,17 @@ public class ConfigurationGenerator extends ACLIFunction {
 		outputFile = null;
 		fmFile = null;
 		expressionFile = null;
+		initialSampleFile = null;
 		t = 0;
 		m = 1;
 		limit = Integer.MAX_VALUE;
+		threads = 1;
+		seed = null;
+		timeLimit = 0;
+		format = "csv";
+		flushInterval = AConfigurationListWriter.DEFAULT_FLUSH_INTERVAL;
+		resume = false;
+		sort = false;
 	}
 
 	private void parseArguments(List<String> args) {
@@ -179,6 +295,38 @@ public class ConfigurationGenerator extends ACLIFunction {
 					expressionFile = Paths.get(getArgValue(iterator, arg));
 					break;
 				}
+				case "initial": {
+					initialSampleFile = Paths.get(getArgValue(iterator, arg));
+					break;
+				}
+				case "threads": {
+					threads = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				case "seed": {
+					seed = Long.parseLong(getArgValue(iterator, arg));
+					break;
+				}
+				case "timelimit": {
+					timeLimit = Long.parseLong(getArgValue(iterator, arg));
+					break;
+				}
+				case "format": {
+					format = getArgValue(iterator, arg);
+					break;
+				}
+				case "flush": {
+					flushInterval = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				case "resume": {
+					resume = true;
+					break;
+				}
+				case "sort": {
+					sort = true;
+					break;
+				}
 				default: {
 					throw new IllegalArgumentException(arg);
 				}
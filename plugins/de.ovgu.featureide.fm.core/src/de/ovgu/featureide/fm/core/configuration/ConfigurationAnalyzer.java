@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -43,7 +44,7 @@ public class ConfigurationAnalyzer {
 	}
 
 	public ConfigurationAnalyzer(FeatureModelFormula formula, Configuration configuration) {
-		propagator = new ConfigurationPropagator(formula, configuration);
+		propagator = ConfigurationPropagator.create(formula, configuration);
 		propagator.setIncludeAbstractFeatures(true);
 	}
 
@@ -113,11 +114,35 @@ public class ConfigurationAnalyzer {
 		return (result != null) ? result : 0;
 	}
 
+	/**
+	 * Counts the number of possible solutions by enumerating them, without trying an exact count first.
+	 *
+	 * @param timeout The timeout in milliseconds.
+	 * @return A positive value equal to the number of solutions (if the method terminated in time)<br> or a negative value (if a timeout occurred) that
+	 *         indicates that there are more solutions than the absolute value
+	 *
+	 * @see #countSolutions(int)
+	 */
+	public long enumerateSolutions(int timeout) {
+		final Long result = LongRunningWrapper.runMethod(propagator.enumerateSolutions(timeout));
+		return (result != null) ? result : 0;
+	}
+
 	public long number() {
 		final Long result = LongRunningWrapper.runMethod(propagator.number(1000));
 		return (result != null) ? result : 0;
 	}
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @param timeout The timeout in milliseconds.
+	 * @return The number of solutions or {@code null} if a timeout occurred.
+	 */
+	public BigInteger countSolutions(int timeout) {
+		return LongRunningWrapper.runMethod(propagator.countSolutions(timeout));
+	}
+
 	public Collection<SelectableFeature> update(boolean redundantManual, List<SelectableFeature> featureOrder) {
 		final Collection<SelectableFeature> result = LongRunningWrapper.runMethod(propagator.update(redundantManual, featureOrder));
 		return (result != null) ? result : Collections.emptyList();
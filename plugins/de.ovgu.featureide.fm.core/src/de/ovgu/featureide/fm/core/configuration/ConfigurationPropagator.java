@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,22 +33,34 @@ import org.sat4j.specs.TimeoutException;
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.ModelCountingAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractDDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractNoHiddenCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractNoHiddenDDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoHiddenCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoHiddenDDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.OneWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.OneWiseConfigurationGenerator.CoverStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModelCounter;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModelProperty;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
  * Updates a configuration.
@@ -159,9 +172,19 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 	public class CountSolutionsMethod implements LongRunningMethod<Long> {
 
 		private final int timeout;
+		private final boolean countExactly;
 
 		public CountSolutionsMethod(int timeout) {
+			this(timeout, true);
+		}
+
+		/**
+		 * @param timeout the timeout in milliseconds
+		 * @param countExactly whether the exact model counter is tried before the solutions are enumerated
+		 */
+		public CountSolutionsMethod(int timeout, boolean countExactly) {
 			this.timeout = timeout;
+			this.countExactly = countExactly;
 		}
 
 		@Override
@@ -169,6 +192,18 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			if (formula == null) {
 				return 0L;
 			}
+			final CNF satInstance = getSatInstance(false);
+			if (satInstance == null) {
+				return 0L;
+			}
+			if (countExactly) {
+				try {
+					final BigInteger count = countSolutions(satInstance, timeout, monitor != null ? monitor.<BigInteger> subTask(1) : null);
+					return count.bitLength() < Long.SIZE ? count.longValue() : -Long.MAX_VALUE;
+				} catch (final RuntimeTimeoutException e) {
+					// Fall back to enumerating solutions to give at least a lower bound
+				}
+			}
 			final AdvancedSatSolver solver = getSolverForCurrentConfiguration(false, false);
 			if (solver == null) {
 				return 0L;
@@ -179,6 +214,32 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	}
 
+	public class CountSolutionsExactMethod implements LongRunningMethod<BigInteger> {
+
+		private final int timeout;
+
+		public CountSolutionsExactMethod(int timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public BigInteger execute(IMonitor<BigInteger> monitor) throws Exception {
+			if (formula == null) {
+				return BigInteger.ZERO;
+			}
+			final CNF satInstance = getSatInstance(false);
+			if (satInstance == null) {
+				return BigInteger.ZERO;
+			}
+			try {
+				return countSolutions(satInstance, timeout, monitor);
+			} catch (final RuntimeTimeoutException e) {
+				return null;
+			}
+		}
+
+	}
+
 	public class FindOpenClauses implements LongRunningMethod<Collection<SelectableFeature>> {
 
 		@Override
@@ -388,13 +449,11 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(rootNode);
 			final int[] intLiterals = new int[manualLiterals.size()];
 			for (int i = 0; i < intLiterals.length; i++) {
 				intLiterals[i] = manualLiterals.get(i);
 			}
-			analysis.setAssumptions(new LiteralSet(intLiterals));
-			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final LiteralSet impliedFeatures = findImpliedLiterals(rootNode, intLiterals, workMonitor);
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -425,43 +484,99 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.invoke(updateFeatures);
 
 			if (redundantManual) {
-				final AdvancedSatSolver solver = getSolver(true);
-				if (solver == null) {
-					return result;
-				}
-				for (final int feature : intLiterals) {
-					solver.assignmentPush(feature);
+				updateRedundantManual(intLiterals, rootNode, result, workMonitor);
+			}
+			return result;
+		}
+
+		/**
+		 * Computes all literals that are implied by the given manual selections.
+		 *
+		 * @return the implied literals or {@code null} if the computation was not possible.
+		 */
+		protected LiteralSet findImpliedLiterals(CNF rootNode, int[] intLiterals, IMonitor<Collection<SelectableFeature>> workMonitor) {
+			// Does not wait for the compilation of the d-DNNF, which is started in the background on the first call
+			final DDNNF ddnnf = formula.getElementIfAvailable(new DDNNFCreator());
+			if (ddnnf != null) {
+				final LiteralSet impliedFeatures = ddnnf.getImpliedLiterals(new LiteralSet(intLiterals));
+				workMonitor.worked();
+				return impliedFeatures;
+			} else {
+				final CoreDeadAnalysis analysis = new CoreDeadAnalysis(rootNode);
+				analysis.setAssumptions(new LiteralSet(intLiterals));
+				return LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			}
+		}
+
+		/**
+		 * Checks for each manually selected feature whether its selection is implied by the other manually selected features.
+		 */
+		protected void updateRedundantManual(int[] intLiterals, CNF rootNode, Collection<SelectableFeature> result,
+				IMonitor<Collection<SelectableFeature>> workMonitor) {
+			final DDNNF ddnnf = formula.getElementIfAvailable(new DDNNFCreator());
+			if (ddnnf != null) {
+				updateRedundantManual(ddnnf, intLiterals, rootNode, result, workMonitor);
+				return;
+			}
+			final AdvancedSatSolver solver = getSolver(true);
+			if (solver == null) {
+				return;
+			}
+			for (final int feature : intLiterals) {
+				solver.assignmentPush(feature);
+			}
+
+			int literalCount = intLiterals.length;
+			for (int i = 0; i < solver.getAssignmentSize(); i++) {
+				final int oLiteral = intLiterals[i];
+				final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
+				if (feature != null) {
+					solver.assignmentSet(i, -oLiteral);
+					final SatResult satResult = solver.hasSolution();
+					switch (satResult) {
+					case FALSE:
+						configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+						result.add(feature);
+						workMonitor.invoke(Arrays.asList(feature));
+						intLiterals[i] = intLiterals[--literalCount];
+						solver.assignmentDelete(i--);
+						break;
+					case TIMEOUT:
+					case TRUE:
+						solver.assignmentSet(i, oLiteral);
+						result.add(feature);
+						workMonitor.invoke(Arrays.asList(feature));
+						break;
+					default:
+						throw new AssertionError(satResult);
+					}
 				}
+				workMonitor.worked();
+			}
+		}
 
-				int literalCount = intLiterals.length;
-				for (int i = 0; i < solver.getAssignmentSize(); i++) {
-					final int oLiteral = intLiterals[i];
-					final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
-					if (feature != null) {
-						solver.assignmentSet(i, -oLiteral);
-						final SatResult satResult = solver.hasSolution();
-						switch (satResult) {
-						case FALSE:
-							configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
-							result.add(feature);
-							workMonitor.invoke(Arrays.asList(feature));
-							intLiterals[i] = intLiterals[--literalCount];
-							solver.assignmentDelete(i--);
-							break;
-						case TIMEOUT:
-						case TRUE:
-							solver.assignmentSet(i, oLiteral);
-							result.add(feature);
-							workMonitor.invoke(Arrays.asList(feature));
-							break;
-						default:
-							throw new AssertionError(satResult);
-						}
+		/**
+		 * Checks for each manually selected feature whether its selection is implied by the other manually selected features using the compiled formula.
+		 */
+		protected void updateRedundantManual(DDNNF ddnnf, int[] intLiterals, CNF rootNode, Collection<SelectableFeature> result,
+				IMonitor<Collection<SelectableFeature>> workMonitor) {
+			int literalCount = intLiterals.length;
+			for (int i = 0; i < literalCount; i++) {
+				final int oLiteral = intLiterals[i];
+				final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
+				if (feature != null) {
+					intLiterals[i] = -oLiteral;
+					if (ddnnf.isSatisfiable(new LiteralSet(Arrays.copyOf(intLiterals, literalCount), Order.UNORDERED, false))) {
+						intLiterals[i] = oLiteral;
+					} else {
+						configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+						intLiterals[i--] = intLiterals[--literalCount];
 					}
-					workMonitor.worked();
+					result.add(feature);
+					workMonitor.invoke(Arrays.asList(feature));
 				}
+				workMonitor.worked();
 			}
-			return result;
 		}
 
 	}
@@ -520,6 +635,21 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		this.configuration = configuration;
 	}
 
+	/**
+	 * Creates a propagator for the given configuration. Depending on the {@link FeatureModelProperty#isPropagateWithMIG(IFeatureModel) setting of the
+	 * feature model}, the returned propagator uses the modal implication graph of the feature model.
+	 *
+	 * @param formula the formula of the feature model
+	 * @param configuration the configuration to propagate
+	 * @return a {@link ConfigurationPropagatorMIG} or a {@link ConfigurationPropagator}
+	 */
+	public static ConfigurationPropagator create(FeatureModelFormula formula, Configuration configuration) {
+		if (FeatureModelProperty.isPropagateWithMIG(formula.getFeatureModel())) {
+			return new ConfigurationPropagatorMIG(formula, configuration);
+		}
+		return new ConfigurationPropagator(formula, configuration);
+	}
+
 	@Override
 	public boolean isIncludeAbstractFeatures() {
 		return includeAbstractFeatures;
@@ -535,32 +665,82 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		if (solver == null) {
 			return null;
 		}
-		for (final SelectableFeature feature : configuration.getFeatures()) {
+		solver.assignmentPushAll(getCurrentAssignment(solver.getSatInstance(), deselectUndefinedFeatures, includeHiddenFeatures).getLiterals());
+		return solver;
+	}
+
+	/**
+	 * Returns the literals for all features that are decided in the current configuration.
+	 *
+	 * @param satInstance the CNF that defines the variables
+	 * @param deselectUndefinedFeatures whether undefined features should be considered as deselected
+	 * @param includeHiddenFeatures whether hidden features should be included
+	 * @return the literals in the order of the configuration's features.
+	 */
+	protected LiteralSet getCurrentAssignment(CNF satInstance, boolean deselectUndefinedFeatures, boolean includeHiddenFeatures) {
+		final Collection<SelectableFeature> features = configuration.getFeatures();
+		final int[] literals = new int[features.size()];
+		int index = 0;
+		for (final SelectableFeature feature : features) {
 			if ((deselectUndefinedFeatures || (feature.getSelection() != Selection.UNDEFINED))
 				&& (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())
 				&& (includeHiddenFeatures || !feature.getFeature().getStructure().hasHiddenParent())) {
-				solver.assignmentPush(
-						solver.getSatInstance().getVariables().getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED));
+				literals[index++] = satInstance.getVariables().getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED);
 			}
 		}
-		return solver;
+		return new LiteralSet(Arrays.copyOf(literals, index), Order.UNORDERED, false);
 	}
 
-	protected AdvancedSatSolver getSolver(boolean includeHiddenFeatures) {
-		final CNF satInstance;
+	protected BigInteger countSolutions(CNF satInstance, int timeout, IMonitor<BigInteger> monitor) throws Exception {
+		final DDNNF ddnnf = getDDNNF(false);
+		if (ddnnf != null) {
+			return ddnnf.count(getCurrentAssignment(satInstance, false, false));
+		}
+		// Count with the model counter within the given timeout, while the shared d-DNNF is not available yet
+		final ModelCountingAnalysis analysis = new ModelCountingAnalysis(satInstance);
+		analysis.setAssumptions(getCurrentAssignment(satInstance, false, false));
+		analysis.setTimeout(timeout);
+		return analysis.execute(monitor != null ? monitor : new NullMonitor<BigInteger>());
+	}
+
+	protected CNF getSatInstance(boolean includeHiddenFeatures) {
 		if (includeAbstractFeatures) {
 			if (includeHiddenFeatures) {
-				satInstance = formula.getCNF();
+				return formula.getCNF();
 			} else {
-				satInstance = formula.getElement(new NoHiddenCNFCreator());
+				return formula.getElement(new NoHiddenCNFCreator());
 			}
 		} else {
 			if (includeHiddenFeatures) {
-				satInstance = formula.getElement(new NoAbstractCNFCreator());
+				return formula.getElement(new NoAbstractCNFCreator());
 			} else {
-				satInstance = formula.getElement(new NoAbstractNoHiddenCNFCreator());
+				return formula.getElement(new NoAbstractNoHiddenCNFCreator());
 			}
 		}
+	}
+
+	/**
+	 * Returns the compiled formula, if it is already available. Otherwise, the compilation is started in the background and {@code null} is returned, so
+	 * that callers fall back to the SAT solver instead of waiting for the compilation.
+	 */
+	protected DDNNF getDDNNF(boolean includeHiddenFeatures) {
+		if (includeAbstractFeatures) {
+			if (includeHiddenFeatures) {
+				return formula.getElementIfAvailable(new DDNNFCreator());
+			} else {
+				return formula.getElementIfAvailable(new NoHiddenDDNNFCreator());
+			}
+		} else {
+			if (includeHiddenFeatures) {
+				return formula.getElementIfAvailable(new NoAbstractDDNNFCreator());
+			} else {
+				return formula.getElementIfAvailable(new NoAbstractNoHiddenDDNNFCreator());
+			}
+		}
+	}
+
+	protected AdvancedSatSolver getSolver(boolean includeHiddenFeatures) {
+		final CNF satInstance = getSatInstance(includeHiddenFeatures);
 		try {
 			if (satInstance != null) {
 				return new AdvancedSatSolver(satInstance);
@@ -627,6 +807,30 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new CountSolutionsMethod(timeout);
 	}
 
+	/**
+	 * Counts the number of possible solutions by enumerating them with a SAT solver. In contrast to {@link #number(int)}, the exact model counter is not
+	 * tried first. Use this to get a lower bound after {@link #countSolutions(int)} has timed out.
+	 *
+	 * @param timeout The timeout in milliseconds.
+	 * @return A positive value equal to the number of solutions (if the method terminated in time)<br> or a negative value (if a timeout occurred) that
+	 *         indicates that there are more solutions than the absolute value
+	 */
+	@Override
+	public CountSolutionsMethod enumerateSolutions(int timeout) {
+		return new CountSolutionsMethod(timeout, false);
+	}
+
+	/**
+	 * Counts the exact number of possible solutions using a {@link ModelCounter}.
+	 *
+	 * @param timeout The timeout in milliseconds.
+	 * @return The number of solutions or {@code null} if a timeout occurred.
+	 */
+	@Override
+	public CountSolutionsExactMethod countSolutions(int timeout) {
+		return new CountSolutionsExactMethod(timeout);
+	}
+
 	@Override
 	public UpdateMethod update(boolean redundantManual, List<SelectableFeature> featureOrder) {
 		return new UpdateMethod(redundantManual, featureOrder);
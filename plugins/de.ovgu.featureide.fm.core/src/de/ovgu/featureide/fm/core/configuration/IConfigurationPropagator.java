@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.List;
 
@@ -59,6 +60,21 @@ public interface IConfigurationPropagator {
 	 */
 	LongRunningMethod<Long> number(int timeout);
 
+	/**
+	 * Counts the number of possible solutions by enumerating them. In contrast to {@link #number(int)}, no exact count is tried first.
+	 *
+	 * @return a positive value equal to the number of solutions (if the method terminated in time)<br> or a negative value (if a timeout occurred) that
+	 *         indicates that there are more solutions than the absolute value
+	 */
+	LongRunningMethod<Long> enumerateSolutions(int timeout);
+
+	/**
+	 * Counts the exact number of possible solutions. In contrast to {@link #number(int)}, the solutions are not enumerated.
+	 *
+	 * @return the number of solutions or {@code null} if a timeout occurred
+	 */
+	LongRunningMethod<BigInteger> countSolutions(int timeout);
+
 	LongRunningMethod<Collection<SelectableFeature>> update(boolean redundantManual, List<SelectableFeature> featureOrder);
 
 	LongRunningMethod<Collection<SelectableFeature>> update(boolean redundantManual);
@@ -35,11 +35,11 @@ import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
-import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
-import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.io.manager.ConfigurationBatchLoader;
 
 /**
- * This class loads all configurations of a given IFeatureModel.
+ * This class loads all configurations of a given IFeatureModel.<br> The files are parsed in parallel by a {@link ConfigurationBatchLoader}, which is kept
+ * between calls, such that unchanged files are not parsed again. Thus, the loaded configurations must not be modified.
  *
  * @author Paul Maximilian Bittner
  * @author Antje Moench
@@ -49,6 +49,8 @@ public class ConfigurationLoader {
 
 	private final IConfigurationLoaderCallback callback;
 
+	private ConfigurationBatchLoader batchLoader;
+
 	public ConfigurationLoader() {
 		this(null);
 	}
@@ -71,6 +73,7 @@ public class ConfigurationLoader {
 
 	public List<Configuration> loadConfigurations(final FeatureModelFormula featureModel, Path path, final String excludeFile) {
 		final List<Configuration> configs = new ArrayList<>();
+		final List<Path> files = new ArrayList<>();
 		final HashSet<String> configurationNames = new HashSet<>();
 
 		if (callback != null) {
@@ -88,15 +91,7 @@ public class ConfigurationLoader {
 						final int extensionIndex = fileName.lastIndexOf('.');
 						final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
 						if (configurationNames.add(configurationName)) {
-							final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(file);
-							if (!fileHandler.getLastProblems().containsError()) {
-								final Configuration currentConfiguration = fileHandler.getObject();
-								currentConfiguration.updateFeatures(featureModel);
-								configs.add(currentConfiguration);
-								if (callback != null) {
-									callback.onConfigurationLoaded(currentConfiguration, file);
-								}
-							}
+							files.add(file);
 						}
 					}
 					return super.visitFile(file, attrs);
@@ -109,6 +104,18 @@ public class ConfigurationLoader {
 			}
 		}
 
+		final ConfigurationBatchLoader batchLoader = getBatchLoader(featureModel);
+		batchLoader.retainCachedFiles(files);
+		batchLoader.load(files, fileHandler -> {
+			if (!fileHandler.getLastProblems().containsError()) {
+				final Configuration currentConfiguration = fileHandler.getObject();
+				configs.add(currentConfiguration);
+				if (callback != null) {
+					callback.onConfigurationLoaded(currentConfiguration, fileHandler.getPath());
+				}
+			}
+		});
+
 		if (callback != null) {
 			callback.onLoadingFinished();
 		}
@@ -116,4 +123,11 @@ public class ConfigurationLoader {
 		return configs;
 	}
 
+	private ConfigurationBatchLoader getBatchLoader(FeatureModelFormula featureModel) {
+		if ((batchLoader == null) || (batchLoader.getFormula() != featureModel)) {
+			batchLoader = new ConfigurationBatchLoader(featureModel);
+		}
+		return batchLoader;
+	}
+
 }
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.io;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
@@ -109,6 +110,11 @@ public class EclipseFileSystem implements IFileSystem {
 		return Files.readAllBytes(path);
 	}
 
+	@Override
+	public InputStream newInputStream(Path path) throws IOException {
+		return Files.newInputStream(path);
+	}
+
 	@Override
 	public void mkDir(Path path) throws IOException {
 		IContainer container = ResourcesPlugin.getWorkspace().getRoot().getContainerForLocation(getIPath(path));
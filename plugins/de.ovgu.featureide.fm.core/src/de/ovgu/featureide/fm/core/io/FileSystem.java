@@ -20,7 +20,9 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 
@@ -38,6 +40,13 @@ public final class FileSystem {
 
 		byte[] read(Path path) throws IOException;
 
+		/**
+		 * Opens a stream to read from the given file. The default implementation reads the complete file via {@link #read(Path)}.
+		 */
+		default InputStream newInputStream(Path path) throws IOException {
+			return new ByteArrayInputStream(read(path));
+		}
+
 		void mkDir(Path path) throws IOException;
 
 		void delete(Path path) throws IOException;
@@ -61,6 +70,10 @@ public final class FileSystem {
 		return INSTANCE.read(path);
 	}
 
+	public static InputStream newInputStream(Path path) throws IOException {
+		return INSTANCE.newInputStream(path);
+	}
+
 	public static void mkDir(Path path) throws IOException {
 		INSTANCE.mkDir(path);
 	}
@@ -20,9 +20,14 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
 
 import de.ovgu.featureide.fm.core.IExtension;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 
 /**
  * Interface for reading and writing data from and to arbitrary objects.
@@ -60,6 +65,28 @@ public interface IPersistentFormat<T> extends IExtension {
 		return read(object, source);
 	}
 
+	/**
+	 * Parses the contents of the given stream and transfers all information onto the given object (see {@link #read(Object, CharSequence, Path)}). Text is
+	 * expected to be encoded with {@link SimpleFileHandler#DEFAULT_CHARSET}. The stream is not closed.<br> The default implementation reads the complete
+	 * stream into a string. Formats that parse the stream directly return {@code true} for {@link #supportsStreaming()}.
+	 *
+	 * @param object the object to write the information into.
+	 * @param source the source content.
+	 * @param path the path of the source file.
+	 * @return A list of {@link Problem problems} that occurred during the parsing process.
+	 * @throws IOException if the stream cannot be read.
+	 *
+	 * @see #supportsRead()
+	 */
+	default ProblemList read(T object, InputStream source, Path path) throws IOException {
+		final ByteArrayOutputStream content = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+		for (int count = source.read(buffer); count >= 0; count = source.read(buffer)) {
+			content.write(buffer, 0, count);
+		}
+		return read(object, new String(content.toByteArray(), SimpleFileHandler.DEFAULT_CHARSET), path);
+	}
+
 	/**
 	 * Writes the information of an object to a string. (Which information are considered is specified by the implementing class).
 	 *
@@ -70,6 +97,21 @@ public interface IPersistentFormat<T> extends IExtension {
 	 */
 	String write(T object);
 
+	/**
+	 * Writes the information of an object to a stream (see {@link #write(Object)}). Text is encoded with {@link SimpleFileHandler#DEFAULT_CHARSET}. The stream
+	 * is not closed.<br> The default implementation writes the result of {@link #write(Object)}. Formats that write to the stream directly return {@code true}
+	 * for {@link #supportsStreaming()}.
+	 *
+	 * @param object the object to get the information from.
+	 * @param target the stream to write to.
+	 * @throws IOException if the stream cannot be written.
+	 *
+	 * @see #supportsWrite()
+	 */
+	default void write(T object, OutputStream target) throws IOException {
+		target.write(write(object).getBytes(SimpleFileHandler.DEFAULT_CHARSET));
+	}
+
 	/**
 	 * Returns the file extension for this format. (Without a leading ".")
 	 *
@@ -108,6 +150,16 @@ public interface IPersistentFormat<T> extends IExtension {
 	 */
 	boolean supportsWrite();
 
+	/**
+	 * Returns whether this format reads and writes streams directly with {@link #read(Object, InputStream, Path)} and {@link #write(Object, OutputStream)},
+	 * i.e., without creating a string containing the complete content. Clients that hold their content in a file should prefer these methods in this case.
+	 *
+	 * @return {@code true} if the stream-based methods are implemented by this format, {@code false} otherwise.
+	 */
+	default boolean supportsStreaming() {
+		return false;
+	}
+
 	/**
 	 * Returns whether this format supports the parsing of the given content.
 	 *
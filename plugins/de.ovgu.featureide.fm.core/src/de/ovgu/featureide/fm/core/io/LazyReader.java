@@ -79,8 +79,11 @@ public class LazyReader implements CharSequence {
 	public boolean expand() {
 		try {
 			final int charCount = reader.read(buffer);
-			content.append(buffer);
-			return charCount > 0;
+			if (charCount > 0) {
+				content.append(buffer, 0, charCount);
+				return true;
+			}
+			return false;
 		} catch (final IOException e) {
 			Logger.logError(e);
 			return false;
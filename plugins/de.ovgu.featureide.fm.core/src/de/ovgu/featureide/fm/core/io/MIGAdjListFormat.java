@@ -20,19 +20,27 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.nio.charset.Charset;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBinaryFormat;
 import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 
 /**
- * Reads / Writes a feature graph.
+ * Reads / Writes a feature graph in the binary format of {@link MIGBinaryFormat}.<br> The format {@link #supportsStreaming() supports streaming}, so file
+ * handlers read and write the bytes directly. The string-based methods of {@link IPersistentFormat} map each byte to one character (ISO-8859-1) and are
+ * only lossless if the string is not re-encoded with a different charset.
  *
  * @author Sebastian Krieter
  */
@@ -40,12 +48,16 @@ public class MIGAdjListFormat extends APersistentFormat<ModalImplicationGraph> i
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fg." + MIGAdjListFormat.class.getSimpleName();
 
+	private static final int MAGIC_NUMBER = 0x4D494746;
+
+	private final MIGBinaryFormat binaryFormat = new MIGBinaryFormat();
+
 	@Override
 	public ProblemList read(ModalImplicationGraph object, CharSequence source) {
 		final ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
-			object.copyValues((ModalImplicationGraph) in.readObject());
-		} catch (IOException | ClassNotFoundException e) {
+		try {
+			object.copyValues(read(ByteBuffer.wrap(source.toString().getBytes(StandardCharsets.ISO_8859_1))));
+		} catch (final IOException e) {
 			problems.add(new Problem(e));
 		}
 		return problems;
@@ -54,14 +66,78 @@ public class MIGAdjListFormat extends APersistentFormat<ModalImplicationGraph> i
 	@Override
 	public String write(ModalImplicationGraph object) {
 		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		String ret = null;
-		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
-			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
+		try {
+			write(object, byteArrayOutputStream);
 		} catch (final IOException e) {
 			Logger.logError(e);
+			return null;
+		}
+		return new String(byteArrayOutputStream.toByteArray(), StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public ProblemList read(ModalImplicationGraph object, InputStream source, Path path) throws IOException {
+		final ByteArrayOutputStream content = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+		for (int count = source.read(buffer); count >= 0; count = source.read(buffer)) {
+			content.write(buffer, 0, count);
+		}
+		final ProblemList problems = new ProblemList();
+		try {
+			object.copyValues(read(ByteBuffer.wrap(content.toByteArray())));
+		} catch (final IOException e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	/**
+	 * Writes the given graph to a stream. The stream is not closed.
+	 *
+	 * @param object the graph
+	 * @param out the output stream
+	 * @throws IOException if the stream cannot be written
+	 */
+	@Override
+	public void write(ModalImplicationGraph object, OutputStream out) throws IOException {
+		final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+		dataOut.writeInt(MAGIC_NUMBER);
+		dataOut.writeInt(binaryFormat.getVersion());
+		binaryFormat.write(object, dataOut);
+		dataOut.flush();
+	}
+
+	/**
+	 * Reads a graph from a file.
+	 *
+	 * @param path the file
+	 * @return the graph
+	 * @throws IOException if the file cannot be read or has an invalid format
+	 */
+	public ModalImplicationGraph read(Path path) throws IOException {
+		return read(ByteBuffer.wrap(Files.readAllBytes(path)));
+	}
+
+	/**
+	 * Reads a graph from the given buffer.
+	 *
+	 * @param buffer the buffer
+	 * @return the graph
+	 * @throws IOException if the buffer does not contain a valid graph
+	 */
+	public ModalImplicationGraph read(ByteBuffer buffer) throws IOException {
+		try {
+			if (buffer.getInt() != MAGIC_NUMBER) {
+				throw new IOException("Unknown file format");
+			}
+			final int version = buffer.getInt();
+			if (version != binaryFormat.getVersion()) {
+				throw new IOException("Unsupported format version " + version);
+			}
+		} catch (final BufferUnderflowException e) {
+			throw new IOException("Unknown file format", e);
 		}
-		return ret;
+		return binaryFormat.read(buffer);
 	}
 
 	@Override
@@ -79,6 +155,11 @@ public class MIGAdjListFormat extends APersistentFormat<ModalImplicationGraph> i
 		return true;
 	}
 
+	@Override
+	public boolean supportsStreaming() {
+		return true;
+	}
+
 	@Override
 	public String getId() {
 		return ID;
@@ -20,9 +20,17 @@
  */
 package de.ovgu.featureide.fm.core.io.csv;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Scanner;
-import java.util.regex.Pattern;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
@@ -33,6 +41,7 @@ import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 
 /**
  * Reads / Writes a list of configuration.
@@ -46,6 +55,23 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 	@Override
 	public String write(SolutionList configurationList) {
 		final StringBuilder csv = new StringBuilder();
+		try {
+			write(configurationList, csv);
+		} catch (final IOException e) {
+			// Cannot happen for a StringBuilder
+			throw new RuntimeException(e);
+		}
+		return csv.toString();
+	}
+
+	@Override
+	public void write(SolutionList configurationList, OutputStream target) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(target, SimpleFileHandler.DEFAULT_CHARSET));
+		write(configurationList, writer);
+		writer.flush();
+	}
+
+	private void write(SolutionList configurationList, Appendable csv) throws IOException {
 		csv.append("Configuration");
 		final String[] names = configurationList.getVariables().getNames();
 		for (int i = 1; i < names.length; i++) {
@@ -55,26 +81,33 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 		csv.append('\n');
 		int configurationIndex = 0;
 		for (final LiteralSet configuration : configurationList.getSolutions()) {
-			csv.append(configurationIndex++);
+			csv.append(String.valueOf(configurationIndex++));
 			final int[] literals = configuration.getLiterals();
 			for (int i = 0; i < literals.length; i++) {
 				csv.append(';');
-				csv.append(literals[i] < 0 ? 0 : 1);
+				csv.append(literals[i] < 0 ? '0' : '1');
 			}
 			csv.append('\n');
 		}
-		return csv.toString();
 	}
 
 	@Override
 	public ProblemList read(SolutionList configurationList, CharSequence source) {
+		return read(configurationList, new BufferedReader(new StringReader(source.toString())));
+	}
+
+	@Override
+	public ProblemList read(SolutionList configurationList, InputStream source, Path path) throws IOException {
+		return read(configurationList, new BufferedReader(new InputStreamReader(source, SimpleFileHandler.DEFAULT_CHARSET)));
+	}
+
+	private ProblemList read(SolutionList configurationList, BufferedReader reader) {
 		final ProblemList problems = new ProblemList();
 		int lineNumber = 0;
-		try (final Scanner scanner = new Scanner(source.toString())) {
-			scanner.useDelimiter(Pattern.compile("\\n+\\Z|\\n+|\\Z"));
+		try {
 			{
-				final String line = scanner.next();
-				if (line.trim().isEmpty()) {
+				final String line = reader.readLine();
+				if ((line == null) || line.trim().isEmpty()) {
 					problems.add(new Problem(new UnsupportedModelException("Empty file!", lineNumber)));
 					return problems;
 				}
@@ -82,8 +115,10 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 				configurationList.setVariables(new Variables(Arrays.asList(names).subList(1, names.length)));
 			}
 
-			while (scanner.hasNext()) {
-				final String line = scanner.next();
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				if (line.isEmpty()) {
+					continue;
+				}
 				lineNumber++;
 				final String[] split = line.split(";");
 				if ((split.length - 1) != configurationList.getVariables().size()) {
@@ -127,6 +162,11 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 		return true;
 	}
 
+	@Override
+	public boolean supportsStreaming() {
+		return true;
+	}
+
 	@Override
 	public String getName() {
 		return "ConfigurationList";
@@ -0,0 +1,225 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Reads a byte source line by line, skipping empty lines. In contrast to {@link LineIterator}, no strings are created. The current line is a range within
+ * the array returned by {@link #getBuffer()} and stays valid until the next call of {@link #next()}. Lines may end with {@code \n}, {@code \r}, or
+ * {@code \r\n}.
+ */
+public class ByteLineIterator {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer source;
+
+	private byte[] buffer;
+	private int position;
+	private int limit;
+	private boolean endOfInput;
+	private boolean skipLineFeed;
+
+	private boolean hasLine = false;
+	private int lineStart;
+	private int lineEnd;
+	private int lineCount = 0;
+
+	/**
+	 * Reads from the remaining bytes of the given buffer. If the buffer is backed by an array, the array is read directly. Otherwise (e.g., for memory-mapped
+	 * buffers), the content is copied chunk-wise into an internal array.
+	 *
+	 * @param source the buffer
+	 */
+	public ByteLineIterator(ByteBuffer source) {
+		channel = null;
+		if (source.hasArray()) {
+			this.source = null;
+			buffer = source.array();
+			position = source.arrayOffset() + source.position();
+			limit = source.arrayOffset() + source.limit();
+			endOfInput = true;
+		} else {
+			this.source = source;
+			buffer = new byte[Math.max(1, Math.min(BUFFER_SIZE, source.remaining()))];
+			endOfInput = false;
+		}
+	}
+
+	/**
+	 * Reads from the given channel using an internal array as buffer. The channel is not closed.
+	 *
+	 * @param channel the channel
+	 */
+	public ByteLineIterator(ReadableByteChannel channel) {
+		this.channel = channel;
+		source = null;
+		buffer = new byte[BUFFER_SIZE];
+		endOfInput = false;
+	}
+
+	/**
+	 * Advances to the next line that contains at least one non-whitespace character.
+	 *
+	 * @return {@code true} if there is such a line, {@code false} if the end of the source is reached
+	 * @throws IOException if the source cannot be read
+	 */
+	public boolean next() throws IOException {
+		do {
+			if (!readLine()) {
+				hasLine = false;
+				return false;
+			}
+			lineCount++;
+		} while (isBlank(buffer, lineStart, lineEnd));
+		hasLine = true;
+		return true;
+	}
+
+	private boolean readLine() throws IOException {
+		if (skipLineFeed) {
+			skipLineFeed = false;
+			if (((position < limit) || fill()) && (buffer[position] == '\n')) {
+				position++;
+			}
+		}
+		int offset = 0;
+		while (true) {
+			for (int i = position + offset; i < limit; i++) {
+				final byte b = buffer[i];
+				if ((b == '\n') || (b == '\r')) {
+					lineStart = position;
+					lineEnd = i;
+					position = i + 1;
+					skipLineFeed = b == '\r';
+					return true;
+				}
+			}
+			offset = limit - position;
+			if (!fill()) {
+				if (position == limit) {
+					return false;
+				}
+				lineStart = position;
+				lineEnd = limit;
+				position = limit;
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Moves the unread bytes to the front of the internal array and appends new bytes from the source. Grows the array if it is full.
+	 *
+	 * @return {@code false} if there are no more bytes to read
+	 * @throws IOException if the source cannot be read
+	 */
+	private boolean fill() throws IOException {
+		if (endOfInput) {
+			return false;
+		}
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		if (limit == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length << 1);
+		}
+		final int count;
+		if (channel != null) {
+			count = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit));
+		} else {
+			final int remaining = Math.min(source.remaining(), buffer.length - limit);
+			source.get(buffer, limit, remaining);
+			count = remaining > 0 ? remaining : -1;
+		}
+		if (count < 0) {
+			endOfInput = true;
+			return false;
+		}
+		limit += count;
+		return true;
+	}
+
+	/**
+	 * @return whether the last call of {@link #next()} found a line
+	 */
+	public boolean hasLine() {
+		return hasLine;
+	}
+
+	/**
+	 * @return the array containing the current line
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return the index of the first byte of the current line (inclusive)
+	 */
+	public int getLineStart() {
+		return lineStart;
+	}
+
+	/**
+	 * @return the index of the last byte of the current line (exclusive)
+	 */
+	public int getLineEnd() {
+		return lineEnd;
+	}
+
+	/**
+	 * Removes the beginning of the current line.
+	 *
+	 * @param lineStart the new index of the first byte of the current line; must be between the current start and end of the line
+	 */
+	public void setLineStart(int lineStart) {
+		this.lineStart = lineStart;
+	}
+
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @param line the array containing the bytes
+	 * @param start the first index (inclusive)
+	 * @param end the last index (exclusive)
+	 * @return whether all bytes in the given range are whitespace or control characters (as removed by {@link String#trim()})
+	 */
+	public static boolean isBlank(byte[] line, int start, int end) {
+		for (int i = start; i < end; i++) {
+			final byte b = line[i];
+			if ((b < 0) || (b > ' ')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -21,7 +21,12 @@
 package de.ovgu.featureide.fm.core.io.dimacs;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.StringReader;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -40,6 +45,7 @@ import de.ovgu.featureide.fm.core.base.IFeatureStructure;
 import de.ovgu.featureide.fm.core.io.AFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 
 /**
  * Reads and writes feature models in the DIMACS CNF format.
@@ -55,6 +61,17 @@ public class DIMACSFormat extends AFeatureModelFormat {
 
 	@Override
 	public ProblemList read(IFeatureModel featureModel, CharSequence source) {
+		try (StringReader reader = new StringReader(source.toString())) {
+			return read(featureModel, reader);
+		}
+	}
+
+	@Override
+	public ProblemList read(IFeatureModel featureModel, InputStream source, Path path) throws IOException {
+		return read(featureModel, new InputStreamReader(source, SimpleFileHandler.DEFAULT_CHARSET));
+	}
+
+	private ProblemList read(IFeatureModel featureModel, Reader reader) {
 		final ProblemList problemList = new ProblemList();
 		setFactory(featureModel);
 
@@ -62,7 +79,7 @@ public class DIMACSFormat extends AFeatureModelFormat {
 		final DimacsReader r = new DimacsReader();
 		r.setReadingVariableDirectory(true);
 		r.setFlattenCNF(flattenCNF);
-		try (StringReader reader = new StringReader(source.toString())) {
+		try {
 			final Node node = r.read(reader);
 			final Collection<String> variables = r.getVariables();
 
@@ -113,9 +130,18 @@ public class DIMACSFormat extends AFeatureModelFormat {
 
 	@Override
 	public String write(IFeatureModel featureModel) {
+		return createWriter(featureModel).write();
+	}
+
+	@Override
+	public void write(IFeatureModel featureModel, OutputStream target) throws IOException {
+		createWriter(featureModel).write(target);
+	}
+
+	private DimacsWriter createWriter(IFeatureModel featureModel) {
 		final DimacsWriter w = new DimacsWriter(new FeatureModelFormula(featureModel).getCNF());
 		w.setWritingVariableDirectory(true);
-		return w.write();
+		return w;
 	}
 
 	@Override
@@ -143,6 +169,11 @@ public class DIMACSFormat extends AFeatureModelFormat {
 		return true;
 	}
 
+	@Override
+	public boolean supportsStreaming() {
+		return true;
+	}
+
 	@Override
 	public String getName() {
 		return "DIMACS";
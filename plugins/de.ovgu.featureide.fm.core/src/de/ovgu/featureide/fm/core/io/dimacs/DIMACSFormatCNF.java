@@ -21,14 +21,15 @@
 package de.ovgu.featureide.fm.core.io.dimacs;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
 import java.text.ParseException;
 
-import org.prop4j.Node;
-
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
-import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactClauseList;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
@@ -46,30 +47,54 @@ public class DIMACSFormatCNF extends APersistentFormat<CNF> {
 
 	@Override
 	public String write(CNF cnf) {
+		return createWriter(cnf).write();
+	}
+
+	@Override
+	public void write(CNF cnf, OutputStream target) throws IOException {
+		createWriter(cnf).write(target);
+	}
+
+	private DimacsWriter createWriter(CNF cnf) {
 		final DimacsWriter w = new DimacsWriter(cnf);
 		w.setWritingVariableDirectory(true);
-		return w.write();
+		return w;
 	}
 
 	@Override
 	public ProblemList read(CNF cnf, CharSequence source) {
 		final ProblemList problemList = new ProblemList();
-		final DimacsReader r = new DimacsReader();
-		r.setReadingVariableDirectory(true);
-		r.setFlattenCNF(false);
 		try {
-			final Node node = r.read(source.toString());
-			final Variables variables = new Variables(r.getVariables());
-			final ClauseList clauseList = Nodes.convertNF(variables, node, true, true);
-			cnf.setVariables(variables);
-			cnf.getClauses().clear();
-			cnf.getClauses().addAll(clauseList);
+			setCNF(cnf, createReader().readCNF(source.toString()));
 		} catch (ParseException | IOException e) {
 			problemList.add(new Problem(e));
 		}
 		return problemList;
 	}
 
+	@Override
+	public ProblemList read(CNF cnf, InputStream source, Path path) throws IOException {
+		final ProblemList problemList = new ProblemList();
+		try {
+			setCNF(cnf, createReader().readCNF(Channels.newChannel(source)));
+		} catch (final ParseException e) {
+			problemList.add(new Problem(e));
+		}
+		return problemList;
+	}
+
+	private DimacsReader createReader() {
+		final DimacsReader r = new DimacsReader();
+		r.setReadingVariableDirectory(true);
+		r.setFlattenCNF(false);
+		return r;
+	}
+
+	private void setCNF(CNF cnf, CNF readCNF) {
+		cnf.setVariables((Variables) readCNF.getVariables());
+		cnf.setClauses((CompactClauseList) readCNF.getClauseView());
+	}
+
 	@Override
 	public String getSuffix() {
 		return "dimacs";
@@ -95,6 +120,11 @@ public class DIMACSFormatCNF extends APersistentFormat<CNF> {
 		return true;
 	}
 
+	@Override
+	public boolean supportsStreaming() {
+		return true;
+	}
+
 	@Override
 	public String getName() {
 		return "DIMACS";
@@ -24,13 +24,22 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -39,8 +48,15 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
 /**
- * Transforms DIMACS CNF files into instances of {@link Node}.
+ * Transforms DIMACS CNF files into instances of {@link Node} or {@link CNF}.<br> The byte-based methods ({@link #readCNF(Path)},
+ * {@link #readCNF(ReadableByteChannel)}, and {@link #readCNF(ByteBuffer)}) parse the input without creating strings for lines or tokens and write the
+ * literals directly into the clause list of the resulting CNF. The input is expected to be encoded in UTF-8.
  *
  * @author Timo Günther
  * @author Sebastian Krieter
@@ -50,8 +66,15 @@ public class DimacsReader {
 	private static final Pattern commentPattern = Pattern.compile("\\A" + DIMACSConstants.COMMENT + "\\s*(.*)\\Z");
 	private static final Pattern problemPattern = Pattern.compile("\\A\\s*" + DIMACSConstants.PROBLEM + "\\s+" + DIMACSConstants.CNF + "\\s+(\\d+)\\s+(\\d+)");
 
+	/** Maximum size of a file that is read into a single array. */
+	private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
 	/** Maps indexes to variables. */
 	private final Map<Integer, String> indexVariables = new LinkedHashMap<>();
+	/** Maps small positive indexes to their position in {@link #indexVariables} (starting at 1). Only used when reading bytes. */
+	private int[] indexIds;
+	/** Maps all other indexes to their position in {@link #indexVariables} (starting at 1). Only used when reading bytes. */
+	private final Map<Integer, Integer> sparseIndexIds = new HashMap<>();
 	/**
 	 * The amount of variables as declared in the problem definition. May differ from the actual amount of variables found.
 	 */
@@ -97,6 +120,176 @@ public class DimacsReader {
 	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
 	 */
 	public Node read(Reader in) throws ParseException, IOException {
+		final CompactClauseList indexClauses = readIndexClauses(in);
+		final int[] literals = indexClauses.getLiteralArray();
+		final Node[] clauses = new Node[indexClauses.size()];
+		for (int i = 0; i < clauses.length; i++) {
+			final int start = indexClauses.getStart(i);
+			final Node[] clauseLiterals = new Node[indexClauses.getClauseSize(i)];
+			for (int j = 0; j < clauseLiterals.length; j++) {
+				final int index = literals[start + j];
+				clauseLiterals[j] = new Literal(indexVariables.get(Math.abs(index)), index > 0);
+			}
+			clauses[i] = new Or(clauseLiterals);
+		}
+		Node node = new And(clauses);
+		if (flattenCNF) {
+			node = node.simplifyTree();
+		}
+		return node;
+	}
+
+	/**
+	 * Reads the input directly into a {@link CNF} without creating an intermediate {@link Node}. The variables of the CNF are ordered as returned by
+	 * {@link #getVariables()}. The clauses are stored in a {@link CompactClauseList} and keep the order of their literals.
+	 *
+	 * @param in The source to read from.
+	 * @return a CNF; not null
+	 * @throws IOException if the reader encounters a problem.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF readCNF(Reader in) throws ParseException, IOException {
+		final CompactClauseList clauses = readIndexClauses(in);
+		final Variables variables = new Variables(indexVariables.values());
+
+		final int denseSize = indexVariables.size() + 1;
+		final int[] denseIds = new int[denseSize];
+		final Map<Integer, Integer> sparseIds = new HashMap<>();
+		for (final Entry<Integer, String> entry : indexVariables.entrySet()) {
+			final int index = entry.getKey();
+			final int id = variables.getVariable(entry.getValue());
+			if ((index > 0) && (index < denseSize)) {
+				denseIds[index] = id;
+			} else {
+				sparseIds.put(index, id);
+			}
+		}
+
+		final int[] literals = clauses.getLiteralArray();
+		final int numberOfLiterals = clauses.getNumberOfLiterals();
+		for (int i = 0; i < numberOfLiterals; i++) {
+			final int index = literals[i];
+			final int key = Math.abs(index);
+			final int variable = key < denseSize ? denseIds[key] : sparseIds.get(key);
+			literals[i] = index > 0 ? variable : -variable;
+		}
+		return new CNF(variables, clauses);
+	}
+
+	/**
+	 * Reads the input. Calls {@link #readCNF(ByteBuffer)}.
+	 *
+	 * @param in The string to read from.
+	 * @return a CNF; not null
+	 * @throws IOException if the reader encounters a problem.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF readCNF(String in) throws ParseException, IOException {
+		return readCNF(ByteBuffer.wrap(in.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Reads a file into a heap buffer. Files that are too large to be read at once are read via {@link #readCNF(ReadableByteChannel)}.
+	 *
+	 * @param path The file to read from.
+	 * @return a CNF; not null
+	 * @throws IOException if the file cannot be read.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 *
+	 * @see #readCNF(Reader)
+	 */
+	public CNF readCNF(Path path) throws ParseException, IOException {
+		if (Files.size(path) <= MAX_BUFFER_SIZE) {
+			return readCNF(ByteBuffer.wrap(Files.readAllBytes(path)));
+		} else {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				return readCNF((ReadableByteChannel) channel);
+			}
+		}
+	}
+
+	/**
+	 * Reads the input from a channel. The channel is not closed.
+	 *
+	 * @param in The channel to read from.
+	 * @return a CNF; not null
+	 * @throws IOException if the channel cannot be read.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 *
+	 * @see #readCNF(Reader)
+	 */
+	public CNF readCNF(ReadableByteChannel in) throws ParseException, IOException {
+		return readCNF(new ByteLineIterator(in));
+	}
+
+	/**
+	 * Reads the remaining bytes of the given buffer.
+	 *
+	 * @param in The buffer to read from.
+	 * @return a CNF; not null
+	 * @throws IOException if the buffer cannot be read.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 *
+	 * @see #readCNF(Reader)
+	 */
+	public CNF readCNF(ByteBuffer in) throws ParseException, IOException {
+		return readCNF(new ByteLineIterator(in));
+	}
+
+	private CNF readCNF(ByteLineIterator lineIterator) throws ParseException, IOException {
+		indexVariables.clear();
+		indexIds = new int[64];
+		sparseIndexIds.clear();
+		variableCount = -1;
+		clauseCount = -1;
+		readingVariables = readVariableDirectory;
+		lineIterator.next();
+
+		readComments(lineIterator);
+		readProblem(lineIterator);
+		readComments(lineIterator);
+		readingVariables = false;
+
+		final CompactClauseList clauses = readClauses(lineIterator);
+		final int actualVariableCount = indexVariables.size();
+		if (variableCount != actualVariableCount) {
+			throw new ParseException(String.format("Found %d instead of %d variables", actualVariableCount, variableCount), 1);
+		}
+		indexIds = null;
+		sparseIndexIds.clear();
+
+		final Variables variables = new Variables(indexVariables.values());
+
+		// Variables with the same name are merged (as done by readCNF(Reader))
+		int[] ids = null;
+		int position = 0;
+		for (final String name : indexVariables.values()) {
+			final int id = variables.getVariable(name);
+			if (id != ++position) {
+				if (ids == null) {
+					ids = new int[actualVariableCount + 1];
+					for (int i = 0; i < ids.length; i++) {
+						ids[i] = i;
+					}
+				}
+				ids[position] = id;
+			}
+		}
+		if (ids != null) {
+			final int[] literals = clauses.getLiteralArray();
+			final int numberOfLiterals = clauses.getNumberOfLiterals();
+			for (int i = 0; i < numberOfLiterals; i++) {
+				final int literal = literals[i];
+				literals[i] = literal > 0 ? ids[literal] : -ids[-literal];
+			}
+		}
+		return new CNF(variables, clauses);
+	}
+
+	/**
+	 * Reads all clauses of the input as they are written in the source, i.e., each literal is the signed index of its variable.
+	 */
+	private CompactClauseList readIndexClauses(Reader in) throws ParseException, IOException {
 		indexVariables.clear();
 		variableCount = -1;
 		clauseCount = -1;
@@ -110,16 +303,12 @@ public class DimacsReader {
 			readComments(lineIterator);
 			readingVariables = false;
 
-			final Node[] clauses = readClauses(lineIterator);
+			final CompactClauseList clauses = readClauses(lineIterator);
 			final int actualVariableCount = indexVariables.size();
 			if (variableCount != actualVariableCount) {
 				throw new ParseException(String.format("Found %d instead of %d variables", actualVariableCount, variableCount), 1);
 			}
-			Node node = new And(clauses);
-			if (flattenCNF) {
-				node = node.simplifyTree();
-			}
-			return node;
+			return clauses;
 		}
 	}
 
@@ -193,9 +382,9 @@ public class DimacsReader {
 	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
 	 * @throws IOException
 	 */
-	private Node[] readClauses(LineIterator lineIterator) throws ParseException, IOException {
+	private CompactClauseList readClauses(LineIterator lineIterator) throws ParseException, IOException {
 		final LinkedList<String> literalQueue = new LinkedList<>();
-		final Node[] clauses = new Node[clauseCount];
+		final CompactClauseList clauses = new CompactClauseList(clauseCount, clauseCount * 3);
 		int readClausesCount = 0;
 		for (String line = lineIterator.currentLine(); line != null; line = lineIterator.get()) {
 			if (commentPattern.matcher(line).matches()) {
@@ -214,7 +403,7 @@ public class DimacsReader {
 					throw new ParseException("Empty clause", lineIterator.getLineCount());
 				}
 
-				clauses[readClausesCount] = parseClause(readClausesCount, clauseSize, literalQueue, lineIterator);
+				parseClause(clauses, readClausesCount, clauseSize, literalQueue, lineIterator);
 				readClausesCount++;
 
 				if (!DIMACSConstants.CLAUSE_END.equals(literalQueue.removeFirst())) {
@@ -224,7 +413,7 @@ public class DimacsReader {
 			} while (!literalQueue.isEmpty());
 		}
 		if (!literalQueue.isEmpty()) {
-			clauses[readClausesCount] = parseClause(readClausesCount, literalQueue.size(), literalQueue, lineIterator);
+			parseClause(clauses, readClausesCount, literalQueue.size(), literalQueue, lineIterator);
 			readClausesCount++;
 		}
 		if (readClausesCount < clauseCount) {
@@ -233,12 +422,12 @@ public class DimacsReader {
 		return clauses;
 	}
 
-	private Or parseClause(int readClausesCount, int clauseSize, LinkedList<String> literalQueue, LineIterator lineIterator) throws ParseException {
+	private void parseClause(CompactClauseList clauses, int readClausesCount, int clauseSize, LinkedList<String> literalQueue, LineIterator lineIterator)
+			throws ParseException {
 		if (readClausesCount == clauseCount) {
 			throw new ParseException(String.format("Found more than %d clauses", clauseCount), 1);
 		}
-		final Node[] literals = new Node[clauseSize];
-		for (int j = 0; j < literals.length; j++) {
+		for (int j = 0; j < clauseSize; j++) {
 			final String token = literalQueue.removeFirst();
 			final int index;
 			try {
@@ -250,14 +439,12 @@ public class DimacsReader {
 				throw new ParseException("Illegal literal", lineIterator.getLineCount());
 			}
 			final Integer key = Math.abs(index);
-			String variable = indexVariables.get(key);
-			if (variable == null) {
-				variable = String.valueOf(key);
-				indexVariables.put(key, variable);
+			if (!indexVariables.containsKey(key)) {
+				indexVariables.put(key, String.valueOf(key));
 			}
-			literals[j] = new Literal(variable, index > 0);
+			clauses.addLiteral(index);
 		}
-		return new Or(literals);
+		clauses.closeClause(Order.UNORDERED);
 	}
 
 	/**
@@ -297,6 +484,259 @@ public class DimacsReader {
 		return true;
 	}
 
+	private void readComments(ByteLineIterator lineIterator) throws IOException {
+		for (boolean hasLine = lineIterator.hasLine(); hasLine; hasLine = lineIterator.next()) {
+			final byte[] line = lineIterator.getBuffer();
+			final int start = lineIterator.getLineStart();
+			if (line[start] == 'c') {
+				if (readingVariables) {
+					final int end = lineIterator.getLineEnd();
+					readVariableDirectoryEntry(line, skipWhitespace(line, start + 1, end), end); // read comments ...
+				}
+			} else {
+				break; // ... until a non-comment token is found.
+			}
+		}
+	}
+
+	/**
+	 * Reads the problem definition.
+	 *
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 * @throws IOException
+	 */
+	private void readProblem(ByteLineIterator lineIterator) throws ParseException, IOException {
+		if (!lineIterator.hasLine()) {
+			throw new ParseException("Invalid problem format", lineIterator.getLineCount());
+		}
+		final byte[] line = lineIterator.getBuffer();
+		final int end = lineIterator.getLineEnd();
+
+		int i = skipWhitespace(line, lineIterator.getLineStart(), end);
+		i = skipKeyword(line, i, end, DIMACSConstants.PROBLEM);
+		i = skipSeparator(line, i, end);
+		i = skipKeyword(line, i, end, DIMACSConstants.CNF);
+		i = skipSeparator(line, i, end);
+		final int variableCountStart = i;
+		i = skipDigits(line, i, end);
+		final int variableCountEnd = i;
+		i = skipSeparator(line, i, end);
+		final int clauseCountStart = i;
+		i = skipDigits(line, i, end);
+		final int clauseCountEnd = i;
+		if ((i < 0) || (variableCountStart == variableCountEnd) || (clauseCountStart == clauseCountEnd)) {
+			throw new ParseException("Invalid problem format", lineIterator.getLineCount());
+		}
+		if (ByteLineIterator.isBlank(line, i, end)) {
+			lineIterator.next();
+		} else {
+			lineIterator.setLineStart(i);
+		}
+
+		final long parsedVariableCount = parseInteger(line, variableCountStart, variableCountEnd);
+		if (parsedVariableCount == Long.MIN_VALUE) {
+			throw new ParseException("Variable count is not an integer", lineIterator.getLineCount());
+		}
+		variableCount = (int) parsedVariableCount;
+
+		final long parsedClauseCount = parseInteger(line, clauseCountStart, clauseCountEnd);
+		if (parsedClauseCount == Long.MIN_VALUE) {
+			throw new ParseException("Clause count is not an integer", lineIterator.getLineCount());
+		}
+		clauseCount = (int) parsedClauseCount;
+	}
+
+	/**
+	 * Reads all clauses. In contrast to {@link #readClauses(LineIterator)}, each token is parsed as soon as it is read.
+	 *
+	 * @return all clauses; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 * @throws IOException
+	 */
+	private CompactClauseList readClauses(ByteLineIterator lineIterator) throws ParseException, IOException {
+		final CompactClauseList clauses = new CompactClauseList(clauseCount, clauseCount * 3);
+		int readClausesCount = 0;
+		int clauseSize = 0;
+		for (boolean hasLine = lineIterator.hasLine(); hasLine; hasLine = lineIterator.next()) {
+			final byte[] line = lineIterator.getBuffer();
+			final int end = lineIterator.getLineEnd();
+			int i = lineIterator.getLineStart();
+			if (line[i] == 'c') {
+				continue;
+			}
+			while ((i = skipWhitespace(line, i, end)) < end) {
+				final int tokenStart = i;
+				while ((i < end) && !isWhitespace(line[i])) {
+					i++;
+				}
+				if (((i - tokenStart) == 1) && (line[tokenStart] == '0')) {
+					if (clauseSize == 0) {
+						throw new ParseException("Empty clause", lineIterator.getLineCount());
+					}
+					clauses.closeClause(Order.UNORDERED);
+					readClausesCount++;
+					clauseSize = 0;
+				} else {
+					if ((clauseSize == 0) && (readClausesCount == clauseCount)) {
+						throw new ParseException(String.format("Found more than %d clauses", clauseCount), 1);
+					}
+					final long index = parseInteger(line, tokenStart, i);
+					if ((index == Long.MIN_VALUE) || (index == 0)) {
+						throw new ParseException("Illegal literal", lineIterator.getLineCount());
+					}
+					final int key = (int) Math.abs(index);
+					int id = getIndexId(key);
+					if (id == 0) {
+						id = addIndexVariable(key, String.valueOf(key));
+					}
+					clauses.addLiteral(index > 0 ? id : -id);
+					clauseSize++;
+				}
+			}
+		}
+		if (clauseSize > 0) {
+			clauses.closeClause(Order.UNORDERED);
+			readClausesCount++;
+		}
+		if (readClausesCount < clauseCount) {
+			throw new ParseException(String.format("Found %d instead of %d clauses", readClausesCount, clauseCount), 1);
+		}
+		return clauses;
+	}
+
+	/**
+	 * Reads an entry of the variable directory.
+	 *
+	 * @return true if an entry was found
+	 */
+	private boolean readVariableDirectoryEntry(byte[] line, int start, int end) {
+		int firstSeparator = start;
+		while ((firstSeparator < end) && (line[firstSeparator] != ' ')) {
+			firstSeparator++;
+		}
+		if ((firstSeparator == start) || (firstSeparator == end)) {
+			return false;
+		}
+		final long index = parseInteger(line, start, firstSeparator);
+		if ((index == Long.MIN_VALUE) || (end < (firstSeparator + 2))) {
+			return false;
+		}
+		if (getIndexId((int) index) == 0) {
+			addIndexVariable((int) index, new String(line, firstSeparator + 1, end - firstSeparator - 1, StandardCharsets.UTF_8));
+		}
+		return true;
+	}
+
+	private int getIndexId(int index) {
+		if ((index > 0) && (index < indexIds.length)) {
+			final int id = indexIds[index];
+			if (id != 0) {
+				return id;
+			}
+		}
+		if (sparseIndexIds.isEmpty()) {
+			return 0;
+		}
+		final Integer id = sparseIndexIds.get(index);
+		return id == null ? 0 : id;
+	}
+
+	private int addIndexVariable(int index, String variable) {
+		indexVariables.put(index, variable);
+		final int id = indexVariables.size();
+		if ((index > 0) && (index < (indexIds.length << 1))) {
+			if (index >= indexIds.length) {
+				indexIds = Arrays.copyOf(indexIds, indexIds.length << 1);
+			}
+			indexIds[index] = id;
+		} else {
+			sparseIndexIds.put(index, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Parses a decimal integer in the same way as {@link Integer#parseInt(String)}.
+	 *
+	 * @return the integer or {@link Long#MIN_VALUE} if the given range does not contain a valid integer
+	 */
+	private static long parseInteger(byte[] line, int start, int end) {
+		if (start == end) {
+			return Long.MIN_VALUE;
+		}
+		final byte sign = line[start];
+		final boolean negative = sign == '-';
+		int i = (negative || (sign == '+')) ? start + 1 : start;
+		if (i == end) {
+			return Long.MIN_VALUE;
+		}
+		long value = 0;
+		for (; i < end; i++) {
+			final int digit = line[i] - '0';
+			if ((digit < 0) || (digit > 9)) {
+				return Long.MIN_VALUE;
+			}
+			value = (value * 10) + digit;
+			if (value > (Integer.MAX_VALUE + 1L)) {
+				return Long.MIN_VALUE;
+			}
+		}
+		if (negative) {
+			return -value;
+		} else {
+			return value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+		}
+	}
+
+	/**
+	 * @return whether the given byte is a whitespace character as matched by the regular expression {@code \s}
+	 */
+	private static boolean isWhitespace(byte b) {
+		return (b == ' ') || (b == '\t') || (b == '\n') || (b == 0x0B) || (b == '\f') || (b == '\r');
+	}
+
+	private static int skipWhitespace(byte[] line, int i, int end) {
+		while ((i < end) && isWhitespace(line[i])) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * @return the index after at least one whitespace character or -1 if there is no whitespace at the given index
+	 */
+	private static int skipSeparator(byte[] line, int i, int end) {
+		if ((i < 0) || (i >= end) || !isWhitespace(line[i])) {
+			return -1;
+		}
+		return skipWhitespace(line, i + 1, end);
+	}
+
+	/**
+	 * @return the index after the given keyword or -1 if the keyword does not start at the given index
+	 */
+	private static int skipKeyword(byte[] line, int i, int end, String keyword) {
+		if ((i < 0) || ((end - i) < keyword.length())) {
+			return -1;
+		}
+		for (int j = 0; j < keyword.length(); j++) {
+			if (line[i + j] != keyword.charAt(j)) {
+				return -1;
+			}
+		}
+		return i + keyword.length();
+	}
+
+	private static int skipDigits(byte[] line, int i, int end) {
+		if (i < 0) {
+			return -1;
+		}
+		while ((i < end) && (line[i] >= '0') && (line[i] <= '9')) {
+			i++;
+		}
+		return i;
+	}
+
 	public Collection<String> getVariables() {
 		return indexVariables.values();
 	}
@@ -20,24 +20,46 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import org.prop4j.Node;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
 /**
- * Transforms instances of {@link Node} into DIMACS CNF file format.
+ * Transforms instances of {@link Node} into DIMACS CNF file format.<br> The output is encoded in UTF-8 and written to an internal byte buffer, which is
+ * flushed to the target stream whenever it is full. Clauses stored in a {@link CompactClauseList} are written directly from its literal array.
  *
  * @author Timo Günther
  * @author Sebastian Krieter
  */
 public class DimacsWriter {
 
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+	private static final byte[] COMMENT_START = DIMACSConstants.COMMENT_START.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] PROBLEM_START = (DIMACSConstants.PROBLEM + ' ' + DIMACSConstants.CNF + ' ').getBytes(StandardCharsets.UTF_8);
+	private static final byte[] CLAUSE_END = DIMACSConstants.CLAUSE_END.getBytes(StandardCharsets.UTF_8);
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
 	/** Whether the writer should write a variable directory listing the names of the variables. */
 	private boolean writingVariableDirectory = true;
 
 	private final CNF cnf;
 
+	private byte[] buffer;
+	private int position;
+	private OutputStream out;
+
 	/**
 	 * Constructs a new instance of this class with the given CNF.
 	 *
@@ -73,81 +95,173 @@ public class DimacsWriter {
 	 * @return the transformed CNF; not null
 	 */
 	public String write() {
-		final StringBuilder sb = new StringBuilder();
-		if (writingVariableDirectory) {
-			writeVariableDirectory(sb);
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try {
+			write(byteArrayOutputStream);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
 		}
-		writeProblem(sb);
-		writeClauses(sb);
-		return sb.toString();
+		return new String(byteArrayOutputStream.toByteArray(), StandardCharsets.UTF_8);
 	}
 
 	/**
-	 * Writes the variable directory.
+	 * Writes the DIMACS CNF file format to a file.
+	 *
+	 * @param path the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		try (OutputStream fileOut = Files.newOutputStream(path)) {
+			write(fileOut);
+		}
+	}
+
+	/**
+	 * Writes the DIMACS CNF file format to a stream. The stream is not closed.
 	 *
-	 * @param sb the string builder that builds the document
+	 * @param out the output stream
+	 * @throws IOException if the stream cannot be written
 	 */
-	private void writeVariableDirectory(StringBuilder sb) {
+	public void write(OutputStream out) throws IOException {
+		this.out = out;
+		buffer = new byte[BUFFER_SIZE];
+		position = 0;
+		try {
+			if (writingVariableDirectory) {
+				writeVariableDirectory();
+			}
+			writeProblem();
+			writeClauses();
+			flush();
+		} finally {
+			this.out = null;
+			buffer = null;
+		}
+	}
+
+	/**
+	 * Writes the variable directory.
+	 */
+	private void writeVariableDirectory() throws IOException {
 		final String[] names = cnf.getVariables().getNames();
 		for (int i = 1; i < names.length; i++) {
-			writeVariableDirectoryEntry(sb, i, names[i]);
+			writeVariableDirectoryEntry(i, names[i]);
 		}
 	}
 
 	/**
 	 * Writes an entry of the variable directory.
 	 *
-	 * @param sb the string builder that builds the document
-	 * @param variable variable to list in the entry
 	 * @param index index of the variable
+	 * @param name name of the variable
 	 */
-	private void writeVariableDirectoryEntry(StringBuilder sb, int index, String name) {
-		sb.append(DIMACSConstants.COMMENT_START);
-		sb.append(index);
-		sb.append(' ');
-		sb.append(String.valueOf(name));
-		sb.append(System.lineSeparator());
+	private void writeVariableDirectoryEntry(int index, String name) throws IOException {
+		append(COMMENT_START);
+		append(index);
+		append((byte) ' ');
+		append(String.valueOf(name).getBytes(StandardCharsets.UTF_8));
+		append(LINE_SEPARATOR);
 	}
 
 	/**
 	 * Writes the problem description.
-	 *
-	 * @param sb the string builder that builds the document
 	 */
-	private void writeProblem(StringBuilder sb) {
-		sb.append(DIMACSConstants.PROBLEM);
-		sb.append(' ');
-		sb.append(DIMACSConstants.CNF);
-		sb.append(' ');
-		sb.append(cnf.getVariables().size());
-		sb.append(' ');
-		sb.append(cnf.getClauses().size());
-		sb.append(System.lineSeparator());
+	private void writeProblem() throws IOException {
+		append(PROBLEM_START);
+		append(cnf.getVariables().size());
+		append((byte) ' ');
+		append(cnf.getClauseView().size());
+		append(LINE_SEPARATOR);
 	}
 
 	/**
 	 * Writes the given clause.
 	 *
-	 * @param sb the string builder that builds the document
-	 * @param clause clause to transform; not null
+	 * @param literals array containing the literals of the clause
+	 * @param start index of the first literal (inclusive)
+	 * @param end index of the last literal (exclusive)
 	 */
-	private void writeClause(StringBuilder sb, LiteralSet clause) {
-		for (final int l : clause.getLiterals()) {
-			sb.append(l);
-			sb.append(' ');
+	private void writeClause(int[] literals, int start, int end) throws IOException {
+		for (int i = start; i < end; i++) {
+			append(literals[i]);
+			append((byte) ' ');
 		}
-		sb.append(DIMACSConstants.CLAUSE_END);
-		sb.append(System.lineSeparator());
+		append(CLAUSE_END);
+		append(LINE_SEPARATOR);
 	}
 
 	/**
 	 * Writes all clauses.
-	 *
-	 * @param sb the string builder that builds the document
 	 */
-	private void writeClauses(StringBuilder sb) {
-		for (final LiteralSet clause : cnf.getClauses()) {
-			writeClause(sb, cnf.getInternalVariables().convertToInternal(clause));
+	private void writeClauses() throws IOException {
+		final List<LiteralSet> clauses = cnf.getClauseView();
+		final IInternalVariables variables = cnf.getInternalVariables();
+		if ((clauses instanceof CompactClauseList) && variables.isIdentityMapping()) {
+			final CompactClauseList compactClauses = (CompactClauseList) clauses;
+			final int[] literals = compactClauses.getLiteralArray();
+			final int size = compactClauses.size();
+			for (int i = 0; i < size; i++) {
+				writeClause(literals, compactClauses.getStart(i), compactClauses.getEnd(i));
+			}
+		} else {
+			for (final LiteralSet clause : clauses) {
+				final int[] literals = variables.convertToInternal(clause).getLiterals();
+				writeClause(literals, 0, literals.length);
+			}
+		}
+	}
+
+	private void append(byte b) throws IOException {
+		if (position == buffer.length) {
+			flush();
+		}
+		buffer[position++] = b;
+	}
+
+	private void append(byte[] bytes) throws IOException {
+		if ((buffer.length - position) < bytes.length) {
+			flush();
+			if (bytes.length > buffer.length) {
+				out.write(bytes);
+				return;
+			}
+		}
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	/**
+	 * Appends the decimal representation of the given integer.
+	 */
+	private void append(int value) throws IOException {
+		if (value == Integer.MIN_VALUE) {
+			append(Integer.toString(value).getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		if ((buffer.length - position) < 11) {
+			flush();
+		}
+		if (value < 0) {
+			buffer[position++] = '-';
+			value = -value;
+		}
+		int end = position;
+		int rest = value;
+		do {
+			end++;
+			rest /= 10;
+		} while (rest != 0);
+		position = end;
+		do {
+			buffer[--end] = (byte) ('0' + (value % 10));
+			value /= 10;
+		} while (value != 0);
+	}
+
+	private void flush() throws IOException {
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			position = 0;
 		}
 	}
 
@@ -20,19 +20,25 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import de.ovgu.featureide.fm.core.ExtensionManager.NoSuchExtensionException;
 import de.ovgu.featureide.fm.core.Logger;
@@ -46,6 +52,7 @@ import de.ovgu.featureide.fm.core.base.impl.FormatManager;
 import de.ovgu.featureide.fm.core.io.ExternalChangeListener;
 import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 
@@ -168,7 +175,19 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	private final List<? extends IPersistentFormat<T>> formats;
 	private final FactoryManager<T> factoryManager;
 
-	protected String persistentObjectSource;
+	/**
+	 * Fingerprint of the persistent object.
+	 */
+	protected byte[] persistentFingerprint;
+	/**
+	 * Fingerprint of the variable object at the last time it was in sync with the file.
+	 */
+	protected byte[] syncedFingerprint;
+	/**
+	 * Cached fingerprint of the variable object. Is {@code null} if the variable object may have changed since the last computation.
+	 */
+	private byte[] variableFingerprint;
+
 	protected T persistentObject;
 	protected T variableObject;
 	protected T snapshot;
@@ -185,21 +204,20 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	protected boolean init(IPersistentFormat<T> desiredFormat) {
 		if ((desiredFormat != null) || FileSystem.exists(path)) {
 			try {
-				final String content = new String(FileSystem.read(path), SimpleFileHandler.DEFAULT_CHARSET);
 				if (desiredFormat != null) {
 					format = desiredFormat;
 					setVariableObject(createObject());
 				} else {
-					detectFormat(content);
+					detectFormat();
 				}
-				final ProblemList problems = format.getInstance().read(variableObject, content, path);
+				final ProblemList problems = readFile(variableObject);
 				final T newPersistentObject = createObject();
-				format.getInstance().read(newPersistentObject, content);
+				readFile(newPersistentObject);
 				if (problems != null) {
 					lastProblems.addAll(problems);
 				}
-				persistentObjectSource = content;
-				this.persistentObject = newPersistentObject;
+				setPersistentObject(newPersistentObject);
+				syncedFingerprint = getVariableFingerprint();
 				return true;
 			} catch (final Exception e) {
 				handleException(e);
@@ -208,9 +226,38 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 		return false;
 	}
 
+	/**
+	 * Reads the file into the given object. Formats that support streaming read directly from the file, all others from its content.
+	 *
+	 * @param object the object to fill
+	 * @return the problems occurred while reading
+	 * @throws IOException if the file cannot be read
+	 */
+	private ProblemList readFile(T object) throws IOException {
+		final IPersistentFormat<T> instance = format.getInstance();
+		if (instance.supportsStreaming()) {
+			try (InputStream inputStream = FileSystem.newInputStream(path)) {
+				return instance.read(object, inputStream, path);
+			}
+		} else {
+			return instance.read(object, new String(FileSystem.read(path), SimpleFileHandler.DEFAULT_CHARSET), path);
+		}
+	}
+
+	private void detectFormat() throws Exception {
+		try (InputStream inputStream = FileSystem.newInputStream(path)) {
+			final LazyReader reader = new LazyReader(inputStream);
+			detectFormat(possibleFormat -> possibleFormat.supportsContent(reader));
+		}
+	}
+
 	private void detectFormat(final CharSequence content) throws Exception {
+		detectFormat(possibleFormat -> possibleFormat.supportsContent(content));
+	}
+
+	private void detectFormat(Predicate<IPersistentFormat<T>> supportsContent) throws Exception {
 		for (final IPersistentFormat<T> possibleFormat : formats) {
-			if (possibleFormat.supportsContent(content)) {
+			if (supportsContent.test(possibleFormat)) {
 				if ((format == null) || !format.getId().equals(possibleFormat.getId())) {
 					format = possibleFormat;
 					setVariableObject(createObject());
@@ -249,6 +296,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 
 	@Override
 	public void fireEvent(FeatureIDEEvent event) {
+		resetFingerprint();
 		eventManager.fireEvent(event);
 	}
 
@@ -321,6 +369,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 
 	protected void resetSnapshot(int changeIndicator) {
 		snapshot = null;
+		resetFingerprint();
 	}
 
 	public void setModifying(boolean modifying) {
@@ -353,11 +402,44 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 
 	protected void setPersistentObject(T persistentObject) {
 		this.persistentObject = persistentObject;
-		if (persistentObject == null) {
-			persistentObjectSource = null;
-		} else {
-			persistentObjectSource = format.getInstance().write(persistentObject);
+		persistentFingerprint = (persistentObject == null) ? null : computeFingerprint(persistentObject);
+	}
+
+	/**
+	 * Computes a fingerprint of the given object that is used to detect changes.<br> Objects with equal fingerprints are considered equal, so the fingerprint
+	 * must be a collision-resistant digest (see {@link #createDigest()}). The default implementation digests the serialization of the object. Subclasses
+	 * should override this method with a cheaper computation that considers all information written by the formats.
+	 *
+	 * @param object the object
+	 * @return the fingerprint
+	 */
+	protected byte[] computeFingerprint(T object) {
+		return createDigest().digest(format.getInstance().write(object).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return a new SHA-256 digest for computing fingerprints
+	 */
+	protected static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Marks the cached fingerprint of the variable object as outdated.
+	 */
+	protected void resetFingerprint() {
+		variableFingerprint = null;
+	}
+
+	private byte[] getVariableFingerprint() {
+		if (variableFingerprint == null) {
+			variableFingerprint = computeFingerprint(variableObject);
 		}
+		return variableFingerprint;
 	}
 
 	@Override
@@ -392,17 +474,16 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 			throw new NoSuchFileException(path.toString());
 		}
 		lastProblems.clear();
-		final T tempObject;
-		final String content = new String(FileSystem.read(path), SimpleFileHandler.DEFAULT_CHARSET);
-		detectFormat(content);
-		tempObject = createObject();
-		final List<Problem> problemList = format.getInstance().read(tempObject, content);
+		detectFormat();
+		final T tempObject = createObject();
+		final List<Problem> problemList = readFile(tempObject);
 		if (problemList != null) {
 			lastProblems.addAll(problemList);
 		}
 		changed = hasChanged(tempObject);
 		if (changed) {
 			setPersistentObject(tempObject);
+			syncedFingerprint = persistentFingerprint;
 		}
 		return changed;
 	}
@@ -420,6 +501,8 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 				}
 			} catch (final Exception e) {
 				handleException(e);
+			} finally {
+				resetFingerprint();
 			}
 			return new ProblemList(lastProblems);
 		} finally {
@@ -435,8 +518,11 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 			if (modifying) {
 				return;
 			}
-			if (persistentObjectSource != null) {
-				format.getInstance().read(variableObject, persistentObjectSource);
+			if (persistentObject != null) {
+				final IPersistentFormat<T> instance = format.getInstance();
+				instance.read(variableObject, instance.write(persistentObject));
+				resetFingerprint();
+				syncedFingerprint = getVariableFingerprint();
 			}
 		} finally {
 			fileOperationLock.unlock();
@@ -445,24 +531,31 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	}
 
 	/**
-	 * Compares the persistent with the given object for equality.<br> Subclasses could override this method.
+	 * Compares the persistent with the given object for equality using their fingerprints.<br> Subclasses could override this method.
 	 *
 	 * @param newObject The given object.
 	 * @return {@code true} if objects differ, {@code false} otherwise.
+	 *
+	 * @see #computeFingerprint(Object)
 	 */
 	protected boolean hasChanged(T newObject) {
-		final String write = format.getInstance().write(newObject);
-		return !Objects.equals(write, persistentObjectSource);
+		return (persistentObject == null) || !Arrays.equals(computeFingerprint(newObject), persistentFingerprint);
 	}
 
 	/**
-	 * Compares the persistent with the variable object for equality.
+	 * Compares the variable object with its state at the last time it was in sync with the file.<br> The fingerprint of the variable object is cached until
+	 * the next event or edit operation, so that repeated calls are cheap.
 	 *
 	 * @return {@code true} if objects differ, {@code false} otherwise.
 	 */
 	@Override
 	public boolean hasChanged() {
-		return hasChanged(variableObject);
+		fileOperationLock.lock();
+		try {
+			return (persistentObject == null) || !Arrays.equals(getVariableFingerprint(), syncedFingerprint);
+		} finally {
+			fileOperationLock.unlock();
+		}
 	}
 
 	@Override
@@ -476,11 +569,22 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 					return new ProblemList();
 				}
 				modifying = true;
-				final String source = format.getInstance().write(variableObject);
-				FileSystem.write(path, source.getBytes(SimpleFileHandler.DEFAULT_CHARSET));
 				final T tempObject = createObject();
-				format.getInstance().read(tempObject, source);
+				final IPersistentFormat<T> instance = format.getInstance();
+				if (instance.supportsStreaming()) {
+					// serialize completely before touching the file, so a failing write does not truncate it
+					final ByteArrayOutputStream content = new ByteArrayOutputStream();
+					instance.write(variableObject, content);
+					final byte[] bytes = content.toByteArray();
+					FileSystem.write(path, bytes);
+					instance.read(tempObject, new ByteArrayInputStream(bytes), path);
+				} else {
+					final String source = instance.write(variableObject);
+					FileSystem.write(path, source.getBytes(SimpleFileHandler.DEFAULT_CHARSET));
+					instance.read(tempObject, source);
+				}
 				setPersistentObject(tempObject);
+				syncedFingerprint = getVariableFingerprint();
 			} catch (final Exception e) {
 				handleException(e);
 				return new ProblemList(lastProblems);
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.io.manager;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.function.Consumer;
 
 import de.ovgu.featureide.fm.core.ExtensionManager.NoSuchExtensionException;
 import de.ovgu.featureide.fm.core.Logger;
@@ -103,6 +104,17 @@ public abstract class AbstractIO<T> {
 	}
 
 	public final FileHandler<T> getFileHandler(Path path) {
+		return getFileHandler(path, null);
+	}
+
+	/**
+	 * Reads the given file into a new object.
+	 *
+	 * @param path the path to the file
+	 * @param initializer is applied to the newly created object before the file is parsed (may be {@code null})
+	 * @return the file handler holding the object and all problems that occurred
+	 */
+	protected final FileHandler<T> getFileHandler(Path path, Consumer<? super T> initializer) {
 		final FileHandler<T> fileHandler = new FileHandler<>(path, null, null);
 		final String content = fileHandler.getContent();
 
@@ -114,6 +126,9 @@ public abstract class AbstractIO<T> {
 			} else {
 				try {
 					final T object = getFactoryManager().getFactory(path, format).create();
+					if (initializer != null) {
+						initializer.accept(object);
+					}
 					fileHandler.setObject(object);
 					fileHandler.setFormat(format);
 					fileHandler.parse(content);
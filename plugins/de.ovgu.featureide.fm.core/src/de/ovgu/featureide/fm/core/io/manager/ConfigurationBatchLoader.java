@@ -0,0 +1,171 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.job.util.ParallelTasks;
+
+/**
+ * Loads many configuration files of the same feature model in parallel.<br> All files are read directly against one shared {@link FeatureModelFormula}.
+ * Thus, the loaded configurations only reference the features and feature names of this model and do not hold their own copies.<br> Loaded files are
+ * cached by their last modification time and size. A file that did not change since it was last loaded is not parsed again.<br> <br> <b>Note:</b> The
+ * returned configurations are shared with the cache and must not be modified. Use {@link Configuration#clone()} to obtain a modifiable copy.
+ */
+public class ConfigurationBatchLoader {
+
+	private static final class CacheEntry {
+
+		private final FileTime lastModifiedTime;
+		private final long size;
+		private final FileHandler<Configuration> fileHandler;
+
+		private CacheEntry(BasicFileAttributes attributes, FileHandler<Configuration> fileHandler) {
+			lastModifiedTime = attributes.lastModifiedTime();
+			size = attributes.size();
+			this.fileHandler = fileHandler;
+		}
+
+		private boolean isValid(BasicFileAttributes attributes) {
+			return (size == attributes.size()) && lastModifiedTime.equals(attributes.lastModifiedTime());
+		}
+
+	}
+
+	private final ConcurrentHashMap<Path, CacheEntry> cache = new ConcurrentHashMap<>();
+	private final FeatureModelFormula formula;
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	public ConfigurationBatchLoader(FeatureModelFormula formula) {
+		this.formula = formula;
+	}
+
+	public FeatureModelFormula getFormula() {
+		return formula;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Loads all given files.
+	 *
+	 * @param files the configuration files
+	 * @return a file handler for each file in the order of the given files
+	 *
+	 * @see #load(Collection, Consumer)
+	 */
+	public List<FileHandler<Configuration>> load(Collection<Path> files) {
+		final List<FileHandler<Configuration>> fileHandlers = new ArrayList<>(files.size());
+		load(files, fileHandlers::add);
+		return fileHandlers;
+	}
+
+	/**
+	 * Loads all given files using multiple threads. The consumer is called on the calling thread for each file in the order of the given files, as soon as the
+	 * file and all previous files are loaded. If the calling thread is interrupted, the remaining files are skipped.
+	 *
+	 * @param files the configuration files
+	 * @param consumer receives the file handler of each file, which holds the configuration and all problems that occurred while reading
+	 */
+	public void load(Collection<Path> files, Consumer<FileHandler<Configuration>> consumer) {
+		final int numberOfThreads = Math.min(threads, files.size());
+		if (numberOfThreads <= 1) {
+			for (final Path file : files) {
+				consumer.accept(load(file));
+			}
+			return;
+		}
+
+		final List<Callable<FileHandler<Configuration>>> tasks = new ArrayList<>(files.size());
+		for (final Path file : files) {
+			tasks.add(() -> load(file));
+		}
+		try {
+			ParallelTasks.call(numberOfThreads, tasks, consumer);
+		} catch (final RuntimeException e) {
+			// An interrupt while waiting skips the remaining files, the interrupt status is already restored
+			if (!(e.getCause() instanceof InterruptedException) || !Thread.currentThread().isInterrupted()) {
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Loads a single file. Returns the cached result, if the file did not change since it was last loaded.
+	 *
+	 * @param file the configuration file
+	 * @return the file handler holding the configuration and all problems that occurred while reading
+	 */
+	public FileHandler<Configuration> load(Path file) {
+		final BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		} catch (final IOException e) {
+			cache.remove(file);
+			final FileHandler<Configuration> fileHandler = new FileHandler<>(file);
+			fileHandler.getLastProblems().add(new Problem(e));
+			return fileHandler;
+		}
+
+		final CacheEntry cacheEntry = cache.get(file);
+		if ((cacheEntry != null) && cacheEntry.isValid(attributes)) {
+			return cacheEntry.fileHandler;
+		}
+		final FileHandler<Configuration> fileHandler = ConfigurationIO.getInstance().getFileHandler(file, formula);
+		cache.put(file, new CacheEntry(attributes, fileHandler));
+		return fileHandler;
+	}
+
+	/**
+	 * Removes all cached files that are not contained in the given collection.
+	 *
+	 * @param files the files to keep
+	 */
+	public void retainCachedFiles(Collection<Path> files) {
+		cache.keySet().retainAll(new HashSet<>(files));
+	}
+
+	public void clearCache() {
+		cache.clear();
+	}
+
+}
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.io.manager;
 
 import java.nio.file.Path;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
 import de.ovgu.featureide.fm.core.base.impl.ConfigurationFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FactoryManager;
@@ -53,6 +54,18 @@ public class ConfigurationIO extends AbstractIO<Configuration> {
 		return ConfigurationFactoryManager.getInstance();
 	}
 
+	/**
+	 * Reads a configuration file directly against the given feature model. In contrast to reading the file first and calling
+	 * {@link Configuration#updateFeatures(FeatureModelFormula)} afterwards, the configuration never holds features of its own, but only those of the model.
+	 *
+	 * @param path the path to the configuration file
+	 * @param formula the formula of the feature model
+	 * @return the file handler holding the configuration and all problems that occurred
+	 */
+	public FileHandler<Configuration> getFileHandler(Path path, FeatureModelFormula formula) {
+		return getFileHandler(path, configuration -> configuration.updateFeatures(formula));
+	}
+
 	public Configuration load(Path path, IFeatureModelManager fmManager) {
 		final FileHandler<Configuration> fileHandler = getFileHandler(path);
 		final Configuration configuration = (fileHandler == null) ? null : fileHandler.getObject();
@@ -87,6 +87,7 @@ public class ConfigurationManager extends AFileManager<Configuration> {
 				final FeatureModelFormula formula = featureModelManager.getPersistentFormula();
 				getObject().updateFeatures(formula);
 				getVarObject().updateFeatures(formula);
+				resetFingerprint();
 			}
 		} finally {
 			fileOperationLock.unlock();
@@ -105,6 +106,7 @@ public class ConfigurationManager extends AFileManager<Configuration> {
 				getObject().updateFeatures(formula);
 				final Configuration configuration = getVarObject();
 				configuration.updateFeatures(formula);
+				resetFingerprint();
 			} finally {
 				fileOperationLock.unlock();
 			}
@@ -20,16 +20,36 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Literal;
+import org.prop4j.Node;
 
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaCache;
+import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModel;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
 
 /**
  * Responsible to load and save all information for a feature model instance.
@@ -48,6 +68,7 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 
 	private FeatureModelFormula persistentFormula = null;
 	private FeatureModelFormula variableFormula = null;
+	private SoftReference<FeatureModelFormula> previousVariableFormula = null;
 
 	public static FeatureModelManager getInstance(Path path) {
 		return getOrCreateInstance(path, FeatureModelManager.class, null);
@@ -104,7 +125,7 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	@Override
 	public FeatureModelFormula getPersistentFormula() {
 		if (persistentFormula == null) {
-			persistentFormula = new FeatureModelFormula(persistentObject);
+			persistentFormula = createFormula(persistentObject);
 		}
 		return persistentFormula;
 	}
@@ -114,7 +135,11 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		fileOperationLock.lock();
 		try {
 			if (variableFormula == null) {
-				variableFormula = new FeatureModelFormula(getSnapshot());
+				variableFormula = createFormula(getSnapshot());
+				if (previousVariableFormula != null) {
+					variableFormula.setPreviousFormula(previousVariableFormula.get());
+					previousVariableFormula = null;
+				}
 			}
 			return variableFormula;
 		} finally {
@@ -122,11 +147,20 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		}
 	}
 
+	private FeatureModelFormula createFormula(IFeatureModel featureModel) {
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		// Is null unless the application enabled the persistent cache
+		formula.setCache(FormulaCache.getInstance(getPath()));
+		return formula;
+	}
+
 	@Override
 	protected void resetSnapshot(int changeIndicator) {
 		super.resetSnapshot(changeIndicator);
 		if (variableFormula != null) {
 			if (changeIndicator <= CHANGE_DEPENDENCIES) {
+				// Keep the old formula, so that derived elements can be updated incrementally (released by the garbage collector if memory is needed)
+				previousVariableFormula = new SoftReference<>(variableFormula);
 				variableFormula = null;
 			} else if (changeIndicator == CHANGE_MODEL_PROPERTY) {
 				// Not nessessary to rebuild the variable formula, just copy the properties to the variable formula's model
@@ -135,6 +169,111 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		}
 	}
 
+	/**
+	 * Computes a structural fingerprint over the feature tree, the constraints, and all properties of the given feature model.<br> Only used for the
+	 * {@link XmlFeatureModelFormat}, as it stores all of this information. For other formats and for models of other classes than {@link FeatureModel}, which
+	 * may contain additional information, the default implementation is used.<br> Every string is digested together with its length, so that different
+	 * models cannot produce the same input for the digest.
+	 */
+	@Override
+	protected byte[] computeFingerprint(IFeatureModel featureModel) {
+		if ((featureModel.getClass() != FeatureModel.class) || !XmlFeatureModelFormat.ID.equals(getFormat().getId())) {
+			return super.computeFingerprint(featureModel);
+		}
+		final MessageDigest digest = createDigest();
+		updateProperties(digest, featureModel.getProperty().getProperties());
+		update(digest, featureModel.getProperty().getComments());
+		update(digest, featureModel.isFeatureOrderUserDefined() ? featureModel.getFeatureOrderList() : null);
+		final IFeatureStructure root = featureModel.getStructure().getRoot();
+		if (root != null) {
+			update(digest, root);
+		}
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			update(digest, constraint.getNode());
+			update(digest, constraint.getDescription());
+			update(digest, new TreeSet<>(constraint.getTags()));
+			updateProperties(digest, constraint.getCustomProperties().getProperties());
+		}
+		return digest.digest();
+	}
+
+	private static void update(MessageDigest digest, IFeatureStructure structure) {
+		update(digest, structure.getFeature().getName());
+		update(digest, structure.getFeature().getProperty().getDescription());
+		updateProperties(digest, structure.getFeature().getCustomProperties().getProperties());
+		update(digest, (structure.isAbstract() ? 1 : 0) | (structure.isMandatory() ? 2 : 0) | (structure.isHidden() ? 4 : 0) | (structure.isAnd() ? 8 : 0)
+			| (structure.isOr() ? 16 : 0) | (structure.isAlternative() ? 32 : 0));
+		update(digest, structure.getChildrenCount());
+		for (final IFeatureStructure child : structure.getChildren()) {
+			update(digest, child);
+		}
+	}
+
+	private static void update(MessageDigest digest, Node node) {
+		if (node == null) {
+			update(digest, (String) null);
+			return;
+		}
+		update(digest, node.getClass().getName());
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			update(digest, String.valueOf(literal.var));
+			update(digest, literal.positive ? 1 : 0);
+			return;
+		} else if (node instanceof AtMost) {
+			update(digest, ((AtMost) node).max);
+		} else if (node instanceof AtLeast) {
+			update(digest, ((AtLeast) node).min);
+		} else if (node instanceof Choose) {
+			update(digest, ((Choose) node).n);
+		}
+		update(digest, node.getChildren().length);
+		for (final Node child : node.getChildren()) {
+			update(digest, child);
+		}
+	}
+
+	private static void updateProperties(MessageDigest digest, Collection<Entry> properties) {
+		// Sorted, since the iteration order of the property set is not defined
+		final List<Entry> entries = new ArrayList<>(properties);
+		entries.sort(Comparator.comparing(Entry::getKey, Comparator.nullsFirst(Comparator.<String> naturalOrder())).thenComparing(Entry::getType,
+				Comparator.nullsFirst(Comparator.<String> naturalOrder())));
+		update(digest, entries.size());
+		for (final Entry entry : entries) {
+			update(digest, entry.getKey());
+			update(digest, entry.getType());
+			update(digest, entry.getValue());
+		}
+	}
+
+	private static void update(MessageDigest digest, Collection<String> strings) {
+		if (strings == null) {
+			update(digest, -1);
+			return;
+		}
+		update(digest, strings.size());
+		for (final String string : strings) {
+			update(digest, string);
+		}
+	}
+
+	private static void update(MessageDigest digest, String string) {
+		if (string == null) {
+			update(digest, -1);
+		} else {
+			final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			update(digest, bytes.length);
+			digest.update(bytes);
+		}
+	}
+
+	private static void update(MessageDigest digest, int value) {
+		digest.update((byte) (value >>> 24));
+		digest.update((byte) (value >>> 16));
+		digest.update((byte) (value >>> 8));
+		digest.update((byte) value);
+	}
+
 	@Override
 	protected void setPersistentObject(IFeatureModel persistentObject) {
 		super.setPersistentObject(persistentObject);
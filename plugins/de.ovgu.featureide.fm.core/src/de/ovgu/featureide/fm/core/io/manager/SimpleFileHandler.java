@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.core.io.manager;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -33,6 +34,7 @@ import java.util.List;
 import de.ovgu.featureide.fm.core.base.impl.FormatManager;
 import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 
@@ -126,17 +128,19 @@ public class SimpleFileHandler<T> {
 	}
 
 	public static <T> ProblemList load(SimpleFileHandler<T> fileHandler, FormatManager<T> formatManager) {
-		final String content = fileHandler.getContent();
-
-		if (content != null) {
-			final String fileName = fileHandler.getPath().getFileName().toString();
-			final IPersistentFormat<T> format = formatManager.getFormatByContent(content, fileName);
-			if (format == null) {
-				fileHandler.getLastProblems().add(new Problem(new FormatManager.NoSuchExtensionException("No format found for file \"" + fileName + "\"!")));
-			} else {
-				fileHandler.setFormat(format);
-				fileHandler.parse(content);
-			}
+		final IPersistentFormat<T> format;
+		final String fileName = fileHandler.getPath().getFileName().toString();
+		try (InputStream inputStream = fileHandler.openInputStream()) {
+			format = formatManager.getFormatByContent(new LazyReader(inputStream), fileName);
+		} catch (final Exception e) {
+			fileHandler.getLastProblems().add(new Problem(e));
+			return fileHandler.getLastProblems();
+		}
+		if (format == null) {
+			fileHandler.getLastProblems().add(new Problem(new FormatManager.NoSuchExtensionException("No format found for file \"" + fileName + "\"!")));
+		} else {
+			fileHandler.setFormat(format);
+			fileHandler.readFile();
 		}
 		return fileHandler.getLastProblems();
 	}
@@ -203,14 +207,38 @@ public class SimpleFileHandler<T> {
 
 	public boolean read() {
 		problemList.clear();
-		return parse(getContent());
+		return readFile();
 	}
 
 	public boolean read(InputStream inputStream) {
 		problemList.clear();
+		if (supportsStreaming()) {
+			try (InputStream in = inputStream) {
+				return parse(in);
+			} catch (final Exception e) {
+				problemList.add(new Problem(e));
+				return false;
+			}
+		}
 		return parse(getContent(inputStream));
 	}
 
+	private boolean readFile() {
+		if (supportsStreaming()) {
+			try (InputStream inputStream = openInputStream()) {
+				return parse(inputStream);
+			} catch (final Exception e) {
+				problemList.add(new Problem(e));
+				return false;
+			}
+		}
+		return parse(getContent());
+	}
+
+	private boolean supportsStreaming() {
+		return (format != null) && format.supportsStreaming();
+	}
+
 	String getContent() {
 		try {
 			return readContent();
@@ -227,6 +255,13 @@ public class SimpleFileHandler<T> {
 		return new String(FileSystem.read(path), DEFAULT_CHARSET);
 	}
 
+	InputStream openInputStream() throws IOException {
+		if (!Files.exists(path)) {
+			throw new FileNotFoundException(path.toString());
+		}
+		return FileSystem.newInputStream(path);
+	}
+
 	private String getContent(InputStream inputStream) {
 		try {
 			final StringBuilder sb = new StringBuilder();
@@ -258,11 +293,31 @@ public class SimpleFileHandler<T> {
 		return !problemList.containsError();
 	}
 
+	private boolean parse(InputStream inputStream) {
+		try {
+			final List<Problem> parsingProblemList = format.getInstance().read(object, inputStream, path);
+			if (parsingProblemList != null) {
+				problemList.addAll(parsingProblemList);
+			}
+		} catch (final Exception e) {
+			problemList.add(new Problem(e));
+		}
+
+		return !problemList.containsError();
+	}
+
 	public boolean write() {
 		problemList.clear();
 		try {
-			final byte[] content = format.getInstance().write(object).getBytes(DEFAULT_CHARSET);
-			FileSystem.write(path, content);
+			if (supportsStreaming()) {
+				// keep the old file if the format fails halfway
+				final ByteArrayOutputStream content = new ByteArrayOutputStream();
+				format.getInstance().write(object, content);
+				FileSystem.write(path, content.toByteArray());
+			} else {
+				final byte[] content = format.getInstance().write(object).getBytes(DEFAULT_CHARSET);
+				FileSystem.write(path, content);
+			}
 		} catch (final Exception e) {
 			problemList.add(new Problem(e));
 		}
@@ -0,0 +1,188 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.sample;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationSink;
+
+/**
+ * Writes configurations to a file as soon as they are added. The output is flushed periodically, such that a file can be {@link #resume(IConfigurationSink)
+ * continued} after the writing process was interrupted.
+ */
+public abstract class AConfigurationListWriter implements IConfigurationSink, Closeable {
+
+	public static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+	protected final Path path;
+	protected final IVariables variables;
+
+	private byte[] header;
+	private OutputStream out;
+	private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+	private int unflushedCount;
+	private long count;
+
+	public AConfigurationListWriter(Path path, IVariables variables) {
+		this.path = path;
+		this.variables = variables;
+	}
+
+	/**
+	 * Creates a new file (or overwrites an existing one) and writes the header.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public void open() throws IOException {
+		out = new BufferedOutputStream(Files.newOutputStream(path));
+		count = 0;
+		unflushedCount = 0;
+		out.write(getHeader());
+		out.flush();
+	}
+
+	/**
+	 * Continues an existing file. All complete configurations in the file are passed to the given sink, an incomplete configuration at the end of the file
+	 * is removed, and new configurations are appended. Creates a new file, if it does not exist yet.
+	 *
+	 * @param existingConfigurations receives the configurations that are already contained in the file (may be {@code null})
+	 * @throws IOException if the file cannot be read or does not match the variables of this writer
+	 */
+	public void resume(IConfigurationSink existingConfigurations) throws IOException {
+		if (!Files.exists(path) || (Files.size(path) == 0)) {
+			open();
+			return;
+		}
+		final byte[] header = getHeader();
+		final long[] validLength = new long[1];
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+			final byte[] existingHeader = new byte[header.length];
+			int headerLength = 0;
+			while (headerLength < header.length) {
+				final int b = in.read();
+				if (b < 0) {
+					break;
+				}
+				existingHeader[headerLength++] = (byte) b;
+			}
+			if (!Arrays.equals(header, existingHeader)) {
+				throw new IOException("Header of " + path + " does not match the variables.");
+			}
+			count = readConfigurations(in, existingConfigurations, validLength);
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(header.length + validLength[0]);
+		}
+		out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.APPEND));
+		unflushedCount = 0;
+	}
+
+	/**
+	 * Writes the given configuration.
+	 *
+	 * @param configuration a complete configuration in {@link LiteralSet.Order#INDEX index order}
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if the configuration does not contain exactly one literal per variable
+	 */
+	@Override
+	public void add(LiteralSet configuration) throws IOException {
+		if (configuration.size() != variables.size()) {
+			throw new IllegalArgumentException("Configuration contains " + configuration.size() + " literals, but there are " + variables.size() + " variables.");
+		}
+		writeConfiguration(out, configuration, count++);
+		if (++unflushedCount >= flushInterval) {
+			flush();
+		}
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+		unflushedCount = 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (out != null) {
+			out.close();
+			out = null;
+		}
+	}
+
+	/**
+	 * @return the number of configurations in the file, including configurations that were already contained in a {@link #resume(IConfigurationSink)
+	 *         resumed} file
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	public int getFlushInterval() {
+		return flushInterval;
+	}
+
+	/**
+	 * Sets after how many configurations the written data is passed to the file system.
+	 *
+	 * @param flushInterval the number of configurations
+	 */
+	public void setFlushInterval(int flushInterval) {
+		this.flushInterval = Math.max(1, flushInterval);
+	}
+
+	private byte[] getHeader() throws IOException {
+		if (header == null) {
+			header = createHeader();
+		}
+		return header;
+	}
+
+	/**
+	 * @return the header of the file, which depends only on the variables of this writer
+	 * @throws IOException if the header cannot be created
+	 */
+	protected abstract byte[] createHeader() throws IOException;
+
+	protected abstract void writeConfiguration(OutputStream out, LiteralSet configuration, long index) throws IOException;
+
+	/**
+	 * Reads all complete configurations of an existing file.
+	 *
+	 * @param in the file content following the header
+	 * @param sink receives the read configurations (may be {@code null})
+	 * @param validLength must be set to the number of bytes that belong to the complete configurations
+	 * @return the number of complete configurations
+	 * @throws IOException if the file cannot be read
+	 */
+	protected abstract long readConfigurations(InputStream in, IConfigurationSink sink, long[] validLength) throws IOException;
+
+}
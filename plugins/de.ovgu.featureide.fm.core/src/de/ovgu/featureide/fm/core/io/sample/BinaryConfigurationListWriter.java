@@ -0,0 +1,159 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.sample;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationSink;
+
+/**
+ * Writes configurations as bit vectors. The header contains a magic number, a version, and the variable names. Each configuration is stored in
+ * {@code ceil(n / 8)} bytes, where bit {@code i % 8} of byte {@code i / 8} is set, iff variable {@code i + 1} is selected. As all configurations have the
+ * same length, the number of configurations follows from the file size.
+ */
+public class BinaryConfigurationListWriter extends AConfigurationListWriter {
+
+	public static final int MAGIC_NUMBER = 0x46494453;
+	public static final byte VERSION = 1;
+
+	private final byte[] bits;
+
+	public BinaryConfigurationListWriter(Path path, IVariables variables) {
+		super(path, variables);
+		bits = new byte[(variables.size() + 7) >>> 3];
+	}
+
+	@Override
+	protected byte[] createHeader() throws IOException {
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteOut)) {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeByte(VERSION);
+			final String[] names = variables.getNames();
+			out.writeInt(names.length - 1);
+			for (int i = 1; i < names.length; i++) {
+				out.writeUTF(names[i]);
+			}
+		}
+		return byteOut.toByteArray();
+	}
+
+	@Override
+	protected void writeConfiguration(OutputStream out, LiteralSet configuration, long index) throws IOException {
+		encode(configuration.getLiterals(), bits);
+		out.write(bits);
+	}
+
+	@Override
+	protected long readConfigurations(InputStream in, IConfigurationSink sink, long[] validLength) throws IOException {
+		final int numberOfVariables = variables.size();
+		long count = 0;
+		while (true) {
+			int length = 0;
+			while (length < bits.length) {
+				final int read = in.read(bits, length, bits.length - length);
+				if (read < 0) {
+					break;
+				}
+				length += read;
+			}
+			if ((length < bits.length) || (bits.length == 0)) {
+				break;
+			}
+			count++;
+			if (sink != null) {
+				sink.add(new LiteralSet(decode(bits, numberOfVariables), Order.INDEX, false));
+			}
+		}
+		validLength[0] = count * bits.length;
+		return count;
+	}
+
+	/**
+	 * Reads a file that was written by this writer.
+	 *
+	 * @param path the file
+	 * @param sink receives all complete configurations of the file
+	 * @return the variables of the file
+	 * @throws IOException if the file cannot be read or has a wrong format
+	 */
+	public static Variables read(Path path, IConfigurationSink sink) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if ((in.readInt() != MAGIC_NUMBER) || (in.readByte() != VERSION)) {
+				throw new IOException("Unsupported format: " + path);
+			}
+			final int numberOfVariables = in.readInt();
+			final ArrayList<String> names = new ArrayList<>(numberOfVariables);
+			for (int i = 0; i < numberOfVariables; i++) {
+				names.add(in.readUTF());
+			}
+			final Variables variables = new Variables(names);
+			new BinaryConfigurationListWriter(path, variables).readConfigurations(in, sink, new long[1]);
+			return variables;
+		}
+	}
+
+	/**
+	 * Stores the selection of each variable in a bit vector.
+	 *
+	 * @param literals the literals of a configuration (ordered by variable index)
+	 * @param bits the bit vector with a length of at least {@code ceil(literals.length / 8)} bytes
+	 */
+	public static void encode(int[] literals, byte[] bits) {
+		for (int i = 0; i < bits.length; i++) {
+			bits[i] = 0;
+		}
+		for (int i = 0; i < literals.length; i++) {
+			if (literals[i] > 0) {
+				bits[i >>> 3] |= 1 << (i & 7);
+			}
+		}
+	}
+
+	/**
+	 * Inverse of {@link #encode(int[], byte[])}.
+	 *
+	 * @param bits the bit vector
+	 * @param numberOfVariables the number of variables
+	 * @return the literals of the configuration (ordered by variable index)
+	 */
+	public static int[] decode(byte[] bits, int numberOfVariables) {
+		final int[] literals = new int[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			literals[i] = (bits[i >>> 3] & (1 << (i & 7))) != 0 ? i + 1 : -(i + 1);
+		}
+		return literals;
+	}
+
+}
@@ -0,0 +1,117 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.sample;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationSink;
+import de.ovgu.featureide.fm.core.io.csv.ConfigurationListFormat;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Writes configurations in the CSV format of {@link ConfigurationListFormat}.
+ */
+public class CSVConfigurationListWriter extends AConfigurationListWriter {
+
+	private final byte[] line;
+
+	public CSVConfigurationListWriter(Path path, IVariables variables) {
+		super(path, variables);
+		line = new byte[(2 * variables.size()) + 1];
+		for (int i = 0; i < (line.length - 1); i += 2) {
+			line[i] = ';';
+		}
+		line[line.length - 1] = '\n';
+	}
+
+	@Override
+	protected byte[] createHeader() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("Configuration");
+		final String[] names = variables.getNames();
+		for (int i = 1; i < names.length; i++) {
+			sb.append(';');
+			sb.append(names[i]);
+		}
+		sb.append('\n');
+		return sb.toString().getBytes(SimpleFileHandler.DEFAULT_CHARSET);
+	}
+
+	@Override
+	protected void writeConfiguration(OutputStream out, LiteralSet configuration, long index) throws IOException {
+		// add() ensures one literal per variable, so every field of the reused line is overwritten
+		final int[] literals = configuration.getLiterals();
+		for (int i = 0; i < literals.length; i++) {
+			line[(2 * i) + 1] = (byte) (literals[i] < 0 ? '0' : '1');
+		}
+		out.write(Long.toString(index).getBytes(StandardCharsets.US_ASCII));
+		out.write(line);
+	}
+
+	@Override
+	protected long readConfigurations(InputStream in, IConfigurationSink sink, long[] validLength) throws IOException {
+		final int numberOfVariables = variables.size();
+		final int[] literals = new int[numberOfVariables];
+		long length = 0;
+		long count = 0;
+		while (true) {
+			long lineLength = 0;
+			int variable = -1;
+			int fieldLength = 0;
+			boolean valid = true;
+			int b;
+			while (((b = in.read()) >= 0) && (b != '\n')) {
+				lineLength++;
+				if (b == ';') {
+					valid &= (variable < 0) || (fieldLength == 1);
+					variable++;
+					fieldLength = 0;
+				} else if (variable >= 0) {
+					fieldLength++;
+					if ((variable < numberOfVariables) && ((b == '0') || (b == '1'))) {
+						literals[variable] = (b == '0') ? -(variable + 1) : (variable + 1);
+					} else {
+						valid = false;
+					}
+				}
+			}
+			if ((b < 0) || !valid || ((variable >= 0) && (fieldLength != 1)) || (variable != (numberOfVariables - 1))) {
+				break;
+			}
+			length += lineLength + 1;
+			count++;
+			if (sink != null) {
+				sink.add(new LiteralSet(Arrays.copyOf(literals, numberOfVariables), Order.INDEX, false));
+			}
+		}
+		validLength[0] = length;
+		return count;
+	}
+
+}
@@ -36,8 +36,10 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.THE_FEATURE_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.UNKNOWN_XML_TAG;
 
 import java.io.BufferedReader;
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.StringReader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -125,6 +127,17 @@ public class SXFMFormat extends AXMLFormat<IFeatureModel> implements IFeatureMod
 		return text;
 	}
 
+	@Override
+	protected Writer prettyPrint(Writer writer) {
+		return new FilterWriter(writer) {
+
+			@Override
+			public void close() throws IOException {
+				flush();
+			}
+		};
+	}
+
 	/**
 	 * Creates the DOM Document Representation from the feature model fmodel by using createXmlDocRec
 	 *
@@ -502,6 +502,8 @@ public class UVLFeatureModelFormat extends AFeatureModelFormat {
 
 	@Override
 	public boolean supportsContent(LazyReader reader) {
+		// Attributes may be declared anywhere in the model
+		while (reader.expand()) {}
 		return supportsContent((CharSequence) reader);
 	}
 
@@ -0,0 +1,250 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.xml.sax.InputSource;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.io.APersistentFormat;
+import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.LazyReader;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Common base of all XML formats. Provides the pretty printing of the output and the handling of problems. Formats that build a DOM document extend
+ * {@link AXMLFormat}, formats that read and write the XML directly extend {@link AXMLStreamFormat}.
+ */
+public abstract class AXMLBaseFormat<T> extends APersistentFormat<T> implements IPersistentFormat<T>, XMLFeatureModelTags {
+
+	public static final String FILE_EXTENSION = "xml";
+
+	private static final Pattern completeTagPattern = Pattern.compile("<(\\w+)[^\\/]*>.*<\\/\\1.*>");
+	private static final Pattern incompleteTagPattern = Pattern.compile("(<\\w+[^\\/>]*>)|(<\\/\\w+[^>]*>)");
+
+	protected T object;
+
+	protected String prettyPrint(String text) {
+		final StringBuilder result = new StringBuilder();
+		try (final Writer writer = new PrettyPrintWriter(result)) {
+			writer.write(text);
+		} catch (final IOException e) {
+			Logger.logError(e);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Returns a writer that formats all written text in the same way as {@link #prettyPrint(String)} and passes the result to the given writer. Closing the
+	 * returned writer completes the output, but does not close the given writer. Subclasses that override {@link #prettyPrint(String)} should override this
+	 * method accordingly.
+	 *
+	 * @param writer the target writer
+	 * @return a writer that formats its input
+	 */
+	protected Writer prettyPrint(Writer writer) {
+		return new PrettyPrintWriter(writer);
+	}
+
+	/**
+	 * Indents each written line according to the nesting of its tags. Each line is processed as soon as it is complete.
+	 */
+	private static final class PrettyPrintWriter extends Writer {
+
+		private final Appendable result;
+		private final StringBuilder line = new StringBuilder();
+		private int indentLevel = 0;
+
+		private PrettyPrintWriter(Appendable result) {
+			this.result = result;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			final int end = off + len;
+			for (int i = off; i < end; i++) {
+				final char c = cbuf[i];
+				if ((c == '\n') || (c == '\r')) {
+					printLine();
+				} else {
+					line.append(c);
+				}
+			}
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			final int end = off + len;
+			for (int i = off; i < end; i++) {
+				final char c = str.charAt(i);
+				if ((c == '\n') || (c == '\r')) {
+					printLine();
+				} else {
+					line.append(c);
+				}
+			}
+		}
+
+		private void printLine() throws IOException {
+			final String trimmedLine = line.toString().trim();
+			line.setLength(0);
+			if (!trimmedLine.isEmpty()) {
+				if (completeTagPattern.matcher(trimmedLine).matches()) {
+					appendLine(trimmedLine);
+				} else {
+					final Matcher matcher = incompleteTagPattern.matcher(trimmedLine);
+					int start = 0;
+					while (matcher.find()) {
+						appendLine(trimmedLine.substring(start, matcher.start()));
+						final String openTag = matcher.group(1);
+						final String closeTag = matcher.group(2);
+						if (openTag != null) {
+							appendLine(openTag);
+							indentLevel++;
+						} else if (closeTag != null) {
+							indentLevel--;
+							appendLine(closeTag);
+						}
+						start = matcher.end();
+					}
+					appendLine(trimmedLine.substring(start, trimmedLine.length()));
+				}
+			}
+		}
+
+		private void appendLine(String line) throws IOException {
+			final String trimmedLine = line.trim();
+			if (!trimmedLine.isEmpty()) {
+				for (int i = 0; i < indentLevel; i++) {
+					result.append("\t");
+				}
+				result.append(trimmedLine);
+				result.append("\n");
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (result instanceof Writer) {
+				((Writer) result).flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			printLine();
+			flush();
+		}
+
+	}
+
+	/**
+	 * Throws an error that will be used for error markers
+	 *
+	 * @param message The error message
+	 * @param line The line that causes the error.
+	 */
+	protected static void throwError(String message, int line) throws UnsupportedModelException {
+		throw new UnsupportedModelException(message, line);
+	}
+
+	protected void addToProblemsList(String message, int line) {
+		addProblem(new Problem(message, line, Severity.ERROR));
+	}
+
+	protected void throwWarning(String message, int line) {
+		addProblem(new Problem(message, line, Severity.WARNING));
+	}
+
+	/**
+	 * Can be overwritten be implementing classes to control how to handle problems. Does nothing on default.
+	 *
+	 * @param problem a problem.
+	 */
+	protected void addProblem(final Problem problem) {}
+
+	@Override
+	public String getSuffix() {
+		return FILE_EXTENSION;
+	}
+
+	@Override
+	public ProblemList read(T object, CharSequence source) {
+		return read(object, new InputSource(new StringReader(source.toString())));
+	}
+
+	@Override
+	public ProblemList read(T object, InputStream source, Path path) throws IOException {
+		return read(object, new InputSource(source));
+	}
+
+	/**
+	 * Reads the given XML source into the given object.
+	 *
+	 * @param object the object to read into
+	 * @param source the XML source
+	 * @return list of warnings / errors that occurred during read
+	 */
+	protected abstract ProblemList read(T object, InputSource source);
+
+	@Override
+	public boolean supportsRead() {
+		return true;
+	}
+
+	@Override
+	public boolean supportsWrite() {
+		return true;
+	}
+
+	@Override
+	public boolean supportsStreaming() {
+		return true;
+	}
+
+	protected final boolean supportsContent(CharSequence content, Pattern pattern) {
+		return supportsRead() && pattern.matcher(content).find();
+	}
+
+	protected final boolean supportsContent(LazyReader reader, Pattern pattern) {
+		if (supportsRead()) {
+			final Matcher matcher = pattern.matcher("");
+			do {
+				matcher.reset(reader);
+				if (matcher.find()) {
+					return true;
+				}
+			} while (matcher.hitEnd() && reader.expand());
+		}
+		return false;
+	}
+
+}
@@ -22,14 +22,14 @@ package de.ovgu.featureide.fm.core.io.xml;
 
 import static de.ovgu.featureide.fm.core.localization.StringTable.YES;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -49,27 +49,18 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXParseException;
 
 import de.ovgu.featureide.fm.core.Logger;
-import de.ovgu.featureide.fm.core.io.APersistentFormat;
-import de.ovgu.featureide.fm.core.io.IPersistentFormat;
-import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.Problem.Severity;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 
 /**
- * Prints a feature model in XML format.
+ * Reads and writes an XML format via a DOM document.
  *
  * @author Sebastian Krieter
  */
-public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPersistentFormat<T>, XMLFeatureModelTags {
-
-	public static final String FILE_EXTENSION = "xml";
-
-	private static final Pattern completeTagPattern = Pattern.compile("<(\\w+)[^\\/]*>.*<\\/\\1.*>");
-	private static final Pattern incompleteTagPattern = Pattern.compile("(<\\w+[^\\/>]*>)|(<\\/\\w+[^>]*>)");
-
-	protected T object;
+public abstract class AXMLFormat<T> extends AXMLBaseFormat<T> {
 
 	/**
 	 * Returns a list of elements within the given node list.
@@ -89,52 +80,6 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return elements;
 	}
 
-	protected String prettyPrint(String text) {
-		final StringBuilder result = new StringBuilder();
-		int indentLevel = 0;
-		try (final BufferedReader reader = new BufferedReader(new StringReader(text))) {
-			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
-				final String trimmedLine = line.trim();
-				if (!trimmedLine.isEmpty()) {
-					if (completeTagPattern.matcher(trimmedLine).matches()) {
-						appendLine(result, indentLevel, trimmedLine);
-					} else {
-						final Matcher matcher = incompleteTagPattern.matcher(trimmedLine);
-						int start = 0;
-						while (matcher.find()) {
-							appendLine(result, indentLevel, trimmedLine.substring(start, matcher.start()));
-							final String openTag = matcher.group(1);
-							final String closeTag = matcher.group(2);
-							if (openTag != null) {
-								appendLine(result, indentLevel, openTag);
-								indentLevel++;
-							} else if (closeTag != null) {
-								indentLevel--;
-								appendLine(result, indentLevel, closeTag);
-							}
-							start = matcher.end();
-						}
-						appendLine(result, indentLevel, trimmedLine.substring(start, trimmedLine.length()));
-					}
-				}
-			}
-		} catch (final IOException e) {
-			Logger.logError(e);
-		}
-		return result.toString();
-	}
-
-	private void appendLine(final StringBuilder result, int indentLevel, String line) {
-		final String trimmedLine = line.trim();
-		if (!trimmedLine.isEmpty()) {
-			for (int i = 0; i < indentLevel; i++) {
-				result.append("\t");
-			}
-			result.append(trimmedLine);
-			result.append("\n");
-		}
-	}
-
 	protected List<Element> getElement(final Element element, final String nodeName, boolean allowEmpty) throws UnsupportedModelException {
 		final List<Element> elements = getElements(element.getElementsByTagName(nodeName));
 		if (elements.size() != 1) {
@@ -179,26 +124,14 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		addProblem(new Problem(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()), Severity.WARNING));
 	}
 
-	/**
-	 * Can be overwritten be implementing classes to control how to handle problems. Does nothing on default.
-	 *
-	 * @param problem a problem.
-	 */
-	protected void addProblem(final Problem problem) {}
-
-	@Override
-	public String getSuffix() {
-		return FILE_EXTENSION;
-	}
-
 	@Override
-	public ProblemList read(T object, CharSequence source) {
+	protected ProblemList read(T object, InputSource source) {
 		this.object = object;
 
 		final ProblemList lastWarnings = new ProblemList();
 		try {
 			final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-			SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(new StringReader(source.toString())), new PositionalXMLHandler(doc));
+			SAXParserFactory.newInstance().newSAXParser().parse(source, new PositionalXMLHandler(doc));
 			doc.getDocumentElement().normalize();
 			readDocument(doc, lastWarnings);
 		} catch (final SAXParseException e) {
@@ -214,6 +147,36 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 
 	@Override
 	public String write(T object) {
+		final Document doc = createDocument(object);
+		if (doc == null) {
+			return "";
+		}
+		try {
+			return prettyPrint(transform(doc, new StringWriter()).toString());
+		} catch (final IOException | TransformerException e) {
+			Logger.logError(e);
+			return "";
+		}
+	}
+
+	@Override
+	public void write(T object, OutputStream target) throws IOException {
+		final Document doc = createDocument(object);
+		if (doc == null) {
+			return;
+		}
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(target, SimpleFileHandler.DEFAULT_CHARSET));
+		try {
+			final Writer prettyPrintWriter = prettyPrint(writer);
+			transform(doc, prettyPrintWriter);
+			prettyPrintWriter.close();
+		} catch (final TransformerException e) {
+			throw new IOException(e);
+		}
+		writer.flush();
+	}
+
+	private Document createDocument(T object) {
 		this.object = object;
 
 		// Create Empty DOM Document
@@ -228,52 +191,22 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 			db = dbf.newDocumentBuilder();
 		} catch (final ParserConfigurationException pce) {
 			Logger.logError(pce);
-			return "";
+			return null;
 		}
 		final Document doc = db.newDocument();
 		// Create the XML Representation
 		writeDocument(doc);
-
-		try (StringWriter stringWriter = new StringWriter()) {
-			final StreamResult streamResult = new StreamResult(stringWriter);
-			final TransformerFactory factory = TransformerFactory.newInstance();
-			factory.setAttribute("indent-number", Integer.valueOf(4));
-			final Transformer transformer = factory.newTransformer();
-			transformer.setOutputProperty(OutputKeys.METHOD, FILE_EXTENSION);
-			transformer.setOutputProperty(OutputKeys.INDENT, YES);
-			transformer.transform(new DOMSource(doc), streamResult);
-			return prettyPrint(streamResult.getWriter().toString());
-		} catch (final IOException | TransformerException e) {
-			Logger.logError(e);
-			return "";
-		}
-	}
-
-	@Override
-	public boolean supportsRead() {
-		return true;
+		return doc;
 	}
 
-	@Override
-	public boolean supportsWrite() {
-		return true;
-	}
-
-	protected final boolean supportsContent(CharSequence content, Pattern pattern) {
-		return supportsRead() && pattern.matcher(content).find();
-	}
-
-	protected final boolean supportsContent(LazyReader reader, Pattern pattern) {
-		if (supportsRead()) {
-			final Matcher matcher = pattern.matcher("");
-			do {
-				matcher.reset(reader);
-				if (matcher.find()) {
-					return true;
-				}
-			} while (matcher.hitEnd() && reader.expand());
-		}
-		return false;
+	private <W extends Writer> W transform(Document doc, W writer) throws IOException, TransformerException {
+		final TransformerFactory factory = TransformerFactory.newInstance();
+		factory.setAttribute("indent-number", Integer.valueOf(4));
+		final Transformer transformer = factory.newTransformer();
+		transformer.setOutputProperty(OutputKeys.METHOD, FILE_EXTENSION);
+		transformer.setOutputProperty(OutputKeys.INDENT, YES);
+		transformer.transform(new DOMSource(doc), new StreamResult(writer));
+		return writer;
 	}
 
 	/**
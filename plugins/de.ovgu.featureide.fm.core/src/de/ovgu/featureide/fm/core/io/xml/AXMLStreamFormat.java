@@ -0,0 +1,204 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.xml.sax.InputSource;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Reads and writes an XML format in a single pass with a {@link XMLStreamReader} and a {@link XMLPrinter} without building a DOM document.
+ */
+public abstract class AXMLStreamFormat<T> extends AXMLBaseFormat<T> {
+
+	private static final Pattern STREAM_ERROR_POSITION = Pattern.compile("\\AParseError at \\[row,col\\]:\\[\\d+,\\d+\\]\\s*Message: ");
+
+	@Override
+	protected ProblemList read(T object, InputSource source) {
+		this.object = object;
+
+		final ProblemList lastWarnings = new ProblemList();
+		try {
+			final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+			inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			final XMLStreamReader reader = (source.getCharacterStream() != null) ? inputFactory.createXMLStreamReader(source.getCharacterStream())
+				: inputFactory.createXMLStreamReader(source.getByteStream());
+			try {
+				readStream(reader, lastWarnings);
+			} finally {
+				reader.close();
+			}
+		} catch (final XMLStreamException e) {
+			// The position is already part of the problem
+			final String message = STREAM_ERROR_POSITION.matcher(e.getMessage()).replaceFirst("");
+			lastWarnings.add(new Problem(message, (e.getLocation() == null) ? 0 : e.getLocation().getLineNumber(), e));
+		} catch (final UnsupportedModelException e) {
+			lastWarnings.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			lastWarnings.add(new Problem(e));
+		}
+
+		return lastWarnings;
+	}
+
+	@Override
+	public String write(T object) {
+		final StringWriter writer = new StringWriter();
+		try {
+			print(object, writer);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return "";
+		}
+		return writer.toString();
+	}
+
+	@Override
+	public void write(T object, OutputStream target) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(target, SimpleFileHandler.DEFAULT_CHARSET));
+		print(object, writer);
+		writer.flush();
+	}
+
+	private void print(T object, Writer writer) throws IOException {
+		this.object = object;
+		final Writer prettyPrintWriter = prettyPrint(writer);
+		final XMLPrinter printer = new XMLPrinter(prettyPrintWriter);
+		printer.writeStartDocument();
+		writeStream(printer);
+		printer.writeEndDocument();
+		prettyPrintWriter.close();
+	}
+
+	/**
+	 * Reads an XML-Document in a single pass.
+	 *
+	 * @param reader reader positioned at the start of the document
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	protected abstract void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException;
+
+	/**
+	 * Writes an XML-Document element by element.
+	 *
+	 * @param printer printer for the document
+	 */
+	protected abstract void writeStream(XMLPrinter printer) throws IOException;
+
+	/**
+	 * Moves the reader to the start of the next child element of the current element.
+	 *
+	 * @param reader the reader
+	 * @return {@code true} if the reader is at the start of a child element, {@code false} if it reached the end of the current element
+	 */
+	protected static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the reader to the end of the current element.
+	 *
+	 * @param reader the reader
+	 */
+	protected static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the text content of the current element and all of its descendants (like {@link org.w3c.dom.Node#getTextContent()}) and moves the reader to
+	 * the end of the current element.
+	 *
+	 * @param reader the reader
+	 * @return the text content
+	 */
+	protected static String readText(XMLStreamReader reader) throws XMLStreamException {
+		final StringBuilder text = new StringBuilder();
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				break;
+			default:
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * @param reader the reader
+	 * @return the line of the current position of the reader
+	 */
+	protected static int getLineNumber(XMLStreamReader reader) {
+		return reader.getLocation().getLineNumber();
+	}
+
+}
@@ -0,0 +1,185 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Writes an XML document element by element without building a DOM.<br> The produced lines and the escaping of special characters are the same as those of
+ * the {@link javax.xml.transform.Transformer} used by {@link AXMLFormat}, so that the output of {@link AXMLBaseFormat#prettyPrint(Writer)} is identical for
+ * both. Lines are not indented, as the pretty printer indents them anyway.
+ */
+public class XMLPrinter {
+
+	private final ArrayDeque<String> elements = new ArrayDeque<>();
+	// Attributes are ordered by name, as in a DOM element
+	private final TreeMap<String, String> attributes = new TreeMap<>();
+
+	private final Writer writer;
+
+	private boolean startTagOpen = false;
+	private char danglingHighSurrogate = 0;
+
+	public XMLPrinter(Writer writer) {
+		this.writer = writer;
+	}
+
+	public void writeStartDocument() throws IOException {
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+	}
+
+	public void writeStartElement(String name) throws IOException {
+		if (startTagOpen) {
+			writeStartTag();
+			writer.write('\n');
+		}
+		elements.push(name);
+		startTagOpen = true;
+	}
+
+	/**
+	 * Sets an attribute of the last started element. Must be called before any content of this element is written.
+	 *
+	 * @param name the name of the attribute
+	 * @param value the value of the attribute
+	 */
+	public void writeAttribute(String name, String value) {
+		attributes.put(name, value);
+	}
+
+	public void writeCharacters(String text) throws IOException {
+		if (!text.isEmpty()) {
+			if (startTagOpen) {
+				writeStartTag();
+			}
+			writeEscaped(text, false);
+		}
+	}
+
+	public void writeEndElement() throws IOException {
+		final String name = elements.pop();
+		if (startTagOpen) {
+			writer.write('<');
+			writer.write(name);
+			writeAttributes();
+			writer.write("/>\n");
+			startTagOpen = false;
+		} else {
+			writer.write("</");
+			writer.write(name);
+			writer.write(">\n");
+		}
+	}
+
+	public void writeEndDocument() throws IOException {
+		while (!elements.isEmpty()) {
+			writeEndElement();
+		}
+		writer.flush();
+	}
+
+	private void writeStartTag() throws IOException {
+		writer.write('<');
+		writer.write(elements.peek());
+		writeAttributes();
+		writer.write('>');
+		startTagOpen = false;
+	}
+
+	private void writeAttributes() throws IOException {
+		for (final Entry<String, String> attribute : attributes.entrySet()) {
+			writer.write(' ');
+			writer.write(attribute.getKey());
+			writer.write("=\"");
+			writeEscaped(attribute.getValue(), true);
+			writer.write('"');
+		}
+		attributes.clear();
+	}
+
+	private void writeEscaped(String text, boolean attribute) throws IOException {
+		int start = 0;
+		final int length = text.length();
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			if (Character.isHighSurrogate(c)) {
+				writer.write(text, start, i - start);
+				if (danglingHighSurrogate != 0) {
+					throw new IOException("Invalid UTF-16 surrogate detected: " + Integer.toHexString(danglingHighSurrogate) + " " + Integer.toHexString(c));
+				}
+				if ((i + 1) == length) {
+					// Like the transformer, hold back a high surrogate at the end of a text until the next surrogate is written
+					danglingHighSurrogate = c;
+				} else {
+					final char low = text.charAt(++i);
+					if (!Character.isLowSurrogate(low)) {
+						throw new IOException("Invalid UTF-16 surrogate detected: " + Integer.toHexString(c) + " " + Integer.toHexString(low));
+					}
+					// Supplementary characters are always written as character references
+					writer.write("&#" + Character.toCodePoint(c, low) + ";");
+				}
+				start = i + 1;
+			} else if ((danglingHighSurrogate != 0) && Character.isLowSurrogate(c)) {
+				writer.write(text, start, i - start);
+				writer.write("&#" + Character.toCodePoint(danglingHighSurrogate, c) + ";");
+				danglingHighSurrogate = 0;
+				start = i + 1;
+			} else {
+				final String escaped = escape(c, attribute);
+				if (escaped != null) {
+					if ((danglingHighSurrogate != 0) && escaped.startsWith("&#")) {
+						throw new IOException("Invalid UTF-16 surrogate detected: " + Integer.toHexString(danglingHighSurrogate) + " " + Integer.toHexString(c));
+					}
+					writer.write(text, start, i - start);
+					writer.write(escaped);
+					start = i + 1;
+				}
+			}
+		}
+		writer.write(text, start, length - start);
+	}
+
+	private static String escape(char c, boolean attribute) {
+		switch (c) {
+		case '<':
+			return "&lt;";
+		case '>':
+			return "&gt;";
+		case '&':
+			return "&amp;";
+		case '"':
+			return attribute ? "&quot;" : null;
+		case '\t':
+		case '\n':
+			return attribute ? "&#" + (int) c + ";" : null;
+		default:
+			if ((c < 0x20) || Character.isLowSurrogate(c) || (!attribute && (c >= 0x7f) && (c <= 0x9f))) {
+				return "&#" + (int) c + ";";
+			}
+			return null;
+		}
+	}
+
+}
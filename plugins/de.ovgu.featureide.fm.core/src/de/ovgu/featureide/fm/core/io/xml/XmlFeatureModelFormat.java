@@ -27,6 +27,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -35,6 +36,10 @@ import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
@@ -42,12 +47,6 @@ import org.prop4j.Implies;
 import org.prop4j.Literal;
 import org.prop4j.Not;
 import org.prop4j.Or;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -73,12 +72,14 @@ import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
  * @author Marlen Bernier
  * @author Dawid Szczepanski
  */
-public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements IFeatureModelFormat {
+public class XmlFeatureModelFormat extends AXMLStreamFormat<IFeatureModel> implements IFeatureModelFormat {
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fm." + XmlFeatureModelFormat.class.getSimpleName();
 
 	private static final Pattern CONTENT_REGEX = Pattern.compile("\\A\\s*(<[?]xml\\s.*[?]>\\s*)?<featureModel[\\s>]");
 
+	private static final String[] SECTIONS = { STRUCT, CONSTRAINTS, COMMENTS, FEATURE_ORDER, CALCULATIONS, PROPERTIES };
+
 	protected IFeatureModelFactory factory;
 	protected IFeatureNameValidator validator;
 
@@ -90,19 +91,33 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		validator = oldFormat.validator;
 	}
 
+	/**
+	 * Returns the name of the root element of the format.
+	 *
+	 * @return the name of the root element
+	 */
+	protected String getRootElementName() {
+		return FEATURE_MODEL;
+	}
+
 	@Override
-	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
 		object.reset();
 
 		factory = FMFactoryManager.getInstance().getFactory(object);
 
-		for (final Element e : getElement(doc, FEATURE_MODEL, false)) {
-			parseStruct(getElement(e, STRUCT, false));
-			parseConstraints(getElement(e, CONSTRAINTS, true));
-			parseComments(getElement(e, COMMENTS, true));
-			parseFeatureOrder(getElement(e, FEATURE_ORDER, true));
-			parseCalculations(getElement(e, CALCULATIONS, true));
-			parseFeatureModelProperties(getElement(e, PROPERTIES, true));
+		final String rootElementName = getRootElementName();
+		int featureModelCount = 0;
+		while (reader.hasNext()) {
+			if ((reader.next() == XMLStreamConstants.START_ELEMENT) && rootElementName.equals(reader.getLocalName())) {
+				featureModelCount++;
+				readFeatureModel(reader);
+			}
+		}
+		if (featureModelCount == 0) {
+			throwError("Node " + rootElementName + " not defined!", 0);
+		} else if (featureModelCount > 1) {
+			localProblems.add(0, new Problem("Multiple nodes of " + rootElementName + " defined.", 0, Problem.Severity.WARNING));
 		}
 
 		if (object.getStructure().getRoot() == null) {
@@ -112,590 +127,624 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		warnings.addAll(localProblems);
 	}
 
-	@Override
-	protected void writeDocument(Document doc) {
-		final Element root = doc.createElement(FEATURE_MODEL);
-		doc.appendChild(root);
-
-		writeProperties(doc, root);
-		writeFeatures(doc, root);
-		writeConstraints(doc, root);
-		writeComments(doc, root);
-		writeFeatureOrder(doc, root);
-	}
-
-	protected void writeProperties(Document doc, final Element root) {
-		if (!object.getProperty().getProperties().isEmpty()) {
-			final Element properties = doc.createElement(PROPERTIES);
-			root.appendChild(properties);
-			addProperties(doc, object.getProperty(), properties);
-		}
-	}
-
-	protected void writeFeatures(Document doc, final Element root) {
-		final Element struct = doc.createElement(STRUCT);
-		root.appendChild(struct);
-		writeFeatureTreeRec(doc, struct, FeatureUtils.getRoot(object));
-	}
-
-	protected void writeConstraints(Document doc, final Element root) {
-		if (!object.getConstraints().isEmpty()) {
-			final Element constraints = doc.createElement(CONSTRAINTS);
-			root.appendChild(constraints);
-			for (final IConstraint constraint : object.getConstraints()) {
-				Element rule;
-				rule = doc.createElement(RULE);
-
-				constraints.appendChild(rule);
-				addDescription(doc, constraint.getDescription(), rule);
-				addProperties(doc, constraint.getCustomProperties(), rule);
-				addTags(doc, constraint.getTags(), rule);
-				createPropositionalConstraints(doc, rule, constraint.getNode());
+	/**
+	 * Reads the root element. Sections are applied in the order in which they appear in the document. References to features from constraints and the
+	 * feature order are checked after the whole element was read. Warnings are grouped by section in the order of {@link #SECTIONS}.
+	 */
+	private void readFeatureModel(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		final int line = getLineNumber(reader);
+		final List<String> featureReferences = new ArrayList<>();
+		final List<Integer> featureReferenceLines = new ArrayList<>();
+		List<String> featureOrder = null;
+		final int[] sectionCounts = new int[SECTIONS.length];
+		final List<List<Problem>> sectionProblems = new ArrayList<>(SECTIONS.length);
+		for (int i = 0; i < SECTIONS.length; i++) {
+			sectionProblems.add(new ArrayList<Problem>(0));
+		}
+		while (nextChildElement(reader)) {
+			final int problemCount = localProblems.size();
+			final int section;
+			switch (reader.getLocalName()) {
+			case STRUCT:
+				section = 0;
+				readFeatures(reader, null);
+				break;
+			case CONSTRAINTS:
+				section = 1;
+				readConstraints(reader, featureReferences, featureReferenceLines);
+				break;
+			case COMMENTS:
+				section = 2;
+				readComments(reader);
+				break;
+			case FEATURE_ORDER:
+				section = 3;
+				final List<String> order = readFeatureOrder(reader, featureReferences, featureReferenceLines);
+				if (order != null) {
+					featureOrder = order;
+				}
+				break;
+			case CALCULATIONS:
+				section = 4;
+				readCalculations(reader);
+				break;
+			case PROPERTIES:
+				section = 5;
+				sectionCounts[4] += readFeatureModelProperties(reader);
+				break;
+			default:
+				skipElement(reader);
+				continue;
 			}
+			sectionCounts[section]++;
+			final List<Problem> newProblems = localProblems.subList(problemCount, localProblems.size());
+			sectionProblems.get(section).addAll(newProblems);
+			newProblems.clear();
 		}
-	}
 
-	protected void writeComments(Document doc, final Element root) {
-		if (!object.getProperty().getComments().isEmpty()) {
-			final Element comments = doc.createElement(COMMENTS);
-			root.appendChild(comments);
-			for (final String comment : object.getProperty().getComments()) {
-				final Element c = doc.createElement(C);
-				comments.appendChild(c);
-				final Text text = doc.createTextNode(comment);
-				c.appendChild(text);
-			}
+		if (sectionCounts[0] == 0) {
+			throwError("Node " + STRUCT + " not defined!", line);
 		}
-	}
-
-	protected void writeFeatureOrder(Document doc, final Element root) {
-		if (object.isFeatureOrderUserDefined()) {
-			final Element order = doc.createElement(FEATURE_ORDER);
-			order.setAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
-			root.appendChild(order);
-			Collection<String> featureOrderList = object.getFeatureOrderList();
-
-			if (featureOrderList.isEmpty()) {
-				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
-			}
-
-			for (final String featureName : featureOrderList) {
-				final Element feature = doc.createElement(FEATURE);
-				feature.setAttribute(NAME, featureName);
-				order.appendChild(feature);
+		for (int i = 0; i < featureReferences.size(); i++) {
+			final String featureName = featureReferences.get(i);
+			if (object.getFeature(featureName) == null) {
+				throwError("Feature \"" + featureName + "\" does not exists", featureReferenceLines.get(i));
 			}
 		}
-	}
-
-	/**
-	 * Inserts the tags concerning propositional constraints into the DOM document representation
-	 *
-	 * @param doc
-	 * @param node Parent node for the propositional nodes
-	 */
-	protected void createPropositionalConstraints(Document doc, Element xmlNode, org.prop4j.Node node) {
-		if (node == null) {
-			return;
+		if (featureOrder != null) {
+			object.setFeatureOrderList(featureOrder);
 		}
 
-		final Element op;
-		if (node instanceof Literal) {
-			final Literal literal = (Literal) node;
-			if (!literal.positive) {
-				final Element opNot = doc.createElement(NOT);
-				xmlNode.appendChild(opNot);
-				xmlNode = opNot;
+		for (int i = 0; i < SECTIONS.length; i++) {
+			if (sectionCounts[i] > 1) {
+				throwWarning("Multiple nodes of " + SECTIONS[i] + " defined.", line);
 			}
-			op = doc.createElement(VAR);
-			op.appendChild(doc.createTextNode(String.valueOf(literal.var)));
-			xmlNode.appendChild(op);
-			return;
-		} else if (node instanceof Or) {
-			op = doc.createElement(DISJ);
-		} else if (node instanceof Equals) {
-			op = doc.createElement(EQ);
-		} else if (node instanceof Implies) {
-			op = doc.createElement(IMP);
-		} else if (node instanceof And) {
-			op = doc.createElement(CONJ);
-		} else if (node instanceof Not) {
-			op = doc.createElement(NOT);
-		} else if (node instanceof AtMost) {
-			op = doc.createElement(ATMOST1);
-		} else {
-			op = doc.createElement(UNKNOWN);
+			localProblems.addAll(sectionProblems.get(i));
 		}
-		xmlNode.appendChild(op);
+	}
 
-		for (final org.prop4j.Node child : node.getChildren()) {
-			createPropositionalConstraints(doc, op, child);
+	private void readFeatures(XMLStreamReader reader, IFeature parent) throws XMLStreamException, UnsupportedModelException {
+		while (nextChildElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			switch (nodeName) {
+			case DESCRIPTION:
+				final String description = readText(reader);
+				if (!description.isEmpty()) {
+					parent.getProperty().setDescription(getDescription(description));
+				}
+				break;
+			case GRAPHICS:
+				readProperty(parent.getCustomProperties(), reader, GRAPHICS);
+				break;
+			case PROPERTY:
+				readProperty(parent.getCustomProperties(), reader, null);
+				break;
+			case AND:
+			case OR:
+			case ALT:
+			case FEATURE:
+				readFeature(parent, reader, nodeName);
+				break;
+			default:
+				readFeatureElement(parent, reader, nodeName);
+			}
 		}
 	}
 
 	/**
-	 * Creates document based on feature model step by step
+	 * Reads a child element of a feature that is neither a feature, nor a description, nor a property. Adds a warning on default. The reader must be moved to
+	 * the end of the element.
 	 *
-	 * @param doc document to write
-	 * @param node parent node
-	 * @param feat current feature
+	 * @param parent the feature that contains the element
+	 * @param reader reader positioned at the start of the element
+	 * @param nodeName the name of the element
 	 */
-	protected void writeFeatureTreeRec(Document doc, Element node, IFeature feat) {
-		if (feat == null) {
-			return;
-		}
-
-		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
+	protected void readFeatureElement(IFeature parent, XMLStreamReader reader, String nodeName) throws XMLStreamException, UnsupportedModelException {
+		throwWarning("Unknown feature type: " + nodeName, getLineNumber(reader));
+		skipElement(reader);
+	}
 
-		final Element fnod;
-		if (children.isEmpty()) {
-			fnod = doc.createElement(FEATURE);
-			writeFeatureProperties(doc, node, feat, fnod);
-		} else {
-			if (feat.getStructure().isAnd()) {
-				fnod = doc.createElement(AND);
-			} else if (feat.getStructure().isOr()) {
-				fnod = doc.createElement(OR);
-			} else if (feat.getStructure().isAlternative()) {
-				fnod = doc.createElement(ALT);
+	private void readFeature(IFeature parent, XMLStreamReader reader, String nodeName) throws XMLStreamException, UnsupportedModelException {
+		final int line = getLineNumber(reader);
+		boolean mandatory = false;
+		boolean _abstract = false;
+		boolean hidden = false;
+		String name = "";
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(ABSTRACT)) {
+				_abstract = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(MANDATORY)) {
+				mandatory = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(NAME)) {
+				name = attributeValue;
+			} else if (attributeName.equals(HIDDEN)) {
+				hidden = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(COORDINATES)) {
+				// Legacy case, for backwards compatibility
 			} else {
-				fnod = doc.createElement(UNKNOWN);// Logger.logInfo("creatXMlDockRec: Unexpected error!");
-			}
-
-			writeFeatureProperties(doc, node, feat, fnod);
-
-			for (final IFeature feature : children) {
-				writeFeatureTreeRec(doc, fnod, feature);
+				throwWarning("Unknown feature attribute: " + attributeName, line);
 			}
+		}
 
+		if (object.getFeature(name) != null) {
+			throwError("Duplicate entry for feature: " + name, line);
 		}
 
-	}
+		if ((validator != null) && !validator.isValidFeatureName(name)) {
+			addToProblemsList(name + " is not a valid feature name", line);
+		}
 
-	protected void writeFeatureProperties(Document doc, Element node, IFeature feat, final Element fnod) {
-		addDescription(doc, feat.getProperty().getDescription(), fnod);
-		addProperties(doc, feat.getCustomProperties(), fnod);
-		writeAttributes(node, fnod, feat);
-	}
+		final IFeature f = factory.createFeature(object, name);
+		f.getStructure().setMandatory(true);
 
-	protected void addDescription(Document doc, String description, Element fnod) {
-		if ((description != null) && !description.trim().isEmpty()) {
-			final Element descr = doc.createElement(DESCRIPTION);
-			descr.setTextContent(description);
-			fnod.appendChild(descr);
+		switch (nodeName) {
+		case AND:
+			f.getStructure().setAnd();
+			break;
+		case OR:
+			f.getStructure().setOr();
+			break;
+		case ALT:
+			f.getStructure().setAlternative();
+			break;
+		default:
+			break;
 		}
-	}
 
-	protected void addProperties(Document doc, IPropertyContainer properties, Element fnod) {
-		for (final Entry property : properties.getProperties()) {
-			if (property.getValue() != null) {
-				final Element propNode;
-				if (GRAPHICS.equals(property.getType())) {
-					propNode = doc.createElement(GRAPHICS);
-				} else if (CALCULATIONS.equals(property.getType())) {
-					propNode = doc.createElement(CALCULATIONS);
-				} else {
-					propNode = doc.createElement(PROPERTY);
-					propNode.setAttribute(TYPE, property.getType());
-				}
-				propNode.setAttribute(KEY, property.getKey());
-				propNode.setAttribute(VALUE, property.getValue());
-				fnod.appendChild(propNode);
-			}
-		}
-	}
+		f.getStructure().setAbstract(_abstract);
+		f.getStructure().setMandatory(mandatory);
+		f.getStructure().setHidden(hidden);
 
-	/**
-	 * Adds the tags of a constraint to the xml file
-	 */
-	private void addTags(Document doc, Set<String> tags, Element fnod) {
-		if ((tags != null) && !tags.isEmpty()) {
-			final Element tag = doc.createElement(TAGS);
-			String finalTags = "";
-			for (final String tagString : tags) {
-				if (finalTags.equals("")) {
-					finalTags += tagString;
-					continue;
-				}
-				finalTags += "," + tagString;
-			}
-			tag.setTextContent(finalTags);
-			fnod.appendChild(tag);
+		object.addFeature(f);
+		if (parent == null) {
+			object.getStructure().setRoot(f.getStructure());
+		} else {
+			parent.getStructure().addChild(f.getStructure());
 		}
-	}
-
-	/**
-	 * Parses the comment section.
-	 */
-	protected void parseComments(List<Element> elements) throws UnsupportedModelException {
-		for (final Element e : elements) {
-			if (e.hasChildNodes()) {
-				for (final Element e1 : getElements(e.getChildNodes())) {
-					if (e1.getNodeName().equals(C)) {
-						object.getProperty().addComment(e1.getTextContent());
-					} else {
-						throwWarning("Unknown comment attribute: " + e1.getNodeName(), e1);
+		readFeatures(reader, f);
+	}
+
+	private void readConstraints(XMLStreamReader reader, List<String> featureReferences, List<Integer> featureReferenceLines)
+			throws XMLStreamException, UnsupportedModelException {
+		final int line = getLineNumber(reader);
+		while (nextChildElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(RULE)) {
+				final int ruleLine = getLineNumber(reader);
+				final List<String> unknownAttributes = new ArrayList<>(0);
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					final String attributeName = reader.getAttributeLocalName(i);
+					if (!attributeName.equals(COORDINATES)) {
+						unknownAttributes.add(attributeName);
 					}
 				}
-			}
-		}
-	}
-
-	/**
-	 * Parses the constraint section.
-	 */
-	protected void parseConstraints(List<Element> elements) throws UnsupportedModelException {
-		for (final Element e : elements) {
-			for (final Element child : getElements(e.getChildNodes())) {
-				final String nodeName = child.getNodeName();
-				if (nodeName.equals(RULE)) {
-					final IConstraint constraint = factory.createConstraint(object, null);
-					final LinkedList<org.prop4j.Node> constraintNodeList = parseConstraintNode(child.getChildNodes(), constraint);
-					if (constraintNodeList.isEmpty()) {
-						throwWarning("Missing elements", e);
-					} else if (constraintNodeList.size() > 1) {
-						throwWarning("Too many elements", e);
-					} else {
-						constraint.setNode(constraintNodeList.getFirst());
-						if (child.hasAttributes()) {
-							final NamedNodeMap nodeMap = child.getAttributes();
-							for (int i = 0; i < nodeMap.getLength(); i++) {
-								final org.w3c.dom.Node node = nodeMap.item(i);
-								final String attributeName = node.getNodeName();
-								if (attributeName.equals(COORDINATES)) {
-									// Legacy case, for backwards compatibility
-								} else {
-									throwWarning("Unknown constraint attribute: " + attributeName, node);
-								}
-							}
-						}
-						object.addConstraint(constraint);
-					}
+				final IConstraint constraint = factory.createConstraint(object, null);
+				final LinkedList<org.prop4j.Node> constraintNodeList = readConstraintNodes(reader, constraint, featureReferences, featureReferenceLines);
+				if (constraintNodeList.isEmpty()) {
+					throwWarning("Missing elements", line);
+				} else if (constraintNodeList.size() > 1) {
+					throwWarning("Too many elements", line);
 				} else {
-					throwWarning("Unknown constraint node: " + nodeName, child);
+					constraint.setNode(constraintNodeList.getFirst());
+					for (final String attributeName : unknownAttributes) {
+						throwWarning("Unknown constraint attribute: " + attributeName, ruleLine);
+					}
+					object.addConstraint(constraint);
 				}
+			} else {
+				throwWarning("Unknown constraint node: " + nodeName, getLineNumber(reader));
+				skipElement(reader);
 			}
 		}
 	}
 
-	protected LinkedList<org.prop4j.Node> parseConstraintNode(NodeList nodeList, IConstraint parent) throws UnsupportedModelException {
+	private LinkedList<org.prop4j.Node> readConstraintNodes(XMLStreamReader reader, IConstraint parent, List<String> featureReferences,
+			List<Integer> featureReferenceLines) throws XMLStreamException, UnsupportedModelException {
 		final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
 		LinkedList<org.prop4j.Node> children;
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
+		while (nextChildElement(reader)) {
+			final String nodeName = reader.getLocalName();
 			switch (nodeName) {
 			case DESCRIPTION:
 				if (parent != null) {
-					parent.setDescription(getDescription(e));
+					parent.setDescription(getDescription(readText(reader)));
 				} else {
-					throwWarning("Misplaced description element", e);
+					throwWarning("Misplaced description element", getLineNumber(reader));
+					skipElement(reader);
 				}
 				break;
 			case GRAPHICS:
 				if (parent != null) {
-					parseProperty(parent.getCustomProperties(), e, GRAPHICS);
+					readProperty(parent.getCustomProperties(), reader, GRAPHICS);
 				} else {
-					throwWarning("Misplaced graphics element", e);
+					throwWarning("Misplaced graphics element", getLineNumber(reader));
+					skipElement(reader);
 				}
 				break;
 			case PROPERTY:
 				if (parent != null) {
-					parseProperty(parent.getCustomProperties(), e, null);
+					readProperty(parent.getCustomProperties(), reader, null);
 				} else {
-					throwWarning("Misplaced property element", e);
+					throwWarning("Misplaced property element", getLineNumber(reader));
+					skipElement(reader);
 				}
 				break;
 			case DISJ:
-				nodes.add(new Or(parseConstraintNode(e.getChildNodes(), null)));
+				nodes.add(new Or(readConstraintNodes(reader, null, featureReferences, featureReferenceLines)));
 				break;
 			case CONJ:
-				nodes.add(new And(parseConstraintNode(e.getChildNodes(), null)));
+				nodes.add(new And(readConstraintNodes(reader, null, featureReferences, featureReferenceLines)));
 				break;
 			case EQ:
-				children = parseConstraintNode(e.getChildNodes(), null);
+				children = readConstraintNodes(reader, null, featureReferences, featureReferenceLines);
 				nodes.add(new Equals(children.get(0), children.get(1)));
 				break;
 			case IMP:
-				children = parseConstraintNode(e.getChildNodes(), null);
+				children = readConstraintNodes(reader, null, featureReferences, featureReferenceLines);
 				nodes.add(new Implies(children.get(0), children.get(1)));
 				break;
 			case NOT:
-				nodes.add(new Not((parseConstraintNode(e.getChildNodes(), null)).getFirst()));
+				nodes.add(new Not(readConstraintNodes(reader, null, featureReferences, featureReferenceLines).getFirst()));
 				break;
 			case ATMOST1:
-				nodes.add(new AtMost(1, parseConstraintNode(e.getChildNodes(), null)));
+				nodes.add(new AtMost(1, readConstraintNodes(reader, null, featureReferences, featureReferenceLines)));
 				break;
 			case VAR:
-				final String featureName = e.getTextContent();
-				if (object.getFeature(featureName) != null) {
-					nodes.add(new Literal(featureName));
-				} else {
-					throwError("Feature \"" + featureName + "\" does not exists", e);
-				}
+				featureReferenceLines.add(getLineNumber(reader));
+				final String featureName = readText(reader);
+				featureReferences.add(featureName);
+				nodes.add(new Literal(featureName));
 				break;
 			case TAGS:
 				if (parent != null) {
-					parent.setTags(getTags(e));
+					parent.setTags(getTags(readText(reader)));
 				} else {
-					throwWarning("Misplaced description element", e);
+					throwWarning("Misplaced description element", getLineNumber(reader));
+					skipElement(reader);
 				}
 				break;
 			default:
-				throwWarning("Unknown constraint type: " + nodeName, e);
+				throwWarning("Unknown constraint type: " + nodeName, getLineNumber(reader));
+				skipElement(reader);
 			}
 		}
 		return nodes;
 	}
 
-	protected String getDescription(final Node e) {
-		String description = e.getTextContent();
-		// NOTE: THe following code is used for backwards compatibility. It replaces spaces and tabs that were added to the XML for indentation, but don't
-		// belong to the actual description.
-		if (description != null) {
-			description = description.replaceAll("(\r\n|\r|\n)\\s*", "\n").replaceAll("\\A\n|\n\\Z", "");
+	private void readComments(XMLStreamReader reader) throws XMLStreamException {
+		while (nextChildElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(C)) {
+				object.getProperty().addComment(readText(reader));
+			} else {
+				throwWarning("Unknown comment attribute: " + nodeName, getLineNumber(reader));
+				skipElement(reader);
+			}
 		}
-		return description;
 	}
 
 	/**
-	 * Reads the tag string from the xml file into a set of tags for a constraint
+	 * Reads a feature order element and returns its list of feature names or {@code null} if it contains no names.
 	 */
-	protected Set<String> getTags(final Node e) {
-		final String tags = e.getTextContent();
-		final String[] tagArray = tags.split(",");
-		final Set<String> tagSet = new HashSet<>();
-
-		for (final String tag : tagArray) {
-			tagSet.add(tag);
+	private List<String> readFeatureOrder(XMLStreamReader reader, List<String> featureReferences, List<Integer> featureReferenceLines)
+			throws XMLStreamException, UnsupportedModelException {
+		final int line = getLineNumber(reader);
+		final ArrayList<String> order = new ArrayList<>();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+			} else if (attributeName.equals(NAME)) {
+				featureReferences.add(attributeValue);
+				featureReferenceLines.add(line);
+				order.add(attributeValue);
+			} else {
+				throwError("Unknown feature order attribute: " + attributeName, line);
+			}
+		}
+		final ArrayList<String> childOrder = new ArrayList<>(object.getNumberOfFeatures());
+		while (nextChildElement(reader)) {
+			final List<String> subOrder = readFeatureOrder(reader, featureReferences, featureReferenceLines);
+			if (subOrder != null) {
+				childOrder.addAll(subOrder);
+			}
+		}
+		if (!order.isEmpty()) {
+			return order;
+		} else if (!childOrder.isEmpty()) {
+			return childOrder;
+		} else {
+			return null;
 		}
-		return tagSet;
 	}
 
 	/**
-	 * Parses the feature order section.
+	 * Reads a calculations element that is a direct child of the root element, as written by older versions of FeatureIDE.
+	 *
+	 * @param reader reader positioned at the start of the element
 	 */
-	protected void parseFeatureOrder(List<Element> elements) throws UnsupportedModelException {
-		final ArrayList<String> order = new ArrayList<>(object.getNumberOfFeatures());
-		for (final Element e : elements) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(USER_DEFINED)) {
-						object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
-					} else if (attributeName.equals(NAME)) {
-						if (object.getFeature(attributeValue) != null) {
-							order.add(attributeValue);
-						} else {
-							throwError("Feature \"" + attributeValue + "\" does not exists", e);
-						}
-					} else {
-						throwError("Unknown feature order attribute: " + attributeName, e);
-					}
-
-				}
-			}
-			if (e.hasChildNodes()) {
-				parseFeatureOrder(getElements(e.getChildNodes()));
+	protected void readCalculations(XMLStreamReader reader) throws XMLStreamException {
+		readAttribute(reader, CALCULATE_AUTO, CALCULATIONS);
+		readAttribute(reader, CALCULATE_CONSTRAINTS, CALCULATIONS);
+		readAttribute(reader, CALCULATE_FEATURES, CALCULATIONS);
+		readAttribute(reader, CALCULATE_REDUNDANT, CALCULATIONS);
+		readAttribute(reader, CALCULATE_TAUTOLOGY, CALCULATIONS);
+		skipElement(reader);
+	}
+
+	private void readAttribute(XMLStreamReader reader, final String key, final String type) {
+		final String value = reader.getAttributeValue(null, key);
+		if (value != null) {
+			if (object.getProperty().has(key, type)) {
+				throwWarning("Redundant property definition for key: " + key, getLineNumber(reader));
+			} else {
+				object.getProperty().set(key, type, value);
 			}
 		}
-		if (!order.isEmpty()) {
-			object.setFeatureOrderList(order);
-		}
 	}
 
-	protected void parseFeatures(NodeList nodeList, IFeature parent) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
-			switch (nodeName) {
-			case DESCRIPTION:
-				parseDescription(parent, e);
-				break;
+	/**
+	 * Reads the properties section and returns the number of contained calculations elements.
+	 */
+	private int readFeatureModelProperties(XMLStreamReader reader) throws XMLStreamException {
+		int calculationsCount = 0;
+		while (nextChildElement(reader)) {
+			switch (reader.getLocalName()) {
 			case GRAPHICS:
-				parseProperty(parent.getCustomProperties(), e, GRAPHICS);
+				readProperty(object.getProperty(), reader, GRAPHICS);
 				break;
-			case PROPERTY:
-				parseProperty(parent.getCustomProperties(), e, null);
+			case CALCULATIONS:
+				calculationsCount++;
+				readProperty(object.getProperty(), reader, CALCULATIONS);
 				break;
-			case AND:
-			case OR:
-			case ALT:
-			case FEATURE:
-				parseFeature(parent, e, nodeName);
+			case PROPERTY:
+				readProperty(object.getProperty(), reader, null);
 				break;
 			default:
-				throwWarning("Unknown feature type: " + nodeName, e);
+				skipElement(reader);
+				break;
 			}
 		}
+		return calculationsCount;
 	}
 
-	protected void parseFeature(IFeature parent, final Element e, final String nodeName) throws UnsupportedModelException {
-		boolean mandatory = false;
-		boolean _abstract = false;
-		boolean hidden = false;
-		String name = "";
-		// FMPoint featureLocation = null;
-		if (e.hasAttributes()) {
-			final NamedNodeMap nodeMap = e.getAttributes();
-			for (int i = 0; i < nodeMap.getLength(); i++) {
-				final org.w3c.dom.Node node = nodeMap.item(i);
-				final String attributeName = node.getNodeName();
-				final String attributeValue = node.getNodeValue();
-				if (attributeName.equals(ABSTRACT)) {
-					_abstract = attributeValue.equals(TRUE);
-				} else if (attributeName.equals(MANDATORY)) {
-					mandatory = attributeValue.equals(TRUE);
-				} else if (attributeName.equals(NAME)) {
-					name = attributeValue;
-				} else if (attributeName.equals(HIDDEN)) {
-					hidden = attributeValue.equals(TRUE);
-				} else if (attributeName.equals(COORDINATES)) {
-					// Legacy case, for backwards compatibility
-				} else {
-					throwWarning("Unknown feature attribute: " + attributeName, e);
-				}
+	private void readProperty(IPropertyContainer properties, XMLStreamReader reader, String type) throws XMLStreamException {
+		final String key = reader.getAttributeValue(null, KEY);
+		final String value = reader.getAttributeValue(null, VALUE);
+		if ((key == null) || (value == null)) {
+			throwWarning("Missing one of the required attributes: " + KEY + " or " + VALUE, getLineNumber(reader));
+		} else {
+			if (type == null) {
+				final String customType = reader.getAttributeValue(null, TYPE);
+				type = (customType != null) ? customType : TYPE_CUSTOM;
+			}
+			if (properties.has(key, type)) {
+				throwWarning("Redundant property definition for key: " + key, getLineNumber(reader));
+			} else {
+				properties.set(key, type, value);
+			}
+		}
+		skipElement(reader);
+	}
 
+	@Override
+	protected void writeStream(XMLPrinter printer) throws IOException {
+		printer.writeStartElement(getRootElementName());
+
+		if (!object.getProperty().getProperties().isEmpty()) {
+			printer.writeStartElement(PROPERTIES);
+			printProperties(printer, object.getProperty());
+			printer.writeEndElement();
+		}
+
+		printer.writeStartElement(STRUCT);
+		printFeatureTreeRec(printer, FeatureUtils.getRoot(object));
+		printer.writeEndElement();
+
+		if (!object.getConstraints().isEmpty()) {
+			printer.writeStartElement(CONSTRAINTS);
+			for (final IConstraint constraint : object.getConstraints()) {
+				printer.writeStartElement(RULE);
+				printDescription(printer, constraint.getDescription());
+				printProperties(printer, constraint.getCustomProperties());
+				final Set<String> tags = constraint.getTags();
+				if ((tags != null) && !tags.isEmpty()) {
+					printer.writeStartElement(TAGS);
+					printer.writeCharacters(joinTags(tags));
+					printer.writeEndElement();
+				}
+				printPropositionalConstraints(printer, constraint.getNode());
+				printer.writeEndElement();
 			}
+			printer.writeEndElement();
 		}
 
-		if (object.getFeature(name) != null) {
-			throwError("Duplicate entry for feature: " + name, e);
+		if (!object.getProperty().getComments().isEmpty()) {
+			printer.writeStartElement(COMMENTS);
+			for (final String comment : object.getProperty().getComments()) {
+				printer.writeStartElement(C);
+				printer.writeCharacters(comment);
+				printer.writeEndElement();
+			}
+			printer.writeEndElement();
 		}
 
-		if ((validator != null) && !validator.isValidFeatureName(name)) {
-			addToProblemsList(name + " is not a valid feature name", e);
+		if (object.isFeatureOrderUserDefined()) {
+			printer.writeStartElement(FEATURE_ORDER);
+			printer.writeAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
+			Collection<String> featureOrderList = object.getFeatureOrderList();
+
+			if (featureOrderList.isEmpty()) {
+				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
+			}
+
+			for (final String featureName : featureOrderList) {
+				printer.writeStartElement(FEATURE);
+				printer.writeAttribute(NAME, featureName);
+				printer.writeEndElement();
+			}
+			printer.writeEndElement();
 		}
 
-		final IFeature f = factory.createFeature(object, name);
-		f.getStructure().setMandatory(true);
+		printer.writeEndElement();
+	}
 
-		switch (nodeName) {
-		case AND:
-			f.getStructure().setAnd();
-			break;
-		case OR:
-			f.getStructure().setOr();
-			break;
-		case ALT:
-			f.getStructure().setAlternative();
-			break;
-		default:
-			break;
+	private void printFeatureTreeRec(XMLPrinter printer, IFeature feat) throws IOException {
+		if (feat == null) {
+			return;
 		}
 
-		f.getStructure().setAbstract(_abstract);
-		f.getStructure().setMandatory(mandatory);
-		f.getStructure().setHidden(hidden);
+		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
 
-		object.addFeature(f);
-		if (parent == null) {
-			object.getStructure().setRoot(f.getStructure());
+		if (children.isEmpty()) {
+			printer.writeStartElement(FEATURE);
+		} else if (feat.getStructure().isAnd()) {
+			printer.writeStartElement(AND);
+		} else if (feat.getStructure().isOr()) {
+			printer.writeStartElement(OR);
+		} else if (feat.getStructure().isAlternative()) {
+			printer.writeStartElement(ALT);
 		} else {
-			parent.getStructure().addChild(f.getStructure());
-		}
-		if (e.hasChildNodes()) {
-			parseFeatures(e.getChildNodes(), f);
+			printer.writeStartElement(UNKNOWN);
 		}
-	}
 
-	protected void parseProperty(IPropertyContainer properties, final Element e, String type) {
-		if (!e.hasAttribute(KEY) || !e.hasAttribute(VALUE)) {
-			throwWarning("Missing one of the required attributes: " + KEY + " or " + VALUE, e);
-		} else {
-			if (type == null) {
-				type = e.hasAttribute(TYPE) ? e.getAttribute(TYPE) : TYPE_CUSTOM;
-			}
-			final String key = e.getAttribute(KEY);
-			final String value = e.getAttribute(VALUE);
-			if (properties.has(key, type)) {
-				throwWarning("Redundant property definition for key: " + key, e);
-			} else {
-				properties.set(key, type, value);
+		printer.writeAttribute(NAME, feat.getName());
+		if (feat.getStructure().isHidden()) {
+			printer.writeAttribute(HIDDEN, TRUE);
+		}
+		if (feat.getStructure().isMandatory()) {
+			if ((feat.getStructure().getParent() == null) || feat.getStructure().getParent().isAnd()) {
+				printer.writeAttribute(MANDATORY, TRUE);
 			}
 		}
-	}
+		if (feat.getStructure().isAbstract()) {
+			printer.writeAttribute(ABSTRACT, TRUE);
+		}
+
+		writeFeatureProperties(printer, feat);
 
-	protected void parseDescription(IFeature parent, final Element e) {
-		if (e.getFirstChild() != null) {
-			parent.getProperty().setDescription(getDescription(e.getFirstChild()));
+		for (final IFeature feature : children) {
+			printFeatureTreeRec(printer, feature);
 		}
+		printer.writeEndElement();
 	}
 
 	/**
-	 * Parse the struct section to add features to the model.
+	 * Writes the child elements of a feature that precede its child features.
+	 *
+	 * @param printer printer for the document
+	 * @param feat the feature
 	 */
-	protected void parseStruct(List<Element> elements) throws UnsupportedModelException {
-		for (final Element e : elements) {
-			parseFeatures(e.getChildNodes(), null);
-		}
-	}
-
-	protected void parseFeatureModelProperties(List<Element> elements) {
-		for (final Element e : elements) {
-			for (final Element propertyElement : getElements(e.getChildNodes())) {
-				final String nodeName = propertyElement.getNodeName();
-				switch (nodeName) {
-				case GRAPHICS:
-					parseProperty(object.getProperty(), propertyElement, GRAPHICS);
-					break;
-				case CALCULATIONS:
-					parseProperty(object.getProperty(), propertyElement, CALCULATIONS);
-					break;
-				case PROPERTY:
-					parseProperty(object.getProperty(), propertyElement, null);
-					break;
+	protected void writeFeatureProperties(XMLPrinter printer, IFeature feat) throws IOException {
+		printDescription(printer, feat.getProperty().getDescription());
+		printProperties(printer, feat.getCustomProperties());
+	}
+
+	private void printDescription(XMLPrinter printer, String description) throws IOException {
+		if ((description != null) && !description.trim().isEmpty()) {
+			printer.writeStartElement(DESCRIPTION);
+			printer.writeCharacters(description);
+			printer.writeEndElement();
+		}
+	}
+
+	private void printProperties(XMLPrinter printer, IPropertyContainer properties) throws IOException {
+		for (final Entry property : properties.getProperties()) {
+			if (property.getValue() != null) {
+				if (GRAPHICS.equals(property.getType())) {
+					printer.writeStartElement(GRAPHICS);
+				} else if (CALCULATIONS.equals(property.getType())) {
+					printer.writeStartElement(CALCULATIONS);
+				} else {
+					printer.writeStartElement(PROPERTY);
+					printer.writeAttribute(TYPE, property.getType());
 				}
+				printer.writeAttribute(KEY, property.getKey());
+				printer.writeAttribute(VALUE, property.getValue());
+				printer.writeEndElement();
 			}
 		}
 	}
 
-	/**
-	 * Parses the calculations section.
-	 */
-	protected void parseCalculations(List<Element> elements) throws UnsupportedModelException {
-		for (final Element e : elements) {
-			parseAttribute(e, CALCULATE_AUTO, CALCULATIONS);
-			parseAttribute(e, CALCULATE_CONSTRAINTS, CALCULATIONS);
-			parseAttribute(e, CALCULATE_FEATURES, CALCULATIONS);
-			parseAttribute(e, CALCULATE_REDUNDANT, CALCULATIONS);
-			parseAttribute(e, CALCULATE_TAUTOLOGY, CALCULATIONS);
+	private void printPropositionalConstraints(XMLPrinter printer, org.prop4j.Node node) throws IOException {
+		if (node == null) {
+			return;
 		}
-	}
 
-	private void parseAttribute(final Element e, final String key, final String type) {
-		if (e.hasAttribute(key)) {
-			final String value = e.getAttribute(key);
-			if (object.getProperty().has(key, type)) {
-				throwWarning("Redundant property definition for key: " + key, e);
-			} else {
-				object.getProperty().set(key, type, value);
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			if (!literal.positive) {
+				printer.writeStartElement(NOT);
 			}
+			printer.writeStartElement(VAR);
+			printer.writeCharacters(String.valueOf(literal.var));
+			printer.writeEndElement();
+			if (!literal.positive) {
+				printer.writeEndElement();
+			}
+			return;
+		} else if (node instanceof Or) {
+			printer.writeStartElement(DISJ);
+		} else if (node instanceof Equals) {
+			printer.writeStartElement(EQ);
+		} else if (node instanceof Implies) {
+			printer.writeStartElement(IMP);
+		} else if (node instanceof And) {
+			printer.writeStartElement(CONJ);
+		} else if (node instanceof Not) {
+			printer.writeStartElement(NOT);
+		} else if (node instanceof AtMost) {
+			printer.writeStartElement(ATMOST1);
+		} else {
+			printer.writeStartElement(UNKNOWN);
 		}
-	}
 
-	@Override
-	protected void addProblem(final Problem problem) {
-		localProblems.add(problem);
+		for (final org.prop4j.Node child : node.getChildren()) {
+			printPropositionalConstraints(printer, child);
+		}
+		printer.writeEndElement();
 	}
 
-	protected void writeAttributes(Element node, Element fnod, IFeature feat) {
-		fnod.setAttribute(NAME, feat.getName());
-		if (feat.getStructure().isHidden()) {
-			fnod.setAttribute(HIDDEN, TRUE);
-		}
-		if (feat.getStructure().isMandatory()) {
-			if ((feat.getStructure().getParent() != null) && feat.getStructure().getParent().isAnd()) {
-				fnod.setAttribute(MANDATORY, TRUE);
-			} else if (feat.getStructure().getParent() == null) {
-				fnod.setAttribute(MANDATORY, TRUE);
+	private static String joinTags(Set<String> tags) {
+		String finalTags = "";
+		for (final String tagString : tags) {
+			if (finalTags.equals("")) {
+				finalTags += tagString;
+				continue;
 			}
+			finalTags += "," + tagString;
 		}
-		if (feat.getStructure().isAbstract()) {
-			fnod.setAttribute(ABSTRACT, TRUE);
+		return finalTags;
+	}
+
+	protected String getDescription(String description) {
+		// NOTE: THe following code is used for backwards compatibility. It replaces spaces and tabs that were added to the XML for indentation, but don't
+		// belong to the actual description.
+		if (description != null) {
+			description = description.replaceAll("(\r\n|\r|\n)\\s*", "\n").replaceAll("\\A\n|\n\\Z", "");
 		}
+		return description;
+	}
 
-		node.appendChild(fnod);
+	/**
+	 * Splits a tag string into a set of tags for a constraint
+	 */
+	protected Set<String> getTags(final String tags) {
+		final String[] tagArray = tags.split(",");
+		final Set<String> tagSet = new HashSet<>();
+
+		for (final String tag : tagArray) {
+			tagSet.add(tag);
+		}
+		return tagSet;
+	}
+
+	@Override
+	protected void addProblem(final Problem problem) {
+		localProblems.add(problem);
 	}
 
 	@Override
@@ -82,4 +82,9 @@ public abstract class AMonitor<T> implements IMonitor<T> {
 		this.intermediateFunction = intermediateFunction;
 	}
 
+	@Override
+	public final boolean hasIntermediateFunction() {
+		return intermediateFunction != null;
+	}
+
 }
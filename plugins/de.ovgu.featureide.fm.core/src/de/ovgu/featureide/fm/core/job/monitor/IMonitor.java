@@ -111,6 +111,11 @@ public interface IMonitor<T> {
 
 	void setIntermediateFunction(Consumer<T> intermediateFunction);
 
+	/**
+	 * @return whether an intermediate function is set, i.e., whether calls of {@link #invoke(Object)} have any effect
+	 */
+	boolean hasIntermediateFunction();
+
 	void cancel();
 
 	void done();
@@ -0,0 +1,136 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs a list of tasks in parallel and waits for all of them.<br> If a task fails, its exception is rethrown in the calling thread (wrapped in a
+ * {@link RuntimeException} if it is checked) and the remaining tasks are cancelled. If the calling thread is interrupted while waiting, its interrupt status
+ * is restored and a {@link RuntimeException} is thrown.
+ */
+public final class ParallelTasks {
+
+	private ParallelTasks() {}
+
+	/**
+	 * Runs the given tasks on a new thread pool, which is shut down afterwards.
+	 *
+	 * @param threads the number of threads of the pool
+	 * @param tasks the tasks
+	 */
+	public static void run(int threads, List<? extends Runnable> tasks) {
+		call(threads, toCallables(tasks), result -> {});
+	}
+
+	/**
+	 * Runs the given tasks on the given executor.
+	 *
+	 * @param executor the executor
+	 * @param tasks the tasks
+	 */
+	public static void run(ExecutorService executor, List<? extends Runnable> tasks) {
+		call(executor, toCallables(tasks), result -> {});
+	}
+
+	/**
+	 * Runs the given tasks on the given executor and returns their results.
+	 *
+	 * @param executor the executor
+	 * @param tasks the tasks
+	 * @return the results in the order of the tasks
+	 */
+	public static <T> List<T> call(ExecutorService executor, List<? extends Callable<T>> tasks) {
+		final List<T> results = new ArrayList<>(tasks.size());
+		call(executor, tasks, results::add);
+		return results;
+	}
+
+	/**
+	 * Runs the given tasks on a new thread pool, which is shut down afterwards. Each result is passed to the given consumer as soon as it and the results of
+	 * all previous tasks are available.
+	 *
+	 * @param threads the number of threads of the pool
+	 * @param tasks the tasks
+	 * @param consumer receives the results in the order of the tasks
+	 */
+	public static <T> void call(int threads, List<? extends Callable<T>> tasks, Consumer<? super T> consumer) {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			call(executor, tasks, consumer);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs the given tasks on the given executor. Each result is passed to the given consumer as soon as it and the results of all previous tasks are
+	 * available.
+	 *
+	 * @param executor the executor
+	 * @param tasks the tasks
+	 * @param consumer receives the results in the order of the tasks
+	 */
+	public static <T> void call(ExecutorService executor, List<? extends Callable<T>> tasks, Consumer<? super T> consumer) {
+		final List<Future<T>> futures = new ArrayList<>(tasks.size());
+		try {
+			for (final Callable<T> task : tasks) {
+				futures.add(executor.submit(task));
+			}
+			for (final Future<T> future : futures) {
+				consumer.accept(future.get());
+			}
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new RuntimeException(cause);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} finally {
+			// Has no effect on tasks that are already done
+			for (final Future<T> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	private static List<Callable<Object>> toCallables(List<? extends Runnable> tasks) {
+		final List<Callable<Object>> callables = new ArrayList<>(tasks.size());
+		for (final Runnable task : tasks) {
+			callables.add(Executors.callable(task));
+		}
+		return callables;
+	}
+
+}
@@ -25,6 +25,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.swt.graphics.Image;
 import org.osgi.framework.BundleContext;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaCache;
 import de.ovgu.featureide.fm.core.init.LibraryManager;
 import de.ovgu.featureide.fm.core.io.ExternalChangeListener;
 
@@ -50,6 +51,8 @@ public class FMUIPlugin extends AbstractUIPlugin {
 		super.start(context);
 		plugin = this;
 		LibraryManager.registerLibrary(FMUIEclipseLibrary.getInstance());
+		// Persist derived formulas of feature models in the workspace to speed up reopening them
+		FormulaCache.setDefaultBudget(FormulaCache.DEFAULT_BUDGET);
 	}
 
 	@Override
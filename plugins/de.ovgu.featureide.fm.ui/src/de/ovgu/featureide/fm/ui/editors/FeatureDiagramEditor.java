@@ -154,6 +154,7 @@ import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.ShowCollapsedConstr
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.AutomatedCalculationsAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.ConstraintsCalculationsAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.FeaturesOnlyCalculationAction;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.PropagateWithMIGAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations.RunManualCalculationsAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.colors.SetFeatureColorAction;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.commands.renaming.FeatureCellEditorLocator;
@@ -321,11 +322,12 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 
 		// Calculation actions
 		calculateDependencyAction = addAction(new CalculateDependencyAction(viewer, featureModelManager));
-		calculationActions = new ArrayList<>(4);
+		calculationActions = new ArrayList<>(5);
 		calculationActions.add(addAction(new AutomatedCalculationsAction(graphicalFeatureModel.getFeatureModelManager())));
 		calculationActions.add(addAction(new RunManualCalculationsAction(graphicalFeatureModel.getFeatureModelManager())));
 		calculationActions.add(addAction(new FeaturesOnlyCalculationAction(graphicalFeatureModel.getFeatureModelManager())));
 		calculationActions.add(addAction(new ConstraintsCalculationsAction(graphicalFeatureModel.getFeatureModelManager())));
+		calculationActions.add(addAction(new PropagateWithMIGAction(graphicalFeatureModel.getFeatureModelManager())));
 
 		// Zoom actions
 		zoomIn = addAction(new ZoomInAction(viewer.getZoomManager()));
@@ -1264,6 +1266,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 					menuManager.add(action);
 				}
 				menuManager.insert(2, new Separator());
+				menuManager.insert(calculationActions.size(), new Separator());
 			}
 		});
 		return menuManager;
@@ -32,6 +32,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.THE_FEATURE_MO
 import static de.ovgu.featureide.fm.core.localization.StringTable.THE_GIVEN_FEATURE_MODEL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.VALID_COMMA_;
 
+import java.math.BigInteger;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -675,13 +676,19 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 			sb.append(POSSIBLE_CONFIGURATIONS);
 			display.asyncExec(() -> setResolveButton(true));
 		} else {
-			final long number = conflicting ? 0 : LongRunningWrapper.runMethod(propagator.number(250));
 			sb.append(valid ? VALID_COMMA_ : INVALID_COMMA_);
-			if (number < 0) {
-				sb.append(MORE_THAN);
-				sb.append(-1 - number);
+			final BigInteger exactNumber = LongRunningWrapper.runMethod(propagator.countSolutions(250));
+			if (exactNumber != null) {
+				sb.append(exactNumber);
 			} else {
-				sb.append(number);
+				// The exact count timed out, so only enumerate solutions to get a lower bound
+				final long number = LongRunningWrapper.runMethod(propagator.enumerateSolutions(250));
+				if (number < 0) {
+					sb.append(MORE_THAN);
+					sb.append(-1 - number);
+				} else {
+					sb.append(number);
+				}
 			}
 			sb.append(POSSIBLE_CONFIGURATIONS);
 			display.asyncExec(() -> setResolveButton(false));
@@ -786,7 +793,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		final ConfigurationManager configurationManager = configurationEditor.getConfigurationManager();
 		final FeatureModelManager featureModelManager = configurationEditor.getFeatureModelManager();
 		if ((configurationManager != null) && (featureModelManager != null)) {
-			return new ConfigurationPropagator(featureModelManager.getPersistentFormula(), configurationManager.getSnapshot());
+			return ConfigurationPropagator.create(featureModelManager.getPersistentFormula(), configurationManager.getSnapshot());
 		}
 		return null;
 	}
@@ -1153,7 +1160,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 
 	private void update(UpdateStrategy updateStrategy, final Display currentDisplay, ConfigurationManager configurationManager,
 			final FeatureModelManager featureModelManager, final Configuration configuration) {
-		final ConfigurationPropagator propagator = new ConfigurationPropagator(featureModelManager.getPersistentFormula(), configuration);
+		final ConfigurationPropagator propagator = ConfigurationPropagator.create(featureModelManager.getPersistentFormula(), configuration);
 
 		final Boolean canBeValid = LongRunningWrapper.runMethod(propagator.canBeValid());
 		final boolean conflicting;
@@ -0,0 +1,69 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.actions.calculations;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.PROPAGATE_WITH_IMPLICATION_GRAPH;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModelProperty;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagatorMIG;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.manager.IFeatureModelManager;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.actions.AFeatureModelAction;
+
+/**
+ * An action to select whether configurations of the feature model are propagated using the {@link ConfigurationPropagatorMIG modal implication graph}.
+ */
+public class PropagateWithMIGAction extends AFeatureModelAction {
+
+	public static final String ID = "de.ovgu.featureide.propagatewithmig";
+
+	public PropagateWithMIGAction(IFeatureModelManager featureModelManager) {
+		super(PROPAGATE_WITH_IMPLICATION_GRAPH, ID, featureModelManager);
+	}
+
+	@Override
+	public void run() {
+		if (FeatureModelProperty.isPropagateWithMIG(featureModelManager.getSnapshot())) {
+			featureModelManager.editObject(this::setPropertyToDeactive, FeatureModelManager.CHANGE_MODEL_PROPERTY);
+		} else {
+			featureModelManager.editObject(this::setPropertyToActive, FeatureModelManager.CHANGE_MODEL_PROPERTY);
+		}
+	}
+
+	private void setPropertyToActive(IFeatureModel model) {
+		final String propertyType = FeatureModelProperty.TYPE_CALCULATIONS;
+		final String propertyName = FeatureModelProperty.PROPERTY_CALCULATIONS_PROPAGATE_WITH_MIG;
+		model.getProperty().set(propertyName, propertyType, FeatureModelProperty.VALUE_BOOLEAN_TRUE);
+	}
+
+	private void setPropertyToDeactive(IFeatureModel model) {
+		final String propertyType = FeatureModelProperty.TYPE_CALCULATIONS;
+		final String propertyName = FeatureModelProperty.PROPERTY_CALCULATIONS_PROPAGATE_WITH_MIG;
+		model.getProperty().set(propertyName, propertyType, FeatureModelProperty.VALUE_BOOLEAN_FALSE);
+	}
+
+	@Override
+	public void update() {
+		setChecked(FeatureModelProperty.isPropagateWithMIG(featureModelManager.getSnapshot()));
+	}
+
+}
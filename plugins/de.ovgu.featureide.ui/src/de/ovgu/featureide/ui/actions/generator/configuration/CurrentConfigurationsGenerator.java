@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.ui.actions.generator.configuration;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.core.resources.IFile;
@@ -32,7 +34,8 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.io.EclipseFileSystem;
-import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
+import de.ovgu.featureide.fm.core.io.manager.ConfigurationBatchLoader;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.ui.UIPlugin;
@@ -58,37 +61,41 @@ public class CurrentConfigurationsGenerator extends AConfigurationGenerator {
 	}
 
 	protected void buildCurrentConfigurations(IFeatureProject featureProject, IMonitor<?> monitor) {
+		final List<Path> configurationFiles = new ArrayList<>();
 		try {
 			for (final IResource configuration : featureProject.getConfigFolder().members()) {
-				if (confs >= builder.configurationNumber) {
+				if (configurationFiles.size() >= builder.configurationNumber) {
 					break;
 				}
-				try {
-					monitor.checkCancel();
-				} catch (final MethodCancelException e) {
-					builder.finish();
-					return;
-				}
 				if (isConfiguration(configuration)) {
-					build(configuration, monitor);
-					confs++;
+					configurationFiles.add(EclipseFileSystem.getPath(configuration));
 				}
 			}
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
+		try {
+			new ConfigurationBatchLoader(snapshot).load(configurationFiles, fileHandler -> {
+				monitor.checkCancel();
+				build(fileHandler);
+			});
+		} catch (final MethodCancelException e) {
+			builder.finish();
+		}
 	}
 
 	/**
-	 * Builds the given configuration file into the folder for current configurations.
+	 * Builds the given configuration into the folder for current configurations.
 	 *
-	 * @param configuration The configuration file
-	 * @param monitor
+	 * @param fileHandler The file handler holding the loaded configuration
 	 */
-	private void build(IResource configuration, IMonitor<?> monitor) {
-		final Configuration config = ConfigurationManager.load(EclipseFileSystem.getPath(configuration));
-		config.updateFeatures(snapshot);
-		builder.addConfiguration(new BuilderConfiguration(config, configuration.getName().split("[.]")[0]));
+	private void build(FileHandler<Configuration> fileHandler) {
+		if (fileHandler.getLastProblems().containsError()) {
+			UIPlugin.getDefault().logWarning("Could not load configuration " + fileHandler.getPath());
+		} else {
+			builder.addConfiguration(new BuilderConfiguration(fileHandler.getObject(), fileHandler.getPath().getFileName().toString().split("[.]")[0]));
+			confs++;
+		}
 	}
 
 	/**
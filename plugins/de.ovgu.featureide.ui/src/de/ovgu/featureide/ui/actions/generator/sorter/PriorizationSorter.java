@@ -38,7 +38,9 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 
 /**
- * Sorts configurations before they are generated based on their difference.
+ * Sorts configurations before they are generated based on their difference.<br> In contrast to the {@link InteractionSorter}, the order depends on the
+ * similarity of whole configurations instead of covered interactions and is thus not computed by a
+ * {@link de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationSorter TWiseConfigurationSorter}.
  *
  * @author Mustafa Alhajjaj
  */
@@ -24,10 +24,12 @@ import java.nio.file.Path;
 import java.util.LinkedList;
 
 import de.ovgu.featureide.core.IFeatureProject;
+import de.ovgu.featureide.fm.core.FMCorePlugin;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
 import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 import de.ovgu.featureide.fm.core.io.EclipseFileSystem;
 import de.ovgu.featureide.fm.core.io.MIGAdjListFormat;
+import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
@@ -61,7 +63,9 @@ public class BuildFeatureGraphHandler extends AFeatureProjectHandler {
 
 				@Override
 				public void jobFinished(IJob<ModalImplicationGraph> finishedJob) {
-					SimpleFileHandler.save(path, finishedJob.getResults(), new MIGAdjListFormat());
+					for (final Problem problem : SimpleFileHandler.save(path, finishedJob.getResults(), new MIGAdjListFormat()).getErrors()) {
+						FMCorePlugin.getDefault().logError(problem.getMessage(), problem.error);
+					}
 				}
 			});
 			runner.schedule();
@@ -0,0 +1,155 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
+
+/**
+ * Test methods of {@link CompactClauseList}.
+ */
+public class TCompactClauseList {
+
+	private static ClauseList createRandomClauses(Random random, int numberOfVariables, int numberOfClauses) {
+		final ClauseList clauses = new ClauseList();
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int[] literals = new int[1 + random.nextInt(3)];
+			for (int j = 0; j < literals.length; j++) {
+				final int variable = 1 + random.nextInt(numberOfVariables);
+				literals[j] = random.nextBoolean() ? variable : -variable;
+			}
+			clauses.add(new LiteralSet(literals, random.nextBoolean() ? Order.NATURAL : Order.UNORDERED));
+		}
+		return clauses;
+	}
+
+	@Test
+	public void addAndGetTest() {
+		final ClauseList clauses = createRandomClauses(new Random(0), 10, 200);
+		final CompactClauseList compactClauses = new CompactClauseList();
+		compactClauses.addAll(clauses);
+
+		assertEquals(clauses.size(), compactClauses.size());
+		assertEquals(clauses, compactClauses);
+		for (int i = 0; i < clauses.size(); i++) {
+			assertArrayEquals(clauses.get(i).getLiterals(), compactClauses.get(i).getLiterals());
+			assertSame(clauses.get(i).getOrder(), compactClauses.get(i).getOrder());
+		}
+		assertEquals(clauses, new CompactClauseList(compactClauses));
+	}
+
+	@Test
+	public void addLiteralTest() {
+		final CompactClauseList compactClauses = new CompactClauseList(1, 1);
+		compactClauses.addLiteral(3);
+		compactClauses.addLiteral(-1);
+		compactClauses.closeClause(Order.UNORDERED);
+		compactClauses.addClause(new int[] { 0, 2, 0 }, 1, 2, Order.NATURAL);
+		compactClauses.addLiteral(4);
+		compactClauses.closeClause(Order.NATURAL);
+
+		assertEquals(Arrays.asList(new LiteralSet(new int[] { 3, -1 }, Order.UNORDERED), new LiteralSet(2), new LiteralSet(4)), compactClauses);
+		assertEquals(4, compactClauses.getNumberOfLiterals());
+		assertEquals(2, compactClauses.getStart(1));
+		assertEquals(3, compactClauses.getEnd(1));
+	}
+
+	@Test
+	public void cnfTest() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 20; i++) {
+			final Variables variables = new Variables(Arrays.asList("a", "b", "c", "d", "e", "f"));
+			final ClauseList clauses = createRandomClauses(random, variables.size(), 12);
+			final CNF cnf = new CNF(variables, clauses);
+			final CNF compactCNF = new CNF(variables, new CompactClauseList(clauses));
+
+			assertEquals(cnf, compactCNF);
+			assertEquals(cnf.hashCode(), compactCNF.hashCode());
+			assertEquals(cnf, compactCNF.clone());
+			assertEquals(cnf.adapt(variables), compactCNF.adapt(variables));
+
+			final ModifiableSatSolver solver = new ModifiableSatSolver(cnf);
+			final ModifiableSatSolver compactSolver = new ModifiableSatSolver(compactCNF);
+			for (int v = 1; v <= variables.size(); v++) {
+				assertEquals(solver.hasSolution(v), compactSolver.hasSolution(v));
+				assertEquals(solver.hasSolution(-v), compactSolver.hasSolution(-v));
+			}
+			assertEquals(cnf.getClauses(), compactCNF.getClauses());
+		}
+	}
+
+	@Test
+	public void concurrentConversionTest() throws Exception {
+		final Variables variables = new Variables(Arrays.asList("a", "b", "c", "d", "e", "f"));
+		final ClauseList clauses = createRandomClauses(new Random(2), variables.size(), 500);
+		final int expectedHashCode = new CNF(variables, clauses).hashCode();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 200; i++) {
+				final CNF compactCNF = new CNF(variables, new CompactClauseList(clauses));
+				final List<Future<Integer>> futures = new ArrayList<>();
+				for (int j = 0; j < 4; j++) {
+					final boolean convert = (j % 2) == 0;
+					futures.add(executor.submit(() -> convert ? compactCNF.getClauses().size() : compactCNF.hashCode()));
+				}
+				for (int j = 0; j < futures.size(); j++) {
+					assertEquals((j % 2) == 0 ? clauses.size() : expectedHashCode, futures.get(j).get().intValue());
+				}
+				assertEquals(clauses, compactCNF.getClauseView());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void dimacsTest() throws Exception {
+		final String dimacs = "c 1 Foo\nc 2 Bar\nc 4 Baz\np cnf 4 4\n1 -4 0\n3 4 -1 0\n-2 0 2\n4 0";
+		final DimacsReader r = new DimacsReader();
+		r.setReadingVariableDirectory(true);
+		final Node node = r.read(dimacs);
+		final Variables variables = new Variables(r.getVariables());
+		final ClauseList expected = Nodes.convertNF(variables, node, true, true);
+
+		final CNF cnf = r.readCNF(dimacs);
+		assertEquals(variables, cnf.getVariables());
+		assertEquals(expected, cnf.getClauseView());
+		assertEquals(SatResult.FALSE, new ModifiableSatSolver(cnf).hasSolution(-3));
+	}
+
+}
@@ -0,0 +1,132 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModelCounter;
+
+/**
+ * Compares the results of the {@link ModelCounter} with a brute force enumeration of all assignments.
+ */
+public class TModelCounter {
+
+	private static final int NUMBER_OF_VARIABLES = 12;
+
+	private static CNF createCNF(int... clauses) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= NUMBER_OF_VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		int start = 0;
+		for (int i = 0; i < clauses.length; i++) {
+			if (clauses[i] == 0) {
+				cnf.addClause(new LiteralSet(Arrays.copyOfRange(clauses, start, i)));
+				start = i + 1;
+			}
+		}
+		return cnf;
+	}
+
+	private static long enumerate(CNF cnf, int... assumptions) {
+		long count = 0;
+		assignmentLoop: for (int assignment = 0; assignment < (1 << NUMBER_OF_VARIABLES); assignment++) {
+			for (final int literal : assumptions) {
+				if (!isTrue(assignment, literal)) {
+					continue assignmentLoop;
+				}
+			}
+			clauseLoop: for (final LiteralSet clause : cnf.getClauses()) {
+				for (final int literal : clause.getLiterals()) {
+					if (isTrue(assignment, literal)) {
+						continue clauseLoop;
+					}
+				}
+				continue assignmentLoop;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	private static boolean isTrue(int assignment, int literal) {
+		final boolean selected = (assignment & (1 << (Math.abs(literal) - 1))) != 0;
+		return literal > 0 ? selected : !selected;
+	}
+
+	@Test
+	public void testEmptyFormula() {
+		assertEquals(BigInteger.valueOf(1 << NUMBER_OF_VARIABLES), new ModelCounter(createCNF()).count());
+	}
+
+	@Test
+	public void testContradiction() {
+		assertEquals(BigInteger.ZERO, new ModelCounter(createCNF(1, 0, -1, 0)).count());
+		assertEquals(BigInteger.ZERO, new ModelCounter(createCNF(1, 2, 0, -1, 0, -2, 0)).count());
+	}
+
+	@Test
+	public void testAssumptions() {
+		final CNF cnf = createCNF(-2, 1, 0, -3, 1, 0, -4, 2, 0, -2, -3, 0, 5, 6, -7, 0);
+		final ModelCounter modelCounter = new ModelCounter(cnf);
+		assertEquals(BigInteger.valueOf(enumerate(cnf)), modelCounter.count());
+		assertEquals(BigInteger.valueOf(enumerate(cnf, 1)), modelCounter.count(new LiteralSet(1)));
+		assertEquals(BigInteger.valueOf(enumerate(cnf, -1)), modelCounter.count(new LiteralSet(-1)));
+		assertEquals(BigInteger.valueOf(enumerate(cnf, 4, -5)), modelCounter.count(new LiteralSet(4, -5)));
+		assertEquals(BigInteger.ZERO, modelCounter.count(new LiteralSet(2, 3)));
+	}
+
+	@Test
+	public void testRandomFormulas() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			final List<Integer> literals = new ArrayList<>();
+			final int numberOfClauses = random.nextInt(30);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final int clauseLength = 1 + random.nextInt(3);
+				for (int k = 0; k < clauseLength; k++) {
+					final int variable = 1 + random.nextInt(NUMBER_OF_VARIABLES);
+					literals.add(random.nextBoolean() ? variable : -variable);
+				}
+				literals.add(0);
+			}
+			final int[] clauses = new int[literals.size()];
+			for (int j = 0; j < clauses.length; j++) {
+				clauses[j] = literals.get(j);
+			}
+			final CNF cnf = createCNF(clauses);
+			final ModelCounter modelCounter = new ModelCounter(cnf);
+			assertEquals(BigInteger.valueOf(enumerate(cnf)), modelCounter.count());
+			final int assumption = (1 + random.nextInt(NUMBER_OF_VARIABLES)) * (random.nextBoolean() ? 1 : -1);
+			assertEquals(BigInteger.valueOf(enumerate(cnf, assumption)), modelCounter.count(new LiteralSet(assumption)));
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the results of {@link CoreDeadAnalysis} using one and multiple threads.
+ */
+public class TCoreDeadAnalysis {
+
+	private static LiteralSet analyze(CNF cnf, int threads) {
+		final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf);
+		analysis.setThreads(threads);
+		return LongRunningWrapper.runMethod(analysis);
+	}
+
+	private static void compare(String folder) {
+		final File[] modelFiles = Commons.getRemoteOrLocalFolder(folder).listFiles(new Commons.FileFilterByExtension("xml"));
+		assertFalse(modelFiles == null);
+		for (final File modelFile : modelFiles) {
+			final IFeatureModel featureModel = FeatureModelManager.load(modelFile.toPath());
+			if (featureModel != null) {
+				final CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+				final LiteralSet expected = analyze(cnf, 1);
+				assertEquals(modelFile.getName(), expected, analyze(cnf, 2));
+				assertEquals(modelFile.getName(), expected, analyze(cnf, 4));
+			}
+		}
+	}
+
+	@Test
+	public void parallelAnalysisOnTestModels() {
+		compare(Commons.TEST_FEATURE_MODEL_PATH);
+	}
+
+	@Test
+	public void parallelAnalysisOnAnalysisModels() {
+		compare("analyzefeaturemodels/");
+	}
+
+}
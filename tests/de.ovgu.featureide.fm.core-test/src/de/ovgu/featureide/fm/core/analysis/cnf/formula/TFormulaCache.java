@@ -0,0 +1,212 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+
+/**
+ * Tests the persistent {@link FormulaCache}.
+ */
+public class TFormulaCache {
+
+	private static final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+
+	private Path directory;
+
+	private static IFeatureModel createFeatureModel() {
+		final IFeatureModel fm = factory.create();
+		final IFeature root = factory.createFeature(fm, "Root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		root.getStructure().setAnd();
+
+		final IFeature group = factory.createFeature(fm, "Group");
+		group.getStructure().setMandatory(true);
+		fm.addFeature(group);
+		root.getStructure().addChild(group.getStructure());
+		group.getStructure().setAlternative();
+		for (final String name : new String[] { "A", "B", "C" }) {
+			final IFeature child = factory.createFeature(fm, name);
+			fm.addFeature(child);
+			group.getStructure().addChild(child.getStructure());
+		}
+		for (final String name : new String[] { "D", "E" }) {
+			final IFeature child = factory.createFeature(fm, name);
+			child.getStructure().setMandatory(false);
+			fm.addFeature(child);
+			root.getStructure().addChild(child.getStructure());
+		}
+		fm.addConstraint(factory.createConstraint(fm, new Implies("D", new Not("A"))));
+		return fm;
+	}
+
+	private FeatureModelFormula createFormula(IFeatureModel fm, long budget) {
+		final FeatureModelFormula formula = new FeatureModelFormula(fm);
+		formula.setCache(new FormulaCache(directory, budget));
+		return formula;
+	}
+
+	private List<Path> getEntries() throws IOException {
+		final List<Path> entries = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (final Path file : stream) {
+				entries.add(file);
+			}
+		}
+		return entries;
+	}
+
+	@Before
+	public void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("formulacache");
+	}
+
+	@After
+	public void deleteDirectory() throws IOException {
+		new FormulaCache(directory, 0).clear();
+		Files.deleteIfExists(directory);
+	}
+
+	@Test
+	public void cnfRoundTrip() throws IOException {
+		final IFeatureModel fm = createFeatureModel();
+		final CNF cnf = createFormula(fm, Long.MAX_VALUE).getCNF();
+		assertEquals(1, getEntries().size());
+
+		final CNF cachedCNF = createFormula(fm, Long.MAX_VALUE).getCNF();
+		assertNotNull(cachedCNF);
+		assertEquals(cnf.getVariables(), cachedCNF.getVariables());
+		assertEquals(cnf.getClauses(), cachedCNF.getClauses());
+	}
+
+	@Test
+	public void migAndDDNNFRoundTrip() throws IOException {
+		final IFeatureModel fm = createFeatureModel();
+		final FeatureModelFormula formula = createFormula(fm, Long.MAX_VALUE);
+		final ModalImplicationGraph mig = formula.getElement(new ModalImplicationGraphCreator());
+		final DDNNF ddnnf = formula.getElement(new DDNNFCreator());
+		assertEquals(3, getEntries().size());
+
+		final FeatureModelFormula cachedFormula = createFormula(fm, Long.MAX_VALUE);
+		final ModalImplicationGraph cachedMIG = cachedFormula.getElement(new ModalImplicationGraphCreator());
+		assertEquals(mig.getAdjList().size(), cachedMIG.getAdjList().size());
+		for (int i = 0; i < mig.getAdjList().size(); i++) {
+			final Vertex vertex = mig.getAdjList().get(i);
+			final Vertex cachedVertex = cachedMIG.getAdjList().get(i);
+			assertEquals(vertex.getVar(), cachedVertex.getVar());
+			assertEquals(vertex.isCore(), cachedVertex.isCore());
+			assertEquals(vertex.isDead(), cachedVertex.isDead());
+			assertArrayEquals(vertex.getStrongEdges(), cachedVertex.getStrongEdges());
+			assertArrayEquals(vertex.getComplexClauses(), cachedVertex.getComplexClauses());
+		}
+		assertEquals(mig.getComplexClauses(), cachedMIG.getComplexClauses());
+
+		final DDNNF cachedDDNNF = cachedFormula.getElement(new DDNNFCreator());
+		assertEquals(ddnnf.getNumberOfNodes(), cachedDDNNF.getNumberOfNodes());
+		assertEquals(ddnnf.count(), cachedDDNNF.count());
+	}
+
+	@Test
+	public void invalidateOnEdit() throws IOException {
+		final IFeatureModel fm = createFeatureModel();
+		final FeatureModelFormula formula = createFormula(fm, Long.MAX_VALUE);
+		final CNF cnf = formula.getCNF();
+
+		final IFeatureModel editedFM = fm.clone();
+		editedFM.addConstraint(factory.createConstraint(editedFM, new Implies("E", "B")));
+		final FeatureModelFormula editedFormula = createFormula(editedFM, Long.MAX_VALUE);
+		assertFalse(formula.getContentHash().equals(editedFormula.getContentHash()));
+		assertEquals(formula.getContentHash(), createFormula(fm.clone(), Long.MAX_VALUE).getContentHash());
+
+		final CNF editedCNF = editedFormula.getCNF();
+		assertEquals(cnf.getClauses().size() + 1, editedCNF.getClauses().size());
+		assertEquals(2, getEntries().size());
+	}
+
+	@Test
+	public void removeCorruptEntries() throws IOException {
+		final IFeatureModel fm = createFeatureModel();
+		final CNF cnf = createFormula(fm, Long.MAX_VALUE).getCNF();
+		final Path entry = getEntries().get(0);
+		final byte[] content = Files.readAllBytes(entry);
+		Files.write(entry, Arrays.copyOf(content, content.length / 2));
+
+		final FormulaCache cache = new FormulaCache(directory, Long.MAX_VALUE);
+		assertNull(cache.load(FormulaCache.computeHash(fm), CNFCreator.class.getName(), new CNFCacheFormat(fm)));
+		assertFalse(Files.exists(entry));
+
+		assertEquals(cnf.getClauses(), createFormula(fm, Long.MAX_VALUE).getCNF().getClauses());
+		assertTrue(Files.exists(entry));
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() throws IOException {
+		final IFeatureModel fm = createFeatureModel();
+		final CNF cnf = createFormula(fm, Long.MAX_VALUE).getCNF();
+		final long entrySize = Files.size(getEntries().get(0));
+		new FormulaCache(directory, 0).clear();
+
+		final FormulaCache cache = new FormulaCache(directory, (2 * entrySize) + (entrySize / 2));
+		final CNFCacheFormat format = new CNFCacheFormat(fm);
+		assertTrue(cache.store("1", "key", format, cnf));
+		assertTrue(cache.store("2", "key", format, cnf));
+		assertEquals(2, getEntries().size());
+		Files.setLastModifiedTime(directory.resolve("1-key.bin"), FileTime.fromMillis(1000));
+		Files.setLastModifiedTime(directory.resolve("2-key.bin"), FileTime.fromMillis(2000));
+
+		assertNotNull(cache.load("1", "key", format));
+		assertTrue(cache.store("3", "key", format, cnf));
+		assertEquals(2, getEntries().size());
+		assertNotNull(cache.load("1", "key", format));
+		assertNull(cache.load("2", "key", format));
+		assertNotNull(cache.load("3", "key", format));
+	}
+
+}
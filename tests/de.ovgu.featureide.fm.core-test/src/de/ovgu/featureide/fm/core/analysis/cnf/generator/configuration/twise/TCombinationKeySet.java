@@ -0,0 +1,110 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+
+/**
+ * Tests the ids of {@link PresenceCondition presence conditions} and the {@link CombinationKeySet}.
+ */
+public class TCombinationKeySet {
+
+	@Test
+	public void testPresenceConditionIds() {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml")).getCNF();
+		final TWiseConfigurationUtil util = new TWiseConfigurationUtil(cnf, new AdvancedSatSolver(cnf));
+		util.computeMIG();
+		final LiteralSet literals = cnf.getVariables().getLiterals();
+		// The same literals in two groups result in the same presence conditions
+		final PresenceConditionManager manager =
+			new PresenceConditionManager(util, TWiseConfigurationGenerator.convertGroupedLiterals(Arrays.asList(literals, literals)));
+
+		final List<PresenceCondition> presenceConditions = manager.getPresenceConditions();
+		for (int i = 0; i < presenceConditions.size(); i++) {
+			assertEquals(i, presenceConditions.get(i).getId());
+		}
+		final List<List<PresenceCondition>> groups = manager.getGroupedPresenceConditions();
+		assertEquals(2, groups.size());
+		assertEquals(presenceConditions.size(), groups.get(0).size());
+		for (int i = 0; i < groups.get(0).size(); i++) {
+			assertSame(groups.get(0).get(i), groups.get(1).get(i));
+		}
+		assertEquals(-1, new PresenceCondition(new ClauseList()).getId());
+	}
+
+	@Test
+	public void testKeys() {
+		final int t = 3;
+		final int n = 40;
+		final PresenceCondition[] presenceConditions = new PresenceCondition[n];
+		for (int i = 0; i < n; i++) {
+			presenceConditions[i] = new PresenceCondition();
+			presenceConditions[i].setId(i);
+		}
+		final CombinationKeySet keySet = new CombinationKeySet(t);
+		final Set<Long> keys = new HashSet<>();
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				for (int k = j + 1; k < n; k++) {
+					final long key = keySet.getKey(new PresenceCondition[] { presenceConditions[i], presenceConditions[j], presenceConditions[k] });
+					assertTrue(key != 0);
+					assertEquals(key, keySet.getKey(new PresenceCondition[] { presenceConditions[k], presenceConditions[i], presenceConditions[j] }));
+					assertTrue(keys.add(key));
+					if ((key % 3) == 0) {
+						assertTrue(keySet.add(key));
+						assertFalse(keySet.add(key));
+					}
+				}
+			}
+		}
+		int size = 0;
+		for (final long key : keys) {
+			final boolean added = (key % 3) == 0;
+			assertEquals(added, keySet.contains(key));
+			if (added) {
+				size++;
+			}
+		}
+		assertEquals(size, keySet.size());
+
+		assertTrue(CombinationKeySet.isApplicable(2, Integer.MAX_VALUE));
+		assertTrue(CombinationKeySet.isApplicable(3, (1 << 21) - 2));
+		assertFalse(CombinationKeySet.isApplicable(3, 1 << 21));
+	}
+
+}
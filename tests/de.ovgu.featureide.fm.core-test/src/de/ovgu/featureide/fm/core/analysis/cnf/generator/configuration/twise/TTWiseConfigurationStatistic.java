@@ -0,0 +1,201 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.ICombinationIterator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.LexicographicIterator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the results of {@link TWiseConfigurationStatistic} with a direct computation.
+ */
+public class TTWiseConfigurationStatistic {
+
+	private static final int SAMPLE_SIZE = 20;
+
+	private static final class Reference {
+
+		long valid, invalid, covered, uncovered;
+		double[] configValues;
+		double[] configValues2;
+
+	}
+
+	private static Reference computeReference(TWiseConfigurationUtil util, List<LiteralSet> sample, List<List<PresenceCondition>> groups, int t) {
+		final Reference reference = new Reference();
+		reference.configValues = new double[sample.size()];
+		reference.configValues2 = new double[sample.size()];
+		final TWiseCombiner combiner = new TWiseCombiner(util.getCnf().getVariables().size());
+		for (final List<PresenceCondition> expressions : groups) {
+			if (expressions.isEmpty()) {
+				continue;
+			}
+			final int t2 = Math.min(t, expressions.size());
+			for (final ICombinationIterator iterator = new LexicographicIterator(t2, expressions); iterator.hasNext();) {
+				final PresenceCondition[] combination = iterator.next();
+				if (combination == null) {
+					break;
+				}
+				final List<Integer> coveringConfigurations = new ArrayList<>();
+				for (int i = 0; i < sample.size(); i++) {
+					boolean covered = true;
+					for (final PresenceCondition presenceCondition : combination) {
+						boolean satisfied = false;
+						for (final LiteralSet literals : presenceCondition) {
+							satisfied |= sample.get(i).containsAll(literals);
+						}
+						covered &= satisfied;
+					}
+					if (covered) {
+						coveringConfigurations.add(i);
+					}
+				}
+				if (coveringConfigurations.isEmpty()) {
+					final ClauseList combinedCondition = new ClauseList();
+					combiner.combineConditions(combination, combinedCondition);
+					if (util.isCombinationValid(combinedCondition)) {
+						reference.valid++;
+						reference.uncovered++;
+					} else {
+						reference.invalid++;
+					}
+				} else {
+					reference.valid++;
+					reference.covered++;
+					for (final int i : coveringConfigurations) {
+						reference.configValues[i] += 1.0 / coveringConfigurations.size();
+						reference.configValues2[i] += coveringConfigurations.size() == 1 ? 1 : 0;
+					}
+				}
+			}
+		}
+		return reference;
+	}
+
+	private static void test(String modelName) {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+		final TWiseConfigurationUtil util = new TWiseConfigurationUtil(cnf, new AdvancedSatSolver(cnf));
+		util.computeRandomSample();
+		util.computeMIG();
+		final PresenceConditionManager presenceConditionManager =
+			new PresenceConditionManager(util, TWiseConfigurationGenerator.convertLiterals(cnf.getVariables().getLiterals()));
+		final List<List<PresenceCondition>> groups = presenceConditionManager.getGroupedPresenceConditions();
+
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(cnf, SAMPLE_SIZE);
+		generator.setRandom(new Random(0));
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(generator);
+
+		// Partial configurations, as used during sampling
+		final Random random = new Random(1);
+		final List<LiteralSet> partialSample = new ArrayList<>();
+		for (final LiteralSet configuration : sample) {
+			final int[] literals = configuration.getLiterals().clone();
+			for (int i = 0; i < literals.length; i++) {
+				if (random.nextInt(3) == 0) {
+					literals[i] = 0;
+				}
+			}
+			partialSample.add(new LiteralSet(literals, Order.INDEX, false));
+		}
+
+		for (int t = 1; t <= 3; t++) {
+			for (final List<LiteralSet> configurations : Arrays.asList(sample, partialSample)) {
+				final Reference reference = computeReference(util, configurations, groups, t);
+				double[] singleThreadValues = null;
+				for (int threads = 1; threads <= 3; threads += 2) {
+					final String message = modelName + " t=" + t + " threads=" + threads;
+
+					final TWiseConfigurationStatistic statistic = new TWiseConfigurationStatistic();
+					statistic.setT(t);
+					statistic.setThreads(threads);
+					statistic.calculate(util, configurations, groups);
+					assertEquals(message, reference.valid, statistic.getNumberOfValidConditions());
+					assertEquals(message, reference.invalid, statistic.getNumberOfInvalidConditions());
+					assertEquals(message, reference.covered, statistic.getNumberOfCoveredConditions());
+					assertEquals(message, reference.uncovered, statistic.getNumberOfUncoveredConditions());
+					final double[] expectedValues = new double[configurations.size()];
+					for (int i = 0; i < expectedValues.length; i++) {
+						expectedValues[i] = reference.configValues[i] / reference.valid;
+					}
+					assertArrayEquals(message, expectedValues, statistic.getConfigValues(), 1e-9);
+					// The sums must not depend on the number of threads
+					if (singleThreadValues == null) {
+						singleThreadValues = statistic.getConfigValues();
+					} else {
+						assertArrayEquals(message, singleThreadValues, statistic.getConfigValues(), 0);
+					}
+					assertArrayEquals(message, reference.configValues2, statistic.getConfigValues2(), 0);
+
+					final TWiseConfigurationStatistic coverageStatistic = new TWiseConfigurationStatistic();
+					coverageStatistic.setT(t);
+					coverageStatistic.setThreads(threads);
+					coverageStatistic.setOnlyCoverage(true);
+					coverageStatistic.calculate(util, configurations, groups);
+					assertEquals(message, reference.valid, coverageStatistic.getNumberOfValidConditions());
+					assertEquals(message, reference.covered, coverageStatistic.getNumberOfCoveredConditions());
+					assertEquals(message, reference.uncovered, coverageStatistic.getNumberOfUncoveredConditions());
+
+					final TWiseConfigurationStatistic fastStatistic = new TWiseConfigurationStatistic();
+					fastStatistic.setT(t);
+					fastStatistic.setThreads(threads);
+					fastStatistic.setFastCalc(true);
+					fastStatistic.calculate(util, configurations, groups);
+					assertEquals(message, reference.covered, fastStatistic.getNumberOfCoveredConditions());
+					assertEquals(message, reference.uncovered + reference.invalid, fastStatistic.getNumberOfUncoveredConditions());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCar() {
+		test("car.xml");
+	}
+
+	@Test
+	public void testGPL() {
+		test("gpl_medium_model.xml");
+	}
+
+	@Test
+	public void testBerkeleyDB() {
+		test("berkeley_db_model.xml");
+	}
+
+}
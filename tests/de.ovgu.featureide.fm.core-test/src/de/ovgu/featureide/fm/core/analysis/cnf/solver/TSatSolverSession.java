@@ -0,0 +1,154 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+
+/**
+ * Tests that a {@link SatSolverSession} hands out its solver in the same state to every borrower.
+ */
+public class TSatSolverSession {
+
+	private static CNF createCNF(LiteralSet... clauses) {
+		final CNF cnf = new CNF(new Variables(Arrays.asList("a", "b", "c")));
+		for (final LiteralSet clause : clauses) {
+			cnf.addClause(clause);
+		}
+		return cnf;
+	}
+
+	@Test
+	public void testRelease() {
+		final SatSolverSession session = new SatSolverSession(createCNF(new LiteralSet(1, 2), new LiteralSet(-2, 3)));
+
+		final ISatSolver solver = session.borrow();
+		assertNotNull(solver);
+		final long initialTimeout = ((ModifiableSatSolver) solver).solver.getTimeoutMs();
+		assertNull(session.borrow());
+
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		solver.shuffleOrder();
+		solver.setTimeout(5);
+		solver.assignmentPush(-1);
+		solver.addClause(new LiteralSet(-3));
+		assertEquals(SatResult.FALSE, solver.hasSolution());
+		session.release(solver);
+
+		final ISatSolver nextSolver = session.borrow();
+		assertSame(solver, nextSolver);
+		assertEquals(SelectionStrategy.ORG, nextSolver.getSelectionStrategy());
+		assertEquals(initialTimeout, ((ModifiableSatSolver) nextSolver).solver.getTimeoutMs());
+		assertEquals(0, nextSolver.getAssignmentSize());
+		assertEquals(SatResult.TRUE, nextSolver.hasSolution());
+		session.release(nextSolver);
+	}
+
+	@Test
+	public void testContradiction() {
+		final SatSolverSession session = new SatSolverSession(createCNF(new LiteralSet(1), new LiteralSet(-1)));
+		assertNull(session.borrow());
+		assertNull(session.borrow());
+	}
+
+	/**
+	 * Creates a formula that states that 4 pigeons sit in 3 holes, if the last variable is selected. Refuting this variable requires several conflicts.
+	 */
+	private static CNF createPigeonHoleCNF() {
+		final int pigeons = 4;
+		final int holes = 3;
+		final int selector = (pigeons * holes) + 1;
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= selector; i++) {
+			names.add("x" + i);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		for (int p = 0; p < pigeons; p++) {
+			final int[] literals = new int[holes + 1];
+			for (int h = 0; h < holes; h++) {
+				literals[h] = (p * holes) + h + 1;
+			}
+			literals[holes] = -selector;
+			cnf.addClause(new LiteralSet(literals));
+		}
+		for (int h = 0; h < holes; h++) {
+			for (int p1 = 0; p1 < pigeons; p1++) {
+				for (int p2 = p1 + 1; p2 < pigeons; p2++) {
+					cnf.addClause(new LiteralSet(-((p1 * holes) + h + 1), -((p2 * holes) + h + 1)));
+				}
+			}
+		}
+		return cnf;
+	}
+
+	@Test
+	public void testKeepLearnedClausesAndActivities() {
+		final CNF cnf = createPigeonHoleCNF();
+		final SatSolverSession session = new SatSolverSession(cnf);
+
+		final ModifiableSatSolver solver = (ModifiableSatSolver) session.borrow();
+		solver.assignmentPush(cnf.getVariables().size());
+		assertEquals(SatResult.FALSE, solver.hasSolution());
+		session.release(solver);
+
+		final ModifiableSatSolver nextSolver = (ModifiableSatSolver) session.borrow();
+		assertTrue(nextSolver.solver.getLearnedConstraints().size() > 0);
+		boolean activity = false;
+		for (final double value : nextSolver.solver.getOrder().getVariableHeuristics()) {
+			activity |= value > 0;
+		}
+		assertTrue(activity);
+		assertEquals(SatResult.TRUE, nextSolver.hasSolution());
+		session.release(nextSolver);
+	}
+
+	@Test
+	public void testRemoveLearnedClausesWithAddedClauses() {
+		final CNF cnf = createPigeonHoleCNF();
+		final SatSolverSession session = new SatSolverSession(cnf);
+
+		final ModifiableSatSolver solver = (ModifiableSatSolver) session.borrow();
+		solver.addClause(new LiteralSet(cnf.getVariables().size()));
+		assertEquals(SatResult.FALSE, solver.hasSolution());
+		session.release(solver);
+
+		final ModifiableSatSolver nextSolver = (ModifiableSatSolver) session.borrow();
+		assertEquals(0, nextSolver.solver.getLearnedConstraints().size());
+		assertEquals(SatResult.TRUE, nextSolver.hasSolution());
+		session.release(nextSolver);
+	}
+
+}
@@ -0,0 +1,221 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the queries of a compiled {@link DDNNF} with a brute force enumeration of all assignments.
+ */
+public class TDDNNF {
+
+	private static final int NUMBER_OF_VARIABLES = 10;
+
+	private static CNF createRandomCNF(Random random) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= NUMBER_OF_VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		final int numberOfClauses = random.nextInt(25);
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int[] literals = new int[1 + random.nextInt(3)];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = randomLiteral(random);
+			}
+			cnf.addClause(new LiteralSet(literals));
+		}
+		return cnf;
+	}
+
+	private static int randomLiteral(Random random) {
+		final int variable = 1 + random.nextInt(NUMBER_OF_VARIABLES);
+		return random.nextBoolean() ? variable : -variable;
+	}
+
+	private static List<Integer> getSolutions(CNF cnf, int... assumptions) {
+		final List<Integer> solutions = new ArrayList<>();
+		assignmentLoop: for (int assignment = 0; assignment < (1 << NUMBER_OF_VARIABLES); assignment++) {
+			for (final int literal : assumptions) {
+				if (!isTrue(assignment, literal)) {
+					continue assignmentLoop;
+				}
+			}
+			clauseLoop: for (final LiteralSet clause : cnf.getClauses()) {
+				for (final int literal : clause.getLiterals()) {
+					if (isTrue(assignment, literal)) {
+						continue clauseLoop;
+					}
+				}
+				continue assignmentLoop;
+			}
+			solutions.add(assignment);
+		}
+		return solutions;
+	}
+
+	private static boolean isTrue(int assignment, int literal) {
+		final boolean selected = (assignment & (1 << (Math.abs(literal) - 1))) != 0;
+		return literal > 0 ? selected : !selected;
+	}
+
+	private static Set<Integer> getImpliedLiterals(List<Integer> solutions, int... assumptions) {
+		final Set<Integer> impliedLiterals = new HashSet<>();
+		if (!solutions.isEmpty()) {
+			variableLoop: for (int variable = 1; variable <= NUMBER_OF_VARIABLES; variable++) {
+				for (final int literal : assumptions) {
+					if (Math.abs(literal) == variable) {
+						continue variableLoop;
+					}
+				}
+				final boolean value = isTrue(solutions.get(0), variable);
+				for (final int solution : solutions) {
+					if (isTrue(solution, variable) != value) {
+						continue variableLoop;
+					}
+				}
+				impliedLiterals.add(value ? variable : -variable);
+			}
+		}
+		return impliedLiterals;
+	}
+
+	@Test
+	public void testContradiction() {
+		final CNF cnf = new CNF(new Variables(Arrays.asList("a", "b")));
+		cnf.addClause(new LiteralSet(1, 2));
+		cnf.addClause(new LiteralSet(-1));
+		cnf.addClause(new LiteralSet(-2));
+		final DDNNF ddnnf = DDNNF.build(cnf);
+		assertFalse(ddnnf.isSatisfiable());
+		assertEquals(BigInteger.ZERO, ddnnf.count());
+		assertEquals(0, ddnnf.getImpliedLiterals(new LiteralSet()).size());
+		assertNull(new DDNNFSampler(ddnnf).sample(new Random(0)));
+	}
+
+	@Test
+	public void testUniformSampling() {
+		final int samplesPerSolution = 100;
+		final Random random = new Random(1);
+		for (int i = 0; i < 20; i++) {
+			final CNF cnf = createRandomCNF(random);
+			final int[] assumptions = (random.nextBoolean()) ? new int[] { randomLiteral(random) } : new int[0];
+			final List<Integer> solutions = getSolutions(cnf, assumptions);
+
+			final DDNNFSampler sampler = new DDNNFSampler(DDNNF.build(cnf), new LiteralSet(assumptions));
+			assertEquals(BigInteger.valueOf(solutions.size()), sampler.getNumberOfSolutions());
+
+			final Map<Integer, Integer> frequencies = new HashMap<>();
+			for (int j = 0; j < (solutions.size() * samplesPerSolution); j++) {
+				final int[] literals = sampler.sample(random).getLiterals();
+				int assignment = 0;
+				for (int k = 0; k < literals.length; k++) {
+					if (literals[k] > 0) {
+						assignment |= 1 << k;
+					}
+				}
+				frequencies.merge(assignment, 1, Integer::sum);
+			}
+			assertEquals(new HashSet<>(solutions), frequencies.keySet());
+			// Deviation of more than six standard deviations
+			for (final int frequency : frequencies.values()) {
+				assertTrue(Math.abs(frequency - samplesPerSolution) < (6 * Math.sqrt(samplesPerSolution)));
+			}
+		}
+	}
+
+	@Test
+	public void testSlicedSampling() {
+		final CNF cnf = new CNF(new Variables(Arrays.asList("a", "b", "c", "d")));
+		cnf.addClause(new LiteralSet(1, 2));
+		cnf.addClause(new LiteralSet(-2, 3));
+		cnf.addClause(new LiteralSet(-3, -4));
+		final CNF slicedCNF = LongRunningWrapper.runMethod(new CNFSlicer(cnf, Arrays.asList("b")));
+		final DDNNFSampler sampler = new DDNNFSampler(DDNNF.build(slicedCNF));
+		final Random random = new Random(0);
+		for (int i = 0; i < 20; i++) {
+			final LiteralSet sample = sampler.sample(random);
+			assertEquals(Order.INDEX, sample.getOrder());
+			final int[] literals = sample.getLiterals();
+			assertEquals(4, literals.length);
+			// The sliced variable b has no value, all others are placed at the index of their variable
+			assertEquals(0, literals[1]);
+			for (final int index : new int[] { 0, 2, 3 }) {
+				assertEquals(index + 1, Math.abs(literals[index]));
+			}
+			assertFalse((literals[2] > 0) && (literals[3] > 0));
+		}
+	}
+
+	@Test
+	public void testRandomFormulas() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			final CNF cnf = createRandomCNF(random);
+			final DDNNF ddnnf = DDNNF.build(cnf);
+
+			final int[] assumptions = new int[random.nextInt(3)];
+			for (int j = 0; j < assumptions.length; j++) {
+				assumptions[j] = randomLiteral(random);
+				for (int k = 0; k < j; k++) {
+					if (Math.abs(assumptions[k]) == Math.abs(assumptions[j])) {
+						assumptions[j] = assumptions[k];
+					}
+				}
+			}
+			final LiteralSet assumptionSet = new LiteralSet(assumptions);
+
+			final List<Integer> solutions = getSolutions(cnf, assumptions);
+			assertEquals(BigInteger.valueOf(getSolutions(cnf).size()), ddnnf.count());
+			assertEquals(BigInteger.valueOf(solutions.size()), ddnnf.count(assumptionSet));
+			assertEquals(!solutions.isEmpty(), ddnnf.isSatisfiable(assumptionSet));
+
+			final Set<Integer> impliedLiterals = new HashSet<>();
+			for (final int literal : ddnnf.getImpliedLiterals(assumptionSet).getLiterals()) {
+				impliedLiterals.add(literal);
+			}
+			assertEquals(getImpliedLiterals(solutions, assumptions), impliedLiterals);
+		}
+	}
+
+}
@@ -0,0 +1,192 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the graphs updated by {@link IncrementalMIGBuilder} with completely rebuilt graphs.
+ */
+public class TIncrementalMIGBuilder {
+
+	private static final int NUMBER_OF_BLOCKS = 4;
+	private static final int BLOCK_SIZE = 10;
+	private static final int NUMBER_OF_VARIABLES = NUMBER_OF_BLOCKS * BLOCK_SIZE;
+
+	private static Variables createVariables() {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= NUMBER_OF_VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		return new Variables(names);
+	}
+
+	/**
+	 * Creates a random clause that is satisfied by selecting all variables. All variables are within the same block.
+	 */
+	private static LiteralSet createRandomClause(Random random, int size) {
+		final int offset = random.nextInt(NUMBER_OF_BLOCKS) * BLOCK_SIZE;
+		final int[] literals = new int[size];
+		literals[0] = 1 + offset + random.nextInt(BLOCK_SIZE);
+		for (int j = 1; j < literals.length; j++) {
+			final int variable = 1 + offset + random.nextInt(BLOCK_SIZE);
+			literals[j] = random.nextBoolean() ? variable : -variable;
+		}
+		return new LiteralSet(literals).clean();
+	}
+
+	private static ClauseList createRandomClauses(Random random) {
+		final ClauseList clauses = new ClauseList();
+		clauses.add(new LiteralSet(1 + random.nextInt(NUMBER_OF_VARIABLES)));
+		while (clauses.size() < (NUMBER_OF_VARIABLES + NUMBER_OF_BLOCKS)) {
+			final LiteralSet clause = createRandomClause(random, 2 + random.nextInt(2));
+			if (clause != null) {
+				clauses.add(clause);
+			}
+		}
+		return clauses;
+	}
+
+	private static ModalImplicationGraph update(ModalImplicationGraph oldMig, CNF oldCnf, CNF newCnf, boolean detectStrong) {
+		return LongRunningWrapper.runMethod(new IncrementalMIGBuilder(oldMig, oldCnf, newCnf, detectStrong));
+	}
+
+	private static void assertEquivalentGraphs(CNF cnf, ModalImplicationGraph expected, ModalImplicationGraph actual) {
+		assertEquals(expected.getAdjList().size(), actual.getAdjList().size());
+		for (int i = 0; i < expected.getAdjList().size(); i++) {
+			final Vertex vertex = expected.getAdjList().get(i);
+			final Vertex actualVertex = actual.getAdjList().get(i);
+			assertEquals(vertex.getVar(), actualVertex.getVar());
+			assertEquals(vertex.isCore(), actualVertex.isCore());
+			assertEquals(vertex.isDead(), actualVertex.isDead());
+			final int[] strongEdges = vertex.getStrongEdges().clone();
+			final int[] actualStrongEdges = actualVertex.getStrongEdges().clone();
+			Arrays.sort(strongEdges);
+			Arrays.sort(actualStrongEdges);
+			assertArrayEquals(strongEdges, actualStrongEdges);
+		}
+
+		// Complex clauses may differ, but must be equivalent to the CNF
+		final CNF migCnf = new CNF(cnf, false);
+		for (final Vertex vertex : actual.getAdjList()) {
+			if (vertex.isCore()) {
+				migCnf.addClause(new LiteralSet(vertex.getVar()));
+			}
+			for (final int strongEdge : vertex.getStrongEdges()) {
+				migCnf.addClause(new LiteralSet(-vertex.getVar(), strongEdge));
+			}
+			for (final int complexClause : vertex.getComplexClauses()) {
+				assertTrue(actual.getComplexClauses().get(complexClause).containsLiteral(-vertex.getVar()));
+			}
+		}
+		migCnf.addClauses(actual.getComplexClauses());
+		assertImplies(migCnf, cnf.getClauseView());
+		assertImplies(cnf, actual.getComplexClauses());
+	}
+
+	private static void assertImplies(CNF cnf, List<LiteralSet> clauses) {
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		for (final LiteralSet clause : clauses) {
+			assertEquals(SatResult.FALSE, solver.hasSolution(clause.negate().getLiterals()));
+		}
+	}
+
+	private static void testUpdates(boolean detectStrong) {
+		final Random random = new Random(7);
+		for (int i = 0; i < 20; i++) {
+			final ClauseList clauses = createRandomClauses(random);
+			final CNF oldCnf = new CNF(createVariables(), new ClauseList(clauses));
+			final ModalImplicationGraph oldMig = ModalImplicationGraph.build(oldCnf, detectStrong);
+
+			switch (i % 3) {
+			case 0:
+				clauses.add(createRandomClause(random, 2));
+				break;
+			case 1:
+				clauses.remove(1 + random.nextInt(clauses.size() - 1));
+				break;
+			case 2:
+				clauses.remove(1 + random.nextInt(clauses.size() - 1));
+				final LiteralSet newClause = createRandomClause(random, 3);
+				if (newClause != null) {
+					clauses.add(newClause);
+				}
+				// Connect two blocks
+				clauses.add(new LiteralSet(-1, BLOCK_SIZE + 1));
+				break;
+			}
+			final CNF newCnf = new CNF(createVariables(), clauses);
+			final ModalImplicationGraph expectedMig = ModalImplicationGraph.build(newCnf, detectStrong);
+			assertEquivalentGraphs(newCnf, expectedMig, update(oldMig, oldCnf, newCnf, detectStrong));
+		}
+	}
+
+	@Test
+	public void updateWithStrongEdgeDetection() {
+		testUpdates(true);
+	}
+
+	@Test
+	public void updateWithoutStrongEdgeDetection() {
+		testUpdates(false);
+	}
+
+	@Test
+	public void renameAndReorderVariables() {
+		final Random random = new Random(11);
+		final CNF oldCnf = new CNF(createVariables(), createRandomClauses(random));
+		final ModalImplicationGraph oldMig = ModalImplicationGraph.build(oldCnf, true);
+
+		final CNF newCnf = oldCnf.randomize(random);
+		newCnf.getVariables().renameVariable("v1", "renamed");
+		assertEquivalentGraphs(newCnf, ModalImplicationGraph.build(newCnf, true), update(oldMig, oldCnf, newCnf, true));
+	}
+
+	@Test
+	public void unsatisfiableUpdate() {
+		final Random random = new Random(13);
+		final ClauseList clauses = createRandomClauses(random);
+		final CNF oldCnf = new CNF(createVariables(), new ClauseList(clauses));
+		final ModalImplicationGraph oldMig = ModalImplicationGraph.build(oldCnf, true);
+
+		clauses.add(new LiteralSet(-clauses.get(0).getLiterals()[0]));
+		assertNull(update(oldMig, oldCnf, new CNF(createVariables(), clauses), true));
+	}
+
+}
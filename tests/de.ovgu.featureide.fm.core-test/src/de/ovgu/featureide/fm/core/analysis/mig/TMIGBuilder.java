@@ -0,0 +1,100 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the graphs built by {@link MIGBuilder} using one and multiple threads.
+ */
+public class TMIGBuilder {
+
+	private static final int NUMBER_OF_VARIABLES = 40;
+
+	/**
+	 * Creates a random CNF that is satisfied by selecting all variables and contains some core features.
+	 */
+	private static CNF createRandomCNF(Random random) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= NUMBER_OF_VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		cnf.addClause(new LiteralSet(1 + random.nextInt(NUMBER_OF_VARIABLES)));
+		for (int i = 0; i < (2 * NUMBER_OF_VARIABLES); i++) {
+			final int[] literals = new int[2 + random.nextInt(3)];
+			literals[0] = 1 + random.nextInt(NUMBER_OF_VARIABLES);
+			for (int j = 1; j < literals.length; j++) {
+				final int variable = 1 + random.nextInt(NUMBER_OF_VARIABLES);
+				literals[j] = random.nextBoolean() ? variable : -variable;
+			}
+			final LiteralSet clause = new LiteralSet(literals).clean();
+			if (clause != null) {
+				cnf.addClause(clause);
+			}
+		}
+		return cnf;
+	}
+
+	private static ModalImplicationGraph build(CNF cnf, boolean detectStrong, int threads) {
+		final MIGBuilder builder = new MIGBuilder(cnf, detectStrong);
+		builder.setThreads(threads);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+	private static void assertEqualGraphs(ModalImplicationGraph expected, ModalImplicationGraph actual) {
+		assertEquals(expected.getAdjList().size(), actual.getAdjList().size());
+		for (int i = 0; i < expected.getAdjList().size(); i++) {
+			final Vertex vertex = expected.getAdjList().get(i);
+			final Vertex actualVertex = actual.getAdjList().get(i);
+			assertEquals(vertex.isCore(), actualVertex.isCore());
+			assertEquals(vertex.isDead(), actualVertex.isDead());
+			assertArrayEquals(vertex.getStrongEdges(), actualVertex.getStrongEdges());
+			assertArrayEquals(vertex.getComplexClauses(), actualVertex.getComplexClauses());
+		}
+		assertEquals(expected.getComplexClauses(), actual.getComplexClauses());
+	}
+
+	@Test
+	public void parallelBuild() {
+		final Random random = new Random(5);
+		for (int i = 0; i < 10; i++) {
+			final CNF cnf = createRandomCNF(random);
+			final boolean detectStrong = (i % 2) == 0;
+			final ModalImplicationGraph mig = build(cnf, detectStrong, 1);
+			assertEqualGraphs(mig, build(cnf, detectStrong, 2));
+			assertEqualGraphs(mig, build(cnf, detectStrong, 4));
+		}
+	}
+
+}
@@ -26,24 +26,37 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.Test;
 
 import de.ovgu.featureide.Commons;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IntermediateSample;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.PairWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.SampleTester;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationSorter;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseCoverageCriterion;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.io.csv.ConfigurationListFormat;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.io.sample.BinaryConfigurationListWriter;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
  * Tests sampling algorithms.
@@ -87,6 +100,207 @@ public class ConfigurationGeneratorTest {
 		testLimitedSize("gpl_medium_model", "all", 960, Integer.MAX_VALUE);
 	}
 
+	@Test
+	public void AllResume() throws IOException {
+		final Path modelFile = modelDirectory.resolve("gpl_medium_model.xml");
+		final Path outFile = Files.createTempFile("output", "");
+		try {
+			runGenerator(modelFile, outFile, "all", "-l", "500", "-flush", "100");
+			assertEquals(501, Files.readAllLines(outFile).size());
+			runGenerator(modelFile, outFile, "all", "-resume");
+
+			final SolutionList sample = new SolutionList();
+			FileHandler.load(outFile, sample, new ConfigurationListFormat());
+			final SampleTester tester = new SampleTester(new FeatureModelFormula(FeatureModelManager.load(modelFile)).getCNF());
+			tester.setSample(sample.getSolutions());
+			assertFalse(tester.hasInvalidSolutions());
+			assertEquals(960, new HashSet<>(sample.getSolutions()).size());
+			assertEquals(960, tester.getSize());
+		} finally {
+			Files.deleteIfExists(outFile);
+		}
+	}
+
+	@Test
+	public void RandomBinaryResume() throws IOException {
+		final Path modelFile = modelDirectory.resolve("gpl_medium_model.xml");
+		final Path outFile = Files.createTempFile("output", ".bin");
+		try {
+			runGenerator(modelFile, outFile, "random", "-l", "100", "-format", "binary");
+			runGenerator(modelFile, outFile, "random", "-l", "300", "-format", "binary", "-resume");
+
+			final List<LiteralSet> sample = new ArrayList<>();
+			BinaryConfigurationListWriter.read(outFile, sample::add);
+			final SampleTester tester = new SampleTester(new FeatureModelFormula(FeatureModelManager.load(modelFile)).getCNF());
+			tester.setSample(sample);
+			assertFalse(tester.hasInvalidSolutions());
+			assertEquals(300, new HashSet<>(sample).size());
+			assertEquals(300, tester.getSize());
+		} finally {
+			Files.deleteIfExists(outFile);
+		}
+	}
+
+	@Test
+	public void YASAIncremental() throws IOException {
+		final Path modelFile = modelDirectory.resolve("gpl_medium_model.xml");
+		final Path changedModelFile = Files.createTempFile("input", ".xml");
+		final Path outFile = Files.createTempFile("output", "");
+		final Path changedOutFile = Files.createTempFile("output", "");
+		try {
+			// Add a new feature and a new constraint
+			final String model = new String(Files.readAllBytes(modelFile), StandardCharsets.UTF_8) //
+					.replace("<feature mandatory=\"true\" name=\"Base\"/>", "<feature mandatory=\"true\" name=\"Base\"/><feature name=\"Benchmark\"/>") //
+					.replace("<constraints>", "<constraints><rule><imp><var>Cycle</var><var>DFS</var></imp></rule>");
+			Files.write(changedModelFile, model.getBytes(StandardCharsets.UTF_8));
+
+			runGenerator(modelFile, outFile, "yasa", "-t", "2");
+			runGenerator(changedModelFile, changedOutFile, "yasa", "-t", "2", "-initial", outFile.toString());
+
+			final SolutionList oldSample = new SolutionList();
+			FileHandler.load(outFile, oldSample, new ConfigurationListFormat());
+			final SolutionList newSample = new SolutionList();
+			FileHandler.load(changedOutFile, newSample, new ConfigurationListFormat());
+
+			final SampleTester tester = new SampleTester(new FeatureModelFormula(FeatureModelManager.load(changedModelFile)).getCNF());
+			tester.setSample(newSample.getSolutions());
+			assertFalse(tester.hasInvalidSolutions());
+			assertEquals(1.0, tester.getCoverage(new TWiseCoverageCriterion(tester.getCnf(), 2)), 0.0);
+
+			// All configurations that are still valid must be kept in the same order
+			int index = 0;
+			for (final LiteralSet oldConfiguration : oldSample.getSolutions()) {
+				final List<String> selectedFeatures = oldSample.getVariables().convertToString(oldConfiguration);
+				if (!selectedFeatures.contains("Cycle") || selectedFeatures.contains("DFS")) {
+					while ((index < newSample.getSolutions().size())
+						&& !newSample.getVariables().convertToString(newSample.getSolutions().get(index)).equals(selectedFeatures)) {
+						index++;
+					}
+					assertTrue("Missing configuration " + selectedFeatures, index < oldSample.getSolutions().size());
+				}
+			}
+		} finally {
+			Files.deleteIfExists(changedModelFile);
+			Files.deleteIfExists(outFile);
+			Files.deleteIfExists(changedOutFile);
+		}
+	}
+
+	@Test
+	public void AllSorted() throws IOException {
+		final Path modelFile = modelDirectory.resolve("gpl_medium_model.xml");
+		final Path outFile = Files.createTempFile("output", "");
+		try {
+			runGenerator(modelFile, outFile, "all", "-t", "2", "-sort");
+
+			final SolutionList sample = new SolutionList();
+			FileHandler.load(outFile, sample, new ConfigurationListFormat());
+			final List<LiteralSet> configurations = sample.getSolutions();
+			assertEquals(960, new HashSet<>(configurations).size());
+
+			final TWiseConfigurationSorter sorter = new TWiseConfigurationSorter(configurations, 2);
+			sorter.setSkipRedundant(true);
+			final int numberOfContributingConfigurations = LongRunningWrapper.runMethod(sorter).size();
+			assertTrue(numberOfContributingConfigurations < 960);
+
+			// The contributing configurations are already at the beginning of the sorted sample
+			final SampleTester tester = new SampleTester(new FeatureModelFormula(FeatureModelManager.load(modelFile)).getCNF());
+			tester.setSample(configurations.subList(0, numberOfContributingConfigurations));
+			assertEquals(1.0, tester.getCoverage(new TWiseCoverageCriterion(tester.getCnf(), 2)), 0.0);
+			tester.setSample(configurations.subList(0, numberOfContributingConfigurations - 1));
+			assertTrue(tester.getCoverage(new TWiseCoverageCriterion(tester.getCnf(), 2)) < 1.0);
+			for (int i = 0; i < numberOfContributingConfigurations; i++) {
+				assertEquals(i, sorter.getOrder()[i]);
+			}
+		} finally {
+			Files.deleteIfExists(outFile);
+		}
+	}
+
+	@Test
+	public void SortAllSizes() {
+		final Random random = new Random(0);
+		final List<LiteralSet> sample = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			final int[] literals = new int[8];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = random.nextBoolean() ? j + 1 : -(j + 1);
+			}
+			sample.add(new LiteralSet(literals));
+		}
+		for (int t = 1; t <= 3; t++) {
+			final TWiseConfigurationSorter sorter = new TWiseConfigurationSorter(sample, t);
+			sorter.setCoverAllSizes(true);
+			sorter.setSkipRedundant(true);
+			LongRunningWrapper.runMethod(sorter);
+			assertEquals(getNaiveOrder(sample, t), toList(sorter.getOrder()));
+		}
+	}
+
+	/**
+	 * Greedily selects the configuration that covers most new interactions of size 1 to t (ties are broken by the original index).
+	 */
+	private static List<Integer> getNaiveOrder(List<LiteralSet> sample, int t) {
+		final List<Set<List<Integer>>> interactions = new ArrayList<>();
+		for (final LiteralSet configuration : sample) {
+			final Set<List<Integer>> configurationInteractions = new HashSet<>();
+			addInteractions(configuration.getLiterals(), 0, new ArrayList<Integer>(), t, configurationInteractions);
+			interactions.add(configurationInteractions);
+		}
+		final List<Integer> order = new ArrayList<>();
+		final Set<List<Integer>> covered = new HashSet<>();
+		while (true) {
+			int best = -1;
+			int bestGain = 0;
+			for (int i = 0; i < interactions.size(); i++) {
+				if (!order.contains(i)) {
+					final Set<List<Integer>> uncovered = new HashSet<>(interactions.get(i));
+					uncovered.removeAll(covered);
+					if (uncovered.size() > bestGain) {
+						best = i;
+						bestGain = uncovered.size();
+					}
+				}
+			}
+			if (best < 0) {
+				return order;
+			}
+			order.add(best);
+			covered.addAll(interactions.get(best));
+		}
+	}
+
+	private static void addInteractions(int[] literals, int start, List<Integer> interaction, int t, Set<List<Integer>> interactions) {
+		for (int i = start; i < literals.length; i++) {
+			final List<Integer> newInteraction = new ArrayList<>(interaction);
+			newInteraction.add(literals[i]);
+			interactions.add(newInteraction);
+			if (newInteraction.size() < t) {
+				addInteractions(literals, i + 1, newInteraction, t, interactions);
+			}
+		}
+	}
+
+	private static List<Integer> toList(int[] array) {
+		final List<Integer> list = new ArrayList<>(array.length);
+		for (final int value : array) {
+			list.add(value);
+		}
+		return list;
+	}
+
+	private static void runGenerator(Path modelFile, Path outFile, String algorithm, String... options) {
+		final ArrayList<String> args = new ArrayList<>();
+		args.add("-a");
+		args.add(algorithm);
+		args.add("-o");
+		args.add(outFile.toString());
+		args.add("-fm");
+		args.add(modelFile.toString());
+		args.addAll(Arrays.asList(options));
+		new ConfigurationGenerator().run(args);
+	}
+
 	@Test
 	public void RandomLimit() {
 		testLimitedSize("basic", "random", 1, 0);
@@ -107,6 +321,37 @@ public class ConfigurationGeneratorTest {
 		testLimitedSize("apl_model", "random", 100, 100);
 	}
 
+	@Test
+	public void UniformCoverage() {
+		testSize("basic", "uniform", 1);
+		testSize("simple", "uniform", 2);
+		testSize("car", "uniform", 7);
+		testSize("gpl_medium_model", "uniform", 960);
+	}
+
+	@Test
+	public void UniformLimit() {
+		testLimitedSize("car", "uniform", 7, 5);
+		testLimitedSize("gpl_medium_model", "uniform", 960, 100);
+		testLimitedSize("apl_model", "uniform", 100, 100);
+	}
+
+	@Test
+	public void UniformDeterminism() throws IOException {
+		final Path modelFile = modelDirectory.resolve("gpl_medium_model.xml");
+		final Path outFile = Files.createTempFile("output", "");
+		final Path outFile2 = Files.createTempFile("output", "");
+		try {
+			runGenerator(modelFile, outFile, "uniform", "-l", "500", "-seed", "42", "-threads", "3");
+			runGenerator(modelFile, outFile2, "uniform", "-l", "500", "-seed", "42", "-threads", "3");
+			assertEquals(501, Files.readAllLines(outFile).size());
+			assertEquals(Files.readAllLines(outFile), Files.readAllLines(outFile2));
+		} finally {
+			Files.deleteIfExists(outFile);
+			Files.deleteIfExists(outFile2);
+		}
+	}
+
 	@Test
 	public void ChvatalLimit() {
 		testTWiseLimitedSize("gpl_medium_model", "chvatal", 1, 5);
@@ -135,6 +380,45 @@ public class ConfigurationGeneratorTest {
 		testTWiseLimitedSize("gpl_medium_model", "yasa", 3, 5);
 	}
 
+	@Test
+	public void YASATimeLimit() {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("berkeley_db_model.xml")).getCNF();
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(cnf, 3);
+		generator.setTimeLimit(1);
+		testTimeLimit(cnf, generator);
+	}
+
+	@Test
+	public void InclingTimeLimit() {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("berkeley_db_model.xml")).getCNF();
+		final PairWiseConfigurationGenerator generator = new PairWiseConfigurationGenerator(cnf, Integer.MAX_VALUE);
+		generator.setTimeLimit(1);
+		testTimeLimit(cnf, generator);
+	}
+
+	private static void testTimeLimit(CNF cnf, IConfigurationGenerator generator) {
+		final List<List<LiteralSet>> intermediateSamples = new ArrayList<>();
+		final List<Double> intermediateCoverage = new ArrayList<>();
+		final NullMonitor<List<LiteralSet>> monitor = new NullMonitor<>();
+		monitor.setIntermediateFunction(intermediateSample -> {
+			if (intermediateSample != null) {
+				intermediateSamples.add(intermediateSample);
+				intermediateCoverage.add(((IntermediateSample) intermediateSample).getCoverage());
+			}
+		});
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(generator, monitor);
+
+		final SampleTester tester = new SampleTester(cnf);
+		tester.setSample(sample);
+		assertFalse(sample.isEmpty());
+		assertFalse(tester.hasInvalidSolutions());
+		assertFalse(intermediateSamples.isEmpty());
+		assertEquals(sample, intermediateSamples.get(intermediateSamples.size() - 1));
+		for (final double value : intermediateCoverage) {
+			assertTrue((value >= 0) && (value <= 1));
+		}
+	}
+
 	@Test
 	public void YASAOneWiseCoverage() {
 		testCoverageAndDeterminism("yasa", 1, modelNames);
@@ -150,6 +434,16 @@ public class ConfigurationGeneratorTest {
 		testCoverageAndDeterminism("yasa", 3, modelNames);
 	}
 
+	@Test
+	public void YASAParallelTwoWiseCoverage() {
+		testParallelCoverageAndDeterminism("yasa", 2, 4, modelNames);
+	}
+
+	@Test
+	public void YASAParallelThreeWiseCoverage() {
+		testParallelCoverageAndDeterminism("yasa", 3, 4, modelNames);
+	}
+
 	@Test
 	public void InclingTwoWiseCoverage() {
 		testCoverageAndDeterminism("incling", 2, modelNames);
@@ -205,6 +499,17 @@ public class ConfigurationGeneratorTest {
 		}
 	}
 
+	private void testParallelCoverageAndDeterminism(final String algorithmName, final int t, final int threads, final List<String> modelNameList) {
+		for (final String modelName : modelNameList) {
+			final Path modelFile = modelDirectory.resolve(modelName + ".xml");
+			final SampleTester tester = sample(modelFile, algorithmName, t, null, threads);
+			assertFalse("Invalid solutions for " + modelName, tester.hasInvalidSolutions());
+			assertEquals("Wrong coverage for " + modelName, 1.0, tester.getCoverage(new TWiseCoverageCriterion(tester.getCnf(), t)), 0.0);
+			final SampleTester tester2 = sample(modelFile, algorithmName, t, null, threads);
+			assertEquals("Different samples for " + modelName, tester.getSample(), tester2.getSample());
+		}
+	}
+
 	private static void testSize(String modelName, String algorithm, int numberOfConfigurations) {
 		final Path modelFile = modelDirectory.resolve(modelName + ".xml");
 		final SampleTester tester = sample(modelFile, algorithm, null, null);
@@ -227,6 +532,10 @@ public class ConfigurationGeneratorTest {
 	}
 
 	private static SampleTester sample(final Path modelFile, String algorithm, Integer t, Integer limit) {
+		return sample(modelFile, algorithm, t, limit, null);
+	}
+
+	private static SampleTester sample(final Path modelFile, String algorithm, Integer t, Integer limit, Integer threads) {
 		try {
 			final Path inFile = Files.createTempFile("input", ".xml");
 			Files.write(inFile, Files.readAllBytes(modelFile));
@@ -249,6 +558,10 @@ public class ConfigurationGeneratorTest {
 				args.add("-l");
 				args.add(Integer.toString(limit));
 			}
+			if (threads != null) {
+				args.add("-threads");
+				args.add(Integer.toString(threads));
+			}
 			new ConfigurationGenerator().run(args);
 
 			final SolutionList sample = new SolutionList();
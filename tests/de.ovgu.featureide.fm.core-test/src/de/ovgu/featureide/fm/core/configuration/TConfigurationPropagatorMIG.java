@@ -0,0 +1,135 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModelProperty;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the results of {@link ConfigurationPropagatorMIG} with the results of {@link ConfigurationPropagator}.
+ */
+public class TConfigurationPropagatorMIG {
+
+	private static final int NUMBER_OF_CONFIGURATIONS = 20;
+
+	@Test
+	public void testCar() {
+		testRandomConfigurations("car.xml");
+	}
+
+	@Test
+	public void testGPL() {
+		testRandomConfigurations("gpl_medium_model.xml");
+	}
+
+	@Test
+	public void testBerkeleyDB() {
+		testRandomConfigurations("berkeley_db_model.xml");
+	}
+
+	@Test
+	public void testGeneratedModel() {
+		testRandomConfigurations("500-100.xml");
+	}
+
+	@Test
+	public void testCreate() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("car.xml");
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		final Configuration configuration = new Configuration(formula);
+		assertEquals(ConfigurationPropagator.class, ConfigurationPropagator.create(formula, configuration).getClass());
+
+		featureModel.getProperty().set(FeatureModelProperty.PROPERTY_CALCULATIONS_PROPAGATE_WITH_MIG, FeatureModelProperty.TYPE_CALCULATIONS,
+				FeatureModelProperty.VALUE_BOOLEAN_TRUE);
+		assertEquals(ConfigurationPropagatorMIG.class, ConfigurationPropagator.create(formula, configuration).getClass());
+	}
+
+	private void testRandomConfigurations(String modelName) {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName));
+		final CNF cnf = formula.getCNF();
+		final Random random = new Random(314159);
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
+
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			final List<String> manualLiterals = new ArrayList<>();
+			if ((i % 4) == 3) {
+				// Arbitrary selections that may be contradictory
+				for (int j = 0; j < 5; j++) {
+					final int var = 1 + random.nextInt(cnf.getVariables().size());
+					manualLiterals.add((random.nextBoolean() ? "" : "-") + cnf.getVariables().getName(var));
+				}
+			} else {
+				// Partial selection of a valid configuration
+				solver.shuffleOrder(random);
+				final int[] solution = solver.findSolution();
+				assertTrue(solution != null);
+				for (final int literal : solution) {
+					if (random.nextInt(8) == 0) {
+						manualLiterals.add((literal > 0 ? "" : "-") + cnf.getVariables().getName(literal));
+					}
+				}
+				Collections.shuffle(manualLiterals, random);
+			}
+
+			final Configuration expected = createConfiguration(formula, manualLiterals);
+			LongRunningWrapper.runMethod(new ConfigurationPropagator(formula, expected).update(true));
+			final Configuration actual = createConfiguration(formula, manualLiterals);
+			LongRunningWrapper.runMethod(new ConfigurationPropagatorMIG(formula, actual).update(true));
+
+			for (final SelectableFeature expectedFeature : expected.getFeatures()) {
+				final SelectableFeature actualFeature = actual.getSelectableFeature(expectedFeature.getName());
+				final String message = modelName + " " + manualLiterals + " " + expectedFeature.getName();
+				assertEquals(message, expectedFeature.getManual(), actualFeature.getManual());
+				assertEquals(message, expectedFeature.getAutomatic(), actualFeature.getAutomatic());
+			}
+		}
+	}
+
+	private Configuration createConfiguration(FeatureModelFormula formula, List<String> manualLiterals) {
+		final Configuration configuration = new Configuration(formula);
+		for (final String literal : manualLiterals) {
+			if (literal.startsWith("-")) {
+				configuration.setManual(literal.substring(1), Selection.UNSELECTED);
+			} else {
+				configuration.setManual(literal, Selection.SELECTED);
+			}
+		}
+		return configuration;
+	}
+
+}
@@ -0,0 +1,153 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.experimental;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Random;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsWriter;
+import de.ovgu.runtimetest.RuntimeTest;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.Constraint;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.WarmUp;
+
+/**
+ * This is a benchmark that compares the character-based reading of {@link DimacsReader#readCNF(java.io.Reader)} with the byte-based reading of
+ * {@link DimacsReader#readCNF(Path)} and measures the buffered {@link DimacsWriter}. As input, a random 3-CNF with a variable directory is generated.
+ */
+public class BDimacsReader extends RuntimeTest {
+
+	static {
+		disableThisTest = false;	// set this flag to true, if this test class should be skipped
+	}
+
+	private static final int ITERATIONS = 5;
+
+	private static final Path FILE = createFile(100_000, 400_000);
+	private static final Path OUTPUT_FILE = createTempFile();
+	private static final CNF CNF = readBytes();
+
+	private static Path createTempFile() {
+		try {
+			final Path file = Files.createTempFile("benchmark", ".dimacs");
+			file.toFile().deleteOnExit();
+			return file;
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Path createFile(int variableCount, int clauseCount) {
+		try {
+			final Path file = createTempFile();
+			final Random random = new Random(0);
+			final StringBuilder sb = new StringBuilder();
+			for (int i = 1; i <= variableCount; i++) {
+				sb.append("c ").append(i).append(" Feature_").append(i).append('\n');
+			}
+			sb.append("p cnf ").append(variableCount).append(' ').append(clauseCount).append('\n');
+			for (int i = 0; i < clauseCount; i++) {
+				for (int j = 0; j < 3; j++) {
+					final int variable = i < variableCount ? i + 1 : 1 + random.nextInt(variableCount);
+					sb.append(random.nextBoolean() ? variable : -variable).append(' ');
+				}
+				sb.append("0\n");
+			}
+			Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+			return file;
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static DimacsReader getReader() {
+		final DimacsReader reader = new DimacsReader();
+		reader.setReadingVariableDirectory(true);
+		return reader;
+	}
+
+	private static CNF readCharacters() {
+		try (BufferedReader in = Files.newBufferedReader(FILE, StandardCharsets.UTF_8)) {
+			return getReader().readCNF(in);
+		} catch (IOException | ParseException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static CNF readBytes() {
+		try {
+			return getReader().readCNF(FILE);
+		} catch (IOException | ParseException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void write() {
+		try {
+			new DimacsWriter(CNF).write(OUTPUT_FILE);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@WarmUp
+	public void warmup() {
+		readCharacters();
+		readBytes();
+		write();
+	}
+
+	@Constraint(samples = 5, allowedPlus = 5000)
+	public final void BReadCharacters() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			readCharacters();
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 5000)
+	public final void BReadBytes() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			readBytes();
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 5000)
+	public final void BWriteString() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			new DimacsWriter(CNF).write();
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 5000)
+	public final void BWriteFile() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			write();
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.experimental;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.io.MIGAdjListFormat;
+import de.ovgu.runtimetest.RuntimeTest;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.Constraint;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.WarmUp;
+
+/**
+ * This is a benchmark that compares the binary format of {@link MIGAdjListFormat} with the Java serialization of a {@link ModalImplicationGraph}.
+ */
+public class BMIGAdjListFormat extends RuntimeTest {
+
+	static {
+		disableThisTest = false;	// set this flag to true, if this test class should be skipped
+	}
+
+	private static final int ITERATIONS = 20;
+
+	private static final ModalImplicationGraph MIG_1000 = getMIG("1000-100.xml");
+
+	private static final byte[] SERIALIZED_1000 = serialize(MIG_1000);
+	private static final byte[] BINARY_1000 = writeBinary(MIG_1000);
+
+	private static ModalImplicationGraph getMIG(String fileName) {
+		return new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(fileName)).getElement(new ModalImplicationGraphCreator());
+	}
+
+	private static byte[] serialize(ModalImplicationGraph mig) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+			objectOut.writeObject(mig);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static ModalImplicationGraph deserialize(byte[] content) {
+		try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(content))) {
+			return (ModalImplicationGraph) objectIn.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static byte[] writeBinary(ModalImplicationGraph mig) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			new MIGAdjListFormat().write(mig, out);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static ModalImplicationGraph readBinary(byte[] content) {
+		try {
+			return new MIGAdjListFormat().read(ByteBuffer.wrap(content));
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@WarmUp
+	public void warmup() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			deserialize(serialize(MIG_1000));
+			readBinary(writeBinary(MIG_1000));
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BSerializationWrite1000() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			serialize(MIG_1000);
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BSerializationRead1000() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			deserialize(SERIALIZED_1000);
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BBinaryWrite1000() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			writeBinary(MIG_1000);
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BBinaryRead1000() {
+		for (int i = 0; i < ITERATIONS; i++) {
+			readBinary(BINARY_1000);
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.experimental;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.runtimetest.RuntimeTest;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.Constraint;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.WarmUp;
+
+/**
+ * This is a benchmark for the construction of sat solvers, which adds all clauses of a {@link CNF} to a new solver instance.
+ */
+public class BSatSolverInitialization extends RuntimeTest {
+
+	static {
+		disableThisTest = false;	// set this flag to true, if this test class should be skipped
+	}
+
+	private static final int ITERATIONS = 100;
+
+	private static final CNF CNF_200 = getCNF("200-100.xml");
+	private static final CNF CNF_500 = getCNF("500-101.xml");
+	private static final CNF CNF_1000 = getCNF("1000-100.xml");
+
+	private static CNF getCNF(String fileName) {
+		return new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(fileName)).getCNF();
+	}
+
+	private static void createAdvancedSolvers(CNF cnf) {
+		for (int i = 0; i < ITERATIONS; i++) {
+			new AdvancedSatSolver(cnf);
+		}
+	}
+
+	private static void createModifiableSolvers(CNF cnf) {
+		for (int i = 0; i < ITERATIONS; i++) {
+			new ModifiableSatSolver(cnf);
+		}
+	}
+
+	/**
+	 * Warm up the solvers to prevent unpredictable timeout exceptions.
+	 */
+	@WarmUp
+	public void warmup() {
+		for (int i = 0; i < 10; i++) {
+			createAdvancedSolvers(CNF_200);
+			createModifiableSolvers(CNF_200);
+		}
+	}
+
+	@Constraint(samples = 5, allowedPlus = 1000)
+	public final void BAdvancedSatSolver0200() {
+		createAdvancedSolvers(CNF_200);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 1000)
+	public final void BAdvancedSatSolver0500() {
+		createAdvancedSolvers(CNF_500);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BAdvancedSatSolver1000() {
+		createAdvancedSolvers(CNF_1000);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 1000)
+	public final void BModifiableSatSolver0200() {
+		createModifiableSolvers(CNF_200);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 1000)
+	public final void BModifiableSatSolver0500() {
+		createModifiableSolvers(CNF_500);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BModifiableSatSolver1000() {
+		createModifiableSolvers(CNF_1000);
+	}
+
+}
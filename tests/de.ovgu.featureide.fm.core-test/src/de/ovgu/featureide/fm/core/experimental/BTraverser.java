@@ -0,0 +1,101 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.experimental;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
+import de.ovgu.featureide.fm.core.analysis.mig.CollectingVisitor;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Traverser;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.runtimetest.RuntimeTest;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.Constraint;
+import de.ovgu.runtimetest.RuntimeTest.Annotations.WarmUp;
+
+/**
+ * This is a benchmark for the {@link Traverser} of a {@link ModalImplicationGraph}. Each iteration starts one traversal for every literal of a feature model.
+ */
+public class BTraverser extends RuntimeTest {
+
+	static {
+		disableThisTest = false;	// set this flag to true, if this test class should be skipped
+	}
+
+	private static final int ITERATIONS = 10;
+
+	private static final ModalImplicationGraph MIG_1000 = getMIG("1000-100.xml");
+	private static final ModalImplicationGraph MIG_BERKELEY = getMIG("berkeley_db_model.xml");
+
+	private static ModalImplicationGraph getMIG(String fileName) {
+		return new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(fileName)).getElement(new ModalImplicationGraphCreator());
+	}
+
+	private static void traverseAllLiterals(ModalImplicationGraph mig, boolean strong) {
+		final Traverser traverser = mig.traverse();
+		final int[] model = new int[mig.getAdjList().size() >> 1];
+		final int[] coreModel = new int[model.length];
+		for (final Vertex vertex : mig.getAdjList()) {
+			if (vertex.isCore()) {
+				coreModel[Math.abs(vertex.getVar()) - 1] = vertex.getVar();
+			}
+		}
+		traverser.setModel(model);
+		for (int i = 0; i < ITERATIONS; i++) {
+			for (final Vertex vertex : mig.getAdjList()) {
+				System.arraycopy(coreModel, 0, model, 0, model.length);
+				traverser.setVisitor(new CollectingVisitor());
+				if (strong) {
+					traverser.traverseStrong(vertex.getVar());
+				} else {
+					traverser.traverse(vertex.getVar());
+				}
+			}
+		}
+	}
+
+	@WarmUp
+	public void warmup() {
+		traverseAllLiterals(MIG_1000, false);
+		traverseAllLiterals(MIG_BERKELEY, false);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BTraverseAll1000() {
+		traverseAllLiterals(MIG_1000, false);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BTraverseStrong1000() {
+		traverseAllLiterals(MIG_1000, true);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BTraverseAllBerkeley() {
+		traverseAllLiterals(MIG_BERKELEY, false);
+	}
+
+	@Constraint(samples = 5, allowedPlus = 2000)
+	public final void BTraverseStrongBerkeley() {
+		traverseAllLiterals(MIG_BERKELEY, true);
+	}
+
+}
@@ -25,9 +25,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -45,6 +48,7 @@ import de.ovgu.featureide.fm.core.editing.Comparison;
 import de.ovgu.featureide.fm.core.editing.ModelComparator;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 
 /**
  * Basic test super-class for IFeatureModelReader/IFeatureModelWriter implementations tests will write feature-models into a string and read it back to check if
@@ -242,6 +246,22 @@ public abstract class TAbstractFeatureModelReaderWriter {
 		}
 	}
 
+	@Test
+	public void testStreaming() throws IOException {
+		final IPersistentFormat<IFeatureModel> format = getFormat().getInstance();
+		if (format.supportsStreaming()) {
+			final String write = format.write(origFm);
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			format.write(origFm, outputStream);
+			assertEquals(failureMessage, write, new String(outputStream.toByteArray(), SimpleFileHandler.DEFAULT_CHARSET));
+
+			final IFeatureModel streamedFm = FMFactoryManager.getInstance().getFactory(origFm).create();
+			final ProblemList problems = format.read(streamedFm, new ByteArrayInputStream(outputStream.toByteArray()), null);
+			assertFalse(failureMessage, problems.containsError());
+			assertEquals(failureMessage, write, format.write(streamedFm));
+		}
+	}
+
 	private final IFeatureModel writeAndReadModel() throws UnsupportedModelException {
 		IFeatureModel newFm = null;
 		newFm = FMFactoryManager.getInstance().getFactory(origFm).create();
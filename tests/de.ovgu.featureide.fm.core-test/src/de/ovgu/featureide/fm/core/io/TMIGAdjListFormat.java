@@ -0,0 +1,185 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Tests the binary format of {@link MIGAdjListFormat}.
+ */
+public class TMIGAdjListFormat {
+
+	private static final int NUMBER_OF_VARIABLES = 50;
+
+	/**
+	 * Creates a random CNF that is satisfied by selecting all variables.
+	 */
+	private static CNF createRandomCNF(Random random) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= NUMBER_OF_VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		for (int i = 0; i < (2 * NUMBER_OF_VARIABLES); i++) {
+			final int[] literals = new int[2 + random.nextInt(3)];
+			literals[0] = 1 + random.nextInt(NUMBER_OF_VARIABLES);
+			for (int j = 1; j < literals.length; j++) {
+				final int variable = 1 + random.nextInt(NUMBER_OF_VARIABLES);
+				literals[j] = random.nextBoolean() ? variable : -variable;
+			}
+			final LiteralSet clause = new LiteralSet(literals).clean();
+			if (clause != null) {
+				cnf.addClause(clause);
+			}
+		}
+		return cnf;
+	}
+
+	private static void assertEqualGraphs(ModalImplicationGraph expected, ModalImplicationGraph actual) {
+		assertEquals(expected.getAdjList().size(), actual.getAdjList().size());
+		for (int i = 0; i < expected.getAdjList().size(); i++) {
+			final Vertex vertex = expected.getAdjList().get(i);
+			final Vertex actualVertex = actual.getAdjList().get(i);
+			assertEquals(vertex.getVar(), actualVertex.getVar());
+			assertEquals(vertex.getId(), actualVertex.getId());
+			assertEquals(vertex.isCore(), actualVertex.isCore());
+			assertEquals(vertex.isDead(), actualVertex.isDead());
+			assertArrayEquals(vertex.getStrongEdges(), actualVertex.getStrongEdges());
+			assertArrayEquals(vertex.getComplexClauses(), actualVertex.getComplexClauses());
+		}
+		assertEquals(expected.getComplexClauses(), actual.getComplexClauses());
+	}
+
+	@Test
+	public void stringRoundTrip() {
+		final MIGAdjListFormat format = new MIGAdjListFormat();
+		final Random random = new Random(1);
+		for (int i = 0; i < 5; i++) {
+			final ModalImplicationGraph mig = ModalImplicationGraph.build(createRandomCNF(random), true);
+			final ModalImplicationGraph readMIG = new ModalImplicationGraph();
+			assertFalse(format.read(readMIG, format.write(mig)).containsError());
+			assertEqualGraphs(mig, readMIG);
+		}
+	}
+
+	@Test
+	public void fileRoundTrip() throws IOException {
+		final MIGAdjListFormat format = new MIGAdjListFormat();
+		final ModalImplicationGraph mig = ModalImplicationGraph.build(createRandomCNF(new Random(2)), true);
+		final Path file = Files.createTempFile("mig", "." + format.getSuffix());
+		try {
+			try (OutputStream out = Files.newOutputStream(file)) {
+				format.write(mig, out);
+			}
+			assertEqualGraphs(mig, format.read(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Saves and loads a graph via a file handler, which must not re-encode the binary content as text.
+	 */
+	@Test
+	public void fileHandlerRoundTrip() throws IOException {
+		final MIGAdjListFormat format = new MIGAdjListFormat();
+		final ModalImplicationGraph mig = ModalImplicationGraph.build(createRandomCNF(new Random(5)), true);
+		final Path file = Files.createTempFile("mig", "." + format.getSuffix());
+		try {
+			assertFalse(SimpleFileHandler.save(file, mig, format).containsError());
+			final ModalImplicationGraph readMIG = new ModalImplicationGraph();
+			assertFalse(SimpleFileHandler.load(file, readMIG, format).containsError());
+			assertEqualGraphs(mig, readMIG);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Saves a graph with a format that fails halfway, which must leave the existing file unchanged.
+	 */
+	@Test
+	public void failedSaveKeepsFile() throws IOException {
+		final MIGAdjListFormat format = new MIGAdjListFormat() {
+
+			@Override
+			public void write(ModalImplicationGraph object, OutputStream out) throws IOException {
+				out.write(new byte[] { 1, 2, 3 });
+				throw new IOException();
+			}
+		};
+		final Path file = Files.createTempFile("mig", "." + format.getSuffix());
+		try {
+			final byte[] content = { 4, 5, 6, 7 };
+			Files.write(file, content);
+			assertTrue(SimpleFileHandler.save(file, new ModalImplicationGraph(), format).containsError());
+			assertArrayEquals(content, Files.readAllBytes(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void invalidContent() {
+		final MIGAdjListFormat format = new MIGAdjListFormat();
+		final String content = format.write(ModalImplicationGraph.build(createRandomCNF(new Random(3)), true));
+		assertTrue(format.read(new ModalImplicationGraph(), "").containsError());
+		assertTrue(format.read(new ModalImplicationGraph(), content.substring(0, content.length() / 2)).containsError());
+	}
+
+	/**
+	 * Compares the size of the binary format with the size of the Java serialization of a graph.
+	 */
+	@Test
+	public void size() throws IOException {
+		final ModalImplicationGraph mig = ModalImplicationGraph.build(createRandomCNF(new Random(4)), true);
+		final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+			out.writeObject(mig);
+		}
+		final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		new MIGAdjListFormat().write(mig, binary);
+		assertTrue(binary.size() < (serialized.size() / 4));
+	}
+
+}
@@ -0,0 +1,156 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.DefaultFormat;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.XMLConfFormat;
+
+/**
+ * Tests the parallel loading and caching of {@link ConfigurationBatchLoader}.
+ */
+public class TConfigurationBatchLoader {
+
+	private static final int NUMBER_OF_CONFIGURATIONS = 40;
+
+	private static FeatureModelFormula loadFormula() {
+		final IFeatureModel featureModel =
+			FeatureModelManager.load(Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).toPath().resolve("car.xml"));
+		return new FeatureModelFormula(featureModel);
+	}
+
+	private static List<Path> writeConfigurations(FeatureModelFormula formula, Path folder) {
+		final Random random = new Random(0);
+		final List<Path> files = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			final Configuration configuration = new Configuration(formula);
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				feature.setManual(random.nextBoolean() ? Selection.SELECTED : Selection.UNDEFINED);
+			}
+			final Path file;
+			if ((i % 2) == 0) {
+				final XMLConfFormat format = new XMLConfFormat();
+				file = folder.resolve(i + "." + format.getSuffix());
+				assertFalse(SimpleFileHandler.save(file, configuration, format).containsError());
+			} else {
+				final DefaultFormat format = new DefaultFormat();
+				file = folder.resolve(i + "." + format.getSuffix());
+				assertFalse(SimpleFileHandler.save(file, configuration, format).containsError());
+			}
+			files.add(file);
+		}
+		return files;
+	}
+
+	private static void delete(Path folder, List<Path> files) throws IOException {
+		for (final Path file : files) {
+			Files.deleteIfExists(file);
+		}
+		Files.deleteIfExists(folder);
+	}
+
+	@Test
+	public void testLoad() throws IOException {
+		final FeatureModelFormula formula = loadFormula();
+		final Path folder = Files.createTempDirectory("configs");
+		final List<Path> files = writeConfigurations(formula, folder);
+		try {
+			final ConfigurationBatchLoader loader = new ConfigurationBatchLoader(formula);
+			loader.setThreads(4);
+			final List<FileHandler<Configuration>> fileHandlers = loader.load(files);
+			assertEquals(files.size(), fileHandlers.size());
+			for (int i = 0; i < files.size(); i++) {
+				final FileHandler<Configuration> fileHandler = fileHandlers.get(i);
+				assertEquals(files.get(i), fileHandler.getPath());
+				assertFalse(fileHandler.getLastProblems().containsError());
+
+				final Configuration configuration = fileHandler.getObject();
+				assertSame(formula, configuration.getFeatureModelFormula());
+
+				final Configuration expected = ConfigurationManager.load(files.get(i));
+				expected.updateFeatures(formula);
+				for (final SelectableFeature feature : configuration.getFeatures()) {
+					final IFeature modelFeature = formula.getFeatureModel().getFeature(feature.getName());
+					assertSame(modelFeature, feature.getFeature());
+					assertSame(modelFeature.getName(), feature.getName());
+					assertEquals(expected.getSelectableFeature(feature.getName()).getSelection(), feature.getSelection());
+				}
+			}
+		} finally {
+			delete(folder, files);
+		}
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		final FeatureModelFormula formula = loadFormula();
+		final Path folder = Files.createTempDirectory("configs");
+		final List<Path> files = writeConfigurations(formula, folder);
+		try {
+			final ConfigurationBatchLoader loader = new ConfigurationBatchLoader(formula);
+			final List<FileHandler<Configuration>> firstLoad = loader.load(files);
+			final List<FileHandler<Configuration>> secondLoad = loader.load(files);
+			for (int i = 0; i < files.size(); i++) {
+				assertSame(firstLoad.get(i).getObject(), secondLoad.get(i).getObject());
+			}
+
+			final Path changedFile = files.get(0);
+			final FileTime lastModifiedTime = Files.getLastModifiedTime(changedFile);
+			final Configuration changedConfiguration = new Configuration(formula);
+			assertFalse(SimpleFileHandler.save(changedFile, changedConfiguration, new XMLConfFormat()).containsError());
+			Files.setLastModifiedTime(changedFile, lastModifiedTime);
+
+			final FileHandler<Configuration> reloaded = loader.load(changedFile);
+			assertNotSame(firstLoad.get(0).getObject(), reloaded.getObject());
+			for (final SelectableFeature feature : reloaded.getObject().getFeatures()) {
+				assertEquals(Selection.UNDEFINED, feature.getManual());
+			}
+
+			Files.delete(changedFile);
+			assertTrue(loader.load(changedFile).getLastProblems().containsError());
+		} finally {
+			delete(folder, files);
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+
+/**
+ * Tests {@link FeatureModelManager}.
+ */
+public class TFeatureModelManager {
+
+	private static Path copyTestModel() throws IOException {
+		final Path path = Files.createTempFile("model", ".xml");
+		Files.copy(Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).toPath().resolve("car.xml"), path,
+				StandardCopyOption.REPLACE_EXISTING);
+		return path;
+	}
+
+	private static IFeature getRoot(IFeatureModel featureModel) {
+		return featureModel.getStructure().getRoot().getFeature();
+	}
+
+	@Test
+	public void testEditAndSave() throws IOException {
+		final Path path = copyTestModel();
+		final FeatureModelManager manager = FeatureModelManager.getInstance(path);
+		try {
+			assertNotNull(manager);
+			assertFalse(manager.hasChanged());
+
+			manager.editObject(featureModel -> getRoot(featureModel).getProperty().setDescription("changed"), FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertTrue(manager.hasChanged());
+
+			manager.editObject(featureModel -> getRoot(featureModel).getProperty().setDescription(""), FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertFalse(manager.hasChanged());
+
+			manager.editObject(featureModel -> getRoot(featureModel).getProperty().setDescription("changed"), FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertFalse(manager.save().containsError());
+			assertFalse(manager.hasChanged());
+			assertEquals("changed", getRoot(manager.getObject()).getProperty().getDescription());
+		} finally {
+			manager.dispose();
+			Files.deleteIfExists(path);
+		}
+	}
+
+	/**
+	 * Edits that collide for {@link String#hashCode()} or for a sum over the property entries must still be detected.
+	 */
+	@Test
+	public void testFingerprintCollisions() throws IOException {
+		final Path path = copyTestModel();
+		final FeatureModelManager manager = FeatureModelManager.getInstance(path);
+		try {
+			assertEquals("Aa".hashCode(), "BB".hashCode());
+			manager.editObject(featureModel -> getRoot(featureModel).getProperty().setDescription("Aa"), FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertFalse(manager.save().containsError());
+			manager.editObject(featureModel -> getRoot(featureModel).getProperty().setDescription("BB"), FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertTrue(manager.hasChanged());
+
+			manager.editObject(featureModel -> {
+				getRoot(featureModel).getCustomProperties().set("first", "string", "1");
+				getRoot(featureModel).getCustomProperties().set("second", "string", "2");
+			}, FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertFalse(manager.save().containsError());
+			manager.editObject(featureModel -> {
+				getRoot(featureModel).getCustomProperties().set("first", "string", "2");
+				getRoot(featureModel).getCustomProperties().set("second", "string", "1");
+			}, FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertTrue(manager.hasChanged());
+		} finally {
+			manager.dispose();
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testPreviousFormula() throws IOException {
+		final Path path = copyTestModel();
+		final FeatureModelManager manager = FeatureModelManager.getInstance(path);
+		try {
+			final FeatureModelFormula formula = manager.getVariableFormula();
+			formula.getElement(new ModalImplicationGraphCreator());
+			manager.editObject(featureModel -> {
+				final IFeature child = getRoot(featureModel).getStructure().getFirstChild().getFeature();
+				child.getStructure().setMandatory(!child.getStructure().isMandatory());
+			}, FeatureModelManager.CHANGE_DEPENDENCIES);
+
+			final FeatureModelFormula newFormula = manager.getVariableFormula();
+			assertSame(formula, newFormula.getPreviousFormula());
+			newFormula.getElement(new ModalImplicationGraphCreator());
+			// The previous formula is released after the update
+			assertNull(newFormula.getPreviousFormula());
+		} finally {
+			manager.dispose();
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testEvent() throws IOException {
+		final Path path = copyTestModel();
+		final FeatureModelManager manager = FeatureModelManager.getInstance(path);
+		try {
+			assertFalse(manager.hasChanged());
+
+			final IFeature root = getRoot(manager.getVarObject());
+			root.getStructure().setHidden(!root.getStructure().isHidden());
+			manager.fireEvent(new FeatureIDEEvent(root, EventType.FEATURE_HIDDEN_CHANGED));
+			assertTrue(manager.hasChanged());
+		} finally {
+			manager.dispose();
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testExternalChange() throws IOException {
+		final Path path = copyTestModel();
+		final FeatureModelManager manager = FeatureModelManager.getInstance(path);
+		try {
+			manager.editObject(featureModel -> getRoot(featureModel).getProperty().setDescription("changed"), FeatureModelManager.CHANGE_ATTRIBUTES);
+			assertFalse(manager.save().containsError());
+
+			final String content = new String(Files.readAllBytes(path), SimpleFileHandler.DEFAULT_CHARSET);
+			Files.write(path, content.replace("changed", "external").getBytes(SimpleFileHandler.DEFAULT_CHARSET));
+			// The default external change listener overwrites the variable object
+			assertFalse(manager.read().containsError());
+			assertEquals("external", getRoot(manager.getObject()).getProperty().getDescription());
+			assertEquals("external", getRoot(manager.getVarObject()).getProperty().getDescription());
+			assertFalse(manager.hasChanged());
+		} finally {
+			manager.dispose();
+			Files.deleteIfExists(path);
+		}
+	}
+
+}
@@ -0,0 +1,212 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.sample;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.csv.ConfigurationListFormat;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+
+/**
+ * Tests {@link CSVConfigurationListWriter} and {@link BinaryConfigurationListWriter}.
+ */
+public class TConfigurationListWriter {
+
+	private static final int NUMBER_OF_VARIABLES = 13;
+	private static final int NUMBER_OF_CONFIGURATIONS = 100;
+
+	private static Variables createVariables() {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= NUMBER_OF_VARIABLES; i++) {
+			names.add("v" + i);
+		}
+		return new Variables(names);
+	}
+
+	private static List<LiteralSet> createConfigurations(Random random) {
+		final List<LiteralSet> configurations = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			final int[] literals = new int[NUMBER_OF_VARIABLES];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = random.nextBoolean() ? (j + 1) : -(j + 1);
+			}
+			configurations.add(new LiteralSet(literals, Order.INDEX, false));
+		}
+		return configurations;
+	}
+
+	private static void write(AConfigurationListWriter writer, List<LiteralSet> configurations) throws IOException {
+		try {
+			for (final LiteralSet configuration : configurations) {
+				writer.add(configuration);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static List<LiteralSet> resume(AConfigurationListWriter writer) throws IOException {
+		final List<LiteralSet> existing = new ArrayList<>();
+		writer.resume(existing::add);
+		return existing;
+	}
+
+	private static void truncate(Path path, long bytes) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - bytes);
+		}
+	}
+
+	@Test
+	public void testCSVCompatibility() throws IOException {
+		final Variables variables = createVariables();
+		final List<LiteralSet> configurations = createConfigurations(new Random(0));
+		final Path path = Files.createTempFile("sample", ".csv");
+		try {
+			final CSVConfigurationListWriter writer = new CSVConfigurationListWriter(path, variables);
+			writer.setFlushInterval(7);
+			writer.open();
+			write(writer, configurations);
+
+			final String expected = new ConfigurationListFormat().write(new SolutionList(variables, configurations));
+			assertEquals(expected, new String(Files.readAllBytes(path), "UTF-8"));
+
+			final SolutionList solutionList = new SolutionList();
+			final ProblemList problems = FileHandler.load(path, solutionList, new ConfigurationListFormat());
+			assertFalse(problems.containsError());
+			assertEquals(configurations, solutionList.getSolutions());
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testCSVResume() throws IOException {
+		final Variables variables = createVariables();
+		final List<LiteralSet> configurations = createConfigurations(new Random(1));
+		final Path path = Files.createTempFile("sample", ".csv");
+		try {
+			final CSVConfigurationListWriter writer = new CSVConfigurationListWriter(path, variables);
+			writer.open();
+			write(writer, configurations.subList(0, 60));
+			// Simulate a crash while writing the last configuration
+			truncate(path, 5);
+
+			final CSVConfigurationListWriter resumedWriter = new CSVConfigurationListWriter(path, variables);
+			assertEquals(configurations.subList(0, 59), resume(resumedWriter));
+			assertEquals(59, resumedWriter.getCount());
+			write(resumedWriter, configurations.subList(59, configurations.size()));
+
+			final SolutionList solutionList = new SolutionList();
+			assertFalse(FileHandler.load(path, solutionList, new ConfigurationListFormat()).containsError());
+			assertEquals(configurations, solutionList.getSolutions());
+			assertEquals(new ConfigurationListFormat().write(new SolutionList(variables, configurations)),
+					new String(Files.readAllBytes(path), "UTF-8"));
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testBinaryResume() throws IOException {
+		final Variables variables = createVariables();
+		final List<LiteralSet> configurations = createConfigurations(new Random(2));
+		final Path path = Files.createTempFile("sample", ".bin");
+		try {
+			final BinaryConfigurationListWriter writer = new BinaryConfigurationListWriter(path, variables);
+			writer.open();
+			write(writer, configurations.subList(0, 60));
+			truncate(path, 1);
+
+			final BinaryConfigurationListWriter resumedWriter = new BinaryConfigurationListWriter(path, variables);
+			assertEquals(configurations.subList(0, 59), resume(resumedWriter));
+			write(resumedWriter, configurations.subList(59, configurations.size()));
+
+			final List<LiteralSet> readConfigurations = new ArrayList<>();
+			assertEquals(variables, BinaryConfigurationListWriter.read(path, readConfigurations::add));
+			assertEquals(configurations, readConfigurations);
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testIncompleteConfiguration() throws IOException {
+		final Variables variables = createVariables();
+		final List<LiteralSet> configurations = createConfigurations(new Random(4));
+		final Path path = Files.createTempFile("sample", ".csv");
+		try {
+			final CSVConfigurationListWriter writer = new CSVConfigurationListWriter(path, variables);
+			writer.open();
+			try {
+				writer.add(configurations.get(0));
+				try {
+					writer.add(new LiteralSet(new int[] { 1, -2 }, Order.INDEX, false));
+					fail();
+				} catch (final IllegalArgumentException e) {}
+				writer.add(configurations.get(1));
+			} finally {
+				writer.close();
+			}
+
+			final SolutionList solutionList = new SolutionList();
+			assertFalse(FileHandler.load(path, solutionList, new ConfigurationListFormat()).containsError());
+			assertEquals(configurations.subList(0, 2), solutionList.getSolutions());
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testResumeWithOtherVariables() throws IOException {
+		final Path path = Files.createTempFile("sample", ".bin");
+		try {
+			final BinaryConfigurationListWriter writer = new BinaryConfigurationListWriter(path, createVariables());
+			writer.open();
+			write(writer, createConfigurations(new Random(3)));
+
+			final List<String> names = new ArrayList<>();
+			names.add("other");
+			resume(new BinaryConfigurationListWriter(path, new Variables(names)));
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+}
@@ -22,7 +22,10 @@ package de.ovgu.featureide.fm.core.io.xml;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 
 import org.junit.Test;
 import org.prop4j.Node;
@@ -37,6 +40,7 @@ import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.TAbstractFeatureModelReaderWriter;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 
 /**
  * Class to test the collapse feature of XmlFeatureModelFormat.java
@@ -155,6 +159,19 @@ public class TXMLFeatureModelFormat extends TAbstractFeatureModelReaderWriter {
 		}
 	}
 
+	@Test
+	public void testStreamedFormat() throws IOException {
+		final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+		final String output = format.write(origFm);
+		final ByteArrayOutputStream streamOutput = new ByteArrayOutputStream();
+		format.write(origFm, streamOutput);
+		assertEquals(failureMessage, output, new String(streamOutput.toByteArray(), SimpleFileHandler.DEFAULT_CHARSET));
+
+		final IFeatureModel streamedFm = DefaultFeatureModelFactory.getInstance().create();
+		format.read(streamedFm, new ByteArrayInputStream(streamOutput.toByteArray()), null);
+		assertEquals(failureMessage, output, format.write(streamedFm));
+	}
+
 	/*
 	 * @see de.ovgu.featureide.fm.core.io.TAbstractFeatureModelReaderWriter#getFormat()
 	 */
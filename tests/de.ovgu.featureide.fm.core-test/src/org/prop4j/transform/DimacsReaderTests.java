@@ -21,9 +21,19 @@
 package org.prop4j.transform;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
+import java.util.Random;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,6 +43,7 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
 
 /**
@@ -373,6 +384,59 @@ public class DimacsReaderTests {
 		assertEquals(expected, actual);
 	}
 
+	@Test
+	public void testVariableDirectoryBytes() throws ParseException, IOException {
+		final String s = "" + "c 2 B\u00e4r\r\n" + "c 1 Foo\r" + "c 1 Foo\r\n" + "c 4 Foo\n" + "p cnf 4 3\r\n" + "1 -3 0\r\n" + "2 3 -1 0 4\r" + "0";
+		final DimacsReader r = new DimacsReader();
+		r.setReadingVariableDirectory(true);
+		assertEquals(r.readCNF(new StringReader(s)), r.readCNF(s));
+	}
+
+	@Test
+	public void testLargeInputBytes() throws ParseException, IOException {
+		final String s = getRandomCNF(new Random(0), 2000, 20000);
+		final DimacsReader r = new DimacsReader();
+		r.setReadingVariableDirectory(true);
+		final CNF expected = r.readCNF(new StringReader(s));
+		final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+		final ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length);
+		directBuffer.put(bytes).flip();
+		assertEquals(expected, r.readCNF(directBuffer));
+
+		try (ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes))) {
+			assertEquals(expected, r.readCNF(channel));
+		}
+
+		final Path file = Files.createTempFile("cnf", ".dimacs");
+		try {
+			Files.write(file, bytes);
+			assertEquals(expected, r.readCNF(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private String getRandomCNF(Random random, int variableCount, int clauseCount) {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 1; i <= variableCount; i += 2) {
+			sb.append("c ").append(i).append(" Variable").append(i).append("\r\n");
+		}
+		sb.append("p cnf ").append(variableCount).append(' ').append(clauseCount).append("\r\n");
+		for (int i = 1; i <= variableCount; i++) {
+			sb.append(i).append(' ');
+		}
+		sb.append("0\r\n");
+		for (int i = 1; i < clauseCount; i++) {
+			final int clauseSize = 1 + random.nextInt(5);
+			for (int j = 0; j < clauseSize; j++) {
+				sb.append(random.nextBoolean() ? '-' : "").append(1 + random.nextInt(variableCount)).append(' ');
+			}
+			sb.append((i % 100) == 0 ? "\n0 " : "0\r\n");
+		}
+		return sb.toString();
+	}
+
 	private void testEquals(String s) throws ParseException, IOException {
 		testEquals(s, getDefaultExpected());
 	}
@@ -380,9 +444,14 @@ public class DimacsReaderTests {
 	private void testEquals(String s, Node expected) throws ParseException, IOException {
 		final Node actual = new DimacsReader().read(s);
 		assertEquals(expected, actual);
+		assertEquals(new DimacsReader().readCNF(new StringReader(s)), new DimacsReader().readCNF(s));
 	}
 
 	private void testException(String s) throws ParseException, IOException {
+		try {
+			new DimacsReader().readCNF(s);
+			fail();
+		} catch (final ParseException e) {}
 		exception.expect(ParseException.class);
 		new DimacsReader().read(s);
 	}